@@ -32,6 +32,28 @@ const throwConnectException = (errorJson: ConnectExceptionData) => {
   }
 };
 
+/**
+ * Keeps the undefined values in an object after JSON.stringify.
+ * @param obj The object to convert.
+ * @ignore
+ */
+const nullForUndefined = (obj: any): any => {
+  for (const property in obj) {
+    if (obj[property] === undefined) {
+      obj[property] = null;
+    }
+  }
+  return obj;
+};
+
+/**
+ * Serializes the params of a call into a JSON request body.
+ * @param params The params to serialize.
+ * @ignore
+ */
+const paramsToBody = (params?: any): string | undefined =>
+  params !== undefined ? JSON.stringify(nullForUndefined(params)) : undefined;
+
 /**
  * Throws a TypeError if the response is not 200 OK.
  * @param response The response to assert.
@@ -174,6 +196,10 @@ export interface ConnectClientOptions {
    */
   middlewares?: Middleware[];
 
+  /**
+   * The `batch` property value.
+   */
+  batch?: boolean;
 }
 
 export interface EndpointCallMetaInfo {
@@ -193,6 +219,22 @@ export interface EndpointCallMetaInfo {
   params?: any;
 }
 
+/**
+ * The result of a call in the response to a batch request.
+ */
+interface BatchCallResult {
+  status: number;
+  body?: any;
+}
+
+/**
+ * A call waiting to be sent in the next batch request.
+ */
+interface PendingCall extends EndpointCallMetaInfo {
+  resolve: (value: any) => void;
+  reject: (error: any) => void;
+}
+
 /**
  * An object with the call arguments and the related Request instance.
  * See also {@link ConnectClient.call | the call() method in ConnectClient}.
@@ -258,6 +300,18 @@ export type Middleware = MiddlewareClass | MiddlewareFunction;
  *
  * The default prefix is '/connect'.
  *
+ * ### Batching
+ *
+ * When the `batch` option is enabled, the calls made in the same microtask,
+ * for example all the calls made synchronously when a view is initialized,
+ * are sent to the server in a single `${prefix}/batch` request:
+ * ```js
+ * const client = new ConnectClient({batch: true});
+ * ```
+ *
+ * The middlewares are invoked once for a batch request, with `batch` as the
+ * method name and the array of the calls as the parameters.
+ *
  */
 export class ConnectClient {
   /**
@@ -270,6 +324,13 @@ export class ConnectClient {
    */
   middlewares: Middleware[] = [];
 
+  /**
+   * Whether the calls made in the same microtask are sent in a single
+   * request.
+   */
+  batch: boolean = false;
+
+  private pendingCalls: PendingCall[] = [];
 
   /**
    * @param options Constructor options.
@@ -283,6 +344,10 @@ export class ConnectClient {
       this.middlewares = options.middlewares;
     }
 
+    if (options.batch) {
+      this.batch = options.batch;
+    }
+
     // add connection indicator to DOM
     ConnectionIndicator.create();
 
@@ -322,27 +387,91 @@ export class ConnectClient {
       );
     }
 
+    if (this.batch) {
+      return new Promise((resolve, reject) => {
+        this.pendingCalls.push({endpoint, method, params, resolve, reject});
+        if (this.pendingCalls.length === 1) {
+          // The calls made until the end of the current microtask are sent
+          // together
+          Promise.resolve().then(() => this.sendBatch());
+        }
+      });
+    }
+
+    return this.send(
+      `${this.prefix}/${endpoint}/${method}`,
+      {endpoint, method, params},
+      paramsToBody(params)
+    );
+  }
+
+  private async sendBatch() {
+    const calls = this.pendingCalls;
+    this.pendingCalls = [];
+    if (calls.length === 1) {
+      const {endpoint, method, params, resolve, reject} = calls[0];
+      this.send(
+        `${this.prefix}/${endpoint}/${method}`,
+        {endpoint, method, params},
+        paramsToBody(params)
+      ).then(resolve, reject);
+      return;
+    }
+
+    const batchCalls = calls.map(({endpoint, method, params}) => ({
+      endpoint,
+      method,
+      params: params !== undefined ? nullForUndefined(params) : undefined
+    }));
+    let results: BatchCallResult[];
+    try {
+      results = await this.send(
+        `${this.prefix}/batch`,
+        {endpoint: '', method: 'batch', params: batchCalls},
+        JSON.stringify(batchCalls)
+      );
+    } catch (error) {
+      calls.forEach(call => call.reject(error));
+      return;
+    }
+
+    calls.forEach((call, index) => {
+      const result = results[index];
+      if (result && result.status === 200) {
+        call.resolve(result.body);
+        return;
+      }
+      try {
+        if (result && result.body && result.body.message) {
+          throwConnectException(result.body);
+        }
+        throw new EndpointError(
+          'expected "200 OK" response, but got ' +
+          (result ? result.status : 'no response')
+        );
+      } catch (error) {
+        call.reject(error);
+      }
+    });
+  }
+
+  private async send(
+    url: string,
+    callInfo: EndpointCallMetaInfo,
+    body: string | undefined
+  ): Promise<any> {
+    const {endpoint, method, params} = callInfo;
     const headers: Record<string, string> = {
       'Accept': 'application/json',
       'Content-Type': 'application/json',
       'X-CSRF-Token': $wnd.Vaadin.TypeScript && $wnd.Vaadin.TypeScript.csrfToken || ''
     };
 
-    // helper to keep the undefined value in object after JSON.stringify
-    const nullForUndefined = (obj: any): any => {
-      for (const property in obj) {
-        if (obj[property] === undefined) {
-          obj[property] = null;
-        }
-      }
-      return obj;
-    }
-
     const request = new Request(
-      `${this.prefix}/${endpoint}/${method}`, {
+      url, {
         method: 'POST',
         headers,
-        body: params !== undefined ? JSON.stringify(nullForUndefined(params)) : undefined
+        body
       });
 
     // The middleware `context`, includes the call arguments and the request
@@ -511,4 +511,97 @@ describe('ConnectClient', () => {
       });
     });
   });
+
+  describe('batch', () => {
+    let client: ConnectClient;
+
+    beforeEach(() => {
+      client = new ConnectClient({batch: true});
+    });
+
+    afterEach(() => fetchMock.restore());
+
+    it('should support batch option', () => {
+      expect(client).to.have.property('batch', true);
+      expect(new ConnectClient()).to.have.property('batch', false);
+    });
+
+    it('should send calls made in the same microtask in one request', async() => {
+      fetchMock.post(base + '/connect/batch', [
+        {status: 200, body: 'foo'},
+        {status: 200, body: {bar: 'bar'}}
+      ]);
+
+      const results = await Promise.all([
+        client.call('FooEndpoint', 'fooMethod', {fooParam: 'foo'}),
+        client.call('BarEndpoint', 'barMethod')
+      ]);
+
+      expect(results).to.deep.equal(['foo', {bar: 'bar'}]);
+      expect(fetchMock.calls()).to.have.lengthOf(1);
+      expect(await fetchMock.lastCall().request.json()).to.deep.equal([
+        {endpoint: 'FooEndpoint', method: 'fooMethod', params: {fooParam: 'foo'}},
+        {endpoint: 'BarEndpoint', method: 'barMethod'}
+      ]);
+    });
+
+    it('should send a single call to the endpoint method', async() => {
+      fetchMock.post(base + '/connect/FooEndpoint/fooMethod', {fooData: 'foo'});
+
+      const data = await client.call('FooEndpoint', 'fooMethod');
+
+      expect(data).to.deep.equal({fooData: 'foo'});
+      expect(fetchMock.lastUrl()).to.equal(base + '/connect/FooEndpoint/fooMethod');
+    });
+
+    it('should reject only the failed calls of a batch', async() => {
+      fetchMock.post(base + '/connect/batch', [
+        {status: 400, body: {message: 'Something bad happened', type: 'com.example.MyException'}},
+        {status: 200, body: 'bar'},
+        {status: 404}
+      ]);
+
+      const [failed, succeeded, missing] = await Promise.all([
+        client.call('FooEndpoint', 'fooMethod').catch(error => error),
+        client.call('BarEndpoint', 'barMethod'),
+        client.call('BazEndpoint', 'bazMethod').catch(error => error)
+      ]);
+
+      expect(failed).to.be.instanceOf(EndpointError)
+        .and.have.property('message').that.has.string('Something bad happened');
+      expect(failed).to.have.property('type', 'com.example.MyException');
+      expect(succeeded).to.equal('bar');
+      expect(missing).to.be.instanceOf(EndpointError)
+        .and.have.property('message').that.has.string('404');
+    });
+
+    it('should reject all the calls if the batch request fails', async() => {
+      fetchMock.post(base + '/connect/batch', 500);
+
+      const errors = await Promise.all([
+        client.call('FooEndpoint', 'fooMethod').catch(error => error),
+        client.call('BarEndpoint', 'barMethod').catch(error => error)
+      ]);
+
+      expect(errors[0]).to.be.instanceOf(EndpointError);
+      expect(errors[1]).to.equal(errors[0]);
+    });
+
+    it('should invoke middlewares once for a batch', async() => {
+      fetchMock.post(base + '/connect/batch', [{status: 200}, {status: 200}]);
+      const spyMiddleware = sinon.spy(async(context: any, next?: any) => {
+        expect(context.method).to.equal('batch');
+        expect(context.params).to.have.lengthOf(2);
+        return next(context);
+      });
+      client.middlewares = [spyMiddleware];
+
+      await Promise.all([
+        client.call('FooEndpoint', 'fooMethod'),
+        client.call('BarEndpoint', 'barMethod')
+      ]);
+
+      (expect(spyMiddleware).to.be as any).calledOnce;
+    });
+  });
 });
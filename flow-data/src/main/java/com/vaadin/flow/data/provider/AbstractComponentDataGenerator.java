@@ -15,6 +15,7 @@
  */
 package com.vaadin.flow.data.provider;
 
+import java.util.ArrayDeque;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -24,6 +25,11 @@ import com.vaadin.flow.dom.Element;
 /**
  * Abstract class used as base for DataGenerators that need to manage the
  * lifecycle of components, according to what items are requested or destroyed.
+ * <p>
+ * The components of destroyed items can be kept in a pool, attached to the
+ * container, and reused for new items through
+ * {@link #updateComponent(Component, Object)}, see
+ * {@link #getComponentPoolSize()}.
  * 
  * 
  * @author Vaadin Ltd
@@ -37,6 +43,9 @@ public abstract class AbstractComponentDataGenerator<T>
 
     private final Map<String, Component> renderedComponents = new HashMap<>();
 
+    // Components of destroyed items, still attached to the container
+    private final ArrayDeque<Component> pooledComponents = new ArrayDeque<>();
+
     @Override
     public void refreshData(T item) {
         String itemKey = getItemKey(item);
@@ -58,7 +67,11 @@ public abstract class AbstractComponentDataGenerator<T>
         String itemKey = getItemKey(item);
         Component renderedComponent = renderedComponents.remove(itemKey);
         if (renderedComponent != null) {
-            renderedComponent.getElement().removeFromParent();
+            if (pooledComponents.size() < getComponentPoolSize()) {
+                pooledComponents.push(renderedComponent);
+            } else {
+                renderedComponent.getElement().removeFromParent();
+            }
         }
     }
 
@@ -67,6 +80,57 @@ public abstract class AbstractComponentDataGenerator<T>
         renderedComponents.values().forEach(
                 component -> component.getElement().removeFromParent());
         renderedComponents.clear();
+        pooledComponents.forEach(
+                component -> component.getElement().removeFromParent());
+        pooledComponents.clear();
+    }
+
+    /**
+     * Gets the maximum number of components of destroyed items to keep for
+     * reuse. The pooled components stay attached to the container, so that
+     * neither their state nodes nor their DOM on the client side need to be
+     * created again. By default no components are pooled.
+     * 
+     * @return the maximum number of pooled components, {@code 0} to not pool
+     *         components
+     * @see #createOrReuseComponent(Object)
+     */
+    protected int getComponentPoolSize() {
+        return 0;
+    }
+
+    /**
+     * Gets a component for an item that doesn't have one yet. A pooled
+     * component is reused by updating it for the item with
+     * {@link #updateComponent(Component, Object)} if there is one, otherwise
+     * a new component is created with {@link #createComponent(Object)}. If
+     * the update returns a different component, the pooled one is discarded.
+     * 
+     * @param item
+     *            the data item, possibly <code>null</code>
+     * @return a {@link Component} which represents the provided item
+     */
+    protected Component createOrReuseComponent(T item) {
+        Component pooledComponent = pooledComponents.poll();
+        if (pooledComponent == null) {
+            return createComponent(item);
+        }
+        Component component = updateComponent(pooledComponent, item);
+        if (component != pooledComponent) {
+            pooledComponent.getElement().removeFromParent();
+        }
+        return component;
+    }
+
+    /**
+     * Components can only be created and attached with the session lock held,
+     * so the data is always generated by the thread holding it.
+     *
+     * @return {@code false}
+     */
+    @Override
+    public final boolean isThreadSafe() {
+        return false;
     }
 
     /**
@@ -125,7 +189,11 @@ public abstract class AbstractComponentDataGenerator<T>
             Component component) {
 
         Element element = component.getElement();
-        getContainer().appendChild(element);
+        Element container = getContainer();
+        // A reused component is already attached
+        if (!container.equals(element.getParent())) {
+            container.appendChild(element);
+        }
         renderedComponents.put(itemKey, component);
     }
 
@@ -0,0 +1,336 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.vaadin.flow.data.provider.DataChangeEvent.DataRefreshEvent;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.shared.Registration;
+
+/**
+ * A data provider wrapper that caches the results of the queries to the
+ * wrapped data provider, so that repeating a query, e.g. after a sort order
+ * change has been reverted or when several users look at the same data, doesn't
+ * reach the back end again.
+ * <p>
+ * Queries are considered the same when they have the same offset, limit, sort
+ * orders, filter and in-memory sorting comparator instance. The item count is
+ * cached by the filter only. Each cached result is kept until it has been
+ * cached for the given time to live, or until it is the least recently used one
+ * when the cache is full.
+ * <p>
+ * The cache is cleared when {@link #refreshAll()} is called for this data
+ * provider or the wrapped one. {@link #refreshItem(Object)} drops the cached
+ * items but keeps the cached item counts. To notice the changes of the wrapped
+ * data provider, this data provider listens to it while it has listeners of
+ * its own, such as the components it is used in. Queries are only cached
+ * while it has listeners, and the cache is cleared when the last listener is
+ * removed.
+ * <p>
+ * With {@link Scope#APPLICATION} the cache is shared by all the users of this
+ * data provider instance, and so are the cached items: the same item instances
+ * are returned to all the sessions. The items should therefore be immutable,
+ * or at least never modified by the users of this data provider. With
+ * {@link Scope#SESSION} each session has a cache of its own, stored in a
+ * session attribute, and queries are only cached when the session is locked by
+ * the current thread.
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ *
+ * @param <T>
+ *            data provider data type
+ * @param <F>
+ *            query filter type
+ */
+public class CachingDataProvider<T, F> extends DataProviderWrapper<T, F, F> {
+
+    /**
+     * The scope of the cached query results.
+     */
+    public enum Scope {
+        /**
+         * One cache shared by all the sessions. The cached items are shared
+         * too, so they should not be modified.
+         */
+        APPLICATION,
+        /**
+         * One cache for each session.
+         */
+        SESSION;
+    }
+
+    private final Scope scope;
+    private final int maxEntries;
+    private final Duration timeToLive;
+    private final QueryCache applicationCache;
+
+    // Cached results of older generations are no longer valid
+    private final AtomicLong fetchGeneration = new AtomicLong();
+    private final AtomicLong sizeGeneration = new AtomicLong();
+
+    // Guarded by this, the wrapped data provider is listened to while this
+    // one has listeners
+    private volatile int listenerCount;
+    private Registration dataProviderRegistration;
+
+    /**
+     * Creates a caching wrapper for the given data provider.
+     *
+     * @param dataProvider
+     *            the wrapped data provider, not <code>null</code>
+     * @param scope
+     *            the scope of the cached results, not <code>null</code>
+     * @param maxEntries
+     *            the maximum number of cached query results in each cache,
+     *            positive
+     * @param timeToLive
+     *            how long to cache each query result, positive, not
+     *            <code>null</code>
+     */
+    public CachingDataProvider(DataProvider<T, F> dataProvider, Scope scope,
+            int maxEntries, Duration timeToLive) {
+        super(dataProvider);
+        this.scope = Objects.requireNonNull(scope, "The scope cannot be null");
+        Objects.requireNonNull(timeToLive, "The time to live cannot be null");
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException(
+                    "The maximum number of entries must be positive");
+        }
+        if (timeToLive.isZero() || timeToLive.isNegative()) {
+            throw new IllegalArgumentException(
+                    "The time to live must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.timeToLive = timeToLive;
+        applicationCache = scope == Scope.APPLICATION
+                ? new QueryCache(maxEntries, timeToLive)
+                : null;
+    }
+
+    /**
+     * Gets the scope of the cached query results.
+     *
+     * @return the scope
+     */
+    public Scope getScope() {
+        return scope;
+    }
+
+    @Override
+    public Registration addDataProviderListener(
+            DataProviderListener<T> listener) {
+        // Invalidates the cache before the listener is notified
+        startListening();
+        Registration registration = super.addDataProviderListener(listener);
+        AtomicBoolean removed = new AtomicBoolean();
+        return () -> {
+            if (removed.compareAndSet(false, true)) {
+                registration.remove();
+                stopListening();
+            }
+        };
+    }
+
+    private synchronized void startListening() {
+        if (listenerCount++ == 0) {
+            dataProviderRegistration = dataProvider
+                    .addDataProviderListener(event -> {
+                        fetchGeneration.incrementAndGet();
+                        if (!(event instanceof DataRefreshEvent)) {
+                            sizeGeneration.incrementAndGet();
+                        }
+                    });
+        }
+    }
+
+    private synchronized void stopListening() {
+        if (--listenerCount == 0) {
+            dataProviderRegistration.remove();
+            dataProviderRegistration = null;
+            // Changes are no longer noticed
+            fetchGeneration.incrementAndGet();
+            sizeGeneration.incrementAndGet();
+            if (applicationCache != null) {
+                applicationCache.clear();
+            }
+        }
+    }
+
+    @Override
+    public int size(Query<T, F> query) {
+        QueryCache cache = getCache();
+        if (cache == null) {
+            return super.size(query);
+        }
+        List<Object> key = Arrays.asList("size", getFilter(query));
+        long generation = sizeGeneration.get();
+        Object size = cache.get(key, generation);
+        if (size == null) {
+            size = super.size(query);
+            cache.put(key, size, generation);
+        }
+        return (Integer) size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Stream<T> fetch(Query<T, F> query) {
+        QueryCache cache = getCache();
+        if (cache == null) {
+            return super.fetch(query);
+        }
+        List<Object> key = getFetchKey(query);
+        long generation = fetchGeneration.get();
+        List<T> items = (List<T>) cache.get(key, generation);
+        if (items == null) {
+            try (Stream<T> stream = super.fetch(query)) {
+                items = Collections.unmodifiableList(
+                        stream.collect(Collectors.toList()));
+            }
+            cache.put(key, items, generation);
+        }
+        return items.stream();
+    }
+
+    @Override
+    protected F getFilter(Query<T, F> query) {
+        return query.getFilter().orElse(null);
+    }
+
+    private List<Object> getFetchKey(Query<T, F> query) {
+        // Sort orders don't implement equals
+        List<List<Object>> sortOrders = query.getSortOrders().stream()
+                .map(order -> Arrays.<Object> asList(order.getSorted(),
+                        order.getDirection()))
+                .collect(Collectors.toList());
+        return Arrays.asList("fetch", query.getOffset(), query.getLimit(),
+                sortOrders, query.getInMemorySorting(), getFilter(query));
+    }
+
+    private QueryCache getCache() {
+        if (listenerCount == 0) {
+            return null;
+        }
+        if (scope == Scope.APPLICATION) {
+            return applicationCache;
+        }
+        VaadinSession session = VaadinSession.getCurrent();
+        if (session == null || !session.hasLock()) {
+            return null;
+        }
+        SessionCaches caches = session.getAttribute(SessionCaches.class);
+        if (caches == null) {
+            caches = new SessionCaches();
+            session.setAttribute(SessionCaches.class, caches);
+        }
+        return caches.get(this);
+    }
+
+    /**
+     * The caches of the caching data providers used in a session, stored in a
+     * single session attribute. A cache is dropped once its data provider is
+     * no longer used. The caches are not serialized.
+     */
+    private static class SessionCaches implements Serializable {
+        private transient Map<CachingDataProvider<?, ?>, QueryCache> caches;
+
+        private synchronized QueryCache get(
+                CachingDataProvider<?, ?> provider) {
+            if (caches == null) {
+                caches = new WeakHashMap<>();
+            }
+            return caches.computeIfAbsent(provider,
+                    key -> new QueryCache(key.maxEntries, key.timeToLive));
+        }
+    }
+
+    /**
+     * The results of queries in the least recently used order, each with the
+     * generation it was queried in and the time it expires at. The results
+     * are not serialized.
+     */
+    private static class QueryCache implements Serializable {
+        private final int maxEntries;
+        private final Duration timeToLive;
+        private transient LinkedHashMap<List<Object>, CachedResult> results;
+
+        private QueryCache(int maxEntries, Duration timeToLive) {
+            this.maxEntries = maxEntries;
+            this.timeToLive = timeToLive;
+        }
+
+        private synchronized Object get(List<Object> key, long generation) {
+            if (results == null) {
+                return null;
+            }
+            CachedResult result = results.get(key);
+            if (result == null) {
+                return null;
+            }
+            if (result.generation != generation
+                    || result.expiry <= System.currentTimeMillis()) {
+                results.remove(key);
+                return null;
+            }
+            return result.value;
+        }
+
+        private synchronized void put(List<Object> key, Object value,
+                long generation) {
+            if (results == null) {
+                results = new LinkedHashMap<>(16, 0.75f, true);
+            }
+            results.put(key, new CachedResult(value, generation,
+                    System.currentTimeMillis() + timeToLive.toMillis()));
+            if (results.size() > maxEntries) {
+                Iterator<List<Object>> iterator = results.keySet().iterator();
+                iterator.next();
+                iterator.remove();
+            }
+        }
+
+        private synchronized void clear() {
+            results = null;
+        }
+    }
+
+    private static class CachedResult implements Serializable {
+        private final Object value;
+        private final long generation;
+        private final long expiry;
+
+        private CachedResult(Object value, long generation, long expiry) {
+            this.value = value;
+            this.generation = generation;
+            this.expiry = expiry;
+        }
+    }
+}
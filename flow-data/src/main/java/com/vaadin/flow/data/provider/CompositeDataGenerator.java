@@ -62,6 +62,54 @@ public class CompositeDataGenerator<T>
         dataGenerators.forEach(generator -> generator.refreshData(item));
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A composite data generator is thread-safe if all of its data generators
+     * are.
+     */
+    @Override
+    public boolean isThreadSafe() {
+        return dataGenerators.stream().allMatch(DataGenerator::isThreadSafe);
+    }
+
+    /**
+     * Checks whether any of the data generators, possibly nested in other
+     * composite data generators, is thread-safe.
+     *
+     * @return {@code true} if some data can be generated concurrently
+     */
+    boolean hasThreadSafeGenerators() {
+        return dataGenerators.stream().anyMatch(generator -> generator
+                .isThreadSafe()
+                || (generator instanceof CompositeDataGenerator
+                        && ((CompositeDataGenerator<T>) generator)
+                                .hasThreadSafeGenerators()));
+    }
+
+    /**
+     * Generates the data of either the thread-safe data generators or the
+     * others only.
+     *
+     * @param item
+     *            the data item being serialized
+     * @param jsonObject
+     *            the JSON object being sent to the client
+     * @param threadSafe
+     *            {@code true} to use the thread-safe generators,
+     *            {@code false} to use the others
+     */
+    void generateData(T item, JsonObject jsonObject, boolean threadSafe) {
+        for (DataGenerator<T> generator : dataGenerators) {
+            if (generator instanceof CompositeDataGenerator) {
+                ((CompositeDataGenerator<T>) generator).generateData(item,
+                        jsonObject, threadSafe);
+            } else if (generator.isThreadSafe() == threadSafe) {
+                generator.generateData(item, jsonObject);
+            }
+        }
+    }
+
     @Override
     public Registration addDataGenerator(DataGenerator<T> generator) {
         assert generator != null : "generator should not be null";
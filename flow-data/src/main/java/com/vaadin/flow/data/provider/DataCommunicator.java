@@ -16,15 +16,24 @@
 package com.vaadin.flow.data.provider;
 
 import java.io.Serializable;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
@@ -33,16 +42,22 @@ import java.util.stream.Stream;
 
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
 import com.vaadin.flow.data.provider.ArrayUpdater.Update;
 import com.vaadin.flow.data.provider.DataChangeEvent.DataRefreshEvent;
 import com.vaadin.flow.dom.Element;
 import com.vaadin.flow.function.SerializableComparator;
 import com.vaadin.flow.function.SerializableConsumer;
 import com.vaadin.flow.function.SerializableSupplier;
+import com.vaadin.flow.internal.CurrentInstance;
 import com.vaadin.flow.internal.ExecutionContext;
 import com.vaadin.flow.internal.JsonUtils;
 import com.vaadin.flow.internal.Range;
 import com.vaadin.flow.internal.StateNode;
+import com.vaadin.flow.server.Command;
+import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.shared.Registration;
 import org.slf4j.LoggerFactory;
 
@@ -66,6 +81,11 @@ public class DataCommunicator<T> implements Serializable {
 
     private static final int DEFAULT_PAGE_SIZE = 50;
 
+    private static final int MAX_CACHED_ITEM_COUNTS = 100;
+
+    // The least number of items generated by each thread in parallel
+    private static final int PARALLEL_GENERATION_CHUNK_SIZE = 50;
+
     private final DataGenerator<T> dataGenerator;
     private final ArrayUpdater arrayUpdater;
     private final SerializableConsumer<JsonArray> dataUpdater;
@@ -74,6 +94,10 @@ public class DataCommunicator<T> implements Serializable {
     // Keys that can be discarded once some specific update id gets confirmed
     private final HashMap<Integer, Set<String>> passivatedByUpdate = new HashMap<>();
 
+    // The update id in passivatedByUpdate of each passivated key, so that a
+    // key can be activated again without looking through all the updates
+    private final HashMap<String, Integer> passivatedKeyUpdates = new HashMap<>();
+
     // Update ids that have been confirmed since the last flush
     private final HashSet<Integer> confirmedUpdates = new HashSet<>();
 
@@ -123,6 +147,18 @@ public class DataCommunicator<T> implements Serializable {
 
     private boolean fetchEnabled;
 
+    private boolean itemCountAsync;
+    private transient Executor itemCountExecutor;
+    // Identifies the latest item count query, results of older ones are
+    // ignored
+    private int itemCountRequest;
+    private boolean itemCountPending;
+    // The latest item count query, cancelled when superseded
+    private transient Future<?> itemCountQuery;
+
+    private Duration itemCountCacheTimeout = Duration.ZERO;
+    private ItemCountCache itemCountCache = new ItemCountCache();
+
     /**
      * In-memory data provider with no items.
      * <p>
@@ -416,6 +452,7 @@ public class DataCommunicator<T> implements Serializable {
         countCallback = null;
         definedSize = true;
         sizeReset = true;
+        itemCountCache.clear();
 
         handleDetach();
 
@@ -478,10 +515,14 @@ public class DataCommunicator<T> implements Serializable {
     public int getItemCount() {
         if (isDefinedSize()
                 && (resendEntireRange || assumeEmptyClient || sizeReset)) {
-            // TODO it could be possible to cache the value returned here
-            // and use it next time instead of making another query, unless
-            // the conditions like filter (or another reset) have changed
-            return getDataProviderSize();
+            Object countFilter = getFilter();
+            Integer cachedCount = itemCountCache.get(countFilter);
+            if (cachedCount != null) {
+                return cachedCount;
+            }
+            int count = getDataProviderSize();
+            cacheItemCount(countFilter, count);
+            return count;
         }
         // do not report a stale size or size estimate
         if (!isDefinedSize() && sizeReset) {
@@ -615,6 +656,7 @@ public class DataCommunicator<T> implements Serializable {
         this.countCallback = countCallback;
         definedSize = true;
         skipCountIncreaseUntilReset = false;
+        itemCountCache.clear();
         // there is no reset but we need to get the defined size
         sizeReset = true;
         requestFlush();
@@ -714,6 +756,7 @@ public class DataCommunicator<T> implements Serializable {
             this.definedSize = definedSize;
             countCallback = null;
             skipCountIncreaseUntilReset = false;
+            itemCountCache.clear();
             if (definedSize) {
                 // Always fetch explicit count from data provider
                 requestFlush();
@@ -738,6 +781,99 @@ public class DataCommunicator<T> implements Serializable {
         return definedSize;
     }
 
+    /**
+     * Sets whether the exact item count is queried asynchronously with
+     * defined size. By default the count is queried before sending any items
+     * when the data is reset, e.g. because the filter has changed.
+     * <p>
+     * When enabled, the items are sent right away using the item count
+     * estimate, or the end of the requested range if it is larger, and the
+     * count is queried from the data provider or the count callback in the
+     * background, without holding the session lock. The exact count is sent
+     * to the client in the next response after the query has completed, which
+     * is right away if server push is enabled. If fewer items than requested
+     * are fetched meanwhile, the count is already known and the pending result
+     * is ignored. A query superseded by a newer one is cancelled, so that at
+     * most one query per data communicator is pending or running at a time.
+     * The {@link ItemCountChangeEvent}s fired until the exact count is known
+     * are marked as estimated.
+     * <p>
+     * The count queries are run on the executor set with
+     * {@link #setItemCountExecutor(Executor)}, or on the executor of the
+     * {@link com.vaadin.flow.server.VaadinService} otherwise.
+     *
+     * @param itemCountAsync
+     *            {@code true} to query the item count asynchronously,
+     *            {@code false} to query it before sending the items
+     */
+    public void setItemCountAsync(boolean itemCountAsync) {
+        this.itemCountAsync = itemCountAsync;
+    }
+
+    /**
+     * Returns whether the exact item count is queried asynchronously with
+     * defined size.
+     *
+     * @return {@code true} if the item count is queried asynchronously,
+     *         {@code false} otherwise
+     * @see #setItemCountAsync(boolean)
+     */
+    public boolean isItemCountAsync() {
+        return itemCountAsync;
+    }
+
+    /**
+     * Sets the executor to run the asynchronous item count queries on. The
+     * executor is not serialized with the data communicator, the executor of
+     * the {@link com.vaadin.flow.server.VaadinService} is used after
+     * deserialization.
+     *
+     * @param itemCountExecutor
+     *            the executor to use, or {@code null} to use the executor of
+     *            the service
+     * @see #setItemCountAsync(boolean)
+     */
+    public void setItemCountExecutor(Executor itemCountExecutor) {
+        this.itemCountExecutor = itemCountExecutor;
+    }
+
+    /**
+     * Sets for how long the item counts queried with defined size are cached.
+     * The counts are cached separately for each filter value, so that going
+     * back to a previously used filter doesn't query the count again until
+     * the timeout has passed. The cache is cleared when the data provider,
+     * the count callback or the size mode changes, and when all the data of
+     * the data provider is refreshed. A recheck because fewer items than
+     * expected were fetched replaces the cached count.
+     * <p>
+     * Caching is disabled by default.
+     *
+     * @param itemCountCacheTimeout
+     *            the time to cache the counts for, {@link Duration#ZERO} to
+     *            disable caching, not {@code null}
+     */
+    public void setItemCountCacheTimeout(Duration itemCountCacheTimeout) {
+        Objects.requireNonNull(itemCountCacheTimeout,
+                "Item count cache timeout cannot be null");
+        if (itemCountCacheTimeout.isNegative()) {
+            throw new IllegalArgumentException(
+                    "Item count cache timeout cannot be negative");
+        }
+        this.itemCountCacheTimeout = itemCountCacheTimeout;
+        itemCountCache.clear();
+    }
+
+    /**
+     * Gets for how long the item counts queried with defined size are cached.
+     *
+     * @return the time to cache the counts for, {@link Duration#ZERO} if
+     *         caching is disabled
+     * @see #setItemCountCacheTimeout(Duration)
+     */
+    public Duration getItemCountCacheTimeout() {
+        return itemCountCacheTimeout;
+    }
+
     /**
      * Gets the {@link DataKeyMapper} used by this {@link DataCommunicator}. Key
      * mapper can be used to map keys sent to the client-side back to their
@@ -872,13 +1008,125 @@ public class DataCommunicator<T> implements Serializable {
      *
      * @return the size of data provider with current filter
      */
-    @SuppressWarnings({ "unchecked", "rawtypes" })
     public int getDataProviderSize() {
         assert definedSize : "This method should never be called when using undefined size";
+        return countItems(getDataProvider(), countCallback, getFilter());
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static int countItems(DataProvider dataProvider,
+            CallbackDataProvider.CountCallback countCallback, Object filter) {
         if (countCallback != null) {
-            return countCallback.count(new Query(getFilter()));
+            return countCallback.count(new Query(filter));
         } else {
-            return getDataProvider().size(new Query(getFilter()));
+            return dataProvider.size(new Query(filter));
+        }
+    }
+
+    /**
+     * Gets the item count to use for a flush with defined size, from the cache
+     * if possible. Asynchronously queried counts are estimated until the query
+     * has completed.
+     */
+    private int getDefinedItemCount() {
+        // Any pending query is for an older state of the data
+        cancelItemCountQuery();
+
+        Object countFilter = getFilter();
+        Integer cachedCount = itemCountCache.get(countFilter);
+        if (cachedCount != null) {
+            return cachedCount;
+        }
+        if (!itemCountAsync) {
+            int count = getDataProviderSize();
+            cacheItemCount(countFilter, count);
+            return count;
+        }
+        requestItemCount(countFilter);
+        return Math.max(getItemCountEstimate(), requestedRange.getEnd());
+    }
+
+    private void requestItemCount(Object countFilter) {
+        int request = itemCountRequest;
+        DataProvider<T, ?> countedDataProvider = getDataProvider();
+        CallbackDataProvider.CountCallback<T, ?> callback = countCallback;
+        itemCountPending = true;
+        stateNode.runWhenAttached(ui -> {
+            if (request != itemCountRequest) {
+                // Superseded before the component was attached
+                return;
+            }
+            FutureTask<Void> query = new FutureTask<>(() -> {
+                int count;
+                try {
+                    count = countItems(countedDataProvider, callback,
+                            countFilter);
+                } catch (RuntimeException e) {
+                    // Reported by the error handler of the session, unless
+                    // the query has been cancelled
+                    accessUI(ui, () -> {
+                        if (request == itemCountRequest) {
+                            itemCountQuery = null;
+                            itemCountPending = false;
+                            throw e;
+                        }
+                    });
+                    return;
+                }
+                accessUI(ui,
+                        () -> applyItemCount(request, countFilter, count));
+            }, null);
+            itemCountQuery = query;
+            getItemCountExecutor(ui).execute(query);
+        });
+    }
+
+    /**
+     * Supersedes the pending item count query, if any. The query is not run
+     * if it hasn't started yet, and interrupted otherwise.
+     */
+    private void cancelItemCountQuery() {
+        itemCountRequest++;
+        itemCountPending = false;
+        if (itemCountQuery != null) {
+            itemCountQuery.cancel(true);
+            itemCountQuery = null;
+        }
+    }
+
+    private Executor getItemCountExecutor(UI ui) {
+        if (itemCountExecutor != null) {
+            return itemCountExecutor;
+        }
+        return ui.getSession().getService().getExecutor();
+    }
+
+    private static void accessUI(UI ui, Command command) {
+        try {
+            ui.access(command);
+        } catch (UIDetachedException e) {
+            LoggerFactory.getLogger(DataCommunicator.class).debug(
+                    "Discarding the item count of a detached component", e);
+        }
+    }
+
+    private void applyItemCount(int request, Object countFilter, int count) {
+        if (request != itemCountRequest) {
+            return;
+        }
+        itemCountQuery = null;
+        itemCountPending = false;
+        cacheItemCount(countFilter, count);
+        assumedSize = count;
+        // Sends the count and fires the event for the exact count
+        requestFlush();
+    }
+
+    private void cacheItemCount(Object countFilter, int count) {
+        if (!itemCountCacheTimeout.isZero()) {
+            itemCountCache.put(countFilter, count,
+                    System.currentTimeMillis()
+                            + itemCountCacheTimeout.toMillis());
         }
     }
 
@@ -1017,6 +1265,7 @@ public class DataCommunicator<T> implements Serializable {
                     if (event instanceof DataRefreshEvent) {
                         handleDataRefreshEvent((DataRefreshEvent<T>) event);
                     } else {
+                        itemCountCache.clear();
                         reset();
                     }
                 });
@@ -1078,7 +1327,7 @@ public class DataCommunicator<T> implements Serializable {
 
         // With defined size the backend is only queried when necessary
         if (definedSize && (resendEntireRange || sizeReset)) {
-            assumedSize = getDataProviderSize();
+            assumedSize = getDefinedItemCount();
         } else if (!definedSize
                 && (!skipCountIncreaseUntilReset || sizeReset)) {
             // with undefined size, size estimate is checked when scrolling down
@@ -1096,7 +1345,17 @@ public class DataCommunicator<T> implements Serializable {
         // In case received less items than what was expected, adjust size
         if (activation.isSizeRecheckNeeded()) {
             if (definedSize) {
-                assumedSize = getDataProviderSize();
+                // Any pending count query is superseded by this one
+                cancelItemCountQuery();
+                if (itemCountAsync && (!activation.getActiveKeys().isEmpty()
+                        || effectiveRequested.getStart() == 0)) {
+                    // the end has been reached, so the count is known
+                    assumedSize = effectiveRequested.getStart()
+                            + activation.getActiveKeys().size();
+                } else {
+                    assumedSize = getDataProviderSize();
+                }
+                cacheItemCount(getFilter(), assumedSize);
             } else {
                 // the end has been reached
                 assumedSize = requestedRange.getStart()
@@ -1163,7 +1422,7 @@ public class DataCommunicator<T> implements Serializable {
                     .getComponent();
             component.ifPresent(value -> ComponentUtil.fireEvent(value,
                     new ItemCountChangeEvent<>(value, itemCount,
-                            !(isDefinedSize()
+                            itemCountPending || !(isDefinedSize()
                                     || skipCountIncreaseUntilReset))));
             lastSent = itemCount;
         }
@@ -1193,6 +1452,7 @@ public class DataCommunicator<T> implements Serializable {
         Set<String> passivated = passivatedByUpdate.remove(updateId);
         if (passivated != null) {
             passivated.forEach(key -> {
+                passivatedKeyUpdates.remove(key);
                 T item = keyMapper.get(key);
                 if (item != null) {
                     dataGenerator.destroyData(item);
@@ -1217,7 +1477,24 @@ public class DataCommunicator<T> implements Serializable {
             // Finally clear any passivated items that have now been confirmed
             oldActive.removeAll(activeKeyOrder);
             if (!oldActive.isEmpty()) {
-                passivatedByUpdate.put(Integer.valueOf(updateId), oldActive);
+                Integer passivatingUpdate = Integer.valueOf(updateId);
+                oldActive.forEach(key -> {
+                    // A key is only passivated by its latest update
+                    unpassivate(key);
+                    passivatedKeyUpdates.put(key, passivatingUpdate);
+                });
+                passivatedByUpdate.put(passivatingUpdate, oldActive);
+            }
+        }
+    }
+
+    private void unpassivate(String key) {
+        Integer updateId = passivatedKeyUpdates.remove(key);
+        if (updateId != null) {
+            Set<String> passivated = passivatedByUpdate.get(updateId);
+            passivated.remove(key);
+            if (passivated.isEmpty()) {
+                passivatedByUpdate.remove(updateId);
             }
         }
     }
@@ -1298,10 +1575,134 @@ public class DataCommunicator<T> implements Serializable {
     }
 
     private List<JsonValue> getJsonItems(Range range) {
-        return range.stream()
+        Stream<T> items = range.stream()
                 .mapToObj(index -> activeKeyOrder.get(index - activeStart))
-                .map(keyMapper::get).map(this::generateJson)
-                .collect(Collectors.toList());
+                .map(keyMapper::get);
+        Executor executor;
+        if (range.length() < 2 * PARALLEL_GENERATION_CHUNK_SIZE
+                || !hasThreadSafeGenerators()
+                || (executor = getGenerationExecutor()) == null) {
+            return items.map(this::generateJson).collect(Collectors.toList());
+        }
+        return generateJsonInParallel(items.collect(Collectors.toList()),
+                executor);
+    }
+
+    private static Executor getGenerationExecutor() {
+        VaadinSession session = VaadinSession.getCurrent();
+        VaadinService service = session == null ? null : session.getService();
+        return service == null ? null : service.getExecutor();
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean hasThreadSafeGenerators() {
+        if (dataGenerator instanceof CompositeDataGenerator) {
+            return ((CompositeDataGenerator<T>) dataGenerator)
+                    .hasThreadSafeGenerators();
+        }
+        return dataGenerator.isThreadSafe();
+    }
+
+    /**
+     * Generates the data of the thread-safe generators for chunks of the items
+     * on the executor of the service, and then the data of the other
+     * generators in this thread, which holds the session lock. The chunks that
+     * the executor hasn't started by the time this thread has generated its
+     * own chunk are generated in this thread, so that a busy executor doesn't
+     * hold up the response.
+     */
+    private List<JsonValue> generateJsonInParallel(List<T> items,
+            Executor executor) {
+        List<JsonObject> jsonItems = new ArrayList<>(items.size());
+        for (T item : items) {
+            JsonObject json = Json.createObject();
+            json.put("key", getKeyMapper().key(item));
+            jsonItems.add(json);
+        }
+
+        int chunks = Math.min(items.size() / PARALLEL_GENERATION_CHUNK_SIZE,
+                Math.max(2, Runtime.getRuntime().availableProcessors()));
+        Map<Class<?>, CurrentInstance> instances = CurrentInstance
+                .getInstances();
+        List<FutureTask<Void>> tasks = new ArrayList<>(chunks);
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int start = items.size() * chunk / chunks;
+            int end = items.size() * (chunk + 1) / chunks;
+            tasks.add(new FutureTask<>(() -> {
+                Map<Class<?>, CurrentInstance> old = CurrentInstance
+                        .getInstances();
+                CurrentInstance.restoreInstances(instances);
+                try {
+                    for (int i = start; i < end; i++) {
+                        generateData(items.get(i), jsonItems.get(i), true);
+                    }
+                } finally {
+                    // Not leaving the UI and session to the threads of the
+                    // executor
+                    if (old.isEmpty()) {
+                        CurrentInstance.clearAll();
+                    } else {
+                        CurrentInstance.restoreInstances(old);
+                    }
+                }
+            }, null));
+        }
+        try {
+            for (FutureTask<Void> task : tasks.subList(1, chunks)) {
+                executor.execute(task);
+            }
+        } catch (RejectedExecutionException e) {
+            LoggerFactory.getLogger(DataCommunicator.class).debug(
+                    "Generating the remaining data in the current thread", e);
+        }
+        for (FutureTask<Void> task : tasks) {
+            // Does nothing if the task has already been started
+            task.run();
+            awaitGeneration(task);
+        }
+
+        for (int i = 0; i < items.size(); i++) {
+            generateData(items.get(i), jsonItems.get(i), false);
+        }
+        return new ArrayList<>(jsonItems);
+    }
+
+    private static void awaitGeneration(Future<Void> task) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    task.get();
+                    return;
+                } catch (InterruptedException e) {
+                    // The generated data is needed for the response
+                    interrupted = true;
+                }
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void generateData(T item, JsonObject json, boolean threadSafe) {
+        if (dataGenerator instanceof CompositeDataGenerator) {
+            ((CompositeDataGenerator<T>) dataGenerator).generateData(item,
+                    json, threadSafe);
+        } else if (dataGenerator.isThreadSafe() == threadSafe) {
+            dataGenerator.generateData(item, json);
+        }
     }
 
     private static void withMissing(Range expected, Range actual,
@@ -1332,8 +1733,7 @@ public class DataCommunicator<T> implements Serializable {
             if (mapperHasKey) {
                 // Ensure latest instance from provider is used
                 keyMapper.refresh(bean);
-                passivatedByUpdate.values().stream()
-                        .forEach(set -> set.remove(key));
+                unpassivate(key);
             }
             activeKeys.add(key);
         });
@@ -1353,6 +1753,41 @@ public class DataCommunicator<T> implements Serializable {
                 DataViewUtils::removeComponentFilterAndSortComparator);
     }
 
+    /**
+     * Item counts by filter value, each valid until its own expiry time. The
+     * least recently used counts are dropped when there are too many of them.
+     */
+    private static class ItemCountCache implements Serializable {
+        // In access order, the least recently used count first
+        private final LinkedHashMap<Object, long[]> counts = new LinkedHashMap<>(
+                16, 0.75f, true);
+
+        private Integer get(Object filter) {
+            long[] countAndExpiry = counts.get(filter);
+            if (countAndExpiry == null) {
+                return null;
+            }
+            if (countAndExpiry[1] <= System.currentTimeMillis()) {
+                counts.remove(filter);
+                return null;
+            }
+            return (int) countAndExpiry[0];
+        }
+
+        private void put(Object filter, int count, long expiry) {
+            counts.put(filter, new long[] { count, expiry });
+            if (counts.size() > MAX_CACHED_ITEM_COUNTS) {
+                Iterator<Object> iterator = counts.keySet().iterator();
+                iterator.next();
+                iterator.remove();
+            }
+        }
+
+        private void clear() {
+            counts.clear();
+        }
+    }
+
     private static class Activation implements Serializable {
         private final List<String> activeKeys;
         private final boolean sizeRecheckNeeded;
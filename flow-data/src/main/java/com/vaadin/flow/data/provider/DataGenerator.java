@@ -71,4 +71,23 @@ public interface DataGenerator<T> extends Serializable {
      */
     default void refreshData(T item) {
     }
+
+    /**
+     * Returns whether {@link #generateData(Object, JsonObject)} can be called
+     * for different items concurrently from threads that don't hold the
+     * session lock. The {@link DataCommunicator} then generates the data of a
+     * large range of items in parallel. The current UI and session are
+     * available in those threads, but the session state that requires the
+     * lock must not be accessed, and no components can be created.
+     * <p>
+     * Thread-safe generators generate the data of an item before the other
+     * generators of the same {@link CompositeDataGenerator}. By default
+     * generators are not thread-safe.
+     *
+     * @return {@code true} if the data can be generated concurrently,
+     *         {@code false} otherwise
+     */
+    default boolean isThreadSafe() {
+        return false;
+    }
 }
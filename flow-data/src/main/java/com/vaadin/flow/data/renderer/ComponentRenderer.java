@@ -54,6 +54,7 @@ public class ComponentRenderer<COMPONENT extends Component, SOURCE>
     private SerializableBiFunction<Component, SOURCE, Component> componentUpdateFunction;
     private SerializableBiConsumer<COMPONENT, SOURCE> itemConsumer;
     private String componentRendererTag = "flow-component-renderer";
+    private int componentPoolSize;
 
     /**
      * Creates a new ComponentRenderer that uses the componentSupplier to
@@ -188,6 +189,42 @@ public class ComponentRenderer<COMPONENT extends Component, SOURCE>
         this.componentRendererTag = componentRendererTag;
     }
 
+    /**
+     * Sets the maximum number of rendered components to keep for reuse when
+     * their items are no longer shown, e.g. when scrolling. A pooled component
+     * is given to a new item through {@link #updateComponent(Component, Object)}
+     * instead of creating a new one with {@link #createComponent(Object)}, so
+     * that neither its state node nor its DOM on the client side need to be
+     * created again.
+     * <p>
+     * This only pays off when the component update function given in
+     * {@link #ComponentRenderer(SerializableFunction, SerializableBiFunction)}
+     * updates and returns the same component instance. By default no
+     * components are pooled.
+     *
+     * @param componentPoolSize
+     *            the maximum number of pooled components for each rendering,
+     *            {@code 0} to not pool components
+     */
+    public void setComponentPoolSize(int componentPoolSize) {
+        if (componentPoolSize < 0) {
+            throw new IllegalArgumentException(
+                    "The component pool size cannot be negative");
+        }
+        this.componentPoolSize = componentPoolSize;
+    }
+
+    /**
+     * Gets the maximum number of rendered components to keep for reuse.
+     *
+     * @return the maximum number of pooled components for each rendering,
+     *         {@code 0} if components are not pooled
+     * @see #setComponentPoolSize(int)
+     */
+    public int getComponentPoolSize() {
+        return componentPoolSize;
+    }
+
     private void setupTemplateWhenAttached(UI ui, Element owner,
             ComponentRendering rendering, DataKeyMapper<SOURCE> keyMapper) {
         String appId = ui.getInternals().getAppId();
@@ -0,0 +1,286 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.data.provider.CachingDataProvider.Scope;
+import com.vaadin.flow.data.provider.DataCommunicatorTest.AlwaysLockedVaadinSession;
+import com.vaadin.flow.data.provider.DataCommunicatorTest.MockVaadinSession;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.shared.Registration;
+
+public class CachingDataProviderTest {
+
+    private AtomicInteger fetches = new AtomicInteger();
+    private AtomicInteger counts = new AtomicInteger();
+    private AtomicInteger backEndListeners = new AtomicInteger();
+
+    private CallbackDataProvider<Integer, String> backEndProvider = new CallbackDataProvider<Integer, String>(
+            query -> {
+                fetches.incrementAndGet();
+                int end = Math.min(query.getOffset() + query.getLimit(), 100);
+                return IntStream.range(query.getOffset(), end).boxed();
+            }, query -> {
+                counts.incrementAndGet();
+                return query.getFilter().map(String::length).orElse(100);
+            }) {
+        @Override
+        public Registration addDataProviderListener(
+                DataProviderListener<Integer> listener) {
+            backEndListeners.incrementAndGet();
+            Registration registration = super.addDataProviderListener(
+                    listener);
+            return () -> {
+                backEndListeners.decrementAndGet();
+                registration.remove();
+            };
+        }
+    };
+
+    @After
+    public void tearDown() {
+        VaadinSession.setCurrent(null);
+    }
+
+    @Test
+    public void fetch_sameQuery_backEndQueriedOnce() {
+        CachingDataProvider<Integer, String> provider = createProvider(
+                Scope.APPLICATION, 10, Duration.ofMinutes(1));
+
+        List<Integer> first = fetch(provider, 10, "abc", "name");
+        List<Integer> second = fetch(provider, 10, "abc", "name");
+
+        Assert.assertEquals(IntStream.range(10, 20).boxed()
+                .collect(Collectors.toList()), second);
+        Assert.assertEquals(first, second);
+        Assert.assertEquals(1, fetches.get());
+    }
+
+    @Test
+    public void fetch_differentOffsetSortOrFilter_backEndQueriedForEach() {
+        CachingDataProvider<Integer, String> provider = createProvider(
+                Scope.APPLICATION, 10, Duration.ofMinutes(1));
+
+        fetch(provider, 10, "abc", "name");
+        fetch(provider, 20, "abc", "name");
+        fetch(provider, 10, "abcd", "name");
+        fetch(provider, 10, "abc", "age");
+        fetch(provider, 10, null, "name");
+
+        Assert.assertEquals(5, fetches.get());
+    }
+
+    @Test
+    public void size_sameFilter_backEndQueriedOnce() {
+        CachingDataProvider<Integer, String> provider = createProvider(
+                Scope.APPLICATION, 10, Duration.ofMinutes(1));
+
+        Assert.assertEquals(3, provider.size(new Query<>("abc")));
+        Assert.assertEquals(3, provider.size(new Query<>(0, 50,
+                QuerySortOrder.asc("name").build(), null, "abc")));
+        Assert.assertEquals(100, provider.size(new Query<>()));
+
+        Assert.assertEquals(2, counts.get());
+    }
+
+    @Test
+    public void refreshAll_cachedResultsDropped() {
+        CachingDataProvider<Integer, String> provider = createProvider(
+                Scope.APPLICATION, 10, Duration.ofMinutes(1));
+        fetch(provider, 0, null, "name");
+        provider.size(new Query<>());
+
+        backEndProvider.refreshAll();
+        fetch(provider, 0, null, "name");
+        provider.size(new Query<>());
+
+        provider.refreshAll();
+        fetch(provider, 0, null, "name");
+        provider.size(new Query<>());
+
+        Assert.assertEquals(3, fetches.get());
+        Assert.assertEquals(3, counts.get());
+    }
+
+    @Test
+    public void refreshItem_cachedItemsDroppedAndCountsKept() {
+        CachingDataProvider<Integer, String> provider = createProvider(
+                Scope.APPLICATION, 10, Duration.ofMinutes(1));
+        fetch(provider, 0, null, "name");
+        provider.size(new Query<>());
+
+        provider.refreshItem(5);
+        fetch(provider, 0, null, "name");
+        provider.size(new Query<>());
+
+        Assert.assertEquals(2, fetches.get());
+        Assert.assertEquals(1, counts.get());
+    }
+
+    @Test
+    public void fetch_maxEntriesExceeded_leastRecentlyUsedDropped() {
+        CachingDataProvider<Integer, String> provider = createProvider(
+                Scope.APPLICATION, 2, Duration.ofMinutes(1));
+        fetch(provider, 0, null, "name");
+        fetch(provider, 10, null, "name");
+        // Used after offset 10, so offset 10 is dropped
+        fetch(provider, 0, null, "name");
+        fetch(provider, 20, null, "name");
+
+        fetch(provider, 0, null, "name");
+        Assert.assertEquals(3, fetches.get());
+        fetch(provider, 10, null, "name");
+        Assert.assertEquals(4, fetches.get());
+    }
+
+    @Test
+    public void fetch_timeToLivePassed_backEndQueriedAgain()
+            throws InterruptedException {
+        CachingDataProvider<Integer, String> provider = createProvider(
+                Scope.APPLICATION, 10, Duration.ofMillis(1));
+        fetch(provider, 0, null, "name");
+
+        Thread.sleep(10);
+        fetch(provider, 0, null, "name");
+
+        Assert.assertEquals(2, fetches.get());
+    }
+
+    @Test
+    public void sessionScope_cachePerSession() {
+        CachingDataProvider<Integer, String> provider = createProvider(
+                Scope.SESSION, 10, Duration.ofMinutes(1));
+        VaadinSession first = new AlwaysLockedVaadinSession(null);
+        VaadinSession second = new AlwaysLockedVaadinSession(null);
+
+        VaadinSession.setCurrent(first);
+        fetch(provider, 0, null, "name");
+        fetch(provider, 0, null, "name");
+        VaadinSession.setCurrent(second);
+        fetch(provider, 0, null, "name");
+        Assert.assertEquals(2, fetches.get());
+
+        VaadinSession.setCurrent(new MockVaadinSession(null));
+        fetch(provider, 0, null, "name");
+        Assert.assertEquals("Nothing should be cached without the lock", 3,
+                fetches.get());
+
+        VaadinSession.setCurrent(null);
+        fetch(provider, 0, null, "name");
+        Assert.assertEquals("Nothing should be cached without a session", 4,
+                fetches.get());
+    }
+
+    @Test
+    public void sessionScope_severalProviders_cachesInOneSessionAttribute() {
+        CachingDataProvider<Integer, String> first = createProvider(
+                Scope.SESSION, 10, Duration.ofMinutes(1));
+        CachingDataProvider<Integer, String> second = createProvider(
+                Scope.SESSION, 10, Duration.ofMinutes(1));
+        VaadinSession session = new AlwaysLockedVaadinSession(null);
+        VaadinSession.setCurrent(session);
+
+        fetch(first, 0, null, "name");
+        fetch(second, 0, null, "name");
+        fetch(first, 0, null, "name");
+        fetch(second, 0, null, "name");
+
+        Assert.assertEquals(2, fetches.get());
+        Assert.assertNotNull(session.getAttribute(
+                CachingDataProvider.class.getName() + "$SessionCaches"));
+    }
+
+    @Test
+    public void lastListenerRemoved_wrappedProviderNotListenedAndNothingCached() {
+        CachingDataProvider<Integer, String> provider = new CachingDataProvider<>(
+                backEndProvider, Scope.APPLICATION, 10, Duration.ofMinutes(1));
+        fetch(provider, 0, null, "name");
+        fetch(provider, 0, null, "name");
+        Assert.assertEquals("Nothing should be cached without listeners", 2,
+                fetches.get());
+        Assert.assertEquals(0, backEndListeners.get());
+
+        Registration first = provider.addDataProviderListener(event -> {
+        });
+        Registration second = provider.addDataProviderListener(event -> {
+        });
+        fetch(provider, 0, null, "name");
+        fetch(provider, 0, null, "name");
+        Assert.assertEquals(3, fetches.get());
+        // One for the cache and one for each listener
+        Assert.assertEquals(3, backEndListeners.get());
+
+        first.remove();
+        first.remove();
+        Assert.assertEquals(2, backEndListeners.get());
+        fetch(provider, 0, null, "name");
+        Assert.assertEquals(3, fetches.get());
+
+        second.remove();
+        Assert.assertEquals(0, backEndListeners.get());
+        fetch(provider, 0, null, "name");
+        Assert.assertEquals(4, fetches.get());
+
+        // Changes made while not listened are not missed
+        provider.addDataProviderListener(event -> {
+        });
+        fetch(provider, 0, null, "name");
+        Assert.assertEquals(5, fetches.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void create_nonPositiveTimeToLive_throws() {
+        createProvider(Scope.APPLICATION, 10, Duration.ZERO);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void create_nonPositiveMaxEntries_throws() {
+        createProvider(Scope.APPLICATION, 0, Duration.ofMinutes(1));
+    }
+
+    private CachingDataProvider<Integer, String> createProvider(Scope scope,
+            int maxEntries, Duration timeToLive) {
+        CachingDataProvider<Integer, String> provider = new CachingDataProvider<>(
+                backEndProvider, scope, maxEntries, timeToLive);
+        // Queries are cached while the provider is in use
+        provider.addDataProviderListener(event -> {
+        });
+        return provider;
+    }
+
+    private static List<Integer> fetch(
+            CachingDataProvider<Integer, String> provider, int offset,
+            String filter, String sortedProperty) {
+        List<QuerySortOrder> sortOrders = sortedProperty == null
+                ? Collections.emptyList()
+                : Arrays.asList(new QuerySortOrder(sortedProperty,
+                        SortDirection.ASCENDING));
+        return provider
+                .fetch(new Query<>(offset, 10, sortOrders, null, filter))
+                .collect(Collectors.toList());
+    }
+}
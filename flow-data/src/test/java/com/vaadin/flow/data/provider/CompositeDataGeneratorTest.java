@@ -209,5 +209,60 @@ public class CompositeDataGeneratorTest {
         cdg.addDataGenerator(dg1);
         cdg.addDataGenerator(dg2);
         assertEquals(expected,new ArrayList<>(cdg.dataGenerators));
-    }    
+    }
+
+    @Test
+    public void isThreadSafe_allGeneratorsThreadSafe_true() {
+        CompositeDataGenerator<String> composite = new CompositeDataGenerator<>();
+        CompositeDataGenerator<String> nested = new CompositeDataGenerator<>();
+        nested.addDataGenerator(new ThreadSafeDataGenerator("nested"));
+        composite.addDataGenerator(new ThreadSafeDataGenerator("first"));
+        composite.addDataGenerator(nested);
+
+        Assert.assertTrue(composite.isThreadSafe());
+
+        nested.addDataGenerator(new MockDataGenerator("mock", "value"));
+        Assert.assertFalse(composite.isThreadSafe());
+        Assert.assertTrue(composite.hasThreadSafeGenerators());
+    }
+
+    @Test
+    public void generateData_threadSafeOrNot_onlyMatchingGeneratorsInvoked() {
+        CompositeDataGenerator<String> composite = new CompositeDataGenerator<>();
+        CompositeDataGenerator<String> nested = new CompositeDataGenerator<>();
+        MockDataGenerator mock = new MockDataGenerator("mock", "value");
+        nested.addDataGenerator(new ThreadSafeDataGenerator("nested"));
+        nested.addDataGenerator(mock);
+        composite.addDataGenerator(new ThreadSafeDataGenerator("first"));
+        composite.addDataGenerator(nested);
+
+        JsonObject json = Json.createObject();
+        composite.generateData("item", json, true);
+        Assert.assertEquals("item", json.getString("first"));
+        Assert.assertEquals("item", json.getString("nested"));
+        Assert.assertFalse(json.hasKey("mock"));
+
+        composite.generateData("item", json, false);
+        Assert.assertEquals("value", json.getString("mock"));
+        Assert.assertEquals(Arrays.asList("item"), mock.getProcessed());
+    }
+
+    private static class ThreadSafeDataGenerator
+            implements DataGenerator<String> {
+        private final String jsonKey;
+
+        private ThreadSafeDataGenerator(String jsonKey) {
+            this.jsonKey = jsonKey;
+        }
+
+        @Override
+        public void generateData(String item, JsonObject jsonObject) {
+            jsonObject.put(jsonKey, item);
+        }
+
+        @Override
+        public boolean isThreadSafe() {
+            return true;
+        }
+    }
 }
@@ -15,10 +15,24 @@
  */
 package com.vaadin.flow.data.provider;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -36,6 +50,7 @@ import com.vaadin.flow.function.SerializableConsumer;
 import com.vaadin.flow.function.SerializablePredicate;
 import com.vaadin.flow.internal.Range;
 import com.vaadin.flow.internal.StateNode;
+import com.vaadin.flow.server.Command;
 import com.vaadin.flow.server.VaadinRequest;
 import com.vaadin.flow.server.VaadinService;
 import com.vaadin.flow.server.VaadinSession;
@@ -50,6 +65,7 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
+import elemental.json.JsonObject;
 import elemental.json.JsonValue;
 
 public class DataCommunicatorTest {
@@ -109,6 +125,7 @@ public class DataCommunicatorTest {
     public Range lastSet = null;
     public int lastUpdateId = -1;
     private int pageSize;
+    private List<RuntimeException> accessErrors = new CopyOnWriteArrayList<>();
 
     @Before
     public void init() {
@@ -1445,6 +1462,322 @@ public class DataCommunicatorTest {
                 new Item(0), listDataView.getItems().findFirst().orElse(null));
     }
 
+    @Test
+    public void itemCountAsync_itemsSentWithEstimate_countAppliedWhenQueried() {
+        List<Runnable> countTasks = new ArrayList<>();
+        AtomicInteger countQueries = new AtomicInteger();
+        DataCommunicator<Item> communicator = createAsyncCountCommunicator(
+                countTasks);
+        communicator.setDataProvider(
+                createCountingDataProvider(countQueries, 1000), null);
+        communicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+
+        Assert.assertEquals("Items should be sent before the count is queried",
+                Range.withLength(0, 50), lastSet);
+        Assert.assertEquals(0, countQueries.get());
+        Mockito.verify(arrayUpdater).startUpdate(getPageSizeIncrease());
+        Assert.assertEquals(1, countTasks.size());
+
+        countTasks.remove(0).run();
+        fakeClientCommunication();
+
+        Assert.assertEquals(1, countQueries.get());
+        Mockito.verify(arrayUpdater).startUpdate(1000);
+        Assert.assertEquals(1000, communicator.getItemCount());
+    }
+
+    @Test
+    public void itemCountAsync_fewerItemsThanEstimate_exactCountUsedAndQueryIgnored() {
+        List<Runnable> countTasks = new ArrayList<>();
+        AtomicInteger countQueries = new AtomicInteger();
+        DataCommunicator<Item> communicator = createAsyncCountCommunicator(
+                countTasks);
+        communicator.setDataProvider(
+                createCountingDataProvider(countQueries, 30), null);
+        communicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+
+        Assert.assertEquals(Range.withLength(0, 30), lastSet);
+        Assert.assertEquals(0, countQueries.get());
+        Assert.assertEquals(30, communicator.getItemCount());
+
+        Mockito.reset(arrayUpdater);
+        countTasks.remove(0).run();
+        fakeClientCommunication();
+
+        Mockito.verify(arrayUpdater, Mockito.never())
+                .startUpdate(Mockito.anyInt());
+        Assert.assertEquals(30, communicator.getItemCount());
+    }
+
+    @Test
+    public void itemCountAsync_filterChangedBeforeCountCompleted_staleQueryCancelled() {
+        List<Runnable> countTasks = new ArrayList<>();
+        AtomicInteger countQueries = new AtomicInteger();
+        DataCommunicator<Item> communicator = createAsyncCountCommunicator(
+                countTasks);
+        SerializableConsumer<String> filterSlot = communicator.setDataProvider(
+                createCountingDataProvider(countQueries, 1000), "a");
+        communicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+
+        filterSlot.accept("bb");
+        fakeClientCommunication();
+        Assert.assertEquals(2, countTasks.size());
+        Assert.assertTrue("The superseded query should be cancelled",
+                ((Future<?>) countTasks.get(0)).isCancelled());
+        Assert.assertFalse(((Future<?>) countTasks.get(1)).isCancelled());
+
+        countTasks.remove(1).run();
+        fakeClientCommunication();
+        Assert.assertEquals(500, communicator.getItemCount());
+
+        countTasks.remove(0).run();
+        fakeClientCommunication();
+        Assert.assertEquals("The cancelled query should not be run", 1,
+                countQueries.get());
+        Assert.assertEquals(500, communicator.getItemCount());
+    }
+
+    @Test
+    public void itemCountAsync_cancelledQueryFails_failureNotReported()
+            throws InterruptedException {
+        CountDownLatch queryStarted = new CountDownLatch(1);
+        CountDownLatch queryFailed = new CountDownLatch(1);
+        AtomicInteger countQueries = new AtomicInteger();
+        List<Runnable> countTasks = new ArrayList<>();
+        DataCommunicator<Item> communicator = createAsyncCountCommunicator(
+                countTasks);
+        AbstractDataProvider<Item, String> countingProvider = createCountingDataProvider(
+                countQueries, 1000);
+        SerializableConsumer<String> filterSlot = communicator
+                .setDataProvider(new AbstractDataProvider<Item, String>() {
+                    @Override
+                    public boolean isInMemory() {
+                        return false;
+                    }
+
+                    @Override
+                    public int size(Query<Item, String> query) {
+                        if (query.getFilter().orElse("").equals("a")) {
+                            queryStarted.countDown();
+                            try {
+                                Thread.sleep(5000);
+                            } catch (InterruptedException e) {
+                                throw new IllegalStateException(e);
+                            } finally {
+                                queryFailed.countDown();
+                            }
+                        }
+                        return countingProvider.size(query);
+                    }
+
+                    @Override
+                    public Stream<Item> fetch(Query<Item, String> query) {
+                        return countingProvider.fetch(query);
+                    }
+                }, "a");
+        communicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+        Thread query = new Thread(countTasks.remove(0));
+        query.start();
+        Assert.assertTrue(queryStarted.await(5, TimeUnit.SECONDS));
+
+        // Interrupts the running query, its failure is not an error
+        filterSlot.accept("bb");
+        fakeClientCommunication();
+        Assert.assertTrue(queryFailed.await(5, TimeUnit.SECONDS));
+        query.join(5000);
+        Assert.assertEquals(Collections.emptyList(), accessErrors);
+
+        countTasks.remove(0).run();
+        fakeClientCommunication();
+        Assert.assertEquals(500, communicator.getItemCount());
+    }
+
+    @Test
+    public void itemCountCacheTimeout_sameFilterAgain_countNotQueriedAgain() {
+        AtomicInteger countQueries = new AtomicInteger();
+        AbstractDataProvider<Item, String> dataProvider = createCountingDataProvider(
+                countQueries, 1000);
+        dataCommunicator.setItemCountCacheTimeout(Duration.ofMinutes(1));
+        SerializableConsumer<String> filterSlot = dataCommunicator
+                .setDataProvider(dataProvider, "a");
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+
+        filterSlot.accept("bb");
+        fakeClientCommunication();
+        filterSlot.accept("a");
+        fakeClientCommunication();
+
+        Assert.assertEquals(2, countQueries.get());
+        Assert.assertEquals(1000, dataCommunicator.getItemCount());
+
+        dataProvider.refreshAll();
+        fakeClientCommunication();
+
+        Assert.assertEquals("Refreshing all the data should clear the cache",
+                3, countQueries.get());
+    }
+
+    @Test
+    public void itemCountCacheTimeout_timeoutPassed_countQueriedAgain()
+            throws InterruptedException {
+        AtomicInteger countQueries = new AtomicInteger();
+        dataCommunicator.setItemCountCacheTimeout(Duration.ofMillis(1));
+        SerializableConsumer<String> filterSlot = dataCommunicator
+                .setDataProvider(
+                        createCountingDataProvider(countQueries, 1000), "a");
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+
+        Thread.sleep(10);
+        filterSlot.accept("bb");
+        fakeClientCommunication();
+        filterSlot.accept("a");
+        fakeClientCommunication();
+
+        Assert.assertEquals(3, countQueries.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void itemCountCacheTimeout_negative_throws() {
+        dataCommunicator.setItemCountCacheTimeout(Duration.ofMillis(-1));
+    }
+
+    @Test
+    public void laggingClient_scrollingBackAndForth_keysPassivatedOnlyByLatestUpdate() {
+        AtomicInteger lookups = new AtomicInteger();
+        dataCommunicator.setKeyMapper(new KeyMapper<Item>() {
+            @Override
+            public Item get(String key) {
+                lookups.incrementAndGet();
+                return super.get(key);
+            }
+        });
+        dataCommunicator.setDataProvider(createDataProvider(1000), null);
+        dataCommunicator.setRequestedRange(0, 100);
+        fakeClientCommunication();
+
+        // None of the updates are confirmed while scrolling, so the keys
+        // passivated by each of them are pending and get activated again
+        int updates = 100;
+        for (int i = 1; i <= updates; i++) {
+            dataCommunicator.setRequestedRange(i % 2 == 0 ? 0 : 100, 100);
+            fakeClientCommunication();
+        }
+        Assert.assertEquals(updates, lastUpdateId);
+
+        // Activated keys are no longer held by the updates passivating them
+        lookups.set(0);
+        for (int i = 0; i < updates; i++) {
+            dataCommunicator.confirmUpdate(i);
+        }
+        Assert.assertEquals(0, lookups.get());
+        DataKeyMapper<Item> keyMapper = dataCommunicator.getKeyMapper();
+        Assert.assertTrue(keyMapper.has(new Item(0)));
+        Assert.assertTrue(keyMapper.has(new Item(199)));
+
+        // Items 100-199 were passivated by the last update only
+        dataCommunicator.confirmUpdate(lastUpdateId);
+        Assert.assertEquals(100, lookups.get());
+        Assert.assertTrue(keyMapper.has(new Item(0)));
+        Assert.assertTrue(keyMapper.has(new Item(99)));
+        Assert.assertFalse(keyMapper.has(new Item(100)));
+        Assert.assertFalse(keyMapper.has(new Item(199)));
+    }
+
+    @Test
+    public void threadSafeGenerators_largeRange_dataGeneratedInParallel() {
+        int columns = 20;
+        int rows = 500;
+        Thread lockedThread = Thread.currentThread();
+        ExecutorService executor = Executors.newFixedThreadPool(4,
+                runnable -> new Thread(runnable, "generator"));
+        VaadinService service = Mockito.mock(VaadinService.class);
+        Mockito.when(service.getExecutor()).thenReturn(executor);
+        VaadinSession session = new AlwaysLockedVaadinSession(service);
+        VaadinSession.setCurrent(session);
+        ui = new MockUI(session);
+        element = new Element("div");
+        ui.getElement().appendChild(element);
+
+        Set<String> generatingThreads = ConcurrentHashMap.newKeySet();
+        CompositeDataGenerator<Item> generators = new CompositeDataGenerator<>();
+        for (int column = 0; column < columns; column++) {
+            String property = "column" + column;
+            generators.addDataGenerator(new DataGenerator<Item>() {
+                @Override
+                public void generateData(Item item, JsonObject json) {
+                    Assert.assertNotNull(UI.getCurrent());
+                    generatingThreads.add(Thread.currentThread().getName());
+                    // Formatting like the columns of a typical grid
+                    LocalDate date = LocalDate.ofEpochDay(item.id * 31L);
+                    json.put(property, String.format(Locale.GERMANY,
+                            "%,.2f EUR %s %s", item.id * 1234.567,
+                            DateTimeFormatter.ISO_WEEK_DATE.format(date),
+                            item.value.toUpperCase(Locale.ROOT)));
+                }
+
+                @Override
+                public boolean isThreadSafe() {
+                    return true;
+                }
+            });
+        }
+        AtomicInteger lockedRows = new AtomicInteger();
+        generators.addDataGenerator((item, json) -> {
+            Assert.assertSame(lockedThread, Thread.currentThread());
+            lockedRows.incrementAndGet();
+        });
+
+        List<JsonValue> generated = new ArrayList<>();
+        update = new ArrayUpdater.Update() {
+            @Override
+            public void clear(int start, int length) {
+            }
+
+            @Override
+            public void set(int start, List<JsonValue> items) {
+                generated.addAll(items);
+            }
+
+            @Override
+            public void commit(int updateId) {
+            }
+        };
+        Mockito.when(arrayUpdater.startUpdate(Mockito.anyInt()))
+                .thenReturn(update);
+        dataCommunicator = new DataCommunicator<>(generators, arrayUpdater,
+                data -> {
+                }, element.getNode());
+        dataCommunicator.setDataProvider(createDataProvider(rows), null);
+        dataCommunicator.setRequestedRange(0, rows);
+
+        try {
+            fakeClientCommunication();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assert.assertEquals(rows, generated.size());
+        Assert.assertEquals(rows, lockedRows.get());
+        for (int row = 0; row < rows; row++) {
+            JsonObject json = (JsonObject) generated.get(row);
+            Assert.assertEquals(columns + 1, json.keys().length);
+            Assert.assertTrue(json.getString("column" + (columns - 1))
+                    .endsWith("ITEM " + row));
+        }
+        generatingThreads.remove(lockedThread.getName());
+        Assert.assertTrue(
+                "Only the service executor should be used, but was "
+                        + generatingThreads,
+                generatingThreads.isEmpty() || generatingThreads
+                        .equals(Collections.singleton("generator")));
+    }
+
     @Tag("test-component")
     private static class TestComponent extends Component {
 
@@ -1472,6 +1805,66 @@ public class DataCommunicatorTest {
         });
     }
 
+    private DataCommunicator<Item> createAsyncCountCommunicator(
+            List<Runnable> countTasks) {
+        // Runs the access tasks right away, the session being always locked,
+        // and collects the errors that the error handler would report
+        VaadinSession session = new AlwaysLockedVaadinSession(null) {
+            @Override
+            public Future<Void> access(Command command) {
+                try {
+                    command.execute();
+                } catch (RuntimeException e) {
+                    accessErrors.add(e);
+                }
+                return null;
+            }
+        };
+        VaadinSession.setCurrent(session);
+        MockUI asyncUI = new MockUI(session);
+        ui = asyncUI;
+        Element asyncElement = new Element("div");
+        asyncUI.getElement().appendChild(asyncElement);
+        DataCommunicator<Item> communicator = new DataCommunicator<>(
+                dataGenerator, arrayUpdater, data -> {
+                }, asyncElement.getNode());
+        communicator.setItemCountAsync(true);
+        communicator.setItemCountExecutor(countTasks::add);
+        return communicator;
+    }
+
+    /**
+     * Counts the size queries. The item count is divided by the length of the
+     * filter string.
+     */
+    private AbstractDataProvider<Item, String> createCountingDataProvider(
+            AtomicInteger countQueries, int size) {
+        return new AbstractDataProvider<Item, String>() {
+            @Override
+            public boolean isInMemory() {
+                return false;
+            }
+
+            @Override
+            public int size(Query<Item, String> query) {
+                countQueries.incrementAndGet();
+                return getSize(query);
+            }
+
+            @Override
+            public Stream<Item> fetch(Query<Item, String> query) {
+                int end = Math.min(query.getRequestedRangeEnd(),
+                        getSize(query));
+                return IntStream.range(query.getOffset(), end)
+                        .mapToObj(Item::new);
+            }
+
+            private int getSize(Query<Item, String> query) {
+                return size / query.getFilter().map(String::length).orElse(1);
+            }
+        };
+    }
+
     private AbstractDataProvider<Item, Object> createDataProviderThatChangesSize(
             final int size, final int delta) {
         return new AbstractDataProvider<Item, Object>() {
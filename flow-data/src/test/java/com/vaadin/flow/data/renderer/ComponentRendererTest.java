@@ -16,6 +16,7 @@
 package com.vaadin.flow.data.renderer;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -213,4 +214,98 @@ public class ComponentRendererTest {
                 updatedComponent);
     }
 
+    @Test
+    public void componentPoolSize_itemDestroyed_componentReusedForNewItem() {
+        AtomicInteger createInvocations = new AtomicInteger();
+        List<String> updatedItems = new ArrayList<>();
+        ComponentRenderer<TestLabel, String> renderer = new ComponentRenderer<>(
+                item -> {
+                    createInvocations.incrementAndGet();
+                    return new TestLabel();
+                }, (component, item) -> {
+                    updatedItems.add(item);
+                    return component;
+                });
+        renderer.setComponentPoolSize(1);
+        ComponentDataGenerator<String> rendering = renderAttached(renderer);
+
+        int firstNodeId = generateNodeId(rendering, "first");
+        rendering.destroyData("first");
+        int secondNodeId = generateNodeId(rendering, "second");
+
+        Assert.assertEquals("The pooled component should be reused",
+                firstNodeId, secondNodeId);
+        Assert.assertEquals(1, createInvocations.get());
+        Assert.assertEquals(Collections.singletonList("second"),
+                updatedItems);
+    }
+
+    @Test
+    public void componentPoolSize_poolFull_componentDetached() {
+        List<TestLabel> created = new ArrayList<>();
+        ComponentRenderer<TestLabel, String> renderer = new ComponentRenderer<>(
+                item -> {
+                    TestLabel label = new TestLabel();
+                    created.add(label);
+                    return label;
+                }, (component, item) -> component);
+        renderer.setComponentPoolSize(1);
+        ComponentDataGenerator<String> rendering = renderAttached(renderer);
+
+        generateNodeId(rendering, "first");
+        generateNodeId(rendering, "second");
+        rendering.destroyData("first");
+        rendering.destroyData("second");
+
+        Assert.assertNotNull("The pooled component should stay attached",
+                created.get(0).getElement().getParent());
+        Assert.assertNull("The component should be detached when the pool "
+                + "is full", created.get(1).getElement().getParent());
+
+        rendering.destroyAllData();
+        Assert.assertNull(created.get(0).getElement().getParent());
+    }
+
+    @Test
+    public void componentPoolSize_notSet_newComponentCreated() {
+        List<TestLabel> created = new ArrayList<>();
+        ComponentRenderer<TestLabel, String> renderer = new ComponentRenderer<>(
+                item -> {
+                    TestLabel label = new TestLabel();
+                    created.add(label);
+                    return label;
+                }, (component, item) -> component);
+        ComponentDataGenerator<String> rendering = renderAttached(renderer);
+
+        int firstNodeId = generateNodeId(rendering, "first");
+        rendering.destroyData("first");
+        int secondNodeId = generateNodeId(rendering, "second");
+
+        Assert.assertNotEquals(firstNodeId, secondNodeId);
+        Assert.assertEquals(2, created.size());
+        Assert.assertNull(created.get(0).getElement().getParent());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void componentPoolSize_negative_throws() {
+        new ComponentRenderer<TestLabel, String>(item -> new TestLabel())
+                .setComponentPoolSize(-1);
+    }
+
+    private ComponentDataGenerator<String> renderAttached(
+            ComponentRenderer<TestLabel, String> renderer) {
+        Element container = new Element("div");
+        ComponentDataGenerator<String> rendering = (ComponentDataGenerator<String>) renderer
+                .render(container, new KeyMapper<>());
+        attachElement(new TestUI(), container);
+        return rendering;
+    }
+
+    private int generateNodeId(ComponentDataGenerator<String> rendering,
+            String item) {
+        JsonObject value = Json.createObject();
+        rendering.generateData(item, value);
+        return (int) value.getNumber(rendering.getNodeIdPropertyName());
+    }
+
 }
@@ -48,18 +48,22 @@ import com.vaadin.flow.server.frontend.FrontendTools;
 import com.vaadin.flow.server.frontend.FrontendUtils;
 import com.vaadin.flow.server.frontend.NodeTasks;
 import com.vaadin.flow.server.frontend.scanner.ClassFinder;
+import com.vaadin.flow.server.startup.ClassIndex;
 import com.vaadin.flow.theme.Theme;
 
 import elemental.json.JsonObject;
 import elemental.json.impl.JsonUtil;
 
 import static com.vaadin.flow.plugin.common.FlowPluginFrontendUtils.getClassFinder;
+import static com.vaadin.flow.server.Constants.BUILD_FOLDER_TOKEN;
 import static com.vaadin.flow.server.Constants.FRONTEND_TOKEN;
 import static com.vaadin.flow.server.Constants.GENERATED_TOKEN;
 import static com.vaadin.flow.server.Constants.NPM_TOKEN;
 import static com.vaadin.flow.server.Constants.SERVLET_PARAMETER_ENABLE_DEV_SERVER;
+import static com.vaadin.flow.server.frontend.FrontendUtils.CLASS_INDEX_FILE;
 import static com.vaadin.flow.server.frontend.FrontendUtils.DEFAULT_FLOW_RESOURCES_FOLDER;
 import static com.vaadin.flow.server.frontend.FrontendUtils.NODE_MODULES;
+import static com.vaadin.flow.server.frontend.FrontendUtils.SCAN_CACHE_FILE;
 import static com.vaadin.flow.server.frontend.FrontendUtils.TOKEN_FILE;
 
 /**
@@ -136,6 +140,17 @@ public class BuildFrontendMojo extends FlowModeAbstractMojo {
     @Parameter(defaultValue = FrontendUtils.WEBPACK_GENERATED)
     private String webpackGeneratedTemplate;
 
+    /**
+     * Whether to generate an index of the classes handled by the servlet
+     * container initializers. The index is used instead of the classes found
+     * by the servlet container when the application is started in production
+     * mode, so that the scanning of the container can be turned off. The index
+     * is created from the classes already scanned for generating the frontend
+     * files.
+     */
+    @Parameter(defaultValue = "true")
+    private boolean generateClassIndex;
+
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
         updateBuildFile();
@@ -188,7 +203,10 @@ public class BuildFrontendMojo extends FlowModeAbstractMojo {
                         .useV14Bootstrap(useDeprecatedV14Bootstrapping())
                         .enablePackagesUpdate(true)
                         .useByteCodeScanner(optimizeBundle)
+                        .withScanCacheFile(
+                                new File(buildFolder, SCAN_CACHE_FILE))
                         .withFlowResourcesFolder(flowResourcesFolder)
+                        .withBuildFolder(buildFolder)
                         .copyResources(jarFiles)
                         .copyLocalResources(frontendResourcesDirectory)
                         .enableImportsUpdate(true)
@@ -205,6 +223,33 @@ public class BuildFrontendMojo extends FlowModeAbstractMojo {
                         .withNodeDownloadRoot(nodeDownloadRootURI)
                         .build()
                         .execute();
+        // @formatter:on
+
+        if (generateClassIndex) {
+            writeClassIndex(classFinder);
+        }
+    }
+
+    private void writeClassIndex(ClassFinder classFinder)
+            throws MojoExecutionException {
+        File indexFile = new File(resourceOutputDirectory, CLASS_INDEX_FILE);
+        ClassIndex index;
+        try {
+            index = ClassIndex.create(classFinder);
+        } catch (ClassNotFoundException | LinkageError exception) {
+            getLog().warn("Unable to generate class index, "
+                    + "the servlet container initializers are not available",
+                    exception);
+            return;
+        }
+        try {
+            FileUtils.write(indexFile,
+                    JsonUtil.stringify(index.toJson(), 2) + "\n",
+                    StandardCharsets.UTF_8.name());
+        } catch (IOException exception) {
+            throw new MojoExecutionException(
+                    "Failed to write class index to " + indexFile, exception);
+        }
     }
 
     private void runWebpack() throws MojoExecutionException {
@@ -301,6 +346,7 @@ public class BuildFrontendMojo extends FlowModeAbstractMojo {
             buildInfo.remove(NPM_TOKEN);
             buildInfo.remove(GENERATED_TOKEN);
             buildInfo.remove(FRONTEND_TOKEN);
+            buildInfo.remove(BUILD_FOLDER_TOKEN);
             buildInfo.remove(Constants.SERVLET_PARAMETER_ENABLE_PNPM);
             buildInfo.remove(Constants.REQUIRE_HOME_NODE_EXECUTABLE);
             buildInfo.remove(Constants.SERVLET_PARAMETER_DEVMODE_OPTIMIZE_BUNDLE);
@@ -111,6 +111,13 @@ public abstract class FlowModeAbstractMojo extends AbstractMojo {
             + VAADIN_SERVLET_RESOURCES)
     protected File resourceOutputDirectory;
 
+    /**
+     * The build directory of the project, where files kept between builds,
+     * such as the scan cache of the byte code scanner, are written.
+     */
+    @Parameter(defaultValue = "${project.build.directory}")
+    protected File buildFolder;
+
     /**
      * Instructs to use pnpm for installing npm frontend resources.
      */
@@ -16,6 +16,9 @@
  */
 package com.vaadin.flow.plugin.maven;
 
+import javax.servlet.ServletContext;
+import javax.servlet.annotation.HandlesTypes;
+
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
@@ -57,7 +60,10 @@ import org.mockito.Mockito;
 import com.vaadin.flow.di.Lookup;
 import com.vaadin.flow.plugin.TestUtils;
 import com.vaadin.flow.server.Constants;
+import com.vaadin.flow.router.Route;
 import com.vaadin.flow.server.connect.Endpoint;
+import com.vaadin.flow.server.startup.ClassIndex;
+import com.vaadin.flow.server.startup.ClassLoaderAwareServletContainerInitializer;
 
 import elemental.json.Json;
 import elemental.json.JsonObject;
@@ -68,12 +74,14 @@ import static com.vaadin.flow.server.Constants.SERVLET_PARAMETER_ENABLE_DEV_SERV
 import static com.vaadin.flow.server.Constants.SERVLET_PARAMETER_PRODUCTION_MODE;
 import static com.vaadin.flow.server.Constants.VAADIN_SERVLET_RESOURCES;
 import static com.vaadin.flow.server.Constants.VAADIN_WEBAPP_RESOURCES;
+import static com.vaadin.flow.server.frontend.FrontendUtils.CLASS_INDEX_FILE;
 import static com.vaadin.flow.server.frontend.FrontendUtils.DEFAULT_FLOW_RESOURCES_FOLDER;
 import static com.vaadin.flow.server.frontend.FrontendUtils.DEFAULT_FRONTEND_DIR;
 import static com.vaadin.flow.server.frontend.FrontendUtils.DEFAULT_GENERATED_DIR;
 import static com.vaadin.flow.server.frontend.FrontendUtils.FLOW_NPM_PACKAGE_NAME;
 import static com.vaadin.flow.server.frontend.FrontendUtils.IMPORTS_NAME;
 import static com.vaadin.flow.server.frontend.FrontendUtils.NODE_MODULES;
+import static com.vaadin.flow.server.frontend.FrontendUtils.SCAN_CACHE_FILE;
 import static com.vaadin.flow.server.frontend.FrontendUtils.SERVICE_WORKER_SRC;
 import static com.vaadin.flow.server.frontend.FrontendUtils.TOKEN_FILE;
 import static com.vaadin.flow.server.frontend.FrontendUtils.WEBPACK_CONFIG;
@@ -102,6 +110,7 @@ public class BuildFrontendMojoTest {
     private File defaultJavaSource;
     private String openApiJsonFile;
     private File generatedTsFolder;
+    private File buildFolder;
 
     private File tokenFile;
 
@@ -141,6 +150,7 @@ public class BuildFrontendMojoTest {
         openApiJsonFile = new File(npmFolder,
                 "target/generated-resources/openapi.json").getAbsolutePath();
         generatedTsFolder = new File(npmFolder, "frontend/generated");
+        buildFolder = new File(npmFolder, "build");
 
         Assert.assertTrue("Failed to create a test project resources",
                 projectFrontendResourcesDirectory.mkdirs());
@@ -168,6 +178,8 @@ public class BuildFrontendMojoTest {
         ReflectionUtils.setVariableValueInObject(mojo,
                 "generateEmbeddableWebComponents", false);
         ReflectionUtils.setVariableValueInObject(mojo, "npmFolder", npmFolder);
+        ReflectionUtils.setVariableValueInObject(mojo,
+                Constants.BUILD_FOLDER_TOKEN, buildFolder);
         ReflectionUtils.setVariableValueInObject(mojo, "generateBundle", false);
         ReflectionUtils.setVariableValueInObject(mojo, "runNpmInstall", false);
         ReflectionUtils.setVariableValueInObject(mojo, "optimizeBundle", true);
@@ -417,6 +429,7 @@ public class BuildFrontendMojoTest {
         initialBuildInfo.put(Constants.NPM_TOKEN, "npm");
         initialBuildInfo.put(Constants.GENERATED_TOKEN, "generated");
         initialBuildInfo.put(Constants.FRONTEND_TOKEN, "frontend");
+        initialBuildInfo.put(Constants.BUILD_FOLDER_TOKEN, "build");
 
         initialBuildInfo.put(Constants.SERVLET_PARAMETER_ENABLE_PNPM, true);
         initialBuildInfo.put(Constants.REQUIRE_HOME_NODE_EXECUTABLE, true);
@@ -442,6 +455,8 @@ public class BuildFrontendMojoTest {
                 buildInfo.get(Constants.GENERATED_TOKEN));
         Assert.assertNull("frontendFolder should have been removed",
                 buildInfo.get(Constants.FRONTEND_TOKEN));
+        Assert.assertNull("buildFolder should have been removed",
+                buildInfo.get(Constants.BUILD_FOLDER_TOKEN));
 
         Assert.assertNull(
                 Constants.SERVLET_PARAMETER_ENABLE_PNPM
@@ -458,6 +473,43 @@ public class BuildFrontendMojoTest {
                         Constants.SERVLET_PARAMETER_DEVMODE_OPTIMIZE_BUNDLE));
     }
 
+    @Test
+    public void mavenGoal_classIndexIsGenerated() throws Exception {
+        ReflectionUtils.setVariableValueInObject(mojo, "generateClassIndex",
+                true);
+        mojo.execute();
+
+        File indexFile = new File(resourceOutputDirectory, CLASS_INDEX_FILE);
+        Assert.assertTrue("Class index should be generated",
+                indexFile.exists());
+        ClassIndex index = ClassIndex.fromJson(JsonUtil.parse(
+                org.apache.commons.io.FileUtils.readFileToString(indexFile,
+                        "UTF-8")));
+        Assert.assertTrue(index.getClassNames(Route.class.getName()).get()
+                .contains(TestComponents.MainView.class.getName()));
+    }
+
+    @Test
+    public void mavenGoal_classIndexDisabled_classIndexIsNotGenerated()
+            throws Exception {
+        ReflectionUtils.setVariableValueInObject(mojo, "generateClassIndex",
+                false);
+        mojo.execute();
+
+        Assert.assertFalse(
+                new File(resourceOutputDirectory, CLASS_INDEX_FILE).exists());
+    }
+
+    @Test
+    public void mavenGoal_scanCacheIsWrittenToBuildFolder() throws Exception {
+        mojo.execute();
+
+        Assert.assertTrue("Scan cache should be in the build folder",
+                new File(buildFolder, SCAN_CACHE_FILE).exists());
+        Assert.assertFalse(
+                new File(projectBase, "target/" + SCAN_CACHE_FILE).exists());
+    }
+
     @Test
     public void noTokenFile_noTokenFileShouldBeCreated()
             throws MojoExecutionException, MojoFailureException {
@@ -658,4 +710,12 @@ public class BuildFrontendMojoTest {
             return baz;
         }
     }
-}
\ No newline at end of file
+
+    @HandlesTypes(Route.class)
+    public static class RouteInitializer
+            implements ClassLoaderAwareServletContainerInitializer {
+        @Override
+        public void process(Set<Class<?>> classSet, ServletContext context) {
+        }
+    }
+}
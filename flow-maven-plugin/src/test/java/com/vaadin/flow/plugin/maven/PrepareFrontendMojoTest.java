@@ -51,6 +51,7 @@ import static com.vaadin.flow.server.Constants.SERVLET_PARAMETER_PRODUCTION_MODE
 import static com.vaadin.flow.server.Constants.SERVLET_PARAMETER_USE_V14_BOOTSTRAP;
 import static com.vaadin.flow.server.Constants.VAADIN_SERVLET_RESOURCES;
 import static com.vaadin.flow.server.Constants.VAADIN_WEBAPP_RESOURCES;
+import static com.vaadin.flow.server.frontend.FrontendUtils.CLASS_INDEX_FILE;
 import static com.vaadin.flow.server.frontend.FrontendUtils.DEFAULT_FLOW_RESOURCES_FOLDER;
 import static com.vaadin.flow.server.frontend.FrontendUtils.TOKEN_FILE;
 
@@ -96,6 +97,8 @@ public class PrepareFrontendMojoTest {
                 projectBase);
         ReflectionUtils.setVariableValueInObject(mojo,
                 Constants.GENERATED_TOKEN, projectBase);
+        ReflectionUtils.setVariableValueInObject(mojo,
+                Constants.BUILD_FOLDER_TOKEN, new File(projectBase, "target"));
         ReflectionUtils.setVariableValueInObject(mojo, "webpackOutputDirectory",
                 webpackOutputDirectory);
         ReflectionUtils.setVariableValueInObject(mojo,
@@ -144,6 +147,18 @@ public class PrepareFrontendMojoTest {
                 buildInfo.get(SERVLET_PARAMETER_USE_V14_BOOTSTRAP));
     }
 
+    @Test
+    public void existingClassIndex_classIndexIsRemoved()
+            throws IOException, MojoExecutionException, MojoFailureException {
+        File indexFile = new File(resourceOutputDirectory, CLASS_INDEX_FILE);
+        org.apache.commons.io.FileUtils.write(indexFile, "{}", "UTF-8");
+
+        mojo.execute();
+
+        Assert.assertFalse("Stale class index should be removed",
+                indexFile.exists());
+    }
+
     @Test
     public void existingTokenFile_enableDevServerShouldBeRemoved()
             throws IOException, MojoExecutionException, MojoFailureException {
@@ -188,6 +203,10 @@ public class PrepareFrontendMojoTest {
                 Constants.REQUIRE_HOME_NODE_EXECUTABLE
                         + "should have been written",
                 buildInfo.getBoolean(Constants.REQUIRE_HOME_NODE_EXECUTABLE));
+        Assert.assertEquals(
+                Constants.BUILD_FOLDER_TOKEN + "should have been written",
+                new File(projectBase, "target").getAbsolutePath(),
+                buildInfo.getString(Constants.BUILD_FOLDER_TOKEN));
 
         Assert.assertFalse(buildInfo
                 .hasKey(Constants.SERVLET_PARAMETER_DEVMODE_OPTIMIZE_BUNDLE));
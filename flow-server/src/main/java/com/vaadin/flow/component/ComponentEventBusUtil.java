@@ -15,6 +15,9 @@
  */
 package com.vaadin.flow.component;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Parameter;
 import java.util.ArrayList;
@@ -22,9 +25,14 @@ import java.util.LinkedHashMap;
 import java.util.List;
 
 import com.vaadin.flow.dom.DomEvent;
+import com.vaadin.flow.internal.JsonCodec;
 import com.vaadin.flow.internal.ReflectTools;
 import com.vaadin.flow.internal.ReflectionCache;
 
+import elemental.json.Json;
+import elemental.json.JsonObject;
+import elemental.json.JsonValue;
+
 /**
  * Static helpers and caching functionality for {@link ComponentEventBus}.
  *
@@ -44,13 +52,22 @@ public class ComponentEventBusUtil {
     static ReflectionCache<ComponentEvent<?>, EventTypeInfo> cache = new ReflectionCache<>(
             EventTypeInfo::new);
 
+    private static final MethodType EVENT_FACTORY_TYPE = MethodType
+            .methodType(ComponentEvent.class, Component.class,
+                    JsonValue[].class);
+
     private static class EventTypeInfo {
         private final LinkedHashMap<String, Class<?>> dataExpressions;
         private final Constructor<? extends ComponentEvent<?>> eventConstructor;
+        private final String[] dataExpressionKeys;
+        private final MethodHandle eventFactory;
 
         public EventTypeInfo(Class<? extends ComponentEvent<?>> type) {
             eventConstructor = findEventConstructor(type);
             dataExpressions = findEventDataExpressions(eventConstructor);
+            dataExpressionKeys = dataExpressions.keySet()
+                    .toArray(new String[dataExpressions.size()]);
+            eventFactory = createEventFactory(eventConstructor);
         }
     }
 
@@ -76,6 +93,140 @@ public class ComponentEventBusUtil {
         return cache.get(eventType).dataExpressions;
     }
 
+    /**
+     * Creates a component event of the given type for a DOM event fired from
+     * the client, using a factory compiled once per event type.
+     * <p>
+     * The values of the event data expressions are decoded straight into the
+     * parameter types of the event constructor (as returned by
+     * {@link #getEventConstructor(Class)}) without going through reflection.
+     *
+     * @param <T>
+     *            the event type
+     * @param eventType
+     *            the component event type
+     * @param source
+     *            the component which is the source of the event
+     * @param eventData
+     *            the event data of the DOM event
+     * @return a new event object
+     * @throws IllegalArgumentException
+     *             if the event object could not be created, or the event
+     *             constructor threw a checked exception; unchecked exceptions
+     *             thrown by the constructor are propagated as is
+     */
+    static <T extends ComponentEvent<?>> T createEventForDomEvent(
+            Class<T> eventType, Component source, JsonObject eventData) {
+        try {
+            EventTypeInfo info = cache.get(eventType);
+            // Make sure that the source component type is ok
+            Class<?> definedSourceType = info.eventConstructor
+                    .getParameterTypes()[0];
+            if (!definedSourceType.isAssignableFrom(source.getClass())) {
+                throw new IllegalArgumentException(String.format(
+                        "The event type %s define the source type to be %s, which is not compatible with the used source of type %s",
+                        eventType.getName(), definedSourceType.getName(),
+                        source.getClass().getName()));
+            }
+
+            String[] expressions = info.dataExpressionKeys;
+            JsonValue[] values = new JsonValue[expressions.length];
+            for (int i = 0; i < expressions.length; i++) {
+                JsonValue value = eventData.get(expressions[i]);
+                values[i] = value == null ? Json.createNull() : value;
+            }
+            return eventType.cast(
+                    (ComponentEvent<?>) info.eventFactory.invokeExact(source,
+                            values));
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable throwable) { // NOSONAR
+            // Only checked exceptions thrown by the event constructor remain
+            throw new IllegalArgumentException(
+                    "Unable to create an event object of type "
+                            + eventType.getName(),
+                    throwable);
+        }
+    }
+
+    /**
+     * Compiles a factory which invokes the given event constructor with the
+     * source component, {@code fromClient} set to {@code true} and the event
+     * data values decoded into the constructor parameter types.
+     *
+     * @param eventConstructor
+     *            the DOM event constructor
+     * @return a method handle of the type
+     *         {@code (Component, JsonValue[]) -> ComponentEvent}
+     */
+    private static MethodHandle createEventFactory(
+            Constructor<? extends ComponentEvent<?>> eventConstructor) {
+        MethodHandle factory;
+        try {
+            eventConstructor.setAccessible(true);
+            factory = MethodHandles.lookup()
+                    .unreflectConstructor(eventConstructor);
+        } catch (IllegalAccessException | SecurityException e) {
+            throw new IllegalArgumentException(
+                    "Unable to access the constructor " + eventConstructor,
+                    e);
+        }
+        // From client
+        factory = MethodHandles.insertArguments(factory, 1, true);
+
+        Class<?>[] parameterTypes = eventConstructor.getParameterTypes();
+        MethodHandle[] decoders = new MethodHandle[parameterTypes.length - 2];
+        for (int i = 0; i < decoders.length; i++) {
+            decoders[i] = createDecoder(parameterTypes[i + 2]);
+        }
+        factory = MethodHandles.filterArguments(factory, 1, decoders);
+
+        return factory.asSpreader(JsonValue[].class, decoders.length)
+                .asType(EVENT_FACTORY_TYPE);
+    }
+
+    /**
+     * Creates a handle decoding a JSON value into the given type the same way
+     * as {@link JsonCodec#decodeAs(JsonValue, Class)}, without boxing values
+     * of primitive types.
+     */
+    private static MethodHandle createDecoder(Class<?> type) {
+        MethodType decoderType = MethodType.methodType(type, JsonValue.class);
+        try {
+            if (type == int.class) {
+                return MethodHandles.lookup().findStatic(
+                        ComponentEventBusUtil.class, "decodeInt", decoderType);
+            } else if (type == double.class) {
+                return MethodHandles.lookup().findStatic(
+                        ComponentEventBusUtil.class, "decodeDouble",
+                        decoderType);
+            } else if (type == boolean.class) {
+                return MethodHandles.lookup().findStatic(
+                        ComponentEventBusUtil.class, "decodeBoolean",
+                        decoderType);
+            }
+            MethodHandle decodeAs = MethodHandles.publicLookup().findStatic(
+                    JsonCodec.class, "decodeAs", MethodType.methodType(
+                            Object.class, JsonValue.class, Class.class));
+            return MethodHandles.insertArguments(decodeAs, 1, type)
+                    .asType(decoderType);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int decodeInt(JsonValue json) {
+        return (int) json.asNumber();
+    }
+
+    private static double decodeDouble(JsonValue json) {
+        return json.asNumber();
+    }
+
+    private static boolean decodeBoolean(JsonValue json) {
+        return json.asBoolean();
+    }
+
     /**
      * Scans the event type and forms a map of event data expression (for
      * {@link com.vaadin.flow.dom.DomListenerRegistration#addEventData(String)}
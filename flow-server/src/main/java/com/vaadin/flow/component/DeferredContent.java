@@ -0,0 +1,207 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+import com.vaadin.flow.dom.DisabledUpdateMode;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.function.SerializableSupplier;
+import com.vaadin.flow.internal.nodefeature.DeferredChildren;
+import com.vaadin.flow.server.Command;
+import com.vaadin.flow.shared.Registration;
+
+/**
+ * Helpers for adding children to a container lazily.
+ * <p>
+ * Deferred children are created by a supplier only when the container is
+ * needed: once it is attached and visible, or once the browser reports that
+ * the container element has been scrolled into the viewport. Until then no
+ * components or state nodes are created for the content, which makes e.g.
+ * tabbed forms cheap to build.
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ * @see HasComponents#addDeferred(SerializableSupplier)
+ */
+public final class DeferredContent implements Serializable {
+
+    /**
+     * Name of the DOM event which is fired by the browser when a container
+     * using {@link Trigger#IN_VIEWPORT} intersects with the viewport.
+     */
+    public static final String IN_VIEWPORT_EVENT = "vaadin-deferred-in-viewport";
+
+    //@formatter:off
+    private static final String OBSERVE_VIEWPORT_EXPRESSION =
+              "const el = this;"
+            + "const fire = () => el.dispatchEvent(new CustomEvent($0));"
+            + "if (!window.IntersectionObserver) { fire(); return; }"
+            + "const observer = new IntersectionObserver(entries => {"
+            + "  if (entries.some(entry => entry.isIntersecting)) {"
+            + "    observer.disconnect(); fire();"
+            + "  }"
+            + "});"
+            + "observer.observe(el);";
+    //@formatter:on
+
+    /**
+     * Defines when the deferred children of a container are created.
+     */
+    public enum Trigger {
+        /**
+         * The children are created before the next response once the
+         * container is attached and neither the container nor any of its
+         * ancestors is hidden.
+         */
+        VISIBLE,
+
+        /**
+         * The children are created when the browser reports that the
+         * container element intersects with the viewport.
+         */
+        IN_VIEWPORT;
+    }
+
+    private static class Deferral implements Command, Registration {
+        private final HasComponents container;
+        private final SerializableSupplier<? extends Collection<? extends Component>> childrenSupplier;
+        private final List<Registration> registrations = new ArrayList<>();
+        private boolean done;
+
+        private Deferral(HasComponents container,
+                SerializableSupplier<? extends Collection<? extends Component>> childrenSupplier) {
+            this.container = container;
+            this.childrenSupplier = childrenSupplier;
+        }
+
+        @Override
+        public void execute() {
+            finish();
+            Collection<? extends Component> children = childrenSupplier.get();
+            if (children != null) {
+                container.add(children.toArray(new Component[0]));
+            }
+        }
+
+        @Override
+        public void remove() {
+            if (!done) {
+                finish();
+                getFeature(container).clear();
+            }
+        }
+
+        private void finish() {
+            done = true;
+            registrations.forEach(Registration::remove);
+            registrations.clear();
+        }
+    }
+
+    private DeferredContent() {
+        // Static helpers only
+    }
+
+    /**
+     * Registers a supplier for the children of the given container which is
+     * invoked only when the content is needed according to the given trigger.
+     * The supplied components are added to the container using
+     * {@link HasComponents#add(Component...)}.
+     *
+     * @param container
+     *            the container to add the children to, not {@code null}
+     * @param trigger
+     *            the condition for creating the children, not {@code null}
+     * @param childrenSupplier
+     *            the supplier of the children, not {@code null}
+     * @return a handle that can be used to cancel the deferred content if it
+     *         has not been created yet
+     * @throws IllegalStateException
+     *             if the container already has deferred content which has not
+     *             been created yet
+     */
+    public static Registration defer(HasComponents container, Trigger trigger,
+            SerializableSupplier<? extends Collection<? extends Component>> childrenSupplier) {
+        Objects.requireNonNull(container, "Container cannot be null");
+        Objects.requireNonNull(trigger, "Trigger cannot be null");
+        Objects.requireNonNull(childrenSupplier,
+                "Children supplier cannot be null");
+
+        DeferredChildren feature = getFeature(container);
+        Deferral deferral = new Deferral(container, childrenSupplier);
+        feature.setMaterializer(deferral, trigger == Trigger.VISIBLE);
+
+        if (trigger == Trigger.IN_VIEWPORT) {
+            Element element = container.getElement();
+            // Content is created for disabled containers as well
+            deferral.registrations.add(element
+                    .addEventListener(IN_VIEWPORT_EVENT,
+                            event -> feature.materialize())
+                    .setDisabledUpdateMode(DisabledUpdateMode.ALWAYS));
+            deferral.registrations.add(element
+                    .addAttachListener(event -> observeViewport(element)));
+            if (element.getNode().isAttached()) {
+                observeViewport(element);
+            }
+        }
+        return deferral;
+    }
+
+    /**
+     * Checks whether the given container has deferred content which has not
+     * been created yet.
+     *
+     * @param container
+     *            the container to check, not {@code null}
+     * @return {@code true} if there is pending deferred content,
+     *         {@code false} otherwise
+     */
+    public static boolean isPending(HasComponents container) {
+        Objects.requireNonNull(container, "Container cannot be null");
+        return container.getElement().getNode()
+                .getFeatureIfInitialized(DeferredChildren.class)
+                .map(DeferredChildren::isPending).orElse(false);
+    }
+
+    /**
+     * Creates the deferred content of the given container immediately,
+     * regardless of its trigger. Does nothing if there is no pending deferred
+     * content.
+     *
+     * @param container
+     *            the container whose content to create, not {@code null}
+     */
+    public static void materialize(HasComponents container) {
+        Objects.requireNonNull(container, "Container cannot be null");
+        container.getElement().getNode()
+                .getFeatureIfInitialized(DeferredChildren.class)
+                .ifPresent(DeferredChildren::materialize);
+    }
+
+    private static DeferredChildren getFeature(HasComponents container) {
+        return container.getElement().getNode()
+                .getFeature(DeferredChildren.class);
+    }
+
+    private static void observeViewport(Element element) {
+        element.executeJs(OBSERVE_VIEWPORT_EXPRESSION, IN_VIEWPORT_EVENT);
+    }
+}
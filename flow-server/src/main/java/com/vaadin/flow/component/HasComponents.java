@@ -16,12 +16,15 @@
 package com.vaadin.flow.component;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 
 import org.slf4j.LoggerFactory;
 
 import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.function.SerializableSupplier;
+import com.vaadin.flow.shared.Registration;
 
 /**
  * A component to which the user can add and remove child components.
@@ -144,4 +147,43 @@ public interface HasComponents extends HasElement, HasEnabled {
     default void addComponentAsFirst(Component component) {
         addComponentAtIndex(0, component);
     }
+
+    /**
+     * Adds children to this component lazily. The given supplier is invoked
+     * only when this component is attached and visible, i.e. neither this
+     * component nor any of its ancestors is hidden. Until then no components
+     * or state nodes are created for the children.
+     * <p>
+     * The supplied components are added using {@link #add(Component...)}.
+     *
+     * @param childrenSupplier
+     *            the supplier of the children, not <code>null</code>
+     * @return a handle that can be used to cancel the deferred content if it
+     *         has not been created yet
+     * @see DeferredContent
+     */
+    default Registration addDeferred(
+            SerializableSupplier<? extends Collection<? extends Component>> childrenSupplier) {
+        return addDeferred(DeferredContent.Trigger.VISIBLE, childrenSupplier);
+    }
+
+    /**
+     * Adds children to this component lazily. The given supplier is invoked
+     * only when the given trigger condition is met for this component.
+     * <p>
+     * The supplied components are added using {@link #add(Component...)}.
+     *
+     * @param trigger
+     *            the condition for creating the children, not
+     *            <code>null</code>
+     * @param childrenSupplier
+     *            the supplier of the children, not <code>null</code>
+     * @return a handle that can be used to cancel the deferred content if it
+     *         has not been created yet
+     * @see DeferredContent
+     */
+    default Registration addDeferred(DeferredContent.Trigger trigger,
+            SerializableSupplier<? extends Collection<? extends Component>> childrenSupplier) {
+        return DeferredContent.defer(this, trigger, childrenSupplier);
+    }
 }
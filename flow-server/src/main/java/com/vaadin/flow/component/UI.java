@@ -23,6 +23,8 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
 import java.util.regex.Pattern;
 
@@ -41,6 +43,7 @@ import com.vaadin.flow.component.page.Page;
 import com.vaadin.flow.dom.Element;
 import com.vaadin.flow.function.SerializableConsumer;
 import com.vaadin.flow.function.SerializableRunnable;
+import com.vaadin.flow.function.SerializableSupplier;
 import com.vaadin.flow.i18n.I18NProvider;
 import com.vaadin.flow.internal.CurrentInstance;
 import com.vaadin.flow.internal.ExecutionContext;
@@ -319,7 +322,7 @@ public class UI extends Component
 
             // Can't use UI.push() directly since it checks for a valid session
             if (getSession() != null) {
-                getSession().getService().runPendingAccessTasks(getSession());
+                runPendingAccessTasks(getSession());
             }
             pushConnection.push();
         }
@@ -407,6 +410,14 @@ public class UI extends Component
         accessSynchronously(command, null);
     }
 
+    private void runPendingAccessTasks(VaadinSession session) {
+        if (!internals.isUILocking()) {
+            session.getService().runPendingAccessTasks(session);
+        } else if (internals.getLock().isHeldByCurrentThread()) {
+            internals.runPendingAccessTasks();
+        }
+    }
+
     private static void handleAccessDetach(SerializableRunnable detachHandler) {
         if (detachHandler != null) {
             detachHandler.run();
@@ -434,7 +445,12 @@ public class UI extends Component
 
         VaadinService.verifyNoOtherSessionLocked(session);
 
-        session.lock();
+        boolean uiLocking = internals.isUILocking();
+        if (uiLocking) {
+            internals.lock();
+        } else {
+            session.lock();
+        }
         try {
             if (getSession() == null) {
                 // UI was detached after fetching the session but before we
@@ -445,7 +461,11 @@ public class UI extends Component
             old = CurrentInstance.setCurrent(this);
             command.execute();
         } finally {
-            session.unlock();
+            if (uiLocking) {
+                internals.unlock();
+            } else {
+                session.unlock();
+            }
             if (old != null) {
                 CurrentInstance.restoreInstances(old);
             }
@@ -515,7 +535,7 @@ public class UI extends Component
             return null;
         }
 
-        return session.access(new ErrorHandlingCommand() {
+        ErrorHandlingCommand accessCommand = new ErrorHandlingCommand() {
             @Override
             public void execute() {
                 accessSynchronously(command, detachHandler);
@@ -535,7 +555,11 @@ public class UI extends Component
                     getLogger().error(e.getMessage(), e);
                 }
             }
-        });
+        };
+        if (internals.isUILocking()) {
+            return internals.access(accessCommand);
+        }
+        return session.access(accessCommand);
     }
 
     /**
@@ -593,6 +617,77 @@ public class UI extends Component
         return value -> access(() -> accessTask.accept(value), detachHandler);
     }
 
+    /**
+     * Runs the given task in the background using the executor of the
+     * {@link VaadinService} of this UI. The task is run without holding the
+     * session lock, so it must not access this UI directly; use
+     * {@link #access(Command)} or {@link #runInBackground(SerializableSupplier,
+     * SerializableConsumer)} for updating the UI.
+     * <p>
+     * By default the executor uses virtual threads when the JVM supports them.
+     *
+     * @param backgroundTask
+     *            the task to run, not <code>null</code>
+     * @return a future that is completed when the task has been run
+     * @throws UIDetachedException
+     *             if the UI is not attached to a session
+     * @see VaadinService#getExecutor()
+     */
+    public CompletableFuture<Void> runInBackground(
+            SerializableRunnable backgroundTask) {
+        Objects.requireNonNull(backgroundTask,
+                "Background task cannot be null");
+
+        return CompletableFuture.runAsync(backgroundTask,
+                getServiceExecutor());
+    }
+
+    /**
+     * Computes a value in the background using the executor of the
+     * {@link VaadinService} of this UI and then passes it to the given access
+     * task with this UI locked. The background task is run without holding
+     * the session lock, so it must not access this UI directly.
+     * <p>
+     * If the UI is detached by the time the value has been computed, the
+     * returned future is completed exceptionally with an
+     * {@link UIDetachedException}.
+     *
+     * @param <T>
+     *            the type of the computed value
+     * @param backgroundTask
+     *            the task which computes the value, not <code>null</code>
+     * @param accessTask
+     *            the task which updates this UI with the value, not
+     *            <code>null</code>
+     * @return a future that is completed with the computed value once the
+     *         access task has been enqueued
+     * @throws UIDetachedException
+     *             if the UI is not attached to a session
+     * @see #accessLater(SerializableConsumer, SerializableRunnable)
+     */
+    public <T> CompletableFuture<T> runInBackground(
+            SerializableSupplier<T> backgroundTask,
+            SerializableConsumer<T> accessTask) {
+        Objects.requireNonNull(backgroundTask,
+                "Background task cannot be null");
+        SerializableConsumer<T> update = accessLater(accessTask, null);
+
+        return CompletableFuture
+                .supplyAsync(backgroundTask, getServiceExecutor())
+                .thenApply(value -> {
+                    update.accept(value);
+                    return value;
+                });
+    }
+
+    private Executor getServiceExecutor() {
+        VaadinSession session = getSession();
+        if (session == null) {
+            throw new UIDetachedException();
+        }
+        return session.getService().getExecutor();
+    }
+
     /**
      * Sets the interval with which the UI should poll the server to see if
      * there are any changes. Polling is disabled by default.
@@ -662,7 +757,7 @@ public class UI extends Component
         if (session == null) {
             throw new UIDetachedException("Cannot push a detached UI");
         }
-        session.checkHasLock();
+        internals.checkHasLock();
 
         if (!getPushConfiguration().getPushMode().isEnabled()) {
             throw new IllegalStateException("Push not enabled");
@@ -676,7 +771,7 @@ public class UI extends Component
          * when the push would otherwise be ignored because there are no changes
          * to push.
          */
-        session.getService().runPendingAccessTasks(session);
+        runPendingAccessTasks(session);
 
         if (!getInternals().isDirty()) {
             // Do not push if there is nothing to push
@@ -15,6 +15,8 @@
  */
 package com.vaadin.flow.component.internal;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -24,6 +26,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -48,6 +54,7 @@ import com.vaadin.flow.dom.impl.BasicElementStateProvider;
 import com.vaadin.flow.function.DeploymentConfiguration;
 import com.vaadin.flow.internal.AnnotationReader;
 import com.vaadin.flow.internal.ConstantPool;
+import com.vaadin.flow.internal.CurrentInstance;
 import com.vaadin.flow.internal.JsonCodec;
 import com.vaadin.flow.internal.StateTree;
 import com.vaadin.flow.internal.UrlUtil;
@@ -67,6 +74,10 @@ import com.vaadin.flow.router.RouterLayout;
 import com.vaadin.flow.router.internal.AfterNavigationHandler;
 import com.vaadin.flow.router.internal.BeforeEnterHandler;
 import com.vaadin.flow.router.internal.BeforeLeaveHandler;
+import com.vaadin.flow.server.Command;
+import com.vaadin.flow.server.FutureAccess;
+import com.vaadin.flow.server.ReentrantSessionLock;
+import com.vaadin.flow.server.SessionLock;
 import com.vaadin.flow.server.VaadinContext;
 import com.vaadin.flow.server.VaadinService;
 import com.vaadin.flow.server.VaadinSession;
@@ -137,6 +148,8 @@ public class UIInternals implements Serializable {
         }
     }
 
+    private static final String UI_NOT_LOCKED_MESSAGE = "Cannot access state in UI without locking the UI or its session.";
+
     /**
      * Tracks which message from the client should come next. First message from
      * the client has id 0.
@@ -201,6 +214,20 @@ public class UIInternals implements Serializable {
 
     private boolean isFallbackChunkLoaded;
 
+    /*
+     * Only used with UI level locking. The lock of the UI is always taken
+     * together with the read lock of the UI access lock of its session.
+     */
+    private SessionLock lock;
+    private ReentrantReadWriteLock sessionUIAccessLock;
+
+    /*
+     * Pending tasks can't be serialized and the queue should be empty when the
+     * UI is serialized as long as it doesn't happen while some other thread
+     * has the lock.
+     */
+    private transient ConcurrentLinkedQueue<FutureAccess> pendingAccessQueue = new ConcurrentLinkedQueue<>();
+
     /**
      * Creates a new instance for the given UI.
      *
@@ -406,6 +433,11 @@ public class UIInternals implements Serializable {
             this.session = session;
         }
 
+        if (session != null && session.isUILocking() && lock == null) {
+            lock = new ReentrantSessionLock();
+            sessionUIAccessLock = session.getUIAccessLock();
+        }
+
         if (session != null) {
             ComponentUtil.onComponentAttach(ui, true);
         }
@@ -496,7 +528,7 @@ public class UIInternals implements Serializable {
     }
 
     private <E> Registration addListener(Class<E> handler, E listener) {
-        session.checkHasLock();
+        checkHasLock();
         List<E> list = (List<E>) listeners.computeIfAbsent(handler,
                 key -> new ArrayList<>());
         list.add(listener);
@@ -549,7 +581,7 @@ public class UIInternals implements Serializable {
      */
     public void addJavaScriptInvocation(
             PendingJavaScriptInvocation invocation) {
-        session.checkHasLock();
+        checkHasLock();
         pendingJsInvocations.add(invocation);
     }
 
@@ -788,6 +820,267 @@ public class UIInternals implements Serializable {
         return session;
     }
 
+    /**
+     * Checks whether the UI is protected by its own lock instead of the lock
+     * of the session it is attached to.
+     *
+     * @return {@code true} if the UI has been attached to a session which
+     *         uses UI level locking, {@code false} otherwise
+     * @see DeploymentConfiguration#isUILocking()
+     */
+    public boolean isUILocking() {
+        return lock != null;
+    }
+
+    /**
+     * Gets the lock which protects the UI when UI level locking is used.
+     *
+     * @return the lock of the UI, or {@code null} if UI level locking is not
+     *         used
+     * @see #isUILocking()
+     */
+    public SessionLock getLock() {
+        return lock;
+    }
+
+    /**
+     * Checks whether the current thread may access the state of the UI. With
+     * UI level locking, the thread must hold the lock of this UI or the
+     * session lock, which excludes all the UI locks of the session. Otherwise
+     * the thread must hold the session lock.
+     *
+     * @return {@code true} if the current thread may access the UI,
+     *         {@code false} otherwise
+     * @see VaadinSession#hasLock()
+     */
+    public boolean hasLock() {
+        if (lock != null) {
+            return lock.isHeldByCurrentThread()
+                    || sessionUIAccessLock.isWriteLockedByCurrentThread();
+        }
+        VaadinSession currentSession = session;
+        return currentSession != null && currentSession.hasLock();
+    }
+
+    /**
+     * Potentially checks whether the current thread may access the state of
+     * the UI, and fails if not. The check is done in the same situations as
+     * {@link VaadinSession#checkHasLock()} does it. Nothing is checked for a
+     * UI which is not attached to a session.
+     *
+     * @see #hasLock()
+     */
+    public void checkHasLock() {
+        VaadinSession currentSession = session;
+        if (currentSession == null) {
+            return;
+        }
+        if (lock == null) {
+            currentSession.checkHasLock();
+            return;
+        }
+        DeploymentConfiguration configuration = currentSession
+                .getConfiguration();
+        if (configuration == null || configuration.isProductionMode()) {
+            assert hasLock() : UI_NOT_LOCKED_MESSAGE;
+        } else if (!hasLock()) {
+            throw new IllegalStateException(UI_NOT_LOCKED_MESSAGE);
+        }
+    }
+
+    /**
+     * Locks the UI when UI level locking is used. This method should always be
+     * paired with a call to {@link #unlock()} in a finally block.
+     * <p>
+     * The lock can't be taken while another thread holds the session lock.
+     * A thread holding the session lock may lock any UI of the session without
+     * waiting, but a thread holding the lock of a UI must not wait for the
+     * lock of another UI or for the session lock.
+     *
+     * @throws IllegalStateException
+     *             if the current thread holds the lock of another UI of the
+     *             same session but not the session lock
+     */
+    public void lock() {
+        if (!lock.isHeldByCurrentThread()
+                && sessionUIAccessLock.getReadHoldCount() > 0
+                && !sessionUIAccessLock.isWriteLockedByCurrentThread()) {
+            throw new IllegalStateException(
+                    "Cannot lock a UI while holding the lock of another UI of the same session. "
+                            + "Use UI.access() instead.");
+        }
+        sessionUIAccessLock.readLock().lock();
+        lock.lock();
+    }
+
+    /**
+     * Locks the UI if it can be done without waiting.
+     */
+    private boolean tryLock() {
+        if (!sessionUIAccessLock.readLock().tryLock()) {
+            return false;
+        }
+        boolean locked = false;
+        try {
+            // tryLock() would be shorter, but it does not guarantee fairness
+            locked = lock.tryLock(0, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (!locked) {
+                sessionUIAccessLock.readLock().unlock();
+            }
+        }
+        return locked;
+    }
+
+    /**
+     * Unlocks the UI. If the lock is ultimately released, pending access tasks
+     * of the UI are run and pending changes are pushed to the client if
+     * automatic push is used.
+     */
+    public void unlock() {
+        boolean ultimateRelease = false;
+        try {
+            if (lock.getHoldCount() == 1) {
+                ultimateRelease = true;
+                runPendingAccessTasks();
+
+                if (session != null && ui.getPushConfiguration()
+                        .getPushMode() == PushMode.AUTOMATIC) {
+                    Map<Class<?>, CurrentInstance> oldCurrent = CurrentInstance
+                            .setCurrent(ui);
+                    try {
+                        ui.push();
+                    } finally {
+                        CurrentInstance.restoreInstances(oldCurrent);
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+            sessionUIAccessLock.readLock().unlock();
+        }
+
+        if (ultimateRelease) {
+            // A task might have been added after the queue was purged
+            ensureAccessQueuePurged();
+
+            // Session tasks are not run while a UI is locked
+            VaadinSession currentSession = session;
+            if (currentSession != null && !currentSession.hasLock()
+                    && !currentSession.getPendingAccessQueue().isEmpty()) {
+                currentSession.getService()
+                        .ensureAccessQueuePurged(currentSession);
+            }
+        }
+    }
+
+    /**
+     * Runs the given command with the UI locked, but only if the lock can be
+     * acquired without waiting.
+     *
+     * @param command
+     *            the command to run, not {@code null}
+     * @return {@code true} if the command was run, {@code false} if the UI was
+     *         locked by another thread
+     */
+    public boolean tryAccessSynchronously(Command command) {
+        if (!tryLock()) {
+            return false;
+        }
+        Map<Class<?>, CurrentInstance> old = CurrentInstance.setCurrent(ui);
+        try {
+            command.execute();
+        } finally {
+            unlock();
+            CurrentInstance.restoreInstances(old);
+        }
+        return true;
+    }
+
+    /**
+     * Enqueues a command to be run with the UI locked. The command is run right
+     * away if the lock is available, otherwise it is run when the lock is
+     * released.
+     *
+     * @param command
+     *            the command to run, not {@code null}
+     * @return a future that can be used to check for task completion and to
+     *         cancel the task
+     */
+    public Future<Void> access(Command command) {
+        FutureAccess future = new FutureAccess(session, command);
+        pendingAccessQueue.add(future);
+        ensureAccessQueuePurged();
+        return future;
+    }
+
+    /**
+     * Runs the pending access tasks of the UI. The UI must be locked by the
+     * current thread.
+     */
+    public void runPendingAccessTasks() {
+        assert lock.isHeldByCurrentThread();
+        if (pendingAccessQueue.isEmpty()) {
+            return;
+        }
+
+        Map<Class<?>, CurrentInstance> oldInstances = CurrentInstance
+                .getInstances();
+        CurrentInstance.setCurrent(ui);
+        try {
+            FutureAccess pendingAccess;
+            while ((pendingAccess = pendingAccessQueue.poll()) != null) {
+                if (!pendingAccess.isCancelled()) {
+                    pendingAccess.run();
+                    try {
+                        pendingAccess.get();
+                    } catch (Exception exception) {
+                        pendingAccess.handleError(exception);
+                    }
+                }
+            }
+        } finally {
+            CurrentInstance.clearAll();
+            CurrentInstance.restoreInstances(oldInstances);
+        }
+    }
+
+    /**
+     * Makes sure the pending access tasks of the UI are run when UI level
+     * locking is used. If the UI is locked by the current thread or some other
+     * thread, the tasks are run when the lock is released. Otherwise the lock
+     * is acquired and the tasks are run right away.
+     */
+    public void ensureAccessQueuePurged() {
+        if (pendingAccessQueue.isEmpty()) {
+            return;
+        }
+        VaadinSession currentSession = session;
+        if (currentSession != null && !lock.isHeldByCurrentThread()
+                && currentSession.getService().getDeploymentConfiguration()
+                        .isAsyncAccessQueuePurge()) {
+            currentSession.getService().getExecutor()
+                    .execute(this::purgeAccessQueue);
+        } else {
+            purgeAccessQueue();
+        }
+    }
+
+    private void purgeAccessQueue() {
+        if (tryLock()) {
+            // unlock triggers runPendingAccessTasks
+            unlock();
+        }
+    }
+
+    private void readObject(ObjectInputStream stream)
+            throws IOException, ClassNotFoundException {
+        stream.defaultReadObject();
+        pendingAccessQueue = new ConcurrentLinkedQueue<>();
+    }
+
     private static Logger getLogger() {
         return LoggerFactory.getLogger(UIInternals.class.getName());
     }
@@ -313,6 +313,76 @@ public interface DeploymentConfiguration
                 false);
     }
 
+    /**
+     * Checks whether the queue of pending session access tasks should be
+     * purged asynchronously on the executor of the service instead of the
+     * thread which enqueues a task.
+     * <p>
+     * By default it is <code>false</code>, since applications may rely on a
+     * task enqueued with {@link com.vaadin.flow.server.VaadinSession#access}
+     * having been run by the time the call returns when the session is not
+     * locked by any other thread.
+     *
+     * @return <code>true</code> if the access queue is purged asynchronously,
+     *         <code>false</code> otherwise
+     * @see com.vaadin.flow.server.VaadinService#getExecutor()
+     */
+    default boolean isAsyncAccessQueuePurge() {
+        return getBooleanProperty(
+                InitParameters.SERVLET_PARAMETER_ASYNC_ACCESS_QUEUE_PURGE,
+                false);
+    }
+
+    /**
+     * Checks whether the executor of the service should use virtual threads
+     * if they are supported by the JVM.
+     * <p>
+     * By default it is <code>true</code>.
+     *
+     * @return <code>true</code> if virtual threads should be used when
+     *         available, <code>false</code> to always use platform threads
+     * @see com.vaadin.flow.server.VaadinService#getExecutor()
+     */
+    default boolean isExecutorVirtualThreads() {
+        return getBooleanProperty(
+                InitParameters.SERVLET_PARAMETER_EXECUTOR_VIRTUAL_THREADS,
+                true);
+    }
+
+    /**
+     * Checks whether each UI should have its own lock. When enabled, UIDL
+     * requests, heartbeats, push messages and
+     * {@link com.vaadin.flow.component.UI#access} tasks only lock the UI they
+     * target, so that the UIs of a session can be accessed in parallel. The
+     * session lock still gives exclusive access to all the UIs of the session,
+     * waiting until the UI locks have been released.
+     * <p>
+     * By default it is <code>false</code>.
+     *
+     * @return <code>true</code> if UIs are locked individually,
+     *         <code>false</code> if the session lock is used for all UIs
+     */
+    default boolean isUILocking() {
+        return getBooleanProperty(
+                InitParameters.SERVLET_PARAMETER_UI_LOCKING, false);
+    }
+
+    /**
+     * Checks whether inactive UIs and sessions should be closed by a background
+     * scheduler tracking their deadlines instead of checking all the UIs of a
+     * session at the end of each request.
+     * <p>
+     * By default it is <code>false</code>.
+     *
+     * @return <code>true</code> if the UI expiry scheduler is used,
+     *         <code>false</code> otherwise
+     * @see com.vaadin.flow.server.VaadinService#getUIExpiryScheduler()
+     */
+    default boolean isUIExpiryScheduler() {
+        return getBooleanProperty(
+                InitParameters.SERVLET_PARAMETER_UI_EXPIRY_SCHEDULER, false);
+    }
+
     /**
      * Checks if dev mode live reload is enabled or not.
      *
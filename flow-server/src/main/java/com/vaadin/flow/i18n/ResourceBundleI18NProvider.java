@@ -0,0 +1,338 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.i18n;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.LoggerFactory;
+
+import com.vaadin.flow.function.DeploymentConfiguration;
+import com.vaadin.flow.server.VaadinService;
+
+/**
+ * I18N provider reading the translations from resource bundles.
+ * <p>
+ * The bundles are loaded once per locale, and the {@link MessageFormat} of each
+ * translation is compiled the first time the translation is used with
+ * parameters. At most the given number of translations are kept per locale,
+ * the least recently used ones being discarded first.
+ * There is no fallback to the default locale of the JVM: a translation missing
+ * from the bundles of a locale is returned as {@code !{language}: {key}}.
+ * <p>
+ * In development mode, the bundles are checked for modifications at most once
+ * per second and the translations of a modified bundle are reloaded.
+ * <p>
+ * To use the provider, extend it with a public no-argument constructor and set
+ * the extending class as the {@code i18n.provider} property, for instance:
+ *
+ * <pre>
+ * public class TranslationProvider extends ResourceBundleI18NProvider {
+ *     public TranslationProvider() {
+ *         super("translations", Arrays.asList(Locale.ENGLISH, new Locale("fi")));
+ *     }
+ * }
+ * </pre>
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ */
+public class ResourceBundleI18NProvider implements I18NProvider {
+
+    /**
+     * The default maximum number of translations to keep per locale.
+     */
+    public static final int DEFAULT_MAX_CACHED_TRANSLATIONS = 1000;
+
+    private static final long RELOAD_CHECK_INTERVAL = 1000;
+
+    private static final BundleControl CACHING_CONTROL = new BundleControl(
+            ResourceBundle.Control.TTL_NO_EXPIRATION_CONTROL);
+
+    private static final BundleControl RELOADING_CONTROL = new BundleControl(
+            RELOAD_CHECK_INTERVAL);
+
+    private final String baseName;
+    private final List<Locale> providedLocales;
+    private final int maxCachedTranslations;
+
+    // Resource bundles are not serializable, so the caches are recreated
+    // when deserialized
+    private transient Map<Locale, Optional<ResourceBundle>> bundles = new ConcurrentHashMap<>();
+    private transient Map<Locale, Map<String, Translation>> translations = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new provider for the given resource bundle.
+     *
+     * @param baseName
+     *            the base name of the resource bundle, for instance
+     *            {@code "translations"} for {@code translations_en.properties}
+     *            in the root of the class path, not {@code null}
+     * @param providedLocales
+     *            the locales to provide translations for, the first one being
+     *            the default locale, not {@code null}
+     */
+    public ResourceBundleI18NProvider(String baseName,
+            List<Locale> providedLocales) {
+        this(baseName, providedLocales, DEFAULT_MAX_CACHED_TRANSLATIONS);
+    }
+
+    /**
+     * Creates a new provider for the given resource bundle.
+     *
+     * @param baseName
+     *            the base name of the resource bundle, for instance
+     *            {@code "translations"} for {@code translations_en.properties}
+     *            in the root of the class path, not {@code null}
+     * @param providedLocales
+     *            the locales to provide translations for, the first one being
+     *            the default locale, not {@code null}
+     * @param maxCachedTranslations
+     *            the maximum number of translations to keep per locale, not
+     *            negative
+     */
+    public ResourceBundleI18NProvider(String baseName,
+            List<Locale> providedLocales, int maxCachedTranslations) {
+        Objects.requireNonNull(baseName, "The base name must not be null");
+        Objects.requireNonNull(providedLocales,
+                "The provided locales must not be null");
+        if (maxCachedTranslations < 0) {
+            throw new IllegalArgumentException(
+                    "The maximum number of translations must not be negative");
+        }
+        this.baseName = baseName;
+        this.providedLocales = Collections
+                .unmodifiableList(new ArrayList<>(providedLocales));
+        this.maxCachedTranslations = maxCachedTranslations;
+    }
+
+    @Override
+    public List<Locale> getProvidedLocales() {
+        return providedLocales;
+    }
+
+    @Override
+    public String getTranslation(String key, Locale locale, Object... params) {
+        ResourceBundle bundle = getResourceBundle(locale);
+        if (bundle == null) {
+            return getMissingTranslation(key, locale);
+        }
+        return getTranslation(bundle, key, locale).format(key, locale, params);
+    }
+
+    /**
+     * Gets the translations for several keys without parameters, looking up
+     * the resource bundle of the locale only once. This is useful when all the
+     * texts of a view are updated after the locale has changed.
+     *
+     * @param keys
+     *            the translation keys, not {@code null}
+     * @param locale
+     *            the locale to use, not {@code null}
+     * @return a map from the keys to their translations, in the iteration order
+     *         of the keys
+     */
+    public Map<String, String> getTranslations(Collection<String> keys,
+            Locale locale) {
+        Map<String, String> result = new LinkedHashMap<>();
+        ResourceBundle bundle = getResourceBundle(locale);
+        for (String key : keys) {
+            result.put(key,
+                    bundle == null ? getMissingTranslation(key, locale)
+                            : getTranslation(bundle, key, locale).format(key,
+                                    locale));
+        }
+        return result;
+    }
+
+    /**
+     * Gets whether the resource bundles should be checked for modifications.
+     * <p>
+     * By default, the bundles are reloaded in development mode.
+     *
+     * @return {@code true} to reload modified resource bundles, {@code false}
+     *         to load each bundle only once
+     */
+    protected boolean isReloadEnabled() {
+        VaadinService service = VaadinService.getCurrent();
+        if (service == null) {
+            return false;
+        }
+        DeploymentConfiguration configuration = service
+                .getDeploymentConfiguration();
+        return configuration != null && !configuration.isProductionMode();
+    }
+
+    /**
+     * Gets the class loader to load the resource bundles with.
+     * <p>
+     * By default, the class loader of the provider class is used.
+     *
+     * @return the class loader, not {@code null}
+     */
+    protected ClassLoader getBundleClassLoader() {
+        return getClass().getClassLoader();
+    }
+
+    /**
+     * Gets the text returned for a translation which is not found.
+     *
+     * @param key
+     *            the translation key
+     * @param locale
+     *            the locale of the translation
+     * @return the text to show instead of the translation
+     */
+    protected String getMissingTranslation(String key, Locale locale) {
+        return "!" + locale.getLanguage() + ": " + key;
+    }
+
+    private ResourceBundle getResourceBundle(Locale locale) {
+        if (isReloadEnabled()) {
+            // The bundle cache of the JDK checks for modifications once the
+            // time to live of the loaded bundle has passed
+            return loadBundle(locale, RELOADING_CONTROL);
+        }
+        return bundles.computeIfAbsent(locale, newLocale -> Optional
+                .ofNullable(loadBundle(newLocale, CACHING_CONTROL)))
+                .orElse(null);
+    }
+
+    private ResourceBundle loadBundle(Locale locale, BundleControl control) {
+        try {
+            return ResourceBundle.getBundle(baseName, locale,
+                    getBundleClassLoader(), control);
+        } catch (MissingResourceException e) {
+            LoggerFactory.getLogger(ResourceBundleI18NProvider.class).debug(
+                    "No resource bundle '{}' for locale '{}'", baseName,
+                    locale, e);
+            return null;
+        }
+    }
+
+    private Translation getTranslation(ResourceBundle bundle, String key,
+            Locale locale) {
+        if (maxCachedTranslations == 0) {
+            return createTranslation(bundle, key);
+        }
+        Map<String, Translation> localeTranslations = translations
+                .computeIfAbsent(locale, newLocale -> new TranslationCache<>(
+                        maxCachedTranslations));
+        // The cache is access ordered, so reading it modifies it too
+        synchronized (localeTranslations) {
+            Translation translation = localeTranslations.get(key);
+            // A translation from a reloaded bundle is replaced
+            if (translation == null || translation.bundle != bundle) {
+                translation = createTranslation(bundle, key);
+                localeTranslations.put(key, translation);
+            }
+            return translation;
+        }
+    }
+
+    private Translation createTranslation(ResourceBundle bundle, String key) {
+        String pattern = bundle.containsKey(key) ? bundle.getString(key)
+                : null;
+        return new Translation(bundle, pattern);
+    }
+
+    private void readObject(ObjectInputStream in)
+            throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        bundles = new ConcurrentHashMap<>();
+        translations = new ConcurrentHashMap<>();
+    }
+
+    private final class Translation {
+        private final ResourceBundle bundle;
+        private final String pattern;
+        private volatile MessageFormat format;
+
+        private Translation(ResourceBundle bundle, String pattern) {
+            this.bundle = bundle;
+            this.pattern = pattern;
+        }
+
+        private String format(String key, Locale locale, Object... params) {
+            if (pattern == null) {
+                return getMissingTranslation(key, locale);
+            }
+            if (params == null || params.length == 0) {
+                return pattern;
+            }
+            MessageFormat messageFormat = format;
+            if (messageFormat == null) {
+                messageFormat = new MessageFormat(pattern, locale);
+                format = messageFormat;
+            }
+            // MessageFormat is not thread safe
+            synchronized (messageFormat) {
+                return messageFormat.format(params);
+            }
+        }
+    }
+
+    private static final class TranslationCache<V>
+            extends LinkedHashMap<String, V> {
+        private final int maxEntries;
+
+        private TranslationCache(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+            return size() > maxEntries;
+        }
+    }
+
+    private static final class BundleControl extends ResourceBundle.Control {
+        private final long timeToLive;
+
+        private BundleControl(long timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        @Override
+        public List<String> getFormats(String baseName) {
+            return FORMAT_DEFAULT;
+        }
+
+        @Override
+        public Locale getFallbackLocale(String baseName, Locale locale) {
+            return null;
+        }
+
+        @Override
+        public long getTimeToLive(String baseName, Locale locale) {
+            return timeToLive;
+        }
+    }
+}
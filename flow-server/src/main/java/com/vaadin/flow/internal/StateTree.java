@@ -32,8 +32,9 @@ import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.internal.UIInternals;
 import com.vaadin.flow.function.SerializableConsumer;
 import com.vaadin.flow.internal.change.NodeChange;
+import com.vaadin.flow.internal.nodefeature.DeferredChildren;
+import com.vaadin.flow.internal.nodefeature.ElementData;
 import com.vaadin.flow.internal.nodefeature.NodeFeature;
-import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.server.communication.UidlWriter;
 import com.vaadin.flow.shared.Registration;
 
@@ -160,6 +161,8 @@ public class StateTree implements NodeOwner {
 
     private Set<StateNode> pendingExecutionNodes = new HashSet<>();
 
+    private Set<StateNode> deferredNodes = new LinkedHashSet<>();
+
     private int nextBeforeClientResponseIndex = 1;
 
     private final StateNode rootNode;
@@ -243,6 +246,7 @@ public class StateTree implements NodeOwner {
         }
 
         pendingExecutionNodes.remove(node);
+        deferredNodes.remove(node);
     }
 
     @Override
@@ -414,6 +418,82 @@ public class StateTree implements NodeOwner {
         return !pendingExecutionNodes.isEmpty();
     }
 
+    /**
+     * Registers an attached node which has deferred children that have not
+     * been materialized yet.
+     * <p>
+     * The tree keeps track of such nodes until they are detached so that the
+     * children can be created by {@link #materializeDeferredNodes()} once the
+     * node becomes visible.
+     *
+     * @param node
+     *            the node with pending deferred children, not {@code null}
+     * @see DeferredChildren
+     */
+    public void registerDeferredNode(StateNode node) {
+        assert node.getOwner() == this;
+        if (hasNode(node)) {
+            deferredNodes.add(node);
+        }
+    }
+
+    /**
+     * Checks whether the tree contains attached nodes whose deferred children
+     * have not been materialized yet.
+     *
+     * @return <code>true</code> if there are unmaterialized subtrees,
+     *         <code>false</code> otherwise
+     */
+    public boolean hasDeferredNodes() {
+        return !deferredNodes.isEmpty();
+    }
+
+    /**
+     * Creates the deferred children of all attached nodes which are visible
+     * and configured to be materialized once visible.
+     * <p>
+     * Called internally by the framework before the changes are collected so
+     * that the created children are included in the same response.
+     *
+     * @return <code>true</code> if any children were materialized,
+     *         <code>false</code> otherwise
+     */
+    public boolean materializeDeferredNodes() {
+        if (deferredNodes.isEmpty()) {
+            return false;
+        }
+        deferredNodes.removeIf(node -> !node.getFeature(DeferredChildren.class)
+                .isPending());
+
+        List<StateNode> visibleNodes = deferredNodes.stream()
+                .filter(node -> node.getFeature(DeferredChildren.class)
+                        .isMaterializeWhenVisible())
+                .filter(StateTree::isVisible).collect(Collectors.toList());
+
+        boolean materialized = false;
+        for (StateNode node : visibleNodes) {
+            deferredNodes.remove(node);
+            // The node may be detached by another materializer
+            if (node.isAttached()) {
+                materialized |= node.getFeature(DeferredChildren.class)
+                        .materialize();
+            }
+        }
+        return materialized;
+    }
+
+    private static boolean isVisible(StateNode node) {
+        StateNode current = node;
+        while (current != null) {
+            if (current.hasFeature(ElementData.class) && !current
+                    .getFeature(ElementData.class).isVisible()) {
+                return false;
+            }
+            current = current.getParent();
+        }
+        return true;
+    }
+
     /**
      * Checks if there are changes waiting to be sent to the client side.
      *
@@ -425,10 +505,7 @@ public class StateTree implements NodeOwner {
     }
 
     private void checkHasLock() {
-        VaadinSession session = uiInternals.getSession();
-        if (session != null) {
-            session.checkHasLock();
-        }
+        uiInternals.checkHasLock();
     }
 
     /**
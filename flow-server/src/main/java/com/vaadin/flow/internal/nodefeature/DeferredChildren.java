@@ -0,0 +1,140 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.internal.nodefeature;
+
+import com.vaadin.flow.internal.StateNode;
+import com.vaadin.flow.internal.StateTree;
+import com.vaadin.flow.server.Command;
+
+/**
+ * Server side only feature which keeps track of children of a node which have
+ * not yet been created.
+ * <p>
+ * The children are created by running the registered materializer. The
+ * {@link StateTree} runs it before a response is written if the node is
+ * attached and visible, unless the materialization has been configured to be
+ * triggered explicitly (e.g. when the client reports that the element is in the
+ * viewport).
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ */
+public class DeferredChildren extends ServerSideFeature {
+
+    private Command materializer;
+
+    private boolean materializeWhenVisible;
+
+    /**
+     * Creates a new instance for the given node.
+     *
+     * @param node
+     *            the node that the feature belongs to
+     */
+    public DeferredChildren(StateNode node) {
+        super(node);
+    }
+
+    /**
+     * Sets the command that creates the deferred children of the node.
+     *
+     * @param materializer
+     *            the command which creates the children, not {@code null}
+     * @param materializeWhenVisible
+     *            {@code true} to run the command automatically once the node
+     *            is attached and visible, {@code false} to run it only through
+     *            {@link #materialize()}
+     * @throws IllegalStateException
+     *             if the node already has pending deferred children
+     */
+    public void setMaterializer(Command materializer,
+            boolean materializeWhenVisible) {
+        assert materializer != null;
+        if (isPending()) {
+            throw new IllegalStateException(
+                    "The node already has deferred children which have not "
+                            + "been materialized yet");
+        }
+        this.materializer = materializer;
+        this.materializeWhenVisible = materializeWhenVisible;
+
+        StateNode node = getNode();
+        if (node.isAttached() && node.getOwner() instanceof StateTree) {
+            ((StateTree) node.getOwner()).registerDeferredNode(node);
+        }
+    }
+
+    /**
+     * Checks whether the node has deferred children which have not been
+     * materialized yet.
+     *
+     * @return {@code true} if there are pending deferred children,
+     *         {@code false} otherwise
+     */
+    public boolean isPending() {
+        return materializer != null;
+    }
+
+    /**
+     * Checks whether the deferred children should be materialized
+     * automatically once the node is visible.
+     *
+     * @return {@code true} if the children are materialized when the node
+     *         becomes visible, {@code false} if the materialization is
+     *         triggered explicitly
+     */
+    public boolean isMaterializeWhenVisible() {
+        return materializeWhenVisible;
+    }
+
+    /**
+     * Creates the deferred children by running the materializer, if there is
+     * one. The materializer is run at most once.
+     *
+     * @return {@code true} if the materializer was run, {@code false} if there
+     *         was nothing to materialize
+     */
+    public boolean materialize() {
+        if (materializer == null) {
+            return false;
+        }
+        // Clear before running so that the materializer may register new
+        // deferred children for the same node
+        Command command = materializer;
+        clear();
+        command.execute();
+        return true;
+    }
+
+    /**
+     * Discards the pending materializer without running it.
+     */
+    public void clear() {
+        materializer = null;
+        materializeWhenVisible = false;
+    }
+
+    @Override
+    public void onAttach(boolean initialAttach) {
+        // Re-register: the tree forgets deferred nodes once they are detached
+        if (isPending()) {
+            StateNode node = getNode();
+            if (node.getOwner() instanceof StateTree) {
+                ((StateTree) node.getOwner()).registerDeferredNode(node);
+            }
+        }
+    }
+}
@@ -95,6 +95,8 @@ public class NodeFeatureRegistry {
         /* Supplementary generic stuff */
         registerFeature(ReturnChannelMap.class, ReturnChannelMap::new,
                 NodeFeatures.RETURN_CHANNEL_MAP);
+        registerFeature(DeferredChildren.class, DeferredChildren::new,
+                NodeFeatures.DEFERRED_CHILDREN);
 
         /* PolymerTemplate stuff */
         registerFeature(PolymerEventListenerMap.class,
@@ -135,6 +135,11 @@ public final class NodeFeatures {
      */
     public static final int RETURN_CHANNEL_MAP = 25;
 
+    /**
+     * Id for {@link DeferredChildren}.
+     */
+    public static final int DEFERRED_CHILDREN = 26;
+
     private NodeFeatures() {
         // Only static
     }
@@ -32,6 +32,10 @@ import com.vaadin.flow.server.InvalidRouteConfigurationException;
  * Define a route template data model which is used to store internally
  * registered routes.
  * <p>
+ * Copies of a model share the route segments with the original. A mutable
+ * model copies only the segments on the path of a changed route, so creating a
+ * copy is cheap and a change costs proportionally to the depth of the route.
+ * <p>
  * For internal use only. May be renamed or removed in a future release.
  */
 class RouteModel implements Serializable {
@@ -40,6 +44,12 @@ class RouteModel implements Serializable {
 
     private RouteSegment root;
 
+    /**
+     * Identifies the segments which this model may mutate in place. Other
+     * segments are shared and copied before they are changed.
+     */
+    private transient Object editToken;
+
     private RouteModel(boolean mutable) {
         this(RouteSegment.createRoot(), mutable);
     }
@@ -58,7 +68,8 @@ class RouteModel implements Serializable {
     }
 
     /**
-     * Copy the given model into a new one.
+     * Copy the given model into a new one. The copy shares all route
+     * segments with the original model until either of them is changed.
      *
      * @param original
      *            the original model.
@@ -67,7 +78,10 @@ class RouteModel implements Serializable {
      * @return a copy of the original model.
      */
     static RouteModel copy(RouteModel original, boolean mutable) {
-        return new RouteModel(new RouteSegment(original.root), mutable);
+        // The segments are now shared: the original may no longer mutate
+        // them in place either
+        original.editToken = null;
+        return new RouteModel(original.root, mutable);
     }
 
     /**
@@ -106,7 +120,9 @@ class RouteModel implements Serializable {
      */
     void removeRoute(String template) {
         throwIfImmutable();
-        root.removeSubRoute(template);
+        Object token = getEditToken();
+        root = root.editable(token);
+        root.removeSubRoute(template, token);
     }
 
     /**
@@ -128,7 +144,9 @@ class RouteModel implements Serializable {
      */
     void addRoute(String template, RouteTarget target) {
         throwIfImmutable();
-        root.addSubRoute(template, target);
+        Object token = getEditToken();
+        root = root.editable(token);
+        root.addSubRoute(template, target, token);
     }
 
     /**
@@ -253,6 +271,13 @@ class RouteModel implements Serializable {
         return result;
     }
 
+    private Object getEditToken() {
+        if (editToken == null) {
+            editToken = new Object();
+        }
+        return editToken;
+    }
+
     private void throwIfImmutable() {
         if (!mutable) {
             throw new IllegalStateException(
@@ -42,6 +42,11 @@ import com.vaadin.flow.server.AmbiguousRouteConfigurationException;
  * {@link RouteTarget} in case this segment is the last in the segments chain
  * referring to its target.ConfiguredRoutes.java
  * <p>
+ * Segments are structurally shared between copies of a {@link RouteModel}.
+ * A segment may only be mutated by the model which owns it, identified by its
+ * edit token. Other models copy the segments on the path to a change and share
+ * all other segments.
+ * <p>
  * For internal use only. May be renamed or removed in a future release.
  */
 final class RouteSegment implements Serializable {
@@ -101,6 +106,11 @@ final class RouteSegment implements Serializable {
      */
     private Map<String, RouteSegment> allSegments;
 
+    /**
+     * Edit token of the model which may mutate this segment in place.
+     */
+    private transient Object owner;
+
     private RouteSegment() {
     }
 
@@ -118,28 +128,25 @@ final class RouteSegment implements Serializable {
         }
     }
 
-    public RouteSegment(RouteSegment original) {
+    /**
+     * Creates a shallow copy of the given segment owned by the given edit
+     * token. The children are shared with the original segment.
+     */
+    private RouteSegment(RouteSegment original, Object owner) {
         this.name = original.name;
         this.template = original.template;
         this.info = original.info;
         this.pattern = original.pattern;
         this.target = original.target;
+        this.owner = owner;
 
-        original.getStaticSegments().entrySet()
-                .forEach(e -> this.addSegment(new RouteSegment(e.getValue()),
-                        this.getStaticSegments()));
-
-        original.getParameterSegments().entrySet()
-                .forEach(e -> this.addSegment(new RouteSegment(e.getValue()),
-                        this.getParameterSegments()));
-
-        original.getOptionalSegments().entrySet()
-                .forEach(e -> this.addSegment(new RouteSegment(e.getValue()),
-                        this.getOptionalSegments()));
-
-        original.getVarargsSegments().entrySet()
-                .forEach(e -> this.addSegment(new RouteSegment(e.getValue()),
-                        this.getVarargsSegments()));
+        this.staticSegments = copyChildren(original.staticSegments);
+        this.parameterSegments = copyChildren(original.parameterSegments);
+        this.optionalSegments = copyChildren(original.optionalSegments);
+        this.varargsSegments = copyChildren(original.varargsSegments);
+        if (original.allSegments != null) {
+            this.allSegments = new HashMap<>(original.allSegments);
+        }
     }
 
     /**
@@ -149,6 +156,19 @@ final class RouteSegment implements Serializable {
         return new RouteSegment("");
     }
 
+    /**
+     * Gets a version of this segment which can be mutated by the model with
+     * the given edit token: this instance if it is owned by the token,
+     * otherwise a shallow copy owned by the token.
+     *
+     * @param editToken
+     *            the edit token of the mutating model
+     * @return a segment owned by the edit token
+     */
+    RouteSegment editable(Object editToken) {
+        return owner == editToken ? this : new RouteSegment(this, editToken);
+    }
+
     String getName() {
         return name;
     }
@@ -223,8 +243,9 @@ final class RouteSegment implements Serializable {
         }
     }
 
-    void removeSubRoute(String template) {
-        removeSubRoute(PathUtil.getSegmentsList(template));
+    void removeSubRoute(String template, Object editToken) {
+        assert owner == editToken;
+        removeSubRoute(PathUtil.getSegmentsList(template), editToken);
     }
 
     /**
@@ -236,9 +257,12 @@ final class RouteSegment implements Serializable {
      *            details.
      * @param target
      *            target to set for the given template
+     * @param editToken
+     *            edit token of the model owning this segment
      */
-    void addSubRoute(String template, RouteTarget target) {
-        addSubRoute(PathUtil.getSegmentsList(template), target);
+    void addSubRoute(String template, RouteTarget target, Object editToken) {
+        assert owner == editToken;
+        addSubRoute(PathUtil.getSegmentsList(template), target, editToken);
     }
 
     /**
@@ -309,7 +333,8 @@ final class RouteSegment implements Serializable {
         }
     }
 
-    private void removeSubRoute(List<String> segmentPatterns) {
+    private void removeSubRoute(List<String> segmentPatterns,
+            Object editToken) {
         RouteSegment routeSegment;
         String segmentPattern = null;
         Map<String, RouteSegment> children = null;
@@ -322,14 +347,16 @@ final class RouteSegment implements Serializable {
             segmentPattern = segmentPatterns.get(0);
 
             children = getChildren(segmentPattern);
-            routeSegment = children.get(segmentPattern);
+            routeSegment = editableChild(children.get(segmentPattern),
+                    children, editToken);
         }
 
         if (routeSegment != null) {
 
             if (segmentPatterns.size() > 1) {
                 routeSegment.removeSubRoute(
-                        segmentPatterns.subList(1, segmentPatterns.size()));
+                        segmentPatterns.subList(1, segmentPatterns.size()),
+                        editToken);
             } else {
                 routeSegment.target = null;
             }
@@ -340,7 +367,8 @@ final class RouteSegment implements Serializable {
         }
     }
 
-    private void addSubRoute(List<String> segmentPatterns, RouteTarget target) {
+    private void addSubRoute(List<String> segmentPatterns, RouteTarget target,
+            Object editToken) {
 
         RouteSegment routeSegment;
         String segmentPattern = null;
@@ -354,7 +382,8 @@ final class RouteSegment implements Serializable {
             segmentPattern = segmentPatterns.get(0);
 
             children = getChildren(segmentPattern);
-            routeSegment = children.get(segmentPattern);
+            routeSegment = editableChild(children.get(segmentPattern),
+                    children, editToken);
         }
 
         if (routeSegment == null) {
@@ -376,16 +405,17 @@ final class RouteSegment implements Serializable {
             }
 
             routeSegment = addSegment(segmentPattern, children);
+            routeSegment.owner = editToken;
         }
 
-        routeSegment.setRouteTarget(segmentPatterns, target);
+        routeSegment.setRouteTarget(segmentPatterns, target, editToken);
     }
 
     private void setRouteTarget(List<String> segmentPatterns,
-            RouteTarget target) {
+            RouteTarget target, Object editToken) {
         if (segmentPatterns.size() > 1) {
             addSubRoute(segmentPatterns.subList(1, segmentPatterns.size()),
-                    target);
+                    target, editToken);
 
         } else {
             if (!hasTarget()) {
@@ -738,74 +768,106 @@ final class RouteSegment implements Serializable {
     private void addSegment(RouteSegment routeSegment,
             Map<String, RouteSegment> children) {
         children.put(routeSegment.getTemplate(), routeSegment);
-        getAllSegments().put(routeSegment.getTemplate(), routeSegment);
+        getOrCreateAllSegments().put(routeSegment.getTemplate(),
+                routeSegment);
+    }
+
+    /**
+     * Replaces the given child with a version owned by the edit token, unless
+     * it already is owned by it.
+     */
+    private RouteSegment editableChild(RouteSegment child,
+            Map<String, RouteSegment> children, Object editToken) {
+        if (child == null) {
+            return null;
+        }
+        RouteSegment editable = child.editable(editToken);
+        if (editable != child) {
+            // Replacing an existing key keeps the registration order
+            children.put(editable.getTemplate(), editable);
+            getOrCreateAllSegments().put(editable.getTemplate(), editable);
+        }
+        return editable;
+    }
+
+    private static Map<String, RouteSegment> copyChildren(
+            Map<String, RouteSegment> children) {
+        return children == null ? null : new LinkedHashMap<>(children);
     }
 
     private void removeSegment(String segmentTemplate,
             Map<String, RouteSegment> children) {
         children.remove(segmentTemplate);
-        getAllSegments().remove(segmentTemplate);
+        getOrCreateAllSegments().remove(segmentTemplate);
     }
 
     /**
      * Gets the children mapping, either static segments or parameters, which
-     * are siblings to segment.
+     * are siblings to segment. The mapping is created if it is missing, so
+     * this may only be called on a segment owned by the mutating model.
      */
     private Map<String, RouteSegment> getChildren(String segment) {
-        Map<String, RouteSegment> result;
+        // We want to process the data according to the priority and
+        // registration order.
         if (RouteFormat.isVarargsParameter(segment)) {
-            result = getVarargsSegments();
+            if (varargsSegments == null) {
+                varargsSegments = new LinkedHashMap<>();
+            }
+            return varargsSegments;
         } else if (RouteFormat.isOptionalParameter(segment)) {
-            result = getOptionalSegments();
+            if (optionalSegments == null) {
+                optionalSegments = new LinkedHashMap<>();
+            }
+            return optionalSegments;
         } else if (RouteFormat.isParameter(segment)) {
-            result = getParameterSegments();
+            if (parameterSegments == null) {
+                parameterSegments = new LinkedHashMap<>();
+            }
+            return parameterSegments;
         } else {
-            result = getStaticSegments();
+            if (staticSegments == null) {
+                staticSegments = new LinkedHashMap<>();
+            }
+            return staticSegments;
         }
-        return result;
     }
 
-    private Map<String, RouteSegment> getStaticSegments() {
-        if (staticSegments == null) {
-            // We want to process the data according to the priority and
-            // registration order.
-            staticSegments = new LinkedHashMap<>();
+    /**
+     * Gets the mapping of all child segments, creating it if it is missing.
+     * May only be called on a segment owned by the mutating model.
+     */
+    private Map<String, RouteSegment> getOrCreateAllSegments() {
+        if (allSegments == null) {
+            allSegments = new HashMap<>();
         }
-        return staticSegments;
+        return allSegments;
+    }
+
+    // The getters below are also used on segments shared between models, so
+    // they must not write any fields.
+
+    private Map<String, RouteSegment> getStaticSegments() {
+        return staticSegments == null ? Collections.emptyMap()
+                : staticSegments;
     }
 
     private Map<String, RouteSegment> getParameterSegments() {
-        if (parameterSegments == null) {
-            // We want to process the data according to the priority and
-            // registration order.
-            parameterSegments = new LinkedHashMap<>();
-        }
-        return parameterSegments;
+        return parameterSegments == null ? Collections.emptyMap()
+                : parameterSegments;
     }
 
     private Map<String, RouteSegment> getOptionalSegments() {
-        if (optionalSegments == null) {
-            // We want to process the data according to the priority and
-            // registration order.
-            optionalSegments = new LinkedHashMap<>();
-        }
-        return optionalSegments;
+        return optionalSegments == null ? Collections.emptyMap()
+                : optionalSegments;
     }
 
     private Map<String, RouteSegment> getVarargsSegments() {
-        if (varargsSegments == null) {
-            // We want to process the data according to the priority and
-            // registration order.
-            varargsSegments = new LinkedHashMap<>();
-        }
-        return varargsSegments;
+        return varargsSegments == null ? Collections.emptyMap()
+                : varargsSegments;
     }
 
     private Map<String, RouteSegment> getAllSegments() {
-        if (allSegments == null) {
-            allSegments = new HashMap<>();
-        }
-        return allSegments;
+        return allSegments == null ? Collections.emptyMap() : allSegments;
     }
 
     private static Optional<String> getSegmentValue(RouteSegment routeSegment,
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.vaadin.flow.shared.BrowserDetails;
+
+/**
+ * A thread-safe cache of the {@link BrowserDetails} parsed from user agent
+ * strings.
+ * <p>
+ * Most sessions are created by a small number of different browsers, so the
+ * details are parsed once per user agent and shared by all the
+ * {@link WebBrowser} instances with that user agent. The cache holds at most
+ * the given number of user agents: when it is full, an arbitrary entry is
+ * evicted to make room for a new one.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ */
+public final class BrowserDetailsCache implements Serializable {
+
+    private final int maxSize;
+    private final Map<String, BrowserDetails> details = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxSize
+     *            the maximum number of user agents to keep, not negative
+     */
+    public BrowserDetailsCache(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException(
+                    "The maximum size must not be negative");
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Gets the browser details for the given user agent, parsing them unless
+     * they are cached.
+     *
+     * @param userAgent
+     *            the user agent string, not {@code null}
+     * @return the browser details
+     */
+    public BrowserDetails get(String userAgent) {
+        BrowserDetails cached = details.get(userAgent);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        BrowserDetails parsed = new BrowserDetails(userAgent);
+        if (maxSize == 0) {
+            return parsed;
+        }
+        while (details.size() >= maxSize) {
+            Iterator<String> iterator = details.keySet().iterator();
+            if (!iterator.hasNext()) {
+                break;
+            }
+            iterator.next();
+            iterator.remove();
+        }
+        cached = details.putIfAbsent(userAgent, parsed);
+        return cached != null ? cached : parsed;
+    }
+
+    /**
+     * Gets the number of times the details of a user agent were found in the
+     * cache.
+     *
+     * @return the number of cache hits
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of times a user agent was parsed because its details
+     * were not in the cache.
+     *
+     * @return the number of cache misses
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the number of user agents currently in the cache.
+     *
+     * @return the number of cached user agents
+     */
+    public int size() {
+        return details.size();
+    }
+
+    /**
+     * Removes all the user agents from the cache and resets the hit and miss
+     * counts.
+     */
+    public void clear() {
+        details.clear();
+        hits.reset();
+        misses.reset();
+    }
+}
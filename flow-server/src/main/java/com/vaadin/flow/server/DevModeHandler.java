@@ -31,7 +31,10 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Enumeration;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
@@ -107,6 +110,13 @@ public final class DevModeHandler implements RequestHandler {
     private static final int DEFAULT_TIMEOUT = 120 * 1000;
     private static final String WEBPACK_HOST = "http://localhost";
 
+    // Headers which only concern a single connection and must not be
+    // forwarded by the proxy, see RFC 7230 section 6.1
+    private static final Set<String> HOP_BY_HOP_HEADERS = new HashSet<>(
+            Arrays.asList("connection", "keep-alive", "proxy-authenticate",
+                    "proxy-authorization", "te", "trailer",
+                    "transfer-encoding", "upgrade"));
+
     private boolean notified = false;
 
     private volatile String failedOutput;
@@ -302,6 +312,12 @@ public final class DevModeHandler implements RequestHandler {
      * <p>
      * Method returns {@code false} immediately if dev server failed on its
      * startup.
+     * <p>
+     * The connections to the dev server are kept alive and reused through the
+     * keep-alive cache of {@link HttpURLConnection}, whose size per host is
+     * bounded by the {@code http.maxConnections} system property. Conditional
+     * request headers and the {@code ETag} of the response are passed through,
+     * so that unchanged resources are answered with {@code 304 Not Modified}.
      *
      * @param request
      *            the servlet request
@@ -336,14 +352,16 @@ public final class DevModeHandler implements RequestHandler {
         HttpURLConnection connection = prepareConnection(requestFilename,
                 request.getMethod());
 
-        // Copies all the headers from the original request
+        // Copies the headers from the original request, except the ones
+        // concerning the connection to the browser so that the connection to
+        // webpack can be kept alive and reused
         Enumeration<String> headerNames = request.getHeaderNames();
         while (headerNames.hasMoreElements()) {
             String header = headerNames.nextElement();
-            connection.setRequestProperty(header,
-                    // Exclude keep-alive
-                    "Connect".equals(header) ? "close"
-                            : request.getHeader(header));
+            if (!isHopByHopHeader(header)) {
+                connection.setRequestProperty(header,
+                        request.getHeader(header));
+            }
         }
 
         // Send the request
@@ -353,6 +371,7 @@ public final class DevModeHandler implements RequestHandler {
         if (responseCode == HTTP_NOT_FOUND) {
             getLogger().debug("Resource not served by webpack {}",
                     requestFilename);
+            discardResponse(connection);
             // webpack cannot access the resource, return false so as flow can
             // handle it
             return false;
@@ -360,20 +379,24 @@ public final class DevModeHandler implements RequestHandler {
         getLogger().debug("Served resource by webpack: {} {}", responseCode,
                 requestFilename);
 
-        // Copies response headers
+        // Copies response headers, including the ETag of the resource
         connection.getHeaderFields().forEach((header, values) -> {
-            if (header != null) {
-                response.addHeader(header, values.get(0));
+            if (header != null && !isHopByHopHeader(header)) {
+                values.forEach(value -> response.addHeader(header, value));
             }
         });
 
         if (responseCode == HTTP_OK) {
             // Copies response payload
-            writeStream(response.getOutputStream(),
-                    connection.getInputStream());
+            try (InputStream inputStream = connection.getInputStream()) {
+                writeStream(response.getOutputStream(), inputStream);
+            }
         } else if (responseCode < 400) {
+            // E.g. 304 when the If-None-Match header matches the ETag
             response.setStatus(responseCode);
+            discardResponse(connection);
         } else {
+            discardResponse(connection);
             // Copies response code
             response.sendError(responseCode);
         }
@@ -384,6 +407,27 @@ public final class DevModeHandler implements RequestHandler {
         return true;
     }
 
+    /**
+     * Reads the rest of the response body, which is required for the
+     * connection to be returned to the keep-alive cache of
+     * {@link HttpURLConnection} and reused by the next request.
+     */
+    private static void discardResponse(HttpURLConnection connection)
+            throws IOException {
+        InputStream stream = connection.getResponseCode() < 400
+                ? connection.getInputStream()
+                : connection.getErrorStream();
+        if (stream != null) {
+            try (InputStream inputStream = stream) {
+                IOUtils.skip(inputStream, Long.MAX_VALUE);
+            }
+        }
+    }
+
+    private static boolean isHopByHopHeader(String header) {
+        return HOP_BY_HOP_HEADERS.contains(header.toLowerCase(Locale.ENGLISH));
+    }
+
     private boolean checkWebpackConnection() {
         try {
             readManifestPaths();
@@ -568,11 +612,14 @@ public final class DevModeHandler implements RequestHandler {
             getLogger().error("Unable to get manifest.json from " +
                     "webpack-dev-server, got {} {}", responseCode,
                     connection.getResponseMessage());
+            discardResponse(connection);
             return;
         }
 
-        String manifestJson = FrontendUtils
-                .streamToString(connection.getInputStream());
+        String manifestJson;
+        try (InputStream inputStream = connection.getInputStream()) {
+            manifestJson = FrontendUtils.streamToString(inputStream);
+        }
         manifestPaths = FrontendUtils.parseManifestPaths(manifestJson);
         if (getLogger().isDebugEnabled()) {
             getLogger().debug("Got asset paths from webpack manifest.json: \n    {}"
@@ -158,4 +158,41 @@ public class InitParameters implements Serializable {
      * component UI imports them as dependencies.
      */
     public static final String COMPILED_WEB_COMPONENTS_PATH = "compiled.web.components.path";
+
+    /**
+     * Configuration name for the parameter that determines whether the queue
+     * of pending {@link VaadinSession#access(Command)} tasks is purged on the
+     * executor of the service instead of the thread that enqueued the task.
+     *
+     * @since 6.0
+     */
+    public static final String SERVLET_PARAMETER_ASYNC_ACCESS_QUEUE_PURGE = "asyncAccessQueuePurge";
+
+    /**
+     * Configuration name for the parameter that determines whether the
+     * executor of the service uses virtual threads when the JVM supports
+     * them.
+     *
+     * @since 6.0
+     */
+    public static final String SERVLET_PARAMETER_EXECUTOR_VIRTUAL_THREADS = "executor.virtualThreads";
+
+    /**
+     * Configuration name for the parameter that determines whether each UI
+     * has its own lock for request handling, push and
+     * {@link com.vaadin.flow.component.UI#access(Command)} tasks, so that the
+     * UIs of one session can be processed in parallel.
+     *
+     * @since 6.0
+     */
+    public static final String SERVLET_PARAMETER_UI_LOCKING = "uiLocking";
+
+    /**
+     * Configuration name for the parameter that determines whether inactive
+     * UIs and sessions are closed by a background scheduler tracking their
+     * deadlines instead of at the end of each request.
+     *
+     * @since 6.0
+     */
+    public static final String SERVLET_PARAMETER_UI_EXPIRY_SCHEDULER = "uiExpiryScheduler";
 }
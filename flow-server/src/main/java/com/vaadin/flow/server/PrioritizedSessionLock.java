@@ -0,0 +1,339 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.vaadin.flow.server;
+
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+
+/**
+ * Session lock which gives threads handling a request priority over
+ * background threads.
+ * <p>
+ * While a thread handling a request (a UIDL request, a push message or any
+ * other request with a {@link VaadinRequest#getCurrent() current request}) is
+ * waiting for the lock, background threads, e.g. ones using
+ * {@link com.vaadin.flow.component.UI#access(Command)}, do not get the lock
+ * even if it is released. This keeps the UI responsive for the user when
+ * there are lots of background updates.
+ * <p>
+ * The lock is reentrant and supports conditions. A thread awaiting a
+ * condition releases the lock and waits on the same monitor as the threads
+ * waiting for the lock. When it has been signalled, it acquires the lock
+ * again like any other thread, with priority if it is handling a request. A
+ * deserialized instance is always unlocked.
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ */
+public class PrioritizedSessionLock implements SessionLock {
+
+    private transient Thread owner;
+    private transient int holdCount;
+    private transient int priorityWaiters;
+    private transient int backgroundWaiters;
+
+    @Override
+    public void lock() {
+        try {
+            acquire(false, false, 0);
+        } catch (InterruptedException e) {
+            // Cannot happen for a non-interruptible acquire
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        acquire(true, false, 0);
+    }
+
+    @Override
+    public boolean tryLock() {
+        synchronized (this) {
+            return tryAcquire(isPriorityThread());
+        }
+    }
+
+    @Override
+    public boolean tryLock(long time, TimeUnit unit)
+            throws InterruptedException {
+        return acquire(true, true, unit.toNanos(time));
+    }
+
+    @Override
+    public synchronized void unlock() {
+        checkHeldByCurrentThread();
+        holdCount--;
+        if (holdCount == 0) {
+            owner = null;
+            notifyAll();
+        }
+    }
+
+    @Override
+    public Condition newCondition() {
+        return new MonitorCondition();
+    }
+
+    @Override
+    public synchronized boolean isHeldByCurrentThread() {
+        return owner == Thread.currentThread();
+    }
+
+    @Override
+    public synchronized int getHoldCount() {
+        return isHeldByCurrentThread() ? holdCount : 0;
+    }
+
+    @Override
+    public synchronized boolean isLocked() {
+        return owner != null;
+    }
+
+    @Override
+    public synchronized boolean hasQueuedThreads() {
+        return getQueueLength() > 0;
+    }
+
+    @Override
+    public synchronized int getQueueLength() {
+        return priorityWaiters + backgroundWaiters;
+    }
+
+    /**
+     * Gets the number of threads with priority waiting to acquire this lock.
+     *
+     * @return the number of waiting threads with priority
+     */
+    public synchronized int getPriorityQueueLength() {
+        return priorityWaiters;
+    }
+
+    /**
+     * Checks whether the current thread should get the lock before background
+     * threads. By default, threads which are handling a request have priority.
+     *
+     * @return {@code true} if the current thread has priority, {@code false}
+     *         otherwise
+     */
+    protected boolean isPriorityThread() {
+        return VaadinRequest.getCurrent() != null;
+    }
+
+    private synchronized boolean acquire(boolean interruptible, boolean timed,
+            long nanos) throws InterruptedException {
+        if (interruptible && Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        boolean priority = isPriorityThread();
+        if (tryAcquire(priority)) {
+            return true;
+        }
+        if (timed && nanos <= 0) {
+            return false;
+        }
+
+        long deadline = System.nanoTime() + nanos;
+        boolean interrupted = false;
+        boolean acquired = false;
+        updateWaiters(priority, 1);
+        try {
+            while (!(acquired = tryAcquire(priority))) {
+                try {
+                    if (!timed) {
+                        wait();
+                    } else {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            return false;
+                        }
+                        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                    }
+                } catch (InterruptedException e) {
+                    if (interruptible) {
+                        throw e;
+                    }
+                    interrupted = true;
+                }
+            }
+            return true;
+        } finally {
+            updateWaiters(priority, -1);
+            if (priority && !acquired) {
+                // Background threads might have been waiting only for us
+                notifyAll();
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private boolean tryAcquire(boolean priority) {
+        Thread current = Thread.currentThread();
+        if (owner == current) {
+            holdCount++;
+            return true;
+        }
+        if (owner == null && (priority || priorityWaiters == 0)) {
+            owner = current;
+            holdCount = 1;
+            return true;
+        }
+        return false;
+    }
+
+    private void updateWaiters(boolean priority, int delta) {
+        if (priority) {
+            priorityWaiters += delta;
+        } else {
+            backgroundWaiters += delta;
+        }
+    }
+
+    private void checkHeldByCurrentThread() {
+        if (owner != Thread.currentThread()) {
+            throw new IllegalMonitorStateException(
+                    "The lock is not held by the current thread");
+        }
+    }
+
+    private static class ConditionWaiter {
+        private boolean signalled;
+    }
+
+    /**
+     * Condition which waits on the monitor of the enclosing lock. Signalled
+     * waiters are marked so that they can tell a signal apart from the
+     * notifications sent when the lock is released.
+     */
+    private class MonitorCondition implements Condition {
+
+        private final Deque<ConditionWaiter> waiters = new ArrayDeque<>();
+
+        @Override
+        public void await() throws InterruptedException {
+            await(true, false, 0);
+        }
+
+        @Override
+        public void awaitUninterruptibly() {
+            try {
+                await(false, false, 0);
+            } catch (InterruptedException e) {
+                // Cannot happen for a non-interruptible await
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public long awaitNanos(long nanosTimeout) throws InterruptedException {
+            return await(true, true, nanosTimeout);
+        }
+
+        @Override
+        public boolean await(long time, TimeUnit unit)
+                throws InterruptedException {
+            return awaitNanos(unit.toNanos(time)) > 0;
+        }
+
+        @Override
+        public boolean awaitUntil(Date deadline) throws InterruptedException {
+            return awaitNanos(TimeUnit.MILLISECONDS.toNanos(
+                    deadline.getTime() - System.currentTimeMillis())) > 0;
+        }
+
+        @Override
+        public void signal() {
+            synchronized (PrioritizedSessionLock.this) {
+                checkHeldByCurrentThread();
+                ConditionWaiter waiter = waiters.poll();
+                if (waiter != null) {
+                    waiter.signalled = true;
+                    PrioritizedSessionLock.this.notifyAll();
+                }
+            }
+        }
+
+        @Override
+        public void signalAll() {
+            synchronized (PrioritizedSessionLock.this) {
+                checkHeldByCurrentThread();
+                if (!waiters.isEmpty()) {
+                    waiters.forEach(waiter -> waiter.signalled = true);
+                    waiters.clear();
+                    PrioritizedSessionLock.this.notifyAll();
+                }
+            }
+        }
+
+        private long await(boolean interruptible, boolean timed, long nanos)
+                throws InterruptedException {
+            PrioritizedSessionLock lock = PrioritizedSessionLock.this;
+            synchronized (lock) {
+                checkHeldByCurrentThread();
+                if (interruptible && Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                ConditionWaiter waiter = new ConditionWaiter();
+                waiters.add(waiter);
+                int holds = holdCount;
+                owner = null;
+                holdCount = 0;
+                lock.notifyAll();
+
+                long deadline = System.nanoTime() + nanos;
+                boolean interrupted = false;
+                try {
+                    while (!waiter.signalled) {
+                        try {
+                            if (!timed) {
+                                lock.wait();
+                            } else {
+                                long remaining = deadline - System.nanoTime();
+                                if (remaining <= 0) {
+                                    break;
+                                }
+                                TimeUnit.NANOSECONDS.timedWait(lock,
+                                        remaining);
+                            }
+                        } catch (InterruptedException e) {
+                            interrupted = true;
+                            if (interruptible) {
+                                break;
+                            }
+                        }
+                    }
+                } finally {
+                    waiters.remove(waiter);
+                    lock.lock();
+                    holdCount = holds;
+                }
+                if (interrupted) {
+                    if (interruptible && !waiter.signalled) {
+                        throw new InterruptedException();
+                    }
+                    Thread.currentThread().interrupt();
+                }
+                return deadline - System.nanoTime();
+            }
+        }
+    }
+}
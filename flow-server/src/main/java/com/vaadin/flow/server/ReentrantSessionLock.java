@@ -0,0 +1,49 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.vaadin.flow.server;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Session lock based on a {@link ReentrantLock}. This is the default session
+ * lock implementation.
+ * <p>
+ * A fair instance grants the lock to the longest waiting thread, which makes
+ * the waiting times more predictable at the cost of a lower throughput.
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ */
+public class ReentrantSessionLock extends ReentrantLock implements SessionLock {
+
+    /**
+     * Creates a new non-fair session lock.
+     */
+    public ReentrantSessionLock() {
+        super();
+    }
+
+    /**
+     * Creates a new session lock with the given fairness policy.
+     *
+     * @param fair
+     *            {@code true} if the lock should use a fair ordering policy
+     */
+    public ReentrantSessionLock(boolean fair) {
+        super(fair);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.vaadin.flow.server;
+
+import java.io.Serializable;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * A lock used for guarding access to a {@link VaadinSession}.
+ * <p>
+ * In addition to the regular {@link Lock} operations, a session lock must be
+ * reentrant and expose information about its owner and the threads waiting for
+ * it. The framework uses this information e.g. to run pending access tasks only
+ * when the lock is ultimately released and to keep UIs alive while someone is
+ * waiting to access the session.
+ * <p>
+ * The lock instance is stored in the HTTP session and must thus be
+ * serializable.
+ *
+ * @see SessionLockFactory
+ * @see VaadinService#setSessionLockFactory(SessionLockFactory)
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ */
+public interface SessionLock extends Lock, Serializable {
+
+    /**
+     * Checks whether the current thread holds this lock.
+     *
+     * @return {@code true} if the current thread holds the lock, {@code false}
+     *         otherwise
+     */
+    boolean isHeldByCurrentThread();
+
+    /**
+     * Gets the number of holds on this lock by the current thread.
+     *
+     * @return the number of holds by the current thread, or zero if the lock is
+     *         not held by the current thread
+     */
+    int getHoldCount();
+
+    /**
+     * Checks whether this lock is held by any thread.
+     *
+     * @return {@code true} if any thread holds the lock, {@code false}
+     *         otherwise
+     */
+    boolean isLocked();
+
+    /**
+     * Checks whether any threads are waiting to acquire this lock.
+     *
+     * @return {@code true} if there may be other threads waiting to acquire
+     *         the lock, {@code false} otherwise
+     */
+    boolean hasQueuedThreads();
+
+    /**
+     * Gets an estimate of the number of threads waiting to acquire this lock.
+     *
+     * @return the estimated number of waiting threads
+     */
+    int getQueueLength();
+}
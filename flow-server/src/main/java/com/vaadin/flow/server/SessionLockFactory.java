@@ -0,0 +1,46 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.vaadin.flow.server;
+
+import java.io.Serializable;
+
+/**
+ * Factory for the locks used for guarding access to Vaadin sessions.
+ * <p>
+ * A factory can be configured using
+ * {@link VaadinService#setSessionLockFactory(SessionLockFactory)}, typically
+ * from a {@link VaadinServiceInitListener}.
+ *
+ * @see ReentrantSessionLock
+ * @see PrioritizedSessionLock
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ */
+@FunctionalInterface
+public interface SessionLockFactory extends Serializable {
+
+    /**
+     * Creates a new lock for the given session. The method is called at most
+     * once for each session and service.
+     *
+     * @param wrappedSession
+     *            the session to create a lock for, not {@code null}
+     * @return a new lock instance, not {@code null}
+     */
+    SessionLock createLock(WrappedSession wrappedSession);
+}
@@ -0,0 +1,452 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.vaadin.flow.component.UI;
+
+/**
+ * Closes the UIs and sessions of a {@link VaadinService} whose heartbeat or
+ * request deadlines have passed, without scanning all the UIs of a session at
+ * the end of each request.
+ * <p>
+ * The deadlines are kept in hashed timer wheels which are advanced once per
+ * tick by a background thread, so registering a deadline and finding the
+ * expired ones are constant time operations. Each wheel is split into stripes
+ * with locks of their own, so that requests registering deadlines seldom
+ * wait for each other. A deadline is computed from the
+ * last heartbeat of a UI or the last request to a session when it is
+ * scheduled. Heartbeats and requests don't move the deadline: when it passes,
+ * the timestamp is checked again and the deadline is rescheduled if the UI or
+ * session has been active meanwhile. Expired UIs are closed and removed, and
+ * expired sessions closed, asynchronously through
+ * {@link VaadinSession#access(com.vaadin.flow.server.Command)} so that the
+ * session lock is held.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ */
+public final class UIExpiryScheduler {
+
+    /**
+     * The default interval between checks for expired deadlines, in
+     * milliseconds.
+     */
+    public static final long DEFAULT_TICK_MILLIS = 1000;
+
+    private static final int WHEEL_SIZE = 512;
+
+    private final VaadinService service;
+    private final long tickMillis;
+    private final TimerWheel<UI> uiDeadlines;
+    private final TimerWheel<VaadinSession> sessionDeadlines;
+    private final LongAdder expiredUIs = new LongAdder();
+    private final LongAdder expiredSessions = new LongAdder();
+    private ScheduledExecutorService timer;
+
+    /**
+     * Creates a new scheduler for the given service. The scheduler doesn't
+     * check the deadlines until it is {@link #start() started}.
+     *
+     * @param service
+     *            the service whose UIs and sessions to close, not {@code null}
+     * @param tickMillis
+     *            the interval between checks for expired deadlines in
+     *            milliseconds, positive
+     */
+    public UIExpiryScheduler(VaadinService service, long tickMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException(
+                    "The tick interval must be positive");
+        }
+        this.service = service;
+        this.tickMillis = tickMillis;
+        long now = System.currentTimeMillis();
+        uiDeadlines = new TimerWheel<>(WHEEL_SIZE, tickMillis, now);
+        sessionDeadlines = new TimerWheel<>(WHEEL_SIZE, tickMillis, now);
+    }
+
+    /**
+     * Starts checking the deadlines periodically on a daemon thread.
+     */
+    public synchronized void start() {
+        if (timer != null) {
+            return;
+        }
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "vaadin-ui-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleWithFixedDelay(() -> {
+            try {
+                expire(System.currentTimeMillis());
+            } catch (RuntimeException e) {
+                getLogger().error("Unable to close expired UIs", e);
+            }
+        }, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops checking the deadlines.
+     */
+    public synchronized void stop() {
+        if (timer != null) {
+            timer.shutdownNow();
+            timer = null;
+        }
+    }
+
+    /**
+     * Schedules the heartbeat deadline of the given UI. Does nothing if the
+     * heartbeat timeout is disabled.
+     *
+     * @param ui
+     *            the UI to track, not {@code null}
+     */
+    public void register(UI ui) {
+        long timeout = 1000L * service.getHeartbeatTimeout();
+        if (timeout < 0) {
+            return;
+        }
+        uiDeadlines.schedule(ui,
+                ui.getInternals().getLastHeartbeatTimestamp() + timeout);
+    }
+
+    /**
+     * Stops tracking the given UI.
+     *
+     * @param ui
+     *            the UI to stop tracking, not {@code null}
+     */
+    public void unregister(UI ui) {
+        uiDeadlines.remove(ui);
+    }
+
+    /**
+     * Schedules the heartbeat deadlines of all the UIs of the given session.
+     * This is used for a deserialized session, whose UIs were registered with
+     * the service it was serialized from.
+     *
+     * @param session
+     *            the session whose UIs to track, locked by the current thread,
+     *            not {@code null}
+     */
+    public void registerUIs(VaadinSession session) {
+        session.getUIs().forEach(this::register);
+    }
+
+    /**
+     * Schedules the request deadline of the given session, unless the session
+     * is already tracked. The session is only tracked if idle sessions are
+     * closed, so that sessions which are passivated without being destroyed
+     * are not retained by this scheduler.
+     *
+     * @param session
+     *            the session to track, locked by the current thread, not
+     *            {@code null}
+     */
+    public void register(VaadinSession session) {
+        long timeout = 1000L * service.getUidlRequestTimeout(session);
+        if (timeout < 0) {
+            sessionDeadlines.remove(session);
+        } else {
+            sessionDeadlines.scheduleIfAbsent(session,
+                    session.getLastRequestTimestamp() + timeout);
+        }
+    }
+
+    /**
+     * Stops tracking the given session.
+     *
+     * @param session
+     *            the session to stop tracking, not {@code null}
+     */
+    public void unregister(VaadinSession session) {
+        sessionDeadlines.remove(session);
+    }
+
+    /**
+     * Closes the UIs and sessions whose deadlines have passed at the given
+     * time. This is run periodically once the scheduler has been started.
+     *
+     * @param now
+     *            the current time in milliseconds
+     */
+    public void expire(long now) {
+        for (UI ui : uiDeadlines.advance(now)) {
+            expire(ui, now);
+        }
+        for (VaadinSession session : sessionDeadlines.advance(now)) {
+            expire(session);
+        }
+    }
+
+    /**
+     * Gets the number of UIs closed by this scheduler because their heartbeat
+     * deadline had passed.
+     *
+     * @return the number of expired UIs
+     */
+    public long getExpiredUICount() {
+        return expiredUIs.sum();
+    }
+
+    /**
+     * Gets the number of sessions closed by this scheduler because their
+     * request deadline had passed.
+     *
+     * @return the number of expired sessions
+     */
+    public long getExpiredSessionCount() {
+        return expiredSessions.sum();
+    }
+
+    /**
+     * Gets the number of UIs whose heartbeat deadline is tracked.
+     *
+     * @return the number of active UIs
+     */
+    public int getActiveUICount() {
+        return uiDeadlines.size();
+    }
+
+    /**
+     * Gets the number of sessions whose request deadline is tracked. Sessions
+     * are only tracked if idle sessions are closed.
+     *
+     * @return the number of active sessions
+     */
+    public int getActiveSessionCount() {
+        return sessionDeadlines.size();
+    }
+
+    private void expire(UI ui, long now) {
+        VaadinSession session = ui.getSession();
+        if (session == null) {
+            return;
+        }
+        long timeout = 1000L * service.getHeartbeatTimeout();
+        long deadline = ui.getInternals().getLastHeartbeatTimestamp()
+                + timeout;
+        if (timeout < 0 || deadline > now) {
+            // A heartbeat has been received after the deadline was scheduled
+            register(ui);
+            return;
+        }
+        session.access(() -> {
+            if (ui.getSession() != session) {
+                return;
+            }
+            if (service.isUIActive(ui)) {
+                // The UI or its session is busy, check again on the next tick
+                uiDeadlines.schedule(ui, System.currentTimeMillis());
+                return;
+            }
+            VaadinService.accessUIFromSession(ui, () -> {
+                if (ui.getSession() != session) {
+                    return;
+                }
+                getLogger().debug("Closing expired UI #{}", ui.getUIId());
+                ui.close();
+                session.removeUI(ui);
+                expiredUIs.increment();
+            });
+        });
+    }
+
+    private void expire(VaadinSession session) {
+        if (session.getSession() == null) {
+            return;
+        }
+        // The last request timestamp can only be read with the lock held
+        session.access(() -> {
+            if (session.getState() != VaadinSessionState.OPEN
+                    || session.getSession() == null) {
+                return;
+            }
+            try {
+                if (service.isSessionActive(session)) {
+                    // A request has been handled after the deadline was
+                    // scheduled
+                    register(session);
+                    return;
+                }
+            } catch (IllegalStateException e) {
+                // The underlying session has been invalidated
+                getLogger().debug("Not tracking invalidated session", e);
+                return;
+            }
+            getLogger().debug("Closing expired session");
+            service.cleanupSession(session);
+            expiredSessions.increment();
+        });
+    }
+
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(UIExpiryScheduler.class);
+    }
+
+    /**
+     * A hashed timer wheel: each item is kept in the bucket of the tick of its
+     * deadline, and advancing the wheel only visits the buckets of the ticks
+     * which have passed. Items more than one revolution away stay in their
+     * bucket until their tick is reached. The items are divided into stripes
+     * by their hash codes, each stripe being a wheel guarded by its own lock.
+     */
+    private static final class TimerWheel<T> {
+        private final List<Stripe<T>> stripes;
+        private final int size;
+        private final long tickMillis;
+
+        private TimerWheel(int size, long tickMillis, long now) {
+            int stripeCount = Integer.highestOneBit(
+                    Math.max(1, Runtime.getRuntime().availableProcessors()))
+                    * 2;
+            stripes = new ArrayList<>(stripeCount);
+            for (int i = 0; i < stripeCount; i++) {
+                stripes.add(new Stripe<>(now / tickMillis));
+            }
+            this.size = size;
+            this.tickMillis = tickMillis;
+        }
+
+        private void schedule(T item, long deadline) {
+            Stripe<T> stripe = stripe(item);
+            synchronized (stripe) {
+                stripe.remove(item, size);
+                // Round up so that an item never expires before its deadline
+                long tick = Math.max(stripe.currentTick + 1,
+                        (deadline + tickMillis - 1) / tickMillis);
+                stripe.ticks.put(item, tick);
+                stripe.buckets.computeIfAbsent(
+                        Long.remainderUnsigned(tick, size),
+                        index -> new HashSet<>()).add(item);
+            }
+        }
+
+        private void scheduleIfAbsent(T item, long deadline) {
+            Stripe<T> stripe = stripe(item);
+            synchronized (stripe) {
+                if (!stripe.ticks.containsKey(item)) {
+                    schedule(item, deadline);
+                }
+            }
+        }
+
+        private void remove(T item) {
+            Stripe<T> stripe = stripe(item);
+            synchronized (stripe) {
+                stripe.remove(item, size);
+            }
+        }
+
+        private int size() {
+            int count = 0;
+            for (Stripe<T> stripe : stripes) {
+                synchronized (stripe) {
+                    count += stripe.ticks.size();
+                }
+            }
+            return count;
+        }
+
+        private List<T> advance(long now) {
+            long targetTick = now / tickMillis;
+            List<T> expired = new ArrayList<>();
+            for (Stripe<T> stripe : stripes) {
+                synchronized (stripe) {
+                    stripe.advance(targetTick, size, expired);
+                }
+            }
+            return expired;
+        }
+
+        private Stripe<T> stripe(T item) {
+            int hash = item.hashCode();
+            return stripes.get((hash ^ (hash >>> 16)) & (stripes.size() - 1));
+        }
+    }
+
+    /**
+     * The buckets of some of the items of a timer wheel, created on first use.
+     * Guarded by the lock of the stripe.
+     */
+    private static final class Stripe<T> {
+        private final Map<Long, Set<T>> buckets = new HashMap<>();
+        private final Map<T, Long> ticks = new HashMap<>();
+        private long currentTick;
+
+        private Stripe(long currentTick) {
+            this.currentTick = currentTick;
+        }
+
+        private void remove(T item, int size) {
+            Long tick = ticks.remove(item);
+            if (tick != null) {
+                long index = Long.remainderUnsigned(tick, size);
+                Set<T> bucket = buckets.get(index);
+                bucket.remove(item);
+                if (bucket.isEmpty()) {
+                    buckets.remove(index);
+                }
+            }
+        }
+
+        private void advance(long targetTick, int size, List<T> expired) {
+            if (targetTick <= currentTick) {
+                return;
+            }
+            long steps = Math.min(targetTick - currentTick, size);
+            for (long step = 1; step <= steps; step++) {
+                long index = Long.remainderUnsigned(currentTick + step, size);
+                Set<T> bucket = buckets.get(index);
+                if (bucket == null) {
+                    continue;
+                }
+                Iterator<T> iterator = bucket.iterator();
+                while (iterator.hasNext()) {
+                    T item = iterator.next();
+                    if (ticks.get(item) <= targetTick) {
+                        iterator.remove();
+                        ticks.remove(item);
+                        expired.add(item);
+                    }
+                }
+                if (bucket.isEmpty()) {
+                    buckets.remove(index);
+                }
+            }
+            currentTick = targetTick;
+        }
+    }
+}
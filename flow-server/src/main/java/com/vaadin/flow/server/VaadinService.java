@@ -28,6 +28,7 @@ import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.Serializable;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
@@ -39,15 +40,22 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.ServiceLoader;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -194,6 +202,12 @@ public abstract class VaadinService implements Serializable {
 
     private VaadinContext vaadinContext;
 
+    private transient volatile ExecutorService executor;
+
+    private transient volatile UIExpiryScheduler uiExpiryScheduler;
+
+    private SessionLockFactory sessionLockFactory = wrappedSession -> new ReentrantSessionLock();
+
     /**
      * Creates a new vaadin service based on a deployment configuration.
      *
@@ -296,6 +310,12 @@ public abstract class VaadinService implements Serializable {
             UsageStatistics.markAsUsed("flow/pnpm", null);
         }
 
+        if (configuration.isUIExpiryScheduler()) {
+            uiExpiryScheduler = new UIExpiryScheduler(this,
+                    UIExpiryScheduler.DEFAULT_TICK_MILLIS);
+            uiExpiryScheduler.start();
+        }
+
         initialized = true;
     }
 
@@ -663,6 +683,9 @@ public abstract class VaadinService implements Serializable {
      */
     public void fireSessionDestroy(VaadinSession vaadinSession) {
         final VaadinSession session = vaadinSession;
+        if (uiExpiryScheduler != null) {
+            uiExpiryScheduler.unregister(session);
+        }
         session.access(() -> {
             if (session.getState() == VaadinSessionState.CLOSED) {
                 return;
@@ -672,7 +695,7 @@ public abstract class VaadinService implements Serializable {
             }
             List<UI> uis = new ArrayList<>(session.getUIs());
             for (final UI ui : uis) {
-                ui.accessSynchronously(() -> {
+                accessUIFromSession(ui, () -> {
                     /*
                      * close() called here for consistency so that it is always
                      * called before a UI is removed. UI.isClosing() is thus
@@ -781,8 +804,8 @@ public abstract class VaadinService implements Serializable {
     protected Lock getSessionLock(WrappedSession wrappedSession) {
         Object lock = wrappedSession.getAttribute(getLockAttributeName());
 
-        if (lock instanceof ReentrantLock) {
-            return (ReentrantLock) lock;
+        if (lock instanceof Lock) {
+            return (Lock) lock;
         }
 
         if (lock == null) {
@@ -790,10 +813,53 @@ public abstract class VaadinService implements Serializable {
         }
 
         throw new RuntimeException(
-                "Something else than a ReentrantLock was stored in the "
+                "Something else than a Lock was stored in the "
                         + getLockAttributeName() + " in the session");
     }
 
+    /**
+     * Creates the lock for the given session. The lock is created when the
+     * session is locked for the first time by this service, using the
+     * configured {@link SessionLockFactory}.
+     *
+     * @param wrappedSession
+     *            the session to create a lock for
+     * @return a new lock instance, not {@code null}
+     * @see #setSessionLockFactory(SessionLockFactory)
+     */
+    protected SessionLock createSessionLock(WrappedSession wrappedSession) {
+        SessionLock lock = sessionLockFactory.createLock(wrappedSession);
+        if (lock == null) {
+            throw new IllegalStateException(
+                    SessionLockFactory.class.getSimpleName()
+                            + " returned null for the session lock");
+        }
+        return lock;
+    }
+
+    /**
+     * Sets the factory used for creating the locks of new sessions. Sessions
+     * which already have a lock keep using it. The default factory creates
+     * {@link ReentrantSessionLock} instances.
+     *
+     * @param sessionLockFactory
+     *            the session lock factory to use, not {@code null}
+     * @see PrioritizedSessionLock
+     */
+    public void setSessionLockFactory(SessionLockFactory sessionLockFactory) {
+        this.sessionLockFactory = Objects.requireNonNull(sessionLockFactory,
+                "Session lock factory cannot be null");
+    }
+
+    /**
+     * Gets the factory used for creating the locks of new sessions.
+     *
+     * @return the session lock factory, not {@code null}
+     */
+    public SessionLockFactory getSessionLockFactory() {
+        return sessionLockFactory;
+    }
+
     /**
      * Locks the given session for this service instance. Typically you want to
      * call {@link VaadinSession#lock()} instead of this method.
@@ -816,7 +882,7 @@ public abstract class VaadinService implements Serializable {
             synchronized (VaadinService.class) {
                 lock = getSessionLock(wrappedSession);
                 if (lock == null) {
-                    lock = new ReentrantLock();
+                    lock = createSessionLock(wrappedSession);
                     setSessionLock(wrappedSession, lock);
                 }
             }
@@ -845,8 +911,8 @@ public abstract class VaadinService implements Serializable {
      */
     protected void unlockSession(WrappedSession wrappedSession) {
         assert getSessionLock(wrappedSession) != null;
-        assert ((ReentrantLock) getSessionLock(wrappedSession))
-                .isHeldByCurrentThread() : "Trying to unlock the session but it has not been locked by this thread";
+        assert VaadinSession.isHeldByCurrentThread(getSessionLock(
+                wrappedSession)) : "Trying to unlock the session but it has not been locked by this thread";
         getSessionLock(wrappedSession).unlock();
     }
 
@@ -884,8 +950,8 @@ public abstract class VaadinService implements Serializable {
      */
     private VaadinSession doFindOrCreateVaadinSession(VaadinRequest request,
             boolean requestCanCreateSession) throws SessionExpiredException {
-        assert ((ReentrantLock) getSessionLock(request.getWrappedSession()))
-                .isHeldByCurrentThread() : "Session has not been locked by this thread";
+        assert VaadinSession.isHeldByCurrentThread(getSessionLock(request
+                .getWrappedSession())) : "Session has not been locked by this thread";
 
         /* Find an existing session for this request. */
         VaadinSession session = getExistingSession(request,
@@ -945,8 +1011,8 @@ public abstract class VaadinService implements Serializable {
      * @return A new VaadinSession instance
      */
     private VaadinSession createAndRegisterSession(VaadinRequest request) {
-        assert ((ReentrantLock) getSessionLock(request.getWrappedSession()))
-                .isHeldByCurrentThread() : "Session has not been locked by this thread";
+        assert VaadinSession.isHeldByCurrentThread(getSessionLock(request
+                .getWrappedSession())) : "Session has not been locked by this thread";
 
         VaadinSession session = createVaadinSession(request);
 
@@ -1200,6 +1266,46 @@ public abstract class VaadinService implements Serializable {
         return ui;
     }
 
+    /**
+     * Finds the UI that is related to the request and locks it, when UI level
+     * locking is used. The session lock is only held while finding the UI, so
+     * that requests for the other UIs of the session can be handled at the
+     * same time.
+     * <p>
+     * This is meant for framework internal use.
+     *
+     * @param request
+     *            the request to get the UI for
+     * @param session
+     *            the session of the request, which uses UI level locking
+     * @return the UI, locked by the current thread, or <code>null</code> if it
+     *         was not found or it was detached before it could be locked
+     * @see com.vaadin.flow.component.internal.UIInternals#unlock()
+     * @see VaadinSession#isUILocking()
+     */
+    public UI findAndLockUI(VaadinRequest request, VaadinSession session) {
+        assert session.isUILocking();
+        UI ui;
+        session.lockSessionState();
+        try {
+            ui = findUI(request);
+        } finally {
+            session.unlock();
+        }
+        if (ui == null) {
+            return null;
+        }
+
+        ui.getInternals().lock();
+        if (ui.getSession() != session) {
+            // Removed before it could be locked
+            ui.getInternals().unlock();
+            UI.setCurrent(null);
+            return null;
+        }
+        return ui;
+    }
+
     /**
      * Discards the current session and creates a new session with the same
      * contents. The purpose of this is to introduce a new session key in order
@@ -1295,11 +1401,17 @@ public abstract class VaadinService implements Serializable {
      * inactive UIs in the given session, removes closed UIs from the session,
      * and closes the session if it is itself inactive.
      *
+     * <p>
+     * If the {@link #getUIExpiryScheduler() UI expiry scheduler} is enabled,
+     * inactive UIs are closed by the scheduler instead.
+     *
      * @param session
      */
     void cleanupSession(VaadinSession session) {
         if (isSessionActive(session)) {
-            closeInactiveUIs(session);
+            if (uiExpiryScheduler == null) {
+                closeInactiveUIs(session);
+            }
             removeClosedUIs(session);
         } else {
             if (session.getState() == VaadinSessionState.OPEN) {
@@ -1336,7 +1448,7 @@ public abstract class VaadinService implements Serializable {
         List<UI> uis = new ArrayList<>(session.getUIs());
         for (final UI ui : uis) {
             if (ui.isClosing()) {
-                ui.accessSynchronously(() -> {
+                accessUIFromSession(ui, () -> {
                     getLogger().debug("Removing closed UI {}", ui.getUIId());
                     session.removeUI(ui);
                 });
@@ -1344,6 +1456,23 @@ public abstract class VaadinService implements Serializable {
         }
     }
 
+    /**
+     * Runs the given command for a UI while the session is locked. With UI
+     * level locking, the session lock taken by {@link VaadinSession#lock()}
+     * excludes all the UI locks, so the UI is locked without waiting. If the
+     * session lock has been taken without excluding the UI locks, the command
+     * is run by the thread which currently holds the UI lock if the UI is busy.
+     */
+    static void accessUIFromSession(UI ui, Command command) {
+        if (ui.getInternals().isUILocking()) {
+            if (!ui.getInternals().tryAccessSynchronously(command)) {
+                ui.getInternals().access(command);
+            }
+        } else {
+            ui.accessSynchronously(command);
+        }
+    }
+
     /**
      * Closes those UIs in the given session for which {@link #isUIActive}
      * yields false.
@@ -1352,7 +1481,7 @@ public abstract class VaadinService implements Serializable {
         final String sessionId = session.getSession().getId();
         for (final UI ui : session.getUIs()) {
             if (!isUIActive(ui) && !ui.isClosing()) {
-                ui.accessSynchronously(() -> {
+                accessUIFromSession(ui, () -> {
                     getLogger().debug("Closing inactive UI #{} in session {}",
                             ui.getUIId(), sessionId);
                     ui.close();
@@ -1372,7 +1501,7 @@ public abstract class VaadinService implements Serializable {
      *         never occurs.
      * @see DeploymentConfiguration#getHeartbeatInterval()
      */
-    private int getHeartbeatTimeout() {
+    int getHeartbeatTimeout() {
         // Permit three missed heartbeats before closing the UI
         return (int) (getDeploymentConfiguration().getHeartbeatInterval()
                 * (3.1));
@@ -1394,7 +1523,7 @@ public abstract class VaadinService implements Serializable {
      * @see DeploymentConfiguration#isCloseIdleSessions()
      * @see #getHeartbeatTimeout()
      */
-    private int getUidlRequestTimeout(VaadinSession session) {
+    int getUidlRequestTimeout(VaadinSession session) {
         return getDeploymentConfiguration().isCloseIdleSessions()
                 ? session.getSession().getMaxInactiveInterval()
                 : -1;
@@ -1420,8 +1549,7 @@ public abstract class VaadinService implements Serializable {
 
         // Check for long running tasks
         Lock lockInstance = ui.getSession().getLockInstance();
-        if (lockInstance instanceof ReentrantLock
-                && ((ReentrantLock) lockInstance).hasQueuedThreads()) {
+        if (VaadinSession.hasQueuedThreads(lockInstance)) {
             /*
              * Someone is trying to access the session. Leaving all UIs alive
              * for now. A possible kill decision will be made at a later time
@@ -1429,6 +1557,12 @@ public abstract class VaadinService implements Serializable {
              */
             return true;
         }
+        if (ui.getInternals().isUILocking()
+                && (ui.getInternals().getLock().isLocked()
+                        || ui.getInternals().getLock().hasQueuedThreads())) {
+            // The UI itself is being accessed
+            return true;
+        }
 
         // Check timeout
         long now = System.currentTimeMillis();
@@ -1449,7 +1583,7 @@ public abstract class VaadinService implements Serializable {
      *            The session whose status to check
      * @return true if the session is active, false if it could be closed.
      */
-    private boolean isSessionActive(VaadinSession session) {
+    boolean isSessionActive(VaadinSession session) {
         if (session.getState() != VaadinSessionState.OPEN
                 || session.getSession() == null) {
             return false;
@@ -1498,9 +1632,14 @@ public abstract class VaadinService implements Serializable {
             VaadinSession session) {
         if (session != null) {
             assert VaadinSession.getCurrent() == session;
-            session.lock();
+            // Closing UIs doesn't wait for the UIs handled by other requests
+            session.lockSessionState();
             try {
                 cleanupSession(session);
+                if (uiExpiryScheduler != null
+                        && session.getState() == VaadinSessionState.OPEN) {
+                    uiExpiryScheduler.register(session);
+                }
                 final long duration = (System.nanoTime() - (Long) request
                         .getAttribute(REQUEST_START_TIME_ATTRIBUTE)) / 1000000;
                 session.setLastRequestDuration(duration);
@@ -2001,11 +2140,25 @@ public abstract class VaadinService implements Serializable {
      * thread, the queue will be purged when the session is unlocked. If the
      * lock is not held by any thread, it is acquired and the queue is purged
      * right away.
+     * <p>
+     * If {@link DeploymentConfiguration#isAsyncAccessQueuePurge()} is enabled,
+     * the queue is purged on the {@link #getExecutor() executor} of this
+     * service instead of the calling thread.
      *
      * @param session
      *            the session for which the access queue should be purged
      */
     public void ensureAccessQueuePurged(VaadinSession session) {
+        if (getDeploymentConfiguration().isAsyncAccessQueuePurge()) {
+            if (!session.hasLock()) {
+                getExecutor().execute(() -> purgeAccessQueue(session));
+            }
+        } else {
+            purgeAccessQueue(session);
+        }
+    }
+
+    private void purgeAccessQueue(VaadinSession session) {
         /*
          * If no thread is currently holding the lock, pending changes for UIs
          * with automatic push would not be processed and pushed until the next
@@ -2073,6 +2226,88 @@ public abstract class VaadinService implements Serializable {
         }
     }
 
+    /**
+     * Gets the executor of this service. The executor is used for purging the
+     * queue of pending session access tasks asynchronously and for running
+     * background tasks through
+     * {@link UI#runInBackground(com.vaadin.flow.function.SerializableRunnable)}
+     * and similar methods.
+     * <p>
+     * The executor is created on first use by {@link #createExecutor()} and
+     * shut down when the service is destroyed.
+     *
+     * @return the executor of this service, not <code>null</code>
+     */
+    public Executor getExecutor() {
+        ExecutorService result = executor;
+        if (result == null) {
+            synchronized (this) {
+                result = executor;
+                if (result == null) {
+                    result = createExecutor();
+                    executor = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates the executor of this service.
+     * <p>
+     * By default an executor which starts a new virtual thread for each task
+     * is created if the JVM supports virtual threads and
+     * {@link DeploymentConfiguration#isExecutorVirtualThreads()} is enabled.
+     * Otherwise a pool of daemon platform threads is used, with one thread for
+     * each available processor. Tasks submitted while all the threads are busy
+     * wait in a queue, so that a burst of background tasks doesn't start a
+     * thread for each of them.
+     *
+     * @return the executor to use, not <code>null</code>
+     * @see #getExecutor()
+     */
+    protected ExecutorService createExecutor() {
+        if (getDeploymentConfiguration().isExecutorVirtualThreads()) {
+            try {
+                Method factory = Executors.class
+                        .getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) factory.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                getLogger().debug(
+                        "Virtual threads are not available, using a platform thread pool",
+                        e);
+            }
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable,
+                    "vaadin-executor-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        int poolSize = Math.max(2, Runtime.getRuntime().availableProcessors());
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(poolSize, poolSize,
+                60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                threadFactory);
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * Gets the scheduler which closes the UIs and sessions of this service when
+     * their heartbeat or request deadlines pass. The scheduler is created when
+     * the service is initialized if
+     * {@link DeploymentConfiguration#isUIExpiryScheduler()} is enabled, and
+     * stopped when the service is destroyed. Its counts of active and expired
+     * UIs can be used for monitoring.
+     *
+     * @return the UI expiry scheduler, or <code>null</code> if inactive UIs
+     *         are closed at the end of each request instead
+     */
+    public UIExpiryScheduler getUIExpiryScheduler() {
+        return uiExpiryScheduler;
+    }
+
     /**
      * Adds a service destroy listener that gets notified when this service is
      * destroyed.
@@ -2104,6 +2339,13 @@ public abstract class VaadinService implements Serializable {
         ServiceDestroyEvent event = new ServiceDestroyEvent(this);
         serviceDestroyListeners
                 .forEach(listener -> listener.serviceDestroy(event));
+        ExecutorService currentExecutor = executor;
+        if (currentExecutor != null) {
+            currentExecutor.shutdown();
+        }
+        if (uiExpiryScheduler != null) {
+            uiExpiryScheduler.stop();
+        }
     }
 
     /**
@@ -23,6 +23,7 @@ import javax.servlet.http.HttpSessionBindingListener;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Enumeration;
@@ -39,6 +40,8 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Future;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -137,6 +140,19 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
 
     private final StreamResourceRegistry resourceRegistry;
 
+    /*
+     * With UI level locking, the lock of each UI is a read lock of this lock
+     * and the session lock is a write lock of it, so that a thread holding the
+     * session lock has exclusive access to all the UIs of the session.
+     */
+    private final ReentrantReadWriteLock uiAccessLock = new ReentrantReadWriteLock();
+
+    /*
+     * Guards the session level state that can be accessed by threads holding
+     * different UI locks. It is never held while waiting for another lock.
+     */
+    private final ReentrantLock stateLock = new ReentrantLock();
+
     /**
      * Creates a new VaadinSession tied to a VaadinService.
      *
@@ -500,6 +516,11 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
      */
     public Collection<UI> getUIs() {
         checkHasLock();
+        if (isUILocking()) {
+            // The map may be modified by threads holding other UI locks
+            return withSessionState(() -> Collections
+                    .unmodifiableCollection(new ArrayList<>(uIs.values())));
+        }
         return Collections.unmodifiableCollection(uIs.values());
     }
 
@@ -514,7 +535,7 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
      */
     public UI getUIById(int uiId) {
         checkHasLock();
-        return uIs.get(uiId);
+        return withSessionState(() -> uIs.get(uiId));
     }
 
     /**
@@ -524,8 +545,64 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
      * @return true if the thread has exclusive access, false otherwise
      */
     public boolean hasLock() {
-        ReentrantLock l = ((ReentrantLock) getLockInstance());
-        return l.isHeldByCurrentThread();
+        if (isHeldByCurrentThread(getLockInstance())) {
+            return true;
+        }
+        // A UI lock gives access to the session level state
+        return isUILocking() && uiAccessLock.getReadHoldCount() > 0;
+    }
+
+    /**
+     * Checks whether the UIs of this session are protected by their own locks
+     * instead of the session lock. When UI level locking is used,
+     * {@link #hasLock()} also returns {@code true} for a thread which holds
+     * the lock of a UI of this session, but the state of a UI may only be
+     * accessed with the lock of that UI, see
+     * {@link com.vaadin.flow.component.internal.UIInternals#hasLock()}.
+     * <p>
+     * The session lock taken by {@link #lock()} gives exclusive access to
+     * all the UIs: it waits until no thread holds the lock of any UI of the
+     * session, and no UI lock can be taken until it has been released. A
+     * thread holding the lock of a UI must not wait for the session lock.
+     *
+     * @return {@code true} if UI level locking is used, {@code false}
+     *         otherwise
+     * @see DeploymentConfiguration#isUILocking()
+     */
+    public boolean isUILocking() {
+        return configuration != null && configuration.isUILocking();
+    }
+
+    /**
+     * Gets the lock which coordinates the locks of the UIs of this session
+     * with the session lock when UI level locking is used. The lock of a UI is
+     * taken together with the read lock, and {@link #lock()} takes the write
+     * lock.
+     * <p>
+     * This is meant for framework internal use.
+     *
+     * @return the UI access lock, not {@code null}
+     * @see #isUILocking()
+     */
+    public ReentrantReadWriteLock getUIAccessLock() {
+        return uiAccessLock;
+    }
+
+    /**
+     * Runs the given action with the session level state guarded if UI level
+     * locking is used, since threads holding different UI locks may access it
+     * concurrently.
+     */
+    private <T> T withSessionState(Supplier<T> action) {
+        if (!isUILocking()) {
+            return action.get();
+        }
+        stateLock.lock();
+        try {
+            return action.get();
+        } finally {
+            stateLock.unlock();
+        }
     }
 
     /**
@@ -574,8 +651,53 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
      */
     protected static boolean hasLock(VaadinService service,
             WrappedSession session) {
-        ReentrantLock l = (ReentrantLock) service.getSessionLock(session);
-        return l.isHeldByCurrentThread();
+        return isHeldByCurrentThread(service.getSessionLock(session));
+    }
+
+    /**
+     * Checks whether the given session lock is held by the current thread.
+     * Supports both {@link SessionLock} and plain {@link ReentrantLock}
+     * instances.
+     */
+    static boolean isHeldByCurrentThread(Lock lock) {
+        if (lock instanceof SessionLock) {
+            return ((SessionLock) lock).isHeldByCurrentThread();
+        }
+        return asReentrantLock(lock).isHeldByCurrentThread();
+    }
+
+    /**
+     * Gets the number of holds of the given session lock by the current
+     * thread.
+     */
+    static int getHoldCount(Lock lock) {
+        if (lock instanceof SessionLock) {
+            return ((SessionLock) lock).getHoldCount();
+        }
+        return asReentrantLock(lock).getHoldCount();
+    }
+
+    /**
+     * Checks whether any threads are waiting for the given session lock.
+     * Always returns {@code false} for locks which don't provide the
+     * information.
+     */
+    static boolean hasQueuedThreads(Lock lock) {
+        if (lock instanceof SessionLock) {
+            return ((SessionLock) lock).hasQueuedThreads();
+        }
+        return lock instanceof ReentrantLock
+                && ((ReentrantLock) lock).hasQueuedThreads();
+    }
+
+    private static ReentrantLock asReentrantLock(Lock lock) {
+        if (lock instanceof ReentrantLock) {
+            return (ReentrantLock) lock;
+        }
+        throw new IllegalStateException("The session lock must be a "
+                + SessionLock.class.getSimpleName() + " or a "
+                + ReentrantLock.class.getSimpleName() + ", but it is "
+                + (lock == null ? null : lock.getClass().getName()));
     }
 
     /**
@@ -591,7 +713,11 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
         assert ui != null : "Removed UI cannot be null";
         assert UI.getCurrent().getUIId() == ui.getUIId() : "UIs don't match";
         ui.getInternals().setSession(null);
-        uIs.remove(ui.getUIId());
+        withSessionState(() -> uIs.remove(ui.getUIId()));
+        UIExpiryScheduler scheduler = getUIExpiryScheduler();
+        if (scheduler != null) {
+            scheduler.unregister(ui);
+        }
     }
 
     /**
@@ -648,15 +774,67 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
      * <p>
      * {@link #getLockInstance()} can be used if more control over the locking
      * is required.
+     * <p>
+     * With UI level locking, this method also waits until no other thread
+     * holds the lock of a UI of this session.
+     *
+     * @throws IllegalStateException
+     *             if UI level locking is used and the current thread holds
+     *             the lock of a UI of this session but not the session lock
      *
      * @see #unlock()
      * @see #getLockInstance()
      * @see #hasLock()
+     * @see #isUILocking()
      */
     public void lock() {
+        Lock sessionLock = getLockInstance();
+        if (!isUILocking()) {
+            sessionLock.lock();
+            return;
+        }
+        verifyNoUILocked();
+        sessionLock.lock();
+        if (getHoldCount(sessionLock) == 1) {
+            uiAccessLock.writeLock().lock();
+        }
+    }
+
+    /**
+     * Locks this session for accessing only the session level state, such as
+     * attributes and the UIs of the session. Without UI level locking, this is
+     * the same as {@link #lock()}. With UI level locking, this method doesn't
+     * wait for the threads holding UI locks of this session, and the state of
+     * the UIs must not be accessed until the session is unlocked with
+     * {@link #unlock()}.
+     * <p>
+     * This is meant for framework internal use.
+     *
+     * @throws IllegalStateException
+     *             if UI level locking is used and the current thread holds
+     *             the lock of a UI of this session but not the session lock
+     * @see #isUILocking()
+     */
+    public void lockSessionState() {
+        if (!isUILocking()) {
+            lock();
+            return;
+        }
+        verifyNoUILocked();
         getLockInstance().lock();
     }
 
+    private void verifyNoUILocked() {
+        if (uiAccessLock.getReadHoldCount() > 0
+                && !uiAccessLock.isWriteLockedByCurrentThread()
+                && !isHeldByCurrentThread(getLockInstance())) {
+            // The UI lock holders never wait for the session lock
+            throw new IllegalStateException(
+                    "Cannot lock the session while holding the lock of one of its UIs. "
+                            + "Use VaadinSession.access() instead.");
+        }
+    }
+
     /**
      * Unlocks this session. This method should always be used in a finally
      * block after {@link #lock()} to ensure that the lock is always released.
@@ -671,32 +849,42 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
     public void unlock() {
         checkHasLock();
         boolean ultimateRelease = false;
+        Collection<UI> uisToPurge = Collections.emptyList();
         try {
             /*
              * Run pending tasks and push if the reentrant lock will actually be
              * released by this unlock() invocation.
              */
-            if (((ReentrantLock) getLockInstance()).getHoldCount() == 1) {
+            if (getHoldCount(getLockInstance()) == 1) {
                 ultimateRelease = true;
-                getService().runPendingAccessTasks(this);
-
-                for (UI ui : getUIs()) {
-                    if (ui.getPushConfiguration()
-                            .getPushMode() == PushMode.AUTOMATIC) {
-                        Map<Class<?>, CurrentInstance> oldCurrent = CurrentInstance
-                                .setCurrent(ui);
-                        try {
-                            ui.push();
-                        } finally {
-                            CurrentInstance.restoreInstances(oldCurrent);
-                        }
-                    }
+                if (isUILocking()) {
+                    uisToPurge = runPendingAccessTasksExclusively();
+                } else {
+                    runPendingAccessTasksAndPush();
                 }
             }
         } finally {
+            if (ultimateRelease && uiAccessLock.isWriteLockedByCurrentThread()) {
+                uiAccessLock.writeLock().unlock();
+            }
             getLockInstance().unlock();
         }
 
+        if (uisToPurge == null) {
+            /*
+             * Some other thread holds a UI lock and purges the queue once it
+             * has released it, unless it tried while this thread still held
+             * the session lock.
+             */
+            if (uiAccessLock.getReadLockCount() > 0) {
+                return;
+            }
+        } else {
+            // UI tasks might have been enqueued before the UIs were released
+            uisToPurge.forEach(
+                    ui -> ui.getInternals().ensureAccessQueuePurged());
+        }
+
         /*
          * If the session is locked when a new access task is added, it is
          * assumed that the queue will be purged when the lock is released. This
@@ -710,6 +898,49 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
         }
     }
 
+    private void runPendingAccessTasksAndPush() {
+        getService().runPendingAccessTasks(this);
+
+        for (UI ui : getUIs()) {
+            if (ui.getPushConfiguration().getPushMode() == PushMode.AUTOMATIC) {
+                Map<Class<?>, CurrentInstance> oldCurrent = CurrentInstance
+                        .setCurrent(ui);
+                try {
+                    ui.push();
+                } finally {
+                    CurrentInstance.restoreInstances(oldCurrent);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the pending access tasks of this session and of its UIs, and
+     * pushes the UIs with automatic push, if the UIs can be accessed
+     * exclusively. The session lock might have been taken without
+     * {@link #lock()}, in which case the UIs are only accessed if no thread
+     * holds a UI lock.
+     *
+     * @return the UIs that were accessed, or {@code null} if some thread
+     *         holds a UI lock
+     */
+    private Collection<UI> runPendingAccessTasksExclusively() {
+        if (!uiAccessLock.isWriteLockedByCurrentThread()
+                && (uiAccessLock.getReadHoldCount() > 0
+                        || !uiAccessLock.writeLock().tryLock())) {
+            return null;
+        }
+        getService().runPendingAccessTasks(this);
+
+        Collection<UI> uis = getUIs();
+        for (UI ui : uis) {
+            // Runs the tasks of the UI and pushes when the UI is released
+            ui.getInternals().tryAccessSynchronously(() -> {
+            });
+        }
+        return uis;
+    }
+
     /**
      * Stores a value in this service session. This can be used to associate
      * data with the current user so that it can be retrieved at a later point
@@ -726,7 +957,10 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
      */
     public void setAttribute(String name, Object value) {
         checkHasLock();
-        attributes.setAttribute(name, value);
+        withSessionState(() -> {
+            attributes.setAttribute(name, value);
+            return null;
+        });
     }
 
     /**
@@ -752,7 +986,10 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
      */
     public <T> void setAttribute(Class<T> type, T value) {
         checkHasLock();
-        attributes.setAttribute(type, value);
+        withSessionState(() -> {
+            attributes.setAttribute(type, value);
+            return null;
+        });
     }
 
     /**
@@ -768,7 +1005,7 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
      */
     public Object getAttribute(String name) {
         checkHasLock();
-        return attributes.getAttribute(name);
+        return withSessionState(() -> attributes.getAttribute(name));
     }
 
     /**
@@ -793,7 +1030,7 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
      */
     public <T> T getAttribute(Class<T> type) {
         checkHasLock();
-        return attributes.getAttribute(type);
+        return withSessionState(() -> attributes.getAttribute(type));
     }
 
     /**
@@ -803,7 +1040,7 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
      */
     public int getNextUIid() {
         checkHasLock();
-        return nextUIId++;
+        return withSessionState(() -> nextUIId++);
     }
 
     /**
@@ -823,7 +1060,15 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
                     "The UI belongs to a different session");
         }
 
-        uIs.put(ui.getUIId(), ui);
+        withSessionState(() -> uIs.put(ui.getUIId(), ui));
+        UIExpiryScheduler scheduler = getUIExpiryScheduler();
+        if (scheduler != null) {
+            scheduler.register(ui);
+        }
+    }
+
+    private UIExpiryScheduler getUIExpiryScheduler() {
+        return service == null ? null : service.getUIExpiryScheduler();
     }
 
     public VaadinService getService() {
@@ -1018,6 +1263,10 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
      * date.
      * <p>
      * Called internally by the framework.
+     * <p>
+     * When a deserialized session is refreshed for the first time, its UIs
+     * are registered with the {@link VaadinService#getUIExpiryScheduler() UI
+     * expiry scheduler} of the service, if any.
      *
      * @param wrappedSession
      *            the session this VaadinSession is stored in
@@ -1026,9 +1275,15 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
      */
     public void refreshTransients(WrappedSession wrappedSession,
             VaadinService vaadinService) {
+        boolean deserialized = service == null;
         session = wrappedSession;
         service = vaadinService;
         refreshLock();
+
+        UIExpiryScheduler scheduler = getUIExpiryScheduler();
+        if (deserialized && scheduler != null) {
+            scheduler.registerUIs(this);
+        }
     }
 
     /**
@@ -34,6 +34,11 @@ import com.vaadin.flow.shared.BrowserDetails;
  */
 public class WebBrowser implements Serializable {
 
+    private static final int MAX_CACHED_USER_AGENTS = 500;
+
+    private static final BrowserDetailsCache BROWSER_DETAILS_CACHE = new BrowserDetailsCache(
+            MAX_CACHED_USER_AGENTS);
+
     private String browserApplication = null;
     private Locale locale = null;
     private String address = null;
@@ -63,10 +68,22 @@ public class WebBrowser implements Serializable {
 
         if (agent != null) {
             browserApplication = agent;
-            browserDetails = new BrowserDetails(agent);
+            browserDetails = BROWSER_DETAILS_CACHE.get(agent);
         }
     }
 
+    /**
+     * Gets the cache of the browser details parsed from the user agent
+     * strings, which is shared by all the web browser instances.
+     * <p>
+     * For internal use only. May be renamed or removed in a future release.
+     *
+     * @return the browser details cache
+     */
+    public static BrowserDetailsCache getBrowserDetailsCache() {
+        return BROWSER_DETAILS_CACHE;
+    }
+
     /**
      * Get the browser user-agent string.
      *
@@ -50,6 +50,24 @@ public class HeartbeatHandler extends SynchronizedRequestHandler
         return HandlerHelper.isRequestType(request, RequestType.HEARTBEAT);
     }
 
+    @Override
+    public boolean handleRequest(VaadinSession session, VaadinRequest request,
+            VaadinResponse response) throws IOException {
+        if (!session.isUILocking() || !canHandleRequest(request)) {
+            return super.handleRequest(session, request, response);
+        }
+
+        // Only the lookup needs the session lock, the UI has its own lock
+        UI ui = session.getService().findAndLockUI(request, session);
+        try {
+            return handleHeartbeat(ui, response);
+        } finally {
+            if (ui != null) {
+                ui.getInternals().unlock();
+            }
+        }
+    }
+
     /**
      * Handles a heartbeat request for the given session. Reads the GET
      * parameter named {@link ApplicationConstants#UI_ID_PARAMETER} to identify
@@ -61,7 +79,11 @@ public class HeartbeatHandler extends SynchronizedRequestHandler
     @Override
     public boolean synchronizedHandleRequest(VaadinSession session,
             VaadinRequest request, VaadinResponse response) throws IOException {
-        UI ui = session.getService().findUI(request);
+        return handleHeartbeat(session.getService().findUI(request), response);
+    }
+
+    private boolean handleHeartbeat(UI ui, VaadinResponse response)
+            throws IOException {
         if (ui != null) {
             ui.getInternals()
                     .setLastHeartbeatTimestamp(System.currentTimeMillis());
@@ -206,9 +206,16 @@ public class PushHandler {
             }
 
             UI ui = null;
-            session.lock();
+            boolean uiLocking = session.isUILocking();
+            if (uiLocking) {
+                ui = service.findAndLockUI(vaadinRequest, session);
+            } else {
+                session.lock();
+            }
             try {
-                ui = service.findUI(vaadinRequest);
+                if (!uiLocking) {
+                    ui = service.findUI(vaadinRequest);
+                }
                 assert UI.getCurrent() == ui;
 
                 if (ui == null) {
@@ -243,7 +250,11 @@ public class PushHandler {
                 callErrorHandler(session, e);
             } finally {
                 try {
-                    session.unlock();
+                    if (!uiLocking) {
+                        session.unlock();
+                    } else if (ui != null) {
+                        ui.getInternals().unlock();
+                    }
                 } catch (Exception e) {
                     getLogger().warn("Error while unlocking session", e);
                     // can't call ErrorHandler, we (hopefully) don't have a lock
@@ -51,7 +51,7 @@ public class SessionRequestHandler implements RequestHandler {
     public boolean handleRequest(VaadinSession session, VaadinRequest request,
             VaadinResponse response) throws IOException {
         // Use a copy to avoid ConcurrentModificationException
-        session.lock();
+        session.lockSessionState();
         List<RequestHandler> requestHandlers;
         try {
             requestHandlers = new ArrayList<>(session.getRequestHandlers());
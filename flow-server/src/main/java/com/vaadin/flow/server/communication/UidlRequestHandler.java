@@ -67,7 +67,7 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
         implements SessionExpiredHandler {
 
 
-    private ServerRpcHandler rpcHandler;
+    private volatile ServerRpcHandler rpcHandler;
 
     public static final Pattern HASH_PATTERN = Pattern.compile("window.location.hash ?= ?'(.*?)'");
     public static final Pattern URL_PATTERN = Pattern.compile("^(.*)#(.+)$");
@@ -96,10 +96,35 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
         return new ServerRpcHandler();
     }
 
+    @Override
+    public boolean handleRequest(VaadinSession session, VaadinRequest request,
+            VaadinResponse response) throws IOException {
+        if (!session.isUILocking() || !canHandleRequest(request)) {
+            return super.handleRequest(session, request, response);
+        }
+
+        // Only the lookup needs the session lock, the UI has its own lock
+        UI uI = session.getService().findAndLockUI(request, session);
+        if (uI == null) {
+            return handleUidlRequest(session, null, request, response);
+        }
+
+        try {
+            return handleUidlRequest(session, uI, request, response);
+        } finally {
+            uI.getInternals().unlock();
+        }
+    }
+
     @Override
     public boolean synchronizedHandleRequest(VaadinSession session,
             VaadinRequest request, VaadinResponse response) throws IOException {
-        UI uI = session.getService().findUI(request);
+        return handleUidlRequest(session,
+                session.getService().findUI(request), request, response);
+    }
+
+    private boolean handleUidlRequest(VaadinSession session, UI uI,
+            VaadinRequest request, VaadinResponse response) throws IOException {
         if (uI == null) {
             // This should not happen but it will if the UI has been closed. We
             // really don't want to see it in the server logs though
@@ -186,7 +211,12 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
     private ServerRpcHandler getRpcHandler(VaadinSession session) {
         session.checkHasLock();
         if (rpcHandler == null) {
-            rpcHandler = createRpcHandler();
+            // UIs of the same session may be handled concurrently
+            synchronized (this) {
+                if (rpcHandler == null) {
+                    rpcHandler = createRpcHandler();
+                }
+            }
         }
         return rpcHandler;
     }
@@ -374,19 +374,25 @@ public class UidlWriter implements Serializable {
      * Encodes the state tree changes of the given UI. The executions registered
      * at
      * {@link StateTree#beforeClientResponse(com.vaadin.flow.internal.StateNode, com.vaadin.flow.function.SerializableConsumer)}
-     * at evaluated before the changes are encoded.
+     * at evaluated before the changes are encoded. Deferred children of visible
+     * nodes are materialized at the same time.
      *
      * @param ui
      *            the UI
      * @param stateChanges
      *            a JSON array to put state changes into
      * @see StateTree#runExecutionsBeforeClientResponse()
+     * @see StateTree#materializeDeferredNodes()
      */
     private void encodeChanges(UI ui, JsonArray stateChanges) {
         UIInternals uiInternals = ui.getInternals();
         StateTree stateTree = uiInternals.getStateTree();
 
-        stateTree.runExecutionsBeforeClientResponse();
+        // Materializing deferred children may register new executions and
+        // executions may reveal nodes with deferred children
+        do {
+            stateTree.runExecutionsBeforeClientResponse();
+        } while (stateTree.materializeDeferredNodes());
 
         Set<Class<? extends Component>> componentsWithDependencies = new LinkedHashSet<>();
         stateTree.collectChanges(change -> {
@@ -0,0 +1,418 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.communication.rpc;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.LoggerFactory;
+
+import com.vaadin.flow.component.ClientCallable;
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.template.internal.DeprecatedPolymerPublishedEventHandler;
+import com.vaadin.flow.di.Lookup;
+import com.vaadin.flow.internal.ReflectTools;
+import com.vaadin.flow.internal.ReflectionCache;
+import com.vaadin.flow.server.VaadinContext;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import elemental.json.JsonType;
+import elemental.json.JsonValue;
+
+/**
+ * Dispatch table of the methods which a component class publishes to the
+ * client side via {@link ClientCallable} or {@code @EventHandler}.
+ * <p>
+ * The table is built once per component class and maps method names to
+ * invokers which call the method through a {@link MethodHandle} and decode
+ * the client side arguments using decoders resolved up front for each
+ * parameter.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ */
+final class PublishedMethodTable {
+
+    private static final Collection<RpcDecoder> DECODERS = loadDecoders();
+
+    private static final ReflectionCache<Component, PublishedMethodTable> cache = new ReflectionCache<>(
+            PublishedMethodTable::new);
+
+    private final Map<String, PublishedMethod> methods = new HashMap<>();
+
+    private final Set<String> ambiguousNames = new HashSet<>();
+
+    private PublishedMethodTable(Class<? extends Component> type) {
+        Class<?> clazz = type;
+        while (true) {
+            Map<String, List<Method>> declared = Stream
+                    .of(clazz.getDeclaredMethods())
+                    .filter(PublishedMethodTable::hasMethodAnnotation)
+                    .collect(Collectors.groupingBy(Method::getName));
+            for (Map.Entry<String, List<Method>> entry : declared
+                    .entrySet()) {
+                String name = entry.getKey();
+                // methods declared in subclasses shadow the super class ones
+                if (methods.containsKey(name)
+                        || ambiguousNames.contains(name)) {
+                    continue;
+                }
+                if (entry.getValue().size() > 1) {
+                    ambiguousNames.add(name);
+                } else {
+                    methods.put(name,
+                            new PublishedMethod(entry.getValue().get(0)));
+                }
+            }
+            if (Component.class.equals(clazz)) {
+                break;
+            }
+            clazz = clazz.getSuperclass();
+        }
+    }
+
+    /**
+     * Gets the dispatch table for the given component class.
+     *
+     * @param type
+     *            the component class, not {@code null}
+     * @return the dispatch table for the class, not {@code null}
+     */
+    static PublishedMethodTable get(Class<? extends Component> type) {
+        return cache.get(type);
+    }
+
+    /**
+     * Finds the published method with the given name.
+     *
+     * @param instance
+     *            the component instance the method is looked up for, used in
+     *            the error message
+     * @param methodName
+     *            the method name
+     * @return the published method, or an empty optional if the class and
+     *         its super classes don't declare such a method
+     * @throws IllegalStateException
+     *             if several published methods with the same name are
+     *             declared in the same class
+     */
+    Optional<PublishedMethod> findMethod(Component instance,
+            String methodName) {
+        if (ambiguousNames.contains(methodName)) {
+            String msg = String.format("Class '%s' contains "
+                    + "several event handler method with the same name '%s'",
+                    instance.getClass().getName(), methodName);
+            throw new IllegalStateException(msg);
+        }
+        return Optional.ofNullable(methods.get(methodName));
+    }
+
+    private static boolean hasMethodAnnotation(Method method) {
+        // Check for polymer event handler annotation.
+        final boolean hasEventHandler = ReflectTools.hasAnnotation(method,
+                "com.vaadin.flow.component.polymertemplate.EventHandler");
+        return hasEventHandler
+                || method.isAnnotationPresent(ClientCallable.class);
+    }
+
+    private static Collection<RpcDecoder> loadDecoders() {
+        List<RpcDecoder> decoders = new ArrayList<>();
+        decoders.add(new StringToNumberDecoder());
+        decoders.add(new StringToEnumDecoder());
+        decoders.add(new DefaultRpcDecoder());
+        return decoders;
+    }
+
+    /**
+     * Precompiled invoker of a single published method.
+     */
+    static final class PublishedMethod {
+
+        private static final MethodType INVOKER_TYPE = MethodType
+                .methodType(Object.class, Object.class, Object[].class);
+
+        private final Method method;
+        private final MethodHandle handle;
+        private final Parameter[] parameters;
+
+        private PublishedMethod(Method method) {
+            this.method = method;
+            method.setAccessible(true);
+            try {
+                handle = MethodHandles.lookup().unreflect(method)
+                        .asFixedArity()
+                        .asSpreader(Object[].class, method.getParameterCount())
+                        .asType(INVOKER_TYPE);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(String.format(
+                        "Unable to access the method '%s' declared in '%s'",
+                        method.getName(), method.getDeclaringClass().getName()),
+                        e);
+            }
+            Class<?>[] types = method.getParameterTypes();
+            Type[] genericTypes = method.getGenericParameterTypes();
+            parameters = new Parameter[types.length];
+            for (int i = 0; i < types.length; i++) {
+                parameters[i] = new Parameter(method, i, types[i],
+                        genericTypes[i]);
+            }
+        }
+
+        /**
+         * Decodes the arguments received from the client and invokes the
+         * method with them.
+         *
+         * @param instance
+         *            the component to invoke the method on
+         * @param argsFromClient
+         *            the arguments received from the client
+         * @return the value returned by the method, or {@code null} for a
+         *         {@code void} method
+         */
+        Object invoke(Component instance, JsonArray argsFromClient) {
+            Object[] args = decodeArgs(instance, argsFromClient);
+            try {
+                return (Object) handle.invokeExact((Object) instance, args);
+            } catch (Throwable throwable) {
+                LoggerFactory.getLogger(
+                        PublishedServerEventHandlerRpcHandler.class.getName())
+                        .debug(null, throwable);
+                throw new RuntimeException(throwable);
+            }
+        }
+
+        private Object[] decodeArgs(Component instance,
+                JsonArray argsFromClient) {
+            int methodArgs = parameters.length;
+            int clientValuesCount = argsFromClient.length();
+            JsonArray argValues;
+            if (method.isVarArgs()) {
+                if (clientValuesCount >= methodArgs - 1) {
+                    argValues = unwrapVarArgs(argsFromClient);
+                } else {
+                    String msg = String.format(
+                            "The number of received values (%d) is not enough "
+                                    + "to call the method '%s' declared in '%s' which "
+                                    + "has vararg parameter and the number of arguments %d",
+                            clientValuesCount, method.getName(),
+                            method.getDeclaringClass().getName(), methodArgs);
+                    throw new IllegalArgumentException(msg);
+                }
+            } else {
+                if (methodArgs == clientValuesCount) {
+                    argValues = argsFromClient;
+                } else {
+                    String msg = String.format(
+                            "The number of received values (%d) is not equal "
+                                    + "to the number of arguments (%d) in the method '%s' "
+                                    + "declared in '%s'",
+                            clientValuesCount, methodArgs, method.getName(),
+                            method.getDeclaringClass().getName());
+                    throw new IllegalArgumentException(msg);
+                }
+            }
+            Object[] decoded = new Object[methodArgs];
+            for (int i = 0; i < methodArgs; i++) {
+                decoded[i] = parameters[i].decode(instance, argValues.get(i));
+            }
+            return decoded;
+        }
+
+        private JsonArray unwrapVarArgs(JsonArray argsFromClient) {
+            int paramCount = parameters.length;
+            if (argsFromClient.length() == paramCount) {
+                if (argsFromClient.get(paramCount - 1).getType()
+                        .equals(JsonType.ARRAY)) {
+                    return argsFromClient;
+                }
+            }
+            JsonArray result = Json.createArray();
+            JsonArray rest = Json.createArray();
+            int newIndex = 0;
+            for (int i = 0; i < argsFromClient.length(); i++) {
+                JsonValue value = argsFromClient.get(i);
+                if (i < paramCount - 1) {
+                    result.set(i, value);
+                } else {
+                    rest.set(newIndex, value);
+                    newIndex++;
+                }
+            }
+            result.set(paramCount - 1, rest);
+            return result;
+        }
+    }
+
+    /**
+     * Pre-resolved decoding information for a method parameter or for the
+     * component type of an array parameter.
+     */
+    private static final class Parameter {
+
+        private final Method method;
+        private final int index;
+        private final Class<?> type;
+        private final Class<?> convertedType;
+        private final Type genericType;
+        private final Parameter componentParameter;
+        // decoders indexed by the ordinal of the received value JSON type
+        private final RpcDecoder[] decoders;
+
+        private Parameter(Method method, int index, Class<?> type,
+                Type genericType) {
+            this.method = method;
+            this.index = index;
+            this.type = type;
+            this.genericType = genericType;
+            convertedType = ReflectTools.convertPrimitiveType(type);
+            if (type.isArray()) {
+                Class<?> componentType = type.getComponentType();
+                componentParameter = new Parameter(method, index,
+                        componentType, componentType);
+                decoders = null;
+            } else {
+                componentParameter = null;
+                decoders = new RpcDecoder[JsonType.values().length];
+                for (JsonType jsonType : JsonType.values()) {
+                    JsonValue sample = createSample(jsonType);
+                    decoders[jsonType.ordinal()] = DECODERS.stream()
+                            .filter(decoder -> decoder.isApplicable(sample,
+                                    convertedType))
+                            .findFirst().orElse(null);
+                }
+            }
+        }
+
+        private Object decode(Component instance, JsonValue argValue) {
+            // come up with method to know that it's an id and should be
+            // gotten from the model
+            assert argValue != null;
+            if (type.isPrimitive() && argValue.getType() == JsonType.NULL) {
+                String msg = String.format(
+                        "Null values are not allowed for primitive types but "
+                                + "a 'null' value was received for parameter %d "
+                                + "which refers to primitive type '%s' "
+                                + "in the method '%s' defined in the class '%s'",
+                        index, type.getName(), method.getName(),
+                        method.getDeclaringClass().getName());
+                throw new IllegalArgumentException(msg);
+            } else if (componentParameter != null) {
+                return decodeArray(argValue);
+            }
+
+            if (instance != null) {
+                DeprecatedPolymerPublishedEventHandler handler = getTemplateModelHandler(
+                        instance, argValue);
+                if (handler != null) {
+                    return handler.getTemplateItem(instance,
+                            (JsonObject) argValue, genericType);
+                }
+            }
+
+            RpcDecoder decoder = decoders[argValue.getType().ordinal()];
+            if (decoder != null) {
+                try {
+                    return decoder.decode(argValue, convertedType);
+                } catch (RpcDecodeException exception) {
+                    throw new IllegalArgumentException(exception);
+                }
+            }
+            String msg = String.format("Class '%s' has the method '%s' "
+                    + "whose parameter %d refers to unsupported type '%s'",
+                    method.getDeclaringClass().getName(), method.getName(),
+                    index, type.getName());
+            throw new IllegalArgumentException(msg);
+        }
+
+        private DeprecatedPolymerPublishedEventHandler getTemplateModelHandler(
+                Component instance, JsonValue argValue) {
+            Optional<UI> ui = instance.getUI();
+            if (!ui.isPresent()) {
+                throw new IllegalStateException(
+                        "Rpc handler may not be called for a detached component");
+            }
+            if (argValue.getType() != JsonType.OBJECT) {
+                // template model values are always sent as JSON objects
+                return null;
+            }
+            VaadinContext context = ui.get().getSession().getService()
+                    .getContext();
+            DeprecatedPolymerPublishedEventHandler handler = context
+                    .getAttribute(Lookup.class)
+                    .lookup(DeprecatedPolymerPublishedEventHandler.class);
+            if (handler != null && handler.isTemplateModelValue(instance,
+                    argValue, convertedType)) {
+                return handler;
+            }
+            return null;
+        }
+
+        private Object decodeArray(JsonValue argValue) {
+            if (argValue.getType() != JsonType.ARRAY) {
+                String msg = String.format("Class '%s' has the method '%s' "
+                        + "whose parameter %d refers to the array type '%s' "
+                        + "but received value is not an array, its type is '%s'",
+                        method.getDeclaringClass().getName(), method.getName(),
+                        index, type.getName(), argValue.getType().name());
+                throw new IllegalArgumentException(msg);
+            }
+            JsonArray array = (JsonArray) argValue;
+            Object result = Array.newInstance(componentParameter.type,
+                    array.length());
+            for (int i = 0; i < array.length(); i++) {
+                Array.set(result, i,
+                        componentParameter.decode(null, array.get(i)));
+            }
+            return result;
+        }
+
+        private static JsonValue createSample(JsonType jsonType) {
+            switch (jsonType) {
+            case STRING:
+                return Json.create("");
+            case NUMBER:
+                return Json.create(0);
+            case BOOLEAN:
+                return Json.create(false);
+            case ARRAY:
+                return Json.createArray();
+            case OBJECT:
+                return Json.createObject();
+            default:
+                return Json.createNull();
+            }
+        }
+    }
+}
@@ -168,6 +168,19 @@ public class FrontendUtils {
     @Deprecated
     public static final String DEAULT_FLOW_RESOURCES_FOLDER = DEFAULT_FLOW_RESOURCES_FOLDER;
 
+    /**
+     * File in the build folder where the byte code scanner keeps the
+     * information of the scanned classes between runs.
+     */
+    public static final String SCAN_CACHE_FILE = "flow-frontend-scan-cache.ser";
+
+    /**
+     * File in the build folder where the files copied from the jar files into
+     * the flow resources folder are listed, so that unchanged jar files can be
+     * skipped in the next run.
+     */
+    public static final String COPY_MANIFEST_FILE = "flow-frontend-copy-manifest.json";
+
     /**
      * Default folder name for flow generated stuff relative to the
      * {@link FrontendUtils#TARGET}.
@@ -274,6 +287,13 @@ public class FrontendUtils {
     public static final String TOKEN_FILE = Constants.VAADIN_CONFIGURATION
             + "flow-build-info.json";
 
+    /**
+     * File containing the build time index of the classes handled by the
+     * servlet container initializers.
+     */
+    public static final String CLASS_INDEX_FILE = Constants.VAADIN_CONFIGURATION
+            + "flow-class-index.json";
+
     /**
      * A key in a Json object for chunks list.
      */
@@ -20,9 +20,16 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.stream.Collectors;
@@ -216,7 +223,7 @@ public class JarContentsManager {
                     .filter(file -> isFileIncluded(file,
                             wildcardPathExclusions))
                     .forEach(jarEntry -> copyJarEntryTrimmingBasePath(jarFile,
-                            jarEntry, basePath, outputDirectory));
+                            jarEntry, basePath, outputDirectory, null));
         } catch (IOException e) {
             throw new UncheckedIOException(String.format(
                     "Failed to extract files from jarFile '%s' to directory '%s'",
@@ -268,7 +275,7 @@ public class JarContentsManager {
                             .startsWith(basePath.toLowerCase(Locale.ENGLISH)))
                     .filter(file -> includeFile(file, wildcardPathInclusions))
                     .forEach(jarEntry -> copyJarEntryTrimmingBasePath(jarFile,
-                            jarEntry, basePath, outputDirectory));
+                            jarEntry, basePath, outputDirectory, null));
         } catch (IOException e) {
             throw new UncheckedIOException(String.format(
                     "Failed to extract files from jarFile '%s' to directory '%s'",
@@ -276,6 +283,103 @@ public class JarContentsManager {
         }
     }
 
+    /**
+     * Copies files matching the inclusion filters from several directories of
+     * the jar file to the output directory. The jar entries are only read
+     * once, whatever the number of directories.
+     *
+     * @param jar
+     *            jar file to look for files in, not {@code null}
+     * @param outputDirectory
+     *            the directory to copy files to, not {@code null}
+     * @param wildcardInclusionsByDirectory
+     *            the wildcard inclusions to check the paths against for each
+     *            directory to copy files from, as in
+     *            {@link #copyIncludedFilesFromJarTrimmingBasePath(File, String, File, String...)},
+     *            not {@code null}
+     * @return the paths of the copied files relative to the output directory
+     * @throws IllegalArgumentException
+     *             if jar file specified is not a file or does not exist or if
+     *             output directory is not a directory or does not exist
+     * @throws NullPointerException
+     *             if jar file or output directory is {@code null}
+     * @throws UncheckedIOException
+     *             if {@link IOException} occurs during the operation, for
+     *             instance, when jar file specified is not a jar file
+     */
+    public Set<String> copyIncludedFilesFromJar(File jar, File outputDirectory,
+            Map<String, String[]> wildcardInclusionsByDirectory) {
+        return copyIncludedFilesFromJar(jar, outputDirectory,
+                wildcardInclusionsByDirectory, null);
+    }
+
+    /**
+     * Copies files matching the inclusion filters from several directories of
+     * the jar file to the output directory, writing each file to the given
+     * temporary directory first. This keeps the temporary files away from
+     * tools watching the output directory.
+     *
+     * @param jar
+     *            jar file to look for files in, not {@code null}
+     * @param outputDirectory
+     *            the directory to copy files to, not {@code null}
+     * @param wildcardInclusionsByDirectory
+     *            the wildcard inclusions to check the paths against for each
+     *            directory to copy files from, as in
+     *            {@link #copyIncludedFilesFromJarTrimmingBasePath(File, String, File, String...)},
+     *            not {@code null}
+     * @param temporaryDirectory
+     *            an existing directory to write the files to before moving
+     *            them to the output directory, preferably on the same file
+     *            system, or {@code null} to write them next to their target
+     * @return the paths of the copied files relative to the output directory
+     * @throws IllegalArgumentException
+     *             if jar file specified is not a file or does not exist or if
+     *             output directory is not a directory or does not exist
+     * @throws NullPointerException
+     *             if jar file or output directory is {@code null}
+     * @throws UncheckedIOException
+     *             if {@link IOException} occurs during the operation, for
+     *             instance, when jar file specified is not a jar file
+     */
+    public Set<String> copyIncludedFilesFromJar(File jar, File outputDirectory,
+            Map<String, String[]> wildcardInclusionsByDirectory,
+            File temporaryDirectory) {
+        requireFileExistence(jar);
+
+        if (!Objects.requireNonNull(outputDirectory).isDirectory()) {
+            throw new IllegalArgumentException(
+                    String.format("Expect '%s' to be an existing directory",
+                            outputDirectory));
+        }
+
+        Set<String> copiedFiles = new LinkedHashSet<>();
+        try (JarFile jarFile = new JarFile(jar, false)) {
+            jarFile.stream().filter(file -> !file.isDirectory())
+                    .forEach(jarEntry -> wildcardInclusionsByDirectory
+                            .forEach((directory, inclusions) -> {
+                                String basePath = normalizeJarBasePath(
+                                        directory);
+                                if (jarEntry.getName()
+                                        .toLowerCase(Locale.ENGLISH)
+                                        .startsWith(basePath.toLowerCase(
+                                                Locale.ENGLISH))
+                                        && includeFile(jarEntry, inclusions)) {
+                                    copiedFiles.add(
+                                            copyJarEntryTrimmingBasePath(
+                                                    jarFile, jarEntry, basePath,
+                                                    outputDirectory,
+                                                    temporaryDirectory));
+                                }
+                            }));
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format(
+                    "Failed to extract files from jarFile '%s' to directory '%s'",
+                    jar, outputDirectory), e);
+        }
+        return copiedFiles;
+    }
+
     private String normalizeJarBasePath(String rawPath) {
         if (rawPath == null || rawPath.isEmpty()) {
             return "";
@@ -297,8 +401,9 @@ public class JarContentsManager {
                 .wildcardMatch(filePath, inclusionRule));
     }
 
-    private void copyJarEntryTrimmingBasePath(JarFile jarFile,
-            ZipEntry jarEntry, String basePath, File outputDirectory) {
+    private String copyJarEntryTrimmingBasePath(JarFile jarFile,
+            ZipEntry jarEntry, String basePath, File outputDirectory,
+            File temporaryDirectory) {
         String fullPath = jarEntry.getName();
         String relativePath = fullPath
                 .substring(fullPath.toLowerCase(Locale.ENGLISH)
@@ -306,20 +411,28 @@ public class JarContentsManager {
                         + basePath.length());
         File target = new File(outputDirectory, relativePath);
         try {
-            if (target.exists()) {
-                File tempFile = File.createTempFile(fullPath, null);
-                FileUtils.copyInputStreamToFile(
-                        jarFile.getInputStream(jarEntry), tempFile);
-                if (!FileUtils.contentEquals(tempFile, target)) {
-                    FileUtils.forceDelete(target);
-                    FileUtils.moveFile(tempFile, target);
-                } else {
-                    tempFile.delete();
-                }
-            } else {
-                FileUtils.copyInputStreamToFile(
-                        jarFile.getInputStream(jarEntry), target);
+            byte[] contents;
+            try (InputStream entryStream = jarFile.getInputStream(jarEntry)) {
+                contents = IOUtils.toByteArray(entryStream);
             }
+            if (target.isFile() && target.length() == contents.length
+                    && Arrays.equals(contents,
+                            FileUtils.readFileToByteArray(target))) {
+                return relativePath;
+            }
+            // Several jar files may be extracted into the same directory at
+            // the same time, so a partially written file must never be visible
+            FileUtils.forceMkdirParent(target);
+            File tempFile = File.createTempFile("." + target.getName() + "-",
+                    null, temporaryDirectory == null ? target.getParentFile()
+                            : temporaryDirectory);
+            try {
+                FileUtils.writeByteArrayToFile(tempFile, contents);
+                moveReplacing(tempFile, target);
+            } finally {
+                Files.deleteIfExists(tempFile.toPath());
+            }
+            return relativePath;
         } catch (IOException e) {
             throw new UncheckedIOException(String.format(
                     "Failed to extract jar entry '%s' from jarFile '%s'",
@@ -327,4 +440,16 @@ public class JarContentsManager {
         }
     }
 
+    private static void moveReplacing(File source, File target)
+            throws IOException {
+        try {
+            Files.move(source.toPath(), target.toPath(),
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            // The temporary directory is on another file system
+            Files.move(source.toPath(), target.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
 }
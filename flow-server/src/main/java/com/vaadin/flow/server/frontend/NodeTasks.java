@@ -20,9 +20,23 @@ import java.io.File;
 import java.io.Serializable;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.vaadin.flow.di.Lookup;
 import com.vaadin.flow.server.ExecutionFailedException;
@@ -84,6 +98,10 @@ public class NodeTasks implements FallibleCommand {
 
         private boolean useByteCodeScanner = false;
 
+        private File scanCacheFile;
+
+        private File buildFolder;
+
         private JsonObject tokenFileData;
 
         private File tokenFile;
@@ -428,6 +446,36 @@ public class NodeTasks implements FallibleCommand {
             return this;
         }
 
+        /**
+         * Sets the file where the byte code scanner keeps the information of
+         * the scanned classes between runs, so that only the changed classes
+         * are read again. Only used with the byte code scanner.
+         *
+         * @param scanCacheFile
+         *            the scan cache file, or {@code null} to scan all the
+         *            classes on each run
+         * @return the builder, for chaining
+         */
+        public Builder withScanCacheFile(File scanCacheFile) {
+            this.scanCacheFile = scanCacheFile;
+            return this;
+        }
+
+        /**
+         * Sets the build folder, where the files copied from the jar files
+         * are listed between runs and where they are written to before being
+         * moved into the flow resources folder.
+         *
+         * @param buildFolder
+         *            the build folder, or {@code null} to copy the files from
+         *            all the jar files on each run
+         * @return the builder, for chaining
+         */
+        public Builder withBuildFolder(File buildFolder) {
+            this.buildFolder = buildFolder;
+            return this;
+        }
+
         /**
          * Fill token file data into the provided {@code object}.
          *
@@ -507,7 +555,11 @@ public class NodeTasks implements FallibleCommand {
         }
     }
 
-    private final Collection<FallibleCommand> commands = new ArrayList<>();
+    /**
+     * The commands to run, mapped to the commands they depend on. A command
+     * only depends on commands added before it.
+     */
+    private final Map<FallibleCommand, List<FallibleCommand>> commands = new LinkedHashMap<>();
 
     private NodeTasks(Builder builder) {
 
@@ -518,18 +570,22 @@ public class NodeTasks implements FallibleCommand {
         boolean enableWebpackConfigUpdate = builder.webpackTemplate != null
                 && !builder.webpackTemplate.isEmpty();
 
+        TaskGeneratePackageJson packageCreator = null;
         if (builder.createMissingPackageJson) {
-            TaskGeneratePackageJson packageCreator = new TaskGeneratePackageJson(
+            packageCreator = new TaskGeneratePackageJson(
                 builder.npmFolder, builder.generatedFolder,
                 builder.flowResourcesFolder);
-            commands.add(packageCreator);
+            addCommand(packageCreator);
         }
 
+        TaskUpdatePackages packageUpdater = null;
+        TaskRunNpmInstall npmInstall = null;
         if (builder.enablePackagesUpdate || builder.enableImportsUpdate
                 || enableWebpackConfigUpdate) {
             frontendDependencies = new FrontendDependenciesScanner.FrontendDependenciesScannerFactory()
                     .createScanner(!builder.useByteCodeScanner, classFinder,
-                            builder.generateEmbeddableWebComponents);
+                            builder.generateEmbeddableWebComponents,
+                            builder.scanCacheFile);
 
             if (builder.generateEmbeddableWebComponents) {
                 FrontendWebComponentGenerator generator = new FrontendWebComponentGenerator(
@@ -537,53 +593,70 @@ public class NodeTasks implements FallibleCommand {
                 generator.generateWebComponents(builder.generatedFolder, frontendDependencies.getThemeDefinition());
             }
 
-            TaskUpdatePackages packageUpdater = null;
             if (builder.enablePackagesUpdate && builder.flowResourcesFolder != null) {
                 packageUpdater = new TaskUpdatePackages(classFinder,
                     frontendDependencies, builder.npmFolder,
                     builder.generatedFolder, builder.flowResourcesFolder,
                     builder.cleanNpmFiles, builder.enablePnpm);
-                commands.add(packageUpdater);
+                addCommand(packageUpdater, packageCreator);
 
             }
             if (packageUpdater != null && builder.runNpmInstall) {
-                commands.add(new TaskRunNpmInstall(classFinder, packageUpdater,
+                npmInstall = new TaskRunNpmInstall(classFinder, packageUpdater,
                     builder.enablePnpm, builder.requireHomeNodeExec,
-                    builder.nodeVersion, builder.nodeDownloadRoot));
+                    builder.nodeVersion, builder.nodeDownloadRoot);
+                addCommand(npmInstall, packageUpdater);
 
-                commands.add(new TaskInstallWebpackPlugins(
-                    new File(builder.npmFolder, NODE_MODULES)));
+                addCommand(new TaskInstallWebpackPlugins(
+                    new File(builder.npmFolder, NODE_MODULES)), npmInstall);
             }
 
         }
 
+        FallibleCommand connectGenerator = null;
         if (!builder.useDeprecatedV14Bootstrapping) {
             addBootstrapTasks(builder, frontendDependencies);
 
             if (builder.connectJavaSourceFolder != null
                     && builder.connectJavaSourceFolder.exists()
                     && builder.connectGeneratedOpenApiFile != null) {
-                addConnectServicesTasks(builder);
+                connectGenerator = addConnectServicesTasks(builder);
             }
 
-            commands.add(new TaskGenerateBootstrap(frontendDependencies, builder.frontendDirectory));
+            // The Connect generator removes unknown files from the generated
+            // folder
+            addCommand(new TaskGenerateBootstrap(frontendDependencies,
+                    builder.frontendDirectory), connectGenerator);
         }
 
+        // Updating the packages may clean the flow resources folder, and pnpm
+        // copies its contents when installing
+        List<FallibleCommand> copyDependencies = builder.enablePnpm
+                ? Arrays.asList(packageUpdater, npmInstall)
+                : Collections.singletonList(packageUpdater);
+        FallibleCommand copyFrontendFiles = null;
         if (builder.jarFiles != null && builder.flowResourcesFolder != null) {
-            commands.add(new TaskCopyFrontendFiles(builder.flowResourcesFolder,
-                    builder.jarFiles));
+            copyFrontendFiles = new TaskCopyFrontendFiles(
+                    builder.flowResourcesFolder, builder.jarFiles,
+                    builder.buildFolder);
+            addCommand(copyFrontendFiles, copyDependencies);
         }
 
+        FallibleCommand copyLocalFrontendFiles = null;
         if (builder.localResourcesFolder != null && builder.flowResourcesFolder != null) {
-            commands.add(
-                new TaskCopyLocalFrontendFiles(builder.flowResourcesFolder,
-                    builder.localResourcesFolder));
+            // Local files override the files copied from the jars
+            copyLocalFrontendFiles = new TaskCopyLocalFrontendFiles(
+                    builder.flowResourcesFolder, builder.localResourcesFolder);
+            List<FallibleCommand> dependencies = new ArrayList<>(
+                    copyDependencies);
+            dependencies.add(copyFrontendFiles);
+            addCommand(copyLocalFrontendFiles, dependencies);
         }
 
         if (enableWebpackConfigUpdate) {
             PwaConfiguration pwaConfiguration = frontendDependencies
                     .getPwaConfiguration();
-            commands.add(new TaskUpdateWebpack(builder.frontendDirectory,
+            addCommand(new TaskUpdateWebpack(builder.frontendDirectory,
                     builder.npmFolder, builder.webpackOutputDirectory,
                     builder.resourceOutputDirectory, builder.webpackTemplate,
                     builder.webpackGeneratedTemplate,
@@ -594,16 +667,21 @@ public class NodeTasks implements FallibleCommand {
         }
 
         if (builder.enableImportsUpdate) {
-            commands.add(
+            // The imports are checked against the installed and copied
+            // frontend files
+            addCommand(
                     new TaskUpdateImports(classFinder, frontendDependencies,
                             finder -> getFallbackScanner(builder, finder),
                             builder.npmFolder, builder.generatedFolder,
                             builder.frontendDirectory, builder.tokenFile,
-                            builder.tokenFileData, builder.enablePnpm));
+                            builder.tokenFileData, builder.enablePnpm),
+                    Arrays.asList(packageUpdater, npmInstall,
+                            copyFrontendFiles, copyLocalFrontendFiles));
 
-            commands.add(new TaskUpdateThemeImport(builder.npmFolder,
+            addCommand(new TaskUpdateThemeImport(builder.npmFolder,
                 frontendDependencies.getThemeDefinition(),
-                builder.frontendDirectory, builder.connectClientTsApiFolder));
+                builder.frontendDirectory, builder.connectClientTsApiFolder),
+                    connectGenerator);
         }
     }
 
@@ -612,30 +690,30 @@ public class NodeTasks implements FallibleCommand {
                 FrontendUtils.TARGET);
         TaskGenerateIndexHtml taskGenerateIndexHtml = new TaskGenerateIndexHtml(
                 builder.frontendDirectory, outputDirectory);
-        commands.add(taskGenerateIndexHtml);
+        addCommand(taskGenerateIndexHtml);
         TaskGenerateIndexTs taskGenerateIndexTs = new TaskGenerateIndexTs(
                 builder.frontendDirectory,
                 new File(builder.generatedFolder, IMPORTS_NAME),
                 outputDirectory);
-        commands.add(taskGenerateIndexTs);
+        addCommand(taskGenerateIndexTs);
 
         TaskGenerateTsConfig taskGenerateTsConfig = new TaskGenerateTsConfig(
                 builder.npmFolder);
-        commands.add(taskGenerateTsConfig);
+        addCommand(taskGenerateTsConfig);
 
         TaskGenerateTsDefinitions taskGenerateTsDefinitions = new TaskGenerateTsDefinitions(
                 builder.npmFolder);
-        commands.add(taskGenerateTsDefinitions);
+        addCommand(taskGenerateTsDefinitions);
 
         if (frontendDependencies != null) {
             PwaConfiguration pwaConfiguration = frontendDependencies.getPwaConfiguration();
             if (pwaConfiguration.isEnabled()) {
-                commands.add(new TaskGenerateServiceWorker(builder.frontendDirectory, outputDirectory));
+                addCommand(new TaskGenerateServiceWorker(builder.frontendDirectory, outputDirectory));
             }
         }
     }
 
-    private void addConnectServicesTasks(Builder builder) {
+    private FallibleCommand addConnectServicesTasks(Builder builder) {
         Lookup lookup = builder.lookup;
         EndpointGeneratorTaskFactory endpointGeneratorTaskFactory = lookup.lookup(EndpointGeneratorTaskFactory.class);
 
@@ -643,15 +721,39 @@ public class NodeTasks implements FallibleCommand {
             TaskGenerateOpenApi taskGenerateOpenApi = endpointGeneratorTaskFactory.createTaskGenerateOpenApi(
                     builder.connectApplicationProperties, builder.connectJavaSourceFolder,
                     builder.classFinder.getClassLoader(), builder.connectGeneratedOpenApiFile);
-            commands.add(taskGenerateOpenApi);
+            addCommand(taskGenerateOpenApi);
 
             if (builder.connectClientTsApiFolder != null) {
                 TaskGenerateConnect taskGenerateConnectTs = endpointGeneratorTaskFactory.createTaskGenerateConnect(
                         builder.connectApplicationProperties, builder.connectGeneratedOpenApiFile,
                         builder.connectClientTsApiFolder, builder.frontendDirectory);
-                commands.add(taskGenerateConnectTs);
+                addCommand(taskGenerateConnectTs, taskGenerateOpenApi);
+                return taskGenerateConnectTs;
             }
+            return taskGenerateOpenApi;
         }
+        return null;
+    }
+
+    /**
+     * Adds a command to run after the given commands.
+     *
+     * @param command
+     *            the command to add, not {@code null}
+     * @param dependencies
+     *            the previously added commands to run before the command,
+     *            {@code null} values are ignored
+     */
+    void addCommand(FallibleCommand command, FallibleCommand... dependencies) {
+        addCommand(command, Arrays.asList(dependencies));
+    }
+
+    private void addCommand(FallibleCommand command,
+            Collection<FallibleCommand> dependencies) {
+        List<FallibleCommand> nonNullDependencies = new ArrayList<>();
+        dependencies.stream().filter(Objects::nonNull)
+                .forEach(nonNullDependencies::add);
+        commands.put(command, nonNullDependencies);
     }
 
     private FrontendDependenciesScanner getFallbackScanner(Builder builder,
@@ -665,11 +767,81 @@ public class NodeTasks implements FallibleCommand {
         }
     }
 
+    /**
+     * Executes the commands. Commands which don't depend on each other are run
+     * concurrently. When a command fails, the commands depending on it are not
+     * run and the failure is thrown once the other commands have completed.
+     */
     @Override
     public void execute() throws ExecutionFailedException {
-        for (FallibleCommand command : commands) {
+        if (commands.isEmpty()) {
+            return;
+        }
+        int threads = Math.min(commands.size(),
+                Runtime.getRuntime().availableProcessors());
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable,
+                    "vaadin-node-task-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(threads,
+                threadFactory);
+        try {
+            Map<FallibleCommand, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+            commands.forEach((command, dependencies) -> {
+                CompletableFuture<?>[] dependencyFutures = dependencies.stream()
+                        .map(futures::get)
+                        .toArray(CompletableFuture<?>[]::new);
+                futures.put(command, CompletableFuture.allOf(dependencyFutures)
+                        .thenRunAsync(() -> run(command), executor));
+            });
+            CompletableFuture
+                    .allOf(futures.values().toArray(new CompletableFuture<?>[0]))
+                    .exceptionally(throwable -> null).join();
+            for (CompletableFuture<Void> future : futures.values()) {
+                rethrowFailure(future);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void run(FallibleCommand command) {
+        long start = System.nanoTime();
+        try {
             command.execute();
+        } catch (ExecutionFailedException exception) {
+            throw new CompletionException(exception);
+        }
+        getLogger().debug("{} took {} ms", command.getClass().getSimpleName(),
+                (System.nanoTime() - start) / 1000000);
+    }
+
+    private static void rethrowFailure(CompletableFuture<Void> future)
+            throws ExecutionFailedException {
+        try {
+            future.join();
+        } catch (CompletionException exception) {
+            // The commands depending on a failed command fail with the same
+            // cause
+            Throwable cause = exception.getCause();
+            if (cause instanceof ExecutionFailedException) {
+                throw (ExecutionFailedException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw exception;
         }
     }
 
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(NodeTasks.class);
+    }
+
 }
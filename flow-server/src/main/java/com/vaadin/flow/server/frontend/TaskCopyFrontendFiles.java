@@ -16,20 +16,42 @@
 package com.vaadin.flow.server.frontend;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
+import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import elemental.json.Json;
+import elemental.json.JsonException;
+import elemental.json.JsonObject;
+import elemental.json.JsonType;
+import elemental.json.JsonValue;
+
 import static com.vaadin.flow.server.Constants.COMPATIBILITY_RESOURCES_FRONTEND_DEFAULT;
 import static com.vaadin.flow.server.Constants.RESOURCES_FRONTEND_DEFAULT;
 import static com.vaadin.flow.server.Constants.RESOURCES_JAR_DEFAULT;
-import static com.vaadin.flow.server.Constants.APPLICATION_THEME_ROOT;
+import static com.vaadin.flow.server.frontend.FrontendUtils.COPY_MANIFEST_FILE;
+import static elemental.json.impl.JsonUtil.stringify;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
  * Copies JavaScript and CSS files from JAR files into a given folder.
+ * <p>
+ * The jar files are extracted in parallel. When a build folder is given, the
+ * files copied from each jar file are listed in a manifest file in it, and a
+ * jar file is skipped in the next run if neither the jar file nor the files
+ * copied from it have changed. The files are then also written to the build
+ * folder first, so that the target folder never contains temporary files.
  *
  * @since 2.0
  */
@@ -37,8 +59,24 @@ public class TaskCopyFrontendFiles implements FallibleCommand {
     private static final String[] WILDCARD_INCLUSIONS = new String[] {
             "**/*.js", "**/*.css", "**/*.ts" };
     private static final String WILDCARD_INCLUSION_APP_THEME_JAR = "**/themes/**/*";
+    private static final Map<String, String[]> JAR_INCLUSIONS = new LinkedHashMap<>();
+
+    private static final String SIZE = "size";
+    private static final String LAST_MODIFIED = "lastModified";
+    private static final String FILES = "files";
+
+    static {
+        JAR_INCLUSIONS.put(RESOURCES_FRONTEND_DEFAULT, WILDCARD_INCLUSIONS);
+        JAR_INCLUSIONS.put(COMPATIBILITY_RESOURCES_FRONTEND_DEFAULT,
+                WILDCARD_INCLUSIONS);
+        JAR_INCLUSIONS.put(RESOURCES_JAR_DEFAULT,
+                new String[] { WILDCARD_INCLUSION_APP_THEME_JAR });
+    }
+
     private File targetDirectory;
     private Set<File> resourceLocations = null;
+    private final File buildFolder;
+    private final File manifestFile;
 
     /**
      * Scans the jar files given defined by {@code resourcesToScan}.
@@ -49,11 +87,33 @@ public class TaskCopyFrontendFiles implements FallibleCommand {
      *            folders and jar files to scan.
      */
     TaskCopyFrontendFiles(File targetDirectory, Set<File> resourcesToScan) {
+        this(targetDirectory, resourcesToScan, null);
+    }
+
+    /**
+     * Scans the jar files given defined by {@code resourcesToScan}, skipping
+     * the jar files which haven't changed since the previous run.
+     *
+     * @param targetDirectory
+     *            target directory for the discovered files
+     * @param resourcesToScan
+     *            folders and jar files to scan.
+     * @param buildFolder
+     *            the folder to list the files copied from each jar file in and
+     *            to write the files to before moving them to the target
+     *            directory, or {@code null} to copy the files from all the jar
+     *            files
+     */
+    TaskCopyFrontendFiles(File targetDirectory, Set<File> resourcesToScan,
+            File buildFolder) {
         Objects.requireNonNull(targetDirectory,
                 "Parameter 'targetDirectory' must not be " + "null");
         Objects.requireNonNull(resourcesToScan,
                 "Parameter 'jarFilesToScan' must not be null");
         this.targetDirectory = targetDirectory;
+        this.buildFolder = buildFolder;
+        manifestFile = buildFolder == null ? null
+                : new File(buildFolder, COPY_MANIFEST_FILE);
         resourceLocations = resourcesToScan.stream().filter(File::exists)
                 .collect(Collectors.toSet());
     }
@@ -63,8 +123,14 @@ public class TaskCopyFrontendFiles implements FallibleCommand {
         long start = System.nanoTime();
         log().info("Copying frontend resources from jar files ...");
         TaskCopyLocalFrontendFiles.createTargetFolder(targetDirectory);
+        if (buildFolder != null) {
+            TaskCopyLocalFrontendFiles.createTargetFolder(buildFolder);
+        }
         JarContentsManager jarContentsManager = new JarContentsManager();
-        for (File location : resourceLocations) {
+        JsonObject previousManifest = readManifest();
+        Map<String, Set<String>> copiedFiles = new ConcurrentHashMap<>();
+        AtomicInteger skipped = new AtomicInteger();
+        resourceLocations.parallelStream().forEach(location -> {
             if (location.isDirectory()) {
                 TaskCopyLocalFrontendFiles.copyLocalResources(
                         new File(location, RESOURCES_FRONTEND_DEFAULT),
@@ -73,21 +139,98 @@ public class TaskCopyFrontendFiles implements FallibleCommand {
                         new File(location,
                                 COMPATIBILITY_RESOURCES_FRONTEND_DEFAULT),
                         targetDirectory);
+                return;
+            }
+            String key = location.getAbsolutePath();
+            Set<String> files = getUnchangedFiles(previousManifest, location);
+            if (files != null) {
+                skipped.incrementAndGet();
             } else {
-                jarContentsManager.copyIncludedFilesFromJarTrimmingBasePath(
-                        location, RESOURCES_FRONTEND_DEFAULT, targetDirectory,
-                        WILDCARD_INCLUSIONS);
-                jarContentsManager.copyIncludedFilesFromJarTrimmingBasePath(
-                        location, COMPATIBILITY_RESOURCES_FRONTEND_DEFAULT,
-                        targetDirectory, WILDCARD_INCLUSIONS);
-                jarContentsManager.copyIncludedFilesFromJarTrimmingBasePath(
-                        location, RESOURCES_JAR_DEFAULT, targetDirectory,
-                        WILDCARD_INCLUSION_APP_THEME_JAR);
+                files = jarContentsManager.copyIncludedFilesFromJar(location,
+                        targetDirectory, JAR_INCLUSIONS, buildFolder);
             }
-        }
+            copiedFiles.put(key, files);
+        });
+        // Several jar files may contain the same file, so the manifest is
+        // only written once all the files have been copied
+        writeManifest(copiedFiles);
         long ms = (System.nanoTime() - start) / 1000000;
-        log().info("Visited {} resources. Took {} ms.",
-                resourceLocations.size(), ms);
+        log().info("Visited {} resources, skipped {} unchanged jar files. "
+                + "Took {} ms.", resourceLocations.size(), skipped.get(), ms);
+    }
+
+    private Set<String> getUnchangedFiles(JsonObject manifest, File jar) {
+        JsonObject jarInfo = getObject(manifest, jar.getAbsolutePath());
+        if (jarInfo == null || !isUnchanged(jarInfo, jar)) {
+            return null;
+        }
+        JsonObject files = getObject(jarInfo, FILES);
+        if (files == null) {
+            return null;
+        }
+        for (String path : files.keys()) {
+            JsonObject fileInfo = getObject(files, path);
+            if (fileInfo == null
+                    || !isUnchanged(fileInfo, new File(targetDirectory, path))) {
+                return null;
+            }
+        }
+        return new LinkedHashSet<>(Arrays.asList(files.keys()));
+    }
+
+    private static boolean isUnchanged(JsonObject info, File file) {
+        return file.isFile() && info.hasKey(SIZE)
+                && info.hasKey(LAST_MODIFIED)
+                && (long) info.getNumber(SIZE) == file.length()
+                && (long) info.getNumber(LAST_MODIFIED) == file.lastModified();
+    }
+
+    private static JsonObject getObject(JsonObject json, String key) {
+        JsonValue value = json.get(key);
+        return value != null && value.getType() == JsonType.OBJECT
+                ? (JsonObject) value
+                : null;
+    }
+
+    private static JsonObject describe(File file) {
+        JsonObject info = Json.createObject();
+        info.put(SIZE, file.length());
+        info.put(LAST_MODIFIED, file.lastModified());
+        return info;
+    }
+
+    private JsonObject readManifest() {
+        if (manifestFile == null || !manifestFile.isFile()) {
+            return Json.createObject();
+        }
+        try {
+            return Json.parse(FileUtils.readFileToString(manifestFile, UTF_8));
+        } catch (IOException | JsonException e) {
+            log().debug("Unable to read '{}', copying all the frontend "
+                    + "resources from jar files", manifestFile, e);
+            return Json.createObject();
+        }
+    }
+
+    private void writeManifest(Map<String, Set<String>> copiedFiles) {
+        if (manifestFile == null) {
+            return;
+        }
+        JsonObject manifest = Json.createObject();
+        copiedFiles.forEach((jar, files) -> {
+            JsonObject jarInfo = describe(new File(jar));
+            JsonObject filesInfo = Json.createObject();
+            files.forEach(path -> filesInfo.put(path,
+                    describe(new File(targetDirectory, path))));
+            jarInfo.put(FILES, filesInfo);
+            manifest.put(jar, jarInfo);
+        });
+        try {
+            FileUtils.writeStringToFile(manifestFile,
+                    stringify(manifest, 2) + "\n", UTF_8);
+        } catch (IOException e) {
+            log().warn("Unable to write '{}'", manifestFile, e);
+        }
     }
 
     private Logger log() {
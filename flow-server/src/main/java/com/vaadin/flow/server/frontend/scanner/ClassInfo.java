@@ -0,0 +1,355 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.frontend.scanner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import net.bytebuddy.jar.asm.AnnotationVisitor;
+import net.bytebuddy.jar.asm.ClassReader;
+import net.bytebuddy.jar.asm.ClassVisitor;
+import net.bytebuddy.jar.asm.FieldVisitor;
+import net.bytebuddy.jar.asm.Handle;
+import net.bytebuddy.jar.asm.MethodVisitor;
+import net.bytebuddy.jar.asm.Opcodes;
+import net.bytebuddy.jar.asm.Type;
+
+import static com.vaadin.flow.server.frontend.scanner.FrontendClassVisitor.addSignatureToClasses;
+
+/**
+ * The information of a class file needed by {@link FrontendClassVisitor}.
+ * <p>
+ * The byte code is read once into a form which doesn't depend on the end-point
+ * the class is visited for: the classes referenced by the class declaration,
+ * fields and method bodies, and the class annotations with all their values.
+ * The annotations are replayed to the visitor of each end-point, which makes it
+ * possible to reuse the information between end-points and between scans.
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ */
+final class ClassInfo implements Serializable {
+
+    private final String checksum;
+    private final Set<String> references = new LinkedHashSet<>();
+    private final List<AnnotationInfo> annotations = new ArrayList<>();
+
+    private ClassInfo(String checksum) {
+        this.checksum = checksum;
+    }
+
+    /**
+     * Reads the information of a class from its byte code.
+     *
+     * @param stream
+     *            the class file contents, not {@code null}
+     * @param checksum
+     *            the checksum of the class file, or {@code null} if unknown
+     * @return the class information
+     * @throws IOException
+     *             if the class file can't be read
+     */
+    static ClassInfo read(InputStream stream, String checksum)
+            throws IOException {
+        ClassInfo info = new ClassInfo(checksum);
+        // Neither debug information nor stack map frames contain anything the
+        // frontend visitor is interested in
+        new ClassReader(stream).accept(info.new ClassRecorder(),
+                ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+        return info;
+    }
+
+    /**
+     * Gets the checksum of the class file the information was read from.
+     *
+     * @return the checksum, or {@code null} if unknown
+     */
+    String getChecksum() {
+        return checksum;
+    }
+
+    /**
+     * Replays the class information to the given visitor.
+     *
+     * @param visitor
+     *            the visitor of the end-point the class is visited for, not
+     *            {@code null}
+     */
+    void accept(FrontendClassVisitor visitor) {
+        for (AnnotationInfo annotation : annotations) {
+            AnnotationVisitor annotationVisitor = visitor.visitAnnotation(
+                    annotation.descriptor, annotation.visible);
+            if (annotationVisitor != null) {
+                annotation.values.accept(annotationVisitor);
+            }
+        }
+        visitor.getChildren().addAll(references);
+    }
+
+    private final class ClassRecorder extends ClassVisitor {
+
+        private final MethodVisitor methodRecorder = new MethodRecorder();
+
+        private ClassRecorder() {
+            super(Opcodes.ASM7);
+        }
+
+        @Override
+        public void visit(int version, int access, String name,
+                String signature, String superName, String[] interfaces) {
+            addSignatureToClasses(references, superName);
+            for (String implementedInterface : interfaces) {
+                addSignatureToClasses(references, implementedInterface);
+            }
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String descriptor,
+                boolean visible) {
+            AnnotationInfo annotation = new AnnotationInfo(descriptor,
+                    visible);
+            annotations.add(annotation);
+            return annotation.values.new Recorder();
+        }
+
+        @Override
+        public FieldVisitor visitField(int access, String name,
+                String descriptor, String signature, Object value) {
+            addSignatureToClasses(references, descriptor);
+            return null;
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name,
+                String descriptor, String signature, String[] exceptions) {
+            addSignatureToClasses(references, descriptor);
+            return methodRecorder;
+        }
+    }
+
+    private final class MethodRecorder extends MethodVisitor {
+
+        private MethodRecorder() {
+            super(Opcodes.ASM7);
+        }
+
+        // We are interested in the new instances created inside the method
+        @Override
+        public void visitTypeInsn(int opcode, String type) {
+            addSignatureToClasses(references, type);
+        }
+
+        // We are interested in method instructions like
+        // Notification.show('bla')
+        @Override
+        public void visitMethodInsn(int opcode, String owner, String name,
+                String descriptor, boolean isInterface) {
+            addSignatureToClasses(references, owner);
+            addSignatureToClasses(references, descriptor);
+        }
+
+        // Visit instructions that stores something in a field inside the
+        // method
+        @Override
+        public void visitFieldInsn(int opcode, String owner, String name,
+                String descriptor) {
+            addSignatureToClasses(references, owner);
+            addSignatureToClasses(references, descriptor);
+        }
+
+        // Visit arguments, we only care those arguments that are Types,
+        // e.g dynamic-routes #5509, or factory-beans #5658
+        @Override
+        public void visitLdcInsn(Object value) {
+            if (value instanceof Type) {
+                addSignatureToClasses(references, value.toString());
+            }
+        }
+
+        // Visit dynamic invocations and method references. In particular, we
+        // are interested in the case Supplier<Component> s = MyComponent::new;
+        // flow #6524
+        @Override
+        public void visitInvokeDynamicInsn(String name, String descriptor,
+                Handle bootstrapMethodHandle,
+                Object... bootstrapMethodArguments) {
+            addSignatureToClasses(references, descriptor);
+            addSignatureToClasses(references, bootstrapMethodHandle.getOwner());
+            addSignatureToClasses(references, bootstrapMethodHandle.getDesc());
+            for (Object obj : bootstrapMethodArguments) {
+                if (obj instanceof Type) {
+                    addSignatureToClasses(references, obj.toString());
+                } else if (obj instanceof Handle) {
+                    // The owner of the Handle is the reference information
+                    addSignatureToClasses(references,
+                            ((Handle) obj).getOwner());
+                    // the descriptor for the Handle won't be scanned, as it
+                    // adds from +10% to 40% to the execution time and does not
+                    // affect the fix in itself
+                }
+                // the case for ConstantDynamic is also skipped for
+                // performance reasons. It does not directly affect the fix
+                // and slows down the execution.
+            }
+        }
+    }
+
+    private static final class AnnotationInfo implements Serializable {
+        private final String descriptor;
+        private final boolean visible;
+        private final AnnotationValues values = new AnnotationValues();
+
+        private AnnotationInfo(String descriptor, boolean visible) {
+            this.descriptor = descriptor;
+            this.visible = visible;
+        }
+    }
+
+    /**
+     * The values of an annotation, a nested annotation or an array in the
+     * order they were visited.
+     */
+    private static final class AnnotationValues implements Serializable {
+        private final List<AnnotationValue> values = new ArrayList<>();
+
+        private void accept(AnnotationVisitor visitor) {
+            for (AnnotationValue value : values) {
+                value.accept(visitor);
+            }
+            visitor.visitEnd();
+        }
+
+        private final class Recorder extends AnnotationVisitor {
+
+            private Recorder() {
+                super(Opcodes.ASM7);
+            }
+
+            @Override
+            public void visit(String name, Object value) {
+                if (value instanceof String) {
+                    values.add(new AnnotationValue(AnnotationValue.STRING,
+                            name, null, (String) value));
+                } else if (value instanceof Type) {
+                    values.add(new AnnotationValue(AnnotationValue.TYPE, name,
+                            ((Type) value).getDescriptor(), null));
+                } else {
+                    values.add(new AnnotationValue(AnnotationValue.CONSTANT,
+                            name, null, String.valueOf(value)));
+                }
+            }
+
+            @Override
+            public void visitEnum(String name, String descriptor,
+                    String value) {
+                values.add(new AnnotationValue(AnnotationValue.ENUM, name,
+                        descriptor, value));
+            }
+
+            @Override
+            public AnnotationVisitor visitAnnotation(String name,
+                    String descriptor) {
+                AnnotationValue value = new AnnotationValue(
+                        AnnotationValue.ANNOTATION, name, descriptor, null);
+                values.add(value);
+                return value.nested.new Recorder();
+            }
+
+            @Override
+            public AnnotationVisitor visitArray(String name) {
+                AnnotationValue value = new AnnotationValue(
+                        AnnotationValue.ARRAY, name, null, null);
+                values.add(value);
+                return value.nested.new Recorder();
+            }
+        }
+    }
+
+    private static final class AnnotationValue implements Serializable {
+        private static final int STRING = 0;
+        private static final int TYPE = 1;
+        private static final int CONSTANT = 2;
+        private static final int ENUM = 3;
+        private static final int ANNOTATION = 4;
+        private static final int ARRAY = 5;
+
+        private final int kind;
+        private final String name;
+        private final String descriptor;
+        private final String value;
+        private final AnnotationValues nested;
+
+        private AnnotationValue(int kind, String name, String descriptor,
+                String value) {
+            this.kind = kind;
+            this.name = name;
+            this.descriptor = descriptor;
+            this.value = value;
+            nested = kind == ANNOTATION || kind == ARRAY
+                    ? new AnnotationValues()
+                    : null;
+        }
+
+        private void accept(AnnotationVisitor visitor) {
+            AnnotationVisitor nestedVisitor = null;
+            switch (kind) {
+            case STRING:
+                visitor.visit(name, value);
+                break;
+            case TYPE:
+                visitor.visit(name, Type.getType(descriptor));
+                break;
+            case CONSTANT:
+                visitor.visit(name, new Constant(value));
+                break;
+            case ENUM:
+                visitor.visitEnum(name, descriptor, value);
+                break;
+            case ANNOTATION:
+                nestedVisitor = visitor.visitAnnotation(name, descriptor);
+                break;
+            default:
+                nestedVisitor = visitor.visitArray(name);
+                break;
+            }
+            if (nestedVisitor != null) {
+                nested.accept(nestedVisitor);
+            }
+        }
+    }
+
+    /**
+     * A primitive annotation value or an array of them. The frontend visitors
+     * only use the string representation of such values.
+     */
+    private static final class Constant {
+        private final String value;
+
+        private Constant(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public String toString() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.frontend.scanner;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.UncheckedIOException;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarEntry;
+import java.util.zip.CRC32;
+
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads and caches the {@link ClassInfo} of the classes visited by
+ * {@link FrontendDependencies}.
+ * <p>
+ * Classes are read in parallel on the common fork-join pool as soon as they are
+ * known to be needed, while the caller consumes the results in its own order.
+ * When a cache file is given, the information is also kept between scans: a
+ * class is read again only if the checksum of its class file has changed. The
+ * checksum of a class in a jar file is the CRC stored in the jar, so unchanged
+ * jars are never decompressed.
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ */
+final class ClassInfoCache {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final Set<String> ALLOWED_CLASSES = new HashSet<>(
+            Arrays.asList(HashMap.class.getName(), String.class.getName(),
+                    "java.util.ArrayList", "java.util.HashSet",
+                    "java.util.LinkedHashSet"));
+
+    private final ClassFinder finder;
+    private final File cacheFile;
+    private final Map<String, ClassInfo> stored;
+    private final Map<String, ForkJoinTask<ClassInfo>> tasks = new ConcurrentHashMap<>();
+    private final AtomicInteger reused = new AtomicInteger();
+
+    /**
+     * Creates a new cache.
+     *
+     * @param finder
+     *            the class finder to read the classes with, not {@code null}
+     * @param cacheFile
+     *            the file to keep the information in between scans, or
+     *            {@code null} to not keep it
+     */
+    ClassInfoCache(ClassFinder finder, File cacheFile) {
+        this.finder = finder;
+        this.cacheFile = cacheFile;
+        stored = cacheFile == null ? Collections.emptyMap() : load(cacheFile);
+    }
+
+    /**
+     * Starts reading the given classes in the background.
+     *
+     * @param classNames
+     *            the names of the classes to read, not {@code null}
+     */
+    void prefetch(Collection<String> classNames) {
+        for (String className : classNames) {
+            if (!tasks.containsKey(className)) {
+                ForkJoinTask<ClassInfo> task = createTask(className);
+                if (tasks.putIfAbsent(className, task) == null) {
+                    task.fork();
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the information of the given class, reading it unless it has
+     * already been read or prefetched.
+     *
+     * @param className
+     *            the name of the class
+     * @return the class information, or {@code null} if the class file is not
+     *         found
+     * @throws IOException
+     *             if the class file can't be read
+     */
+    ClassInfo get(String className) throws IOException {
+        ForkJoinTask<ClassInfo> task = tasks.get(className);
+        if (task == null) {
+            ForkJoinTask<ClassInfo> newTask = createTask(className);
+            task = tasks.putIfAbsent(className, newTask);
+            if (task == null) {
+                task = newTask;
+                newTask.invoke();
+            }
+        }
+        try {
+            return task.join();
+        } catch (UncheckedIOException exception) {
+            throw exception.getCause();
+        }
+    }
+
+    /**
+     * Gets the number of classes whose information was taken from the cache
+     * file instead of reading the class file.
+     *
+     * @return the number of reused classes
+     */
+    int getReusedCount() {
+        return reused.get();
+    }
+
+    /**
+     * Writes the information of the classes read by this cache to the cache
+     * file, replacing its previous contents. Does nothing if there is no cache
+     * file or if nothing has changed.
+     */
+    void save() {
+        if (cacheFile == null) {
+            return;
+        }
+        Map<String, ClassInfo> infos = new HashMap<>();
+        tasks.forEach((className, task) -> {
+            if (task.isDone() && !task.isCompletedAbnormally()) {
+                ClassInfo info = task.getRawResult();
+                if (info != null && info.getChecksum() != null) {
+                    infos.put(className, info);
+                }
+            }
+        });
+        if (infos.size() == stored.size() && infos.size() == reused.get()) {
+            return;
+        }
+        File folder = cacheFile.getParentFile();
+        if (folder != null && !folder.isDirectory() && !folder.mkdirs()) {
+            getLogger().warn("Unable to create folder '{}' for '{}'", folder,
+                    cacheFile);
+            return;
+        }
+        try (ObjectOutputStream out = new ObjectOutputStream(
+                new BufferedOutputStream(new FileOutputStream(cacheFile)))) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeObject(infos);
+        } catch (IOException exception) {
+            getLogger().warn("Unable to write the frontend scan cache '{}'",
+                    cacheFile, exception);
+        }
+    }
+
+    private ForkJoinTask<ClassInfo> createTask(String className) {
+        return ForkJoinTask.adapt(() -> {
+            try {
+                return read(className);
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        });
+    }
+
+    private ClassInfo read(String className) throws IOException {
+        URL url = finder
+                .getResource(className.replace(".", "/") + ".class");
+        if (url == null) {
+            return null;
+        }
+        if (cacheFile == null) {
+            try (InputStream stream = url.openStream()) {
+                return ClassInfo.read(stream, null);
+            }
+        }
+
+        URLConnection connection = url.openConnection();
+        if (connection instanceof JarURLConnection) {
+            JarEntry entry = ((JarURLConnection) connection).getJarEntry();
+            String checksum = entry.getCrc() == -1 ? null
+                    : entry.getCrc() + ":" + entry.getSize();
+            ClassInfo info = getStored(className, checksum);
+            if (info != null) {
+                return info;
+            }
+            try (InputStream stream = connection.getInputStream()) {
+                return ClassInfo.read(stream, checksum);
+            }
+        }
+
+        byte[] bytes;
+        try (InputStream stream = connection.getInputStream()) {
+            bytes = IOUtils.toByteArray(stream);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        String checksum = crc.getValue() + ":" + bytes.length;
+        ClassInfo info = getStored(className, checksum);
+        if (info != null) {
+            return info;
+        }
+        return ClassInfo.read(new ByteArrayInputStream(bytes), checksum);
+    }
+
+    private ClassInfo getStored(String className, String checksum) {
+        ClassInfo info = stored.get(className);
+        if (info != null && checksum != null
+                && checksum.equals(info.getChecksum())) {
+            reused.incrementAndGet();
+            return info;
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, ClassInfo> load(File cacheFile) {
+        if (!cacheFile.isFile()) {
+            return Collections.emptyMap();
+        }
+        try (ObjectInputStream in = new CacheInputStream(
+                new BufferedInputStream(new FileInputStream(cacheFile)))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return Collections.emptyMap();
+            }
+            return (Map<String, ClassInfo>) in.readObject();
+        } catch (IOException | ClassNotFoundException
+                | ClassCastException exception) {
+            getLogger().debug(
+                    "Unable to read the frontend scan cache '{}', "
+                            + "all the classes will be scanned",
+                    cacheFile, exception);
+            return Collections.emptyMap();
+        }
+    }
+
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(ClassInfoCache.class);
+    }
+
+    /**
+     * Only allows the classes the cache consists of to be deserialized.
+     */
+    private static final class CacheInputStream extends ObjectInputStream {
+
+        private CacheInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc)
+                throws IOException, ClassNotFoundException {
+            String name = desc.getName();
+            if (!ALLOWED_CLASSES.contains(name)
+                    && !name.startsWith(ClassInfo.class.getName())) {
+                throw new InvalidClassException(name,
+                        "Unexpected class in the frontend scan cache");
+            }
+            return Class.forName(name, false,
+                    ClassInfoCache.class.getClassLoader());
+        }
+    }
+}
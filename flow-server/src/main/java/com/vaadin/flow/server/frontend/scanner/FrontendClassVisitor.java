@@ -18,12 +18,10 @@ package com.vaadin.flow.server.frontend.scanner;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 import net.bytebuddy.jar.asm.AnnotationVisitor;
 import net.bytebuddy.jar.asm.ClassVisitor;
-import net.bytebuddy.jar.asm.FieldVisitor;
-import net.bytebuddy.jar.asm.Handle;
-import net.bytebuddy.jar.asm.MethodVisitor;
 import net.bytebuddy.jar.asm.Opcodes;
 import net.bytebuddy.jar.asm.Type;
 
@@ -36,6 +34,10 @@ import com.vaadin.flow.theme.Theme;
 
 /**
  * A class visitor for Flow components.
+ * <p>
+ * The visitor is fed by {@link ClassInfo#accept(FrontendClassVisitor)}, which
+ * replays the annotations of the class and adds the classes it references to
+ * the {@link #getChildren() children}.
  *
  * @since 2.0
  */
@@ -50,9 +52,13 @@ final class FrontendClassVisitor extends ClassVisitor {
     static final String INCLUDE = "include";
     static final String THEME_FOR = "themeFor";
 
+    // This regular expression is able to split the signature and remove
+    // primitive and other mark symbols, see test for more info.
+    private static final Pattern SIGNATURE_SEPARATOR = Pattern.compile(
+            "(^\\([\\[ZBFDJICL]*|^[\\[ZBFDJICL]+|;?\\)[\\[ZBFDJICLV]*|;[\\[ZBFDJICL]*)");
+
     private final String className;
     private final EndPointData endPoint;
-    private final MethodVisitor methodVisitor;
     private final AnnotationVisitor annotationVisitor;
     private final AnnotationVisitor routeVisitor;
     private final AnnotationVisitor themeRouteVisitor;
@@ -61,69 +67,6 @@ final class FrontendClassVisitor extends ClassVisitor {
     private final AnnotationVisitor jScriptVisitor;
     private final Set<String> children = new HashSet<>();
 
-    private final class FrontendMethodVisitor extends MethodVisitor {
-        public FrontendMethodVisitor() {
-            super(Opcodes.ASM7);
-        }
-
-        // We are interested in the new instances created inside the method
-        @Override
-        public void visitTypeInsn(int opcode, String type) {
-            addSignatureToClasses(children, type);
-        }
-
-        // We are interested in method instructions like
-        // Notification.show('bla')
-        @Override
-        public void visitMethodInsn(int opcode, String owner, String name,
-                String descriptor, boolean isInterface) {
-            addSignatureToClasses(children, owner);
-            addSignatureToClasses(children, descriptor);
-        }
-
-        // Visit instructions that stores something in a field inside the
-        // method
-        @Override
-        public void visitFieldInsn(int opcode, String owner, String name,
-                String descriptor) {
-            addSignatureToClasses(children, owner);
-            addSignatureToClasses(children, descriptor);
-        }
-
-        // Visit arguments, we only care those arguments that are Types,
-        // e.g dynamic-routes #5509, or factory-beans #5658
-        @Override
-        public void visitLdcInsn(Object value) {
-            if (value instanceof Type) {
-                addSignatureToClasses(children, value.toString());
-            }
-        }
-
-        // Visit dynamic invocations and method references. In particular, we
-        // are interested in the case Supplier<Component> s = MyComponent::new;
-        // flow #6524
-        @Override
-        public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle, Object... bootstrapMethodArguments) {
-            addSignatureToClasses(children, descriptor);
-            addSignatureToClasses(children, bootstrapMethodHandle.getOwner());
-            addSignatureToClasses(children, bootstrapMethodHandle.getDesc());
-            for (Object obj : bootstrapMethodArguments) {
-                if (obj instanceof Type) {
-                    addSignatureToClasses(children, obj.toString());
-                } else if (obj instanceof Handle) {
-                    // The owner of the Handle is the reference information
-                    addSignatureToClasses(children, ((Handle) obj).getOwner());
-                    // the descriptor for the Handle won't be scanned, as it
-                    // adds from +10% to 40%  to the execution time and does not
-                    // affect the fix in itself
-                }
-                // the case for ConstantDynamic is also skipped for
-                // performance reasons. It does not directly affect the fix
-                // and slows down the execution.
-            }
-        }
-    }
-
     /**
      * Create a new {@link ClassVisitor} that will be used for visiting a
      * specific class.
@@ -141,8 +84,6 @@ final class FrontendClassVisitor extends ClassVisitor {
         this.className = className;
         this.endPoint = endPoint;
 
-        // Visitor for each method in the class.
-        methodVisitor = new FrontendMethodVisitor();
         // Visitor for each annotation in the class.
         routeVisitor = new RepeatedAnnotationVisitor() {
             @Override
@@ -214,26 +155,6 @@ final class FrontendClassVisitor extends ClassVisitor {
         };
     }
 
-    // Executed for the class definition info.
-    @Override
-    public void visit(int version, int access, String name, String signature,
-            String superName, String[] interfaces) {
-        addSignatureToClasses(children, superName);
-
-        for (String implementedInterface : interfaces) {
-            addSignatureToClasses(children, implementedInterface);
-        }
-    }
-
-    // Executed for each method defined in the class.
-    @Override
-    public MethodVisitor visitMethod(int access, String name, String descriptor,
-            String signature, String[] exceptions) {
-        addSignatureToClasses(children, descriptor);
-        return methodVisitor;
-    }
-
-
     // Executed for each annotation in the class.
     @Override
     public AnnotationVisitor visitAnnotation(String descriptor,
@@ -274,14 +195,6 @@ final class FrontendClassVisitor extends ClassVisitor {
         return annotationVisitor;
     }
 
-    // Executed for each field defined in the class.
-    @Override
-    public FieldVisitor visitField(int access, String name, String descriptor,
-            String signature, Object value) {
-        addSignatureToClasses(children, descriptor);
-        return null;
-    }
-
     /**
      * Return all discovered classes in the visit.
      *
@@ -306,14 +219,13 @@ final class FrontendClassVisitor extends ClassVisitor {
      * @param signature
      *            the java signature to analyze
      */
-    void addSignatureToClasses(Set<String> classes, String signature) {
+    static void addSignatureToClasses(Set<String> classes,
+            String signature) {
         if (signature == null || signature.isEmpty()) {
             return;
         }
-        // This regular expression is able to split the signature and remove
-        // primitive and other mark symbols, see test for more info.
-        String[] tmp = signature.replace("/", ".").split(
-                "(^\\([\\[ZBFDJICL]*|^[\\[ZBFDJICL]+|;?\\)[\\[ZBFDJICLV]*|;[\\[ZBFDJICL]*)");
+        String[] tmp = SIGNATURE_SEPARATOR
+                .split(signature.replace("/", "."));
         classes.addAll(Arrays.asList(tmp));
     }
 }
@@ -15,11 +15,10 @@
  */
 package com.vaadin.flow.server.frontend.scanner;
 
+import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Modifier;
-import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -30,9 +29,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
-import net.bytebuddy.jar.asm.ClassReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -62,12 +61,21 @@ import static com.vaadin.flow.server.frontend.scanner.FrontendClassVisitor.VERSI
  */
 public class FrontendDependencies extends AbstractDependenciesScanner {
 
+    private static final Pattern NOT_VISITABLE = Pattern.compile( // @formatter:off
+            "(^$|"
+            + ".*(slf4j).*|"
+            // #5803
+            + "^(java|sun|elemental|javax|org.(apache|atmosphere|jsoup|jboss|w3c|spring|joda|hibernate|glassfish|hsqldb)|com.(helger|spring|gwt|lowagie|fasterxml)|net.(sf|bytebuddy)).*|"
+            + ".*(Exception)$"
+            + ")"); // @formatter:on
+
     private final HashMap<String, EndPointData> endPoints = new HashMap<>();
     private ThemeDefinition themeDefinition;
     private AbstractTheme themeInstance;
     private final HashMap<String, String> packages = new HashMap<>();
     private final Set<String> visited = new HashSet<>();
     private PwaConfiguration pwaConfiguration;
+    private transient ClassInfoCache classInfos;
 
     /**
      * Default Constructor.
@@ -93,10 +101,31 @@ public class FrontendDependencies extends AbstractDependenciesScanner {
      */
     public FrontendDependencies(ClassFinder finder,
             boolean generateEmbeddableWebComponents) {
+        this(finder, generateEmbeddableWebComponents, null);
+    }
+
+    /**
+     * Creates a scanner which keeps the byte code information of the visited
+     * classes in the given cache file between scans. Only the classes whose
+     * class files have changed since the previous scan are read again.
+     *
+     * @param finder
+     *            the class finder
+     * @param generateEmbeddableWebComponents
+     *            {@code true} checks the
+     *            {@link com.vaadin.flow.component.WebComponentExporter} classes
+     *            for dependencies
+     * @param scanCacheFile
+     *            the file to keep the byte code information in between scans,
+     *            or {@code null} to not keep it
+     */
+    public FrontendDependencies(ClassFinder finder,
+            boolean generateEmbeddableWebComponents, File scanCacheFile) {
         super(finder);
         log().info(
                 "Scanning classes to find frontend configurations and dependencies...");
         long start = System.nanoTime();
+        classInfos = new ClassInfoCache(finder, scanCacheFile);
         try {
             computeEndpoints();
             if (generateEmbeddableWebComponents) {
@@ -106,12 +135,17 @@ public class FrontendDependencies extends AbstractDependenciesScanner {
             computeApplicationTheme();
             computePackages();
             computePwaConfiguration();
+            classInfos.save();
             long ms = (System.nanoTime() - start) / 1000000;
-            log().info("Visited {} classes. Took {} ms.", visited.size(), ms);
+            log().info("Visited {} classes ({} unchanged since the last scan). "
+                    + "Took {} ms.", visited.size(),
+                    classInfos.getReusedCount(), ms);
         } catch (ClassNotFoundException | InstantiationException
                 | IllegalAccessException | IOException e) {
             throw new IllegalStateException(
                     "Unable to compute frontend dependencies", e);
+        } finally {
+            classInfos = null;
         }
     }
 
@@ -238,28 +272,23 @@ public class FrontendDependencies extends AbstractDependenciesScanner {
         // references loaded by the specific class finder loader
         Class<? extends Annotation> routeClass = getFinder()
                 .loadClass(Route.class.getName());
-        for (Class<?> route : getFinder().getAnnotatedClasses(routeClass)) {
-            collectEndpoints(route);
-        }
-
-        for (Class<?> initListener : getFinder().getSubTypesOf(
-                getFinder().loadClass(UIInitListener.class.getName()))) {
-            collectEndpoints(initListener);
-        }
-
-        for (Class<?> initListener : getFinder().getSubTypesOf(getFinder()
-                .loadClass(VaadinServiceInitListener.class.getName()))) {
-            collectEndpoints(initListener);
-        }
-
-        for (Class<?> appShell : getFinder().getSubTypesOf(
-                getFinder().loadClass(AppShellConfigurator.class.getName()))) {
-            collectEndpoints(appShell);
-        }
-
-        for (Class<?> errorParameters : getFinder().getSubTypesOf(
-                getFinder().loadClass(HasErrorParameter.class.getName()))) {
-            collectEndpoints(errorParameters);
+        List<Class<?>> entryPoints = new ArrayList<>(
+                getFinder().getAnnotatedClasses(routeClass));
+        entryPoints.addAll(getFinder().getSubTypesOf(
+                getFinder().loadClass(UIInitListener.class.getName())));
+        entryPoints.addAll(getFinder().getSubTypesOf(getFinder()
+                .loadClass(VaadinServiceInitListener.class.getName())));
+        entryPoints.addAll(getFinder().getSubTypesOf(
+                getFinder().loadClass(AppShellConfigurator.class.getName())));
+        entryPoints.addAll(getFinder().getSubTypesOf(
+                getFinder().loadClass(HasErrorParameter.class.getName())));
+
+        // The entry points are independent of each other, so all of them can
+        // be read in parallel before visiting them one by one
+        classInfos.prefetch(entryPoints.stream().map(Class::getName)
+                .collect(Collectors.toList()));
+        for (Class<?> entryPoint : entryPoints) {
+            collectEndpoints(entryPoint);
         }
     }
 
@@ -544,21 +573,25 @@ public class FrontendDependencies extends AbstractDependenciesScanner {
         }
         endPoint.getClasses().add(className);
 
-        URL url = getUrl(className);
-        if (url == null) {
+        ClassInfo classInfo = classInfos.get(className);
+        if (classInfo == null) {
             return endPoint;
         }
 
         FrontendClassVisitor visitor = new FrontendClassVisitor(className,
                 endPoint, themeScope);
-        try (InputStream is = url.openStream()) {
-            ClassReader cr = new ClassReader(is);
-            cr.accept(visitor, ClassReader.EXPAND_FRAMES);
-        }
+        classInfo.accept(visitor);
 
         // all classes visited by the scanner, used for performance (#5933)
         visited.add(className);
 
+        // The children are visited one by one below to keep the order of the
+        // collected dependencies stable, but they can be read in parallel
+        classInfos.prefetch(visitor.getChildren().stream()
+                .filter(clazz -> !visited.contains(clazz)
+                        && isVisitable(clazz))
+                .collect(Collectors.toList()));
+
         for (String clazz : visitor.getChildren()) {
             // Since we only have an entry point for the app, it is all right to
             // skip the visit to the the same class in other end-points, because
@@ -578,18 +611,8 @@ public class FrontendDependencies extends AbstractDependenciesScanner {
         // HasElement, and AbstractTheme classes, but that prevents the usage of
         // factories. This is the reason of having just a blacklist of some
         // common name-spaces that would not have components.
-        return className != null && // @formatter:off
-                !className.matches(
-                    "(^$|"
-                    + ".*(slf4j).*|"
-                    // #5803
-                    + "^(java|sun|elemental|javax|org.(apache|atmosphere|jsoup|jboss|w3c|spring|joda|hibernate|glassfish|hsqldb)|com.(helger|spring|gwt|lowagie|fasterxml)|net.(sf|bytebuddy)).*|"
-                    + ".*(Exception)$"
-                    + ")"); // @formatter:on
-    }
-
-    private URL getUrl(String className) {
-        return getFinder().getResource(className.replace(".", "/") + ".class");
+        return className != null
+                && !NOT_VISITABLE.matcher(className).matches();
     }
 
     @Override
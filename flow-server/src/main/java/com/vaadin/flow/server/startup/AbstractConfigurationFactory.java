@@ -31,6 +31,7 @@ import com.vaadin.flow.server.frontend.FrontendUtils;
 
 import elemental.json.JsonObject;
 
+import static com.vaadin.flow.server.Constants.BUILD_FOLDER_TOKEN;
 import static com.vaadin.flow.server.Constants.CONNECT_APPLICATION_PROPERTIES_TOKEN;
 import static com.vaadin.flow.server.Constants.CONNECT_JAVA_SOURCE_FOLDER_TOKEN;
 import static com.vaadin.flow.server.Constants.CONNECT_OPEN_API_FILE_TOKEN;
@@ -152,6 +153,10 @@ public class AbstractConfigurationFactory implements Serializable {
             params.put(PROJECT_FRONTEND_GENERATED_DIR_TOKEN,
                     buildInfo.getString(PROJECT_FRONTEND_GENERATED_DIR_TOKEN));
         }
+        if (buildInfo.hasKey(BUILD_FOLDER_TOKEN)) {
+            params.put(BUILD_FOLDER_TOKEN,
+                    buildInfo.getString(BUILD_FOLDER_TOKEN));
+        }
 
         setDevModePropertiesUsingTokenData(params, buildInfo);
         return params;
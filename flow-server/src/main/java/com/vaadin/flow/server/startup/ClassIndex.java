@@ -0,0 +1,315 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.startup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.vaadin.flow.di.Lookup;
+import com.vaadin.flow.di.ResourceProvider;
+import com.vaadin.flow.server.VaadinContext;
+import com.vaadin.flow.server.frontend.FrontendUtils;
+import com.vaadin.flow.server.frontend.scanner.ClassFinder;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import elemental.json.impl.JsonUtil;
+
+import static com.vaadin.flow.server.Constants.VAADIN_SERVLET_RESOURCES;
+import static com.vaadin.flow.server.frontend.FrontendUtils.CLASS_INDEX_FILE;
+
+/**
+ * Precomputed index of the classes handled by the Vaadin servlet container
+ * initializers.
+ * <p>
+ * The index maps the name of each type listed in a
+ * {@link javax.servlet.annotation.HandlesTypes} annotation of a
+ * {@link ClassLoaderAwareServletContainerInitializer} to the names of the
+ * classes which extend, implement or are annotated with that type. It is
+ * generated at build time by the Maven plugin into
+ * {@link FrontendUtils#CLASS_INDEX_FILE} and is used in production mode instead
+ * of the classes found by the servlet container when the initializers are
+ * run.
+ * <p>
+ * The index doesn't stop the servlet container from scanning the classes, as
+ * the container does that before running the initializers. It lets a
+ * deployment turn the scanning off, e.g. with the jar scanning configuration of
+ * the container, without losing the classes handled by the initializers.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since 6.0
+ */
+public class ClassIndex implements Serializable {
+
+    // The servlet API is not available when the index is created at build
+    // time, so the servlet related types are only referenced by name
+    private static final String INITIALIZER_TYPE = "com.vaadin.flow.server.startup.ClassLoaderAwareServletContainerInitializer";
+
+    private static final String HANDLES_TYPES = "javax.servlet.annotation.HandlesTypes";
+
+    private static final ClassIndex EMPTY = new ClassIndex(
+            Collections.emptyMap());
+
+    private final Map<String, Set<String>> index = new HashMap<>();
+
+    /**
+     * Creates a new index.
+     *
+     * @param index
+     *            a map from handled type names to the names of the classes
+     *            handled for that type, not {@code null}
+     */
+    public ClassIndex(Map<String, ? extends Collection<String>> index) {
+        index.forEach((type, classes) -> this.index.put(type,
+                Collections.unmodifiableSet(new TreeSet<>(classes))));
+    }
+
+    /**
+     * Gets the names of the indexed classes for the given handled type.
+     *
+     * @param handledType
+     *            the name of the handled type
+     * @return the names of the classes for the type, or an empty optional if
+     *         the type is not indexed
+     */
+    public Optional<Set<String>> getClassNames(String handledType) {
+        return Optional.ofNullable(index.get(handledType));
+    }
+
+    /**
+     * Gets whether the index contains any types.
+     *
+     * @return {@code true} if the index is empty, {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return index.isEmpty();
+    }
+
+    /**
+     * Loads the indexed classes for all the given handled types.
+     *
+     * @param handledTypes
+     *            the handled types, not {@code null}
+     * @param classLoader
+     *            the class loader to load the classes with, not {@code null}
+     * @return the indexed classes, or an empty optional if some of the types
+     *         are not indexed
+     */
+    public Optional<Set<Class<?>>> loadClasses(Class<?>[] handledTypes,
+            ClassLoader classLoader) {
+        Set<Class<?>> classes = new HashSet<>();
+        for (Class<?> type : handledTypes) {
+            Set<String> names = index.get(type.getName());
+            if (names == null) {
+                return Optional.empty();
+            }
+            for (String name : names) {
+                try {
+                    classes.add(classLoader.loadClass(name));
+                } catch (ClassNotFoundException | LinkageError e) {
+                    getLogger().debug("Indexed class '{}' can't be loaded",
+                            name, e);
+                    return Optional.empty();
+                }
+            }
+        }
+        return Optional.of(classes);
+    }
+
+    /**
+     * Writes the index as JSON.
+     *
+     * @return the index as a JSON object
+     */
+    public JsonObject toJson() {
+        JsonObject json = Json.createObject();
+        new TreeSet<>(index.keySet()).forEach(type -> {
+            JsonArray classes = Json.createArray();
+            index.get(type)
+                    .forEach(name -> classes.set(classes.length(), name));
+            json.put(type, classes);
+        });
+        return json;
+    }
+
+    /**
+     * Reads an index from JSON written by {@link #toJson()}.
+     *
+     * @param json
+     *            the index JSON, not {@code null}
+     * @return the index
+     */
+    public static ClassIndex fromJson(JsonObject json) {
+        Map<String, Set<String>> index = new HashMap<>();
+        for (String type : json.keys()) {
+            JsonArray classes = json.getArray(type);
+            Set<String> names = new HashSet<>();
+            for (int i = 0; i < classes.length(); i++) {
+                names.add(classes.getString(i));
+            }
+            index.put(type, names);
+        }
+        return new ClassIndex(index);
+    }
+
+    /**
+     * Creates an index of the types handled by all
+     * {@link ClassLoaderAwareServletContainerInitializer}s found by the given
+     * class finder.
+     *
+     * @param finder
+     *            the class finder to look up the initializers and the handled
+     *            classes with, not {@code null}
+     * @return the index
+     * @throws ClassNotFoundException
+     *             if the initializer types are not available to the class
+     *             finder
+     */
+    public static ClassIndex create(ClassFinder finder)
+            throws ClassNotFoundException {
+        Set<Class<?>> handledTypes = new LinkedHashSet<>();
+        for (Class<?> initializer : finder.getSubTypesOf(INITIALIZER_TYPE)) {
+            Collections.addAll(handledTypes, getHandledTypes(initializer));
+        }
+        return create(finder, handledTypes);
+    }
+
+    /**
+     * Creates an index of the given handled types.
+     *
+     * @param finder
+     *            the class finder to look up the handled classes with, not
+     *            {@code null}
+     * @param handledTypes
+     *            the types to index, not {@code null}
+     * @return the index
+     */
+    @SuppressWarnings("unchecked")
+    public static ClassIndex create(ClassFinder finder,
+            Collection<Class<?>> handledTypes) {
+        Map<String, Set<String>> index = new HashMap<>();
+        for (Class<?> type : handledTypes) {
+            Collection<? extends Class<?>> classes;
+            if (type.isAnnotation()) {
+                classes = finder.getAnnotatedClasses(
+                        (Class<? extends Annotation>) type);
+            } else {
+                classes = finder.getSubTypesOf(type);
+            }
+            Set<String> names = index.computeIfAbsent(type.getName(),
+                    key -> new HashSet<>());
+            classes.forEach(clazz -> names.add(clazz.getName()));
+        }
+        return new ClassIndex(index);
+    }
+
+    /**
+     * Gets the classes handled by the given initializer from the class index
+     * of the application.
+     * <p>
+     * The index is only used in production mode since it is not kept up to
+     * date with the application classes during development.
+     *
+     * @param initializer
+     *            the servlet container initializer, not {@code null}
+     * @param context
+     *            the Vaadin context of the application, not {@code null}
+     * @param classLoader
+     *            the class loader of the web application, not {@code null}
+     * @return the handled classes, or an empty optional if the index is not
+     *         available or doesn't contain all the handled types
+     */
+    static Optional<Set<Class<?>>> getHandledClasses(Class<?> initializer,
+            VaadinContext context, ClassLoader classLoader) {
+        ClassIndex index = context.getAttribute(ClassIndex.class,
+                () -> read(context));
+        if (index.isEmpty()) {
+            return Optional.empty();
+        }
+        if (!ApplicationConfiguration.get(context).isProductionMode()) {
+            return Optional.empty();
+        }
+        Class<?>[] handledTypes = getHandledTypes(initializer);
+        if (handledTypes.length == 0) {
+            return Optional.empty();
+        }
+        return index.loadClasses(handledTypes, classLoader);
+    }
+
+    private static ClassIndex read(VaadinContext context) {
+        Lookup lookup = context.getAttribute(Lookup.class);
+        ResourceProvider resourceProvider = lookup == null ? null
+                : lookup.lookup(ResourceProvider.class);
+        if (resourceProvider == null) {
+            return EMPTY;
+        }
+        URL resource = resourceProvider.getApplicationResource(
+                VAADIN_SERVLET_RESOURCES + CLASS_INDEX_FILE);
+        if (resource == null) {
+            return EMPTY;
+        }
+        try (InputStream stream = resource.openStream()) {
+            return fromJson(
+                    JsonUtil.parse(FrontendUtils.streamToString(stream)));
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static Class<?>[] getHandledTypes(Class<?> initializer) {
+        for (Annotation annotation : initializer.getAnnotations()) {
+            Class<? extends Annotation> annotationType = annotation
+                    .annotationType();
+            if (HANDLES_TYPES.equals(annotationType.getName())) {
+                try {
+                    return (Class<?>[]) annotationType.getMethod("value")
+                            .invoke(annotation);
+                } catch (IllegalAccessException | InvocationTargetException
+                        | NoSuchMethodException e) {
+                    throw new IllegalStateException(
+                            "Unable to read the handled types of "
+                                    + initializer.getName(),
+                            e);
+                }
+            }
+        }
+        return new Class<?>[0];
+    }
+
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(ClassIndex.class);
+    }
+}
@@ -77,8 +77,18 @@ public interface ClassLoaderAwareServletContainerInitializer
                 }
             }
 
+            // In production mode the classes may be taken from the build
+            // time class index instead of the container scanning results. The
+            // container has scanned the classes already, unless the scanning
+            // has been turned off in its configuration.
+            Set<Class<?>> classes = requiresLookup()
+                    ? ClassIndex.getHandledClasses(getClass(),
+                            new VaadinServletContext(ctx), webClassLoader)
+                            .orElse(set)
+                    : set;
+
             if (noHack) {
-                process(set, ctx);
+                process(classes, ctx);
                 return;
             }
 
@@ -97,7 +107,7 @@ public interface ClassLoaderAwareServletContainerInitializer
                                 .equals(processMethodName))
                         .findFirst().get();
                 operation.invoke(initializer.newInstance(),
-                        new Object[] { set, ctx });
+                        new Object[] { classes, ctx });
             } catch (ClassNotFoundException | IllegalAccessException
                     | IllegalArgumentException | InvocationTargetException
                     | InstantiationException e) {
@@ -85,6 +85,7 @@ import com.vaadin.flow.theme.Theme;
 
 import elemental.json.Json;
 import elemental.json.JsonObject;
+import static com.vaadin.flow.server.Constants.BUILD_FOLDER_TOKEN;
 import static com.vaadin.flow.server.Constants.CONNECT_APPLICATION_PROPERTIES_TOKEN;
 import static com.vaadin.flow.server.Constants.CONNECT_JAVA_SOURCE_FOLDER_TOKEN;
 import static com.vaadin.flow.server.Constants.CONNECT_OPEN_API_FILE_TOKEN;
@@ -102,6 +103,7 @@ import static com.vaadin.flow.server.frontend.FrontendUtils.DEFAULT_GENERATED_DI
 import static com.vaadin.flow.server.frontend.FrontendUtils.DEFAULT_PROJECT_FRONTEND_GENERATED_DIR;
 import static com.vaadin.flow.server.frontend.FrontendUtils.PARAM_FRONTEND_DIR;
 import static com.vaadin.flow.server.frontend.FrontendUtils.PARAM_GENERATED_DIR;
+import static com.vaadin.flow.server.frontend.FrontendUtils.SCAN_CACHE_FILE;
 import static com.vaadin.flow.server.frontend.FrontendUtils.TARGET;
 
 /**
@@ -361,10 +363,15 @@ public class DevModeInitializer
                 Paths.get(baseDir, DEFAULT_PROJECT_FRONTEND_GENERATED_DIR)
                         .toString());
 
+        String buildFolder = config.getStringProperty(BUILD_FOLDER_TOKEN,
+                Paths.get(baseDir, TARGET).toString());
+
         JsonObject tokenFileData = Json.createObject();
         NodeTasks tasks = builder.enablePackagesUpdate(true)
                 .useByteCodeScanner(useByteCodeScanner)
+                .withScanCacheFile(new File(buildFolder, SCAN_CACHE_FILE))
                 .withFlowResourcesFolder(flowResourcesFolder)
+                .withBuildFolder(new File(buildFolder))
                 .withConnectClientTsApiFolder(new File(connectTsFolder))
                 .copyResources(frontendLocations)
                 .copyLocalResources(new File(baseDir,
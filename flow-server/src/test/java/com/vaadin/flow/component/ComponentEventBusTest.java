@@ -33,6 +33,14 @@ import elemental.json.JsonObject;
 
 public class ComponentEventBusTest {
 
+    @DomEvent("failing-event")
+    public static class FailingDomEvent extends ComponentEvent<Component> {
+        public FailingDomEvent(Component source, boolean fromClient) {
+            super(source, fromClient);
+            throw new UnsupportedOperationException("Rejected by the event");
+        }
+    }
+
     private static class EventTracker<T extends ComponentEvent<?>>
             implements ComponentEventListener<T> {
         private AtomicInteger eventHandlerCalled = new AtomicInteger(0);
@@ -171,6 +179,45 @@ public class ComponentEventBusTest {
         Assert.assertNull(eventListener.getEvent().getObjectBoolean());
     }
 
+    @Test
+    public void mappedDomEvent_fire_allDataTypes() {
+        TestComponent c = new TestComponent();
+        EventTracker<MappedToDomEvent> eventListener = new EventTracker<>();
+        c.addListener(MappedToDomEvent.class, eventListener);
+        JsonObject eventData = createData("event.someData", 2,
+                "event.moreData", "foo");
+        eventData.put("event.primitiveBoolean", true);
+        eventData.put("event.objectBoolean", false);
+        fireDomEvent(c, "dom-event", eventData);
+
+        eventListener.assertEventCalled(c, true);
+        Assert.assertEquals(2, eventListener.getEvent().getSomeData());
+        Assert.assertEquals("foo", eventListener.getEvent().getMoreData());
+        Assert.assertTrue(eventListener.getEvent().getPrimitiveBoolean());
+        Assert.assertEquals(Boolean.FALSE,
+                eventListener.getEvent().getObjectBoolean());
+    }
+
+    @Test
+    public void mappedDomEvent_fireRepeatedly_listenerCalledEachTime() {
+        TestComponent c = new TestComponent();
+        AtomicInteger calls = new AtomicInteger();
+        c.addListener(MappedToDomEvent.class, event -> {
+            if (event.getSomeData() == 2) {
+                calls.incrementAndGet();
+            }
+        });
+        JsonObject eventData = createData("event.someData", 2,
+                "event.moreData", "foo");
+        eventData.put("event.primitiveBoolean", true);
+
+        for (int i = 0; i < 1000; i++) {
+            fireDomEvent(c, "dom-event", eventData);
+        }
+
+        Assert.assertEquals(1000, calls.get());
+    }
+
     private JsonObject createData(String key, Object value) {
         JsonObject data = Json.createObject();
         data.put(key, JsonCodec.encodeWithoutTypeInfo(value));
@@ -410,6 +457,14 @@ public class ComponentEventBusTest {
         assertNoListeners(component.getEventBus());
     }
 
+    @Test(expected = UnsupportedOperationException.class)
+    public void domEvent_constructorThrows_exceptionNotWrapped() {
+        TestComponent c = new TestComponent();
+        c.addListener(FailingDomEvent.class, e -> {
+        });
+        fireDomEvent(c, "failing-event", Json.createObject());
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void invalidEventConstructor_addListener() {
         TestComponent c = new TestComponent();
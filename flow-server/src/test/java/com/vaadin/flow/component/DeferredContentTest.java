@@ -0,0 +1,186 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.vaadin.flow.dom.DomEvent;
+import com.vaadin.flow.internal.StateTree;
+import com.vaadin.flow.internal.nodefeature.ElementListenerMap;
+import com.vaadin.flow.shared.Registration;
+
+import elemental.json.Json;
+
+public class DeferredContentTest {
+
+    @Tag("div")
+    private static class TestContainer extends Component
+            implements HasComponents {
+    }
+
+    @Tag("span")
+    private static class TestChild extends Component {
+    }
+
+    private UI ui;
+    private StateTree tree;
+    private TestContainer container;
+    private AtomicInteger supplierCalls;
+
+    @Before
+    public void setUp() {
+        ui = new UI();
+        tree = ui.getInternals().getStateTree();
+        container = new TestContainer();
+        supplierCalls = new AtomicInteger();
+    }
+
+    @Test
+    public void addDeferred_notAttached_supplierNotCalled() {
+        container.addDeferred(this::createChildren);
+
+        Assert.assertTrue(DeferredContent.isPending(container));
+        Assert.assertEquals(0, supplierCalls.get());
+        Assert.assertEquals(0, container.getChildren().count());
+    }
+
+    @Test
+    public void addDeferred_attachedAndVisible_childrenCreatedBeforeResponse() {
+        container.addDeferred(this::createChildren);
+        ui.add(container);
+
+        Assert.assertTrue(tree.hasDeferredNodes());
+        Assert.assertEquals(0, supplierCalls.get());
+
+        Assert.assertTrue(tree.materializeDeferredNodes());
+
+        Assert.assertEquals(1, supplierCalls.get());
+        Assert.assertEquals(2, container.getChildren().count());
+        Assert.assertFalse(DeferredContent.isPending(container));
+        Assert.assertFalse(tree.hasDeferredNodes());
+
+        Assert.assertFalse(tree.materializeDeferredNodes());
+        Assert.assertEquals(1, supplierCalls.get());
+    }
+
+    @Test
+    public void addDeferred_containerHidden_childrenCreatedWhenShown() {
+        container.setVisible(false);
+        container.addDeferred(this::createChildren);
+        ui.add(container);
+
+        Assert.assertFalse(tree.materializeDeferredNodes());
+        Assert.assertEquals(0, supplierCalls.get());
+
+        container.setVisible(true);
+
+        Assert.assertTrue(tree.materializeDeferredNodes());
+        Assert.assertEquals(2, container.getChildren().count());
+    }
+
+    @Test
+    public void addDeferred_ancestorHidden_childrenNotCreated() {
+        TestContainer parent = new TestContainer();
+        parent.setVisible(false);
+        parent.add(container);
+        container.addDeferred(this::createChildren);
+        ui.add(parent);
+
+        Assert.assertFalse(tree.materializeDeferredNodes());
+        Assert.assertEquals(0, supplierCalls.get());
+
+        parent.setVisible(true);
+
+        Assert.assertTrue(tree.materializeDeferredNodes());
+        Assert.assertEquals(1, supplierCalls.get());
+    }
+
+    @Test
+    public void addDeferred_detachedBeforeResponse_childrenNotCreated() {
+        container.addDeferred(this::createChildren);
+        ui.add(container);
+        ui.remove(container);
+
+        Assert.assertFalse(tree.hasDeferredNodes());
+        Assert.assertFalse(tree.materializeDeferredNodes());
+        Assert.assertEquals(0, supplierCalls.get());
+
+        ui.add(container);
+
+        Assert.assertTrue(tree.materializeDeferredNodes());
+        Assert.assertEquals(1, supplierCalls.get());
+    }
+
+    @Test
+    public void addDeferred_registrationRemoved_childrenNeverCreated() {
+        Registration registration = container
+                .addDeferred(this::createChildren);
+        ui.add(container);
+        registration.remove();
+
+        Assert.assertFalse(DeferredContent.isPending(container));
+        Assert.assertFalse(tree.materializeDeferredNodes());
+        Assert.assertEquals(0, supplierCalls.get());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void addDeferred_alreadyPending_throws() {
+        container.addDeferred(this::createChildren);
+        container.addDeferred(this::createChildren);
+    }
+
+    @Test
+    public void addDeferred_inViewport_createdOnlyByClientEvent() {
+        container.addDeferred(DeferredContent.Trigger.IN_VIEWPORT,
+                this::createChildren);
+        ui.add(container);
+
+        Assert.assertFalse(tree.materializeDeferredNodes());
+        Assert.assertEquals(0, supplierCalls.get());
+
+        container.getElement().getNode()
+                .getFeature(ElementListenerMap.class)
+                .fireEvent(new DomEvent(container.getElement(),
+                        DeferredContent.IN_VIEWPORT_EVENT,
+                        Json.createObject()));
+
+        Assert.assertEquals(1, supplierCalls.get());
+        Assert.assertEquals(2, container.getChildren().count());
+        Assert.assertFalse(DeferredContent.isPending(container));
+    }
+
+    @Test
+    public void materialize_createsChildrenRegardlessOfTrigger() {
+        container.addDeferred(DeferredContent.Trigger.IN_VIEWPORT,
+                this::createChildren);
+
+        DeferredContent.materialize(container);
+
+        Assert.assertEquals(1, supplierCalls.get());
+        Assert.assertEquals(2, container.getChildren().count());
+    }
+
+    private List<Component> createChildren() {
+        supplierCalls.incrementAndGet();
+        return Arrays.asList(new TestChild(), new TestChild());
+    }
+}
@@ -5,8 +5,13 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.hamcrest.CoreMatchers;
 import org.junit.After;
@@ -53,6 +58,7 @@ import com.vaadin.flow.router.RouterLayout;
 import com.vaadin.flow.router.internal.AfterNavigationHandler;
 import com.vaadin.flow.router.internal.BeforeEnterHandler;
 import com.vaadin.flow.router.internal.BeforeLeaveHandler;
+import com.vaadin.flow.server.InitParameters;
 import com.vaadin.flow.server.InvalidRouteConfigurationException;
 import com.vaadin.flow.server.MockVaadinServletService;
 import com.vaadin.flow.server.MockVaadinSession;
@@ -61,6 +67,7 @@ import com.vaadin.flow.server.VaadinResponse;
 import com.vaadin.flow.server.VaadinService;
 import com.vaadin.flow.server.VaadinServletRequest;
 import com.vaadin.tests.util.AlwaysLockedVaadinSession;
+import com.vaadin.tests.util.MockDeploymentConfiguration;
 import com.vaadin.tests.util.MockUI;
 
 import static org.junit.Assert.assertEquals;
@@ -820,6 +827,252 @@ public class UITest {
         assertEquals("Handler should have run once", 1, runCount.get());
     }
 
+    @Test
+    public void runInBackground_taskRunOnServiceExecutor() throws Exception {
+        UI ui = createAccessableTestUI();
+        Thread callerThread = Thread.currentThread();
+        AtomicReference<Thread> taskThread = new AtomicReference<>();
+
+        ui.runInBackground(() -> taskThread.set(Thread.currentThread()))
+                .get(5, TimeUnit.SECONDS);
+
+        Assert.assertNotNull("Task should have run", taskThread.get());
+        Assert.assertNotSame("Task should not run in the caller thread",
+                callerThread, taskThread.get());
+    }
+
+    @Test
+    public void runInBackground_valueComputed_accessTaskRunWithLock()
+            throws Exception {
+        UI ui = createAccessableTestUI();
+        AtomicInteger sum = new AtomicInteger();
+
+        Integer value = ui.runInBackground(() -> 5, result -> {
+            Assert.assertTrue("Session should be locked",
+                    ui.getSession().hasLock());
+            sum.addAndGet(result.intValue());
+        }).get(5, TimeUnit.SECONDS);
+
+        assertEquals(5, value.intValue());
+        assertEquals("Access task should have run once", 5, sum.get());
+    }
+
+    @Test(expected = UIDetachedException.class)
+    public void runInBackground_detachedUi_throws() {
+        UI ui = createTestUI();
+
+        ui.runInBackground(() -> Assert.fail("Task should never run"));
+    }
+
+    @Test
+    public void accessSynchronously_uiLocking_otherUIOfSessionNotBlocked()
+            throws Exception {
+        MockVaadinSession session = createUILockingSession();
+        UI ui1 = new MockUI(session);
+        UI ui2 = new MockUI(session);
+        CurrentInstance.clearAll();
+
+        CountDownLatch ui1Locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread thread = new Thread(() -> ui1.accessSynchronously(() -> {
+            ui1Locked.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        thread.start();
+        try {
+            Assert.assertTrue(ui1Locked.await(5, TimeUnit.SECONDS));
+
+            AtomicInteger runCount = new AtomicInteger();
+            ui2.accessSynchronously(() -> {
+                Assert.assertTrue(session.hasLock());
+                session.setAttribute("foo", "bar");
+                runCount.incrementAndGet();
+            });
+
+            assertEquals(1, runCount.get());
+            Assert.assertFalse(session.hasLock());
+        } finally {
+            release.countDown();
+            thread.join(5000);
+        }
+        session.lock();
+        try {
+            assertEquals("bar", session.getAttribute("foo"));
+        } finally {
+            session.unlock();
+        }
+    }
+
+    @Test
+    public void access_uiLocking_taskRunWithoutSessionLock() throws Exception {
+        MockVaadinSession session = createUILockingSession();
+        UI ui = new MockUI(session);
+        CurrentInstance.clearAll();
+        AtomicInteger runCount = new AtomicInteger();
+
+        ui.getInternals().lock();
+        Future<Void> future;
+        try {
+            future = CompletableFuture
+                    .supplyAsync(() -> ui.access(() -> {
+                        Assert.assertTrue(
+                                ui.getInternals().getLock()
+                                        .isHeldByCurrentThread());
+                        Assert.assertFalse(((ReentrantLock) session
+                                .getLockInstance()).isLocked());
+                        runCount.incrementAndGet();
+                    })).get(5, TimeUnit.SECONDS);
+            assertEquals("Task should wait for the UI lock", 0,
+                    runCount.get());
+        } finally {
+            ui.getInternals().unlock();
+        }
+
+        Assert.assertTrue(future.isDone());
+        assertEquals(1, runCount.get());
+    }
+
+    @Test
+    public void sessionLock_uiLocking_waitsForUILockHolders()
+            throws Exception {
+        MockVaadinSession session = createUILockingSession();
+        UI ui = new MockUI(session);
+        CurrentInstance.clearAll();
+
+        CountDownLatch uiLocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread thread = new Thread(() -> ui.accessSynchronously(() -> {
+            uiLocked.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        thread.start();
+        Future<Boolean> sessionLocked;
+        try {
+            Assert.assertTrue(uiLocked.await(5, TimeUnit.SECONDS));
+
+            sessionLocked = CompletableFuture.supplyAsync(() -> {
+                session.lock();
+                try {
+                    return ui.getInternals().hasLock();
+                } finally {
+                    session.unlock();
+                }
+            });
+            Thread.sleep(100);
+            Assert.assertFalse(
+                    "The session lock should wait for the UI lock holder",
+                    sessionLocked.isDone());
+        } finally {
+            release.countDown();
+            thread.join(5000);
+        }
+
+        Assert.assertTrue(
+                "The session lock holder should be able to access the UI",
+                sessionLocked.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void sessionAccess_uiLocking_accessSynchronouslyToUI_noDeadlock()
+            throws Exception {
+        MockVaadinSession session = createUILockingSession();
+        UI ui = new MockUI(session);
+        CurrentInstance.clearAll();
+
+        CountDownLatch uiLocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread thread = new Thread(() -> ui.accessSynchronously(() -> {
+            uiLocked.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            // Needs the session state while the session task waits
+            session.setAttribute("foo", "bar");
+        }));
+        thread.start();
+        AtomicInteger runCount = new AtomicInteger();
+        Future<Void> future;
+        try {
+            Assert.assertTrue(uiLocked.await(5, TimeUnit.SECONDS));
+            future = CompletableFuture.runAsync(() -> session
+                    .accessSynchronously(() -> ui.accessSynchronously(() -> {
+                        assertEquals("bar", session.getAttribute("foo"));
+                        runCount.incrementAndGet();
+                    })));
+            Thread.sleep(100);
+        } finally {
+            release.countDown();
+        }
+
+        future.get(5, TimeUnit.SECONDS);
+        thread.join(5000);
+        assertEquals(1, runCount.get());
+    }
+
+    @Test
+    public void accessSynchronously_uiLocking_otherUIModified_throws() {
+        MockVaadinSession session = createUILockingSession();
+        UI ui1 = new MockUI(session);
+        UI ui2 = new MockUI(session);
+        CurrentInstance.clearAll();
+
+        ui1.accessSynchronously(() -> {
+            try {
+                ui2.getElement().setProperty("foo", "bar");
+                Assert.fail("The state of another UI should not be modified");
+            } catch (IllegalStateException expected) {
+                // Expected, only the lock of ui1 is held
+            }
+            try {
+                ui2.accessSynchronously(() -> Assert
+                        .fail("The lock of another UI should not be taken"));
+                Assert.fail("The lock of another UI should not be waited for");
+            } catch (IllegalStateException expected) {
+                // Expected, might deadlock with the holder of ui2
+            }
+            try {
+                session.lock();
+                session.unlock();
+                Assert.fail("The session lock should not be waited for");
+            } catch (IllegalStateException expected) {
+                // Expected, might deadlock with a session lock holder
+            }
+        });
+
+        session.lock();
+        try {
+            ui2.getElement().setProperty("foo", "bar");
+            assertEquals("bar", ui2.getElement().getProperty("foo"));
+        } finally {
+            session.unlock();
+        }
+    }
+
+    private static MockVaadinSession createUILockingSession() {
+        MockDeploymentConfiguration configuration = new MockDeploymentConfiguration();
+        configuration.setApplicationOrSystemProperty(
+                InitParameters.SERVLET_PARAMETER_UI_LOCKING, "true");
+        MockVaadinSession session = new MockVaadinSession(
+                new MockVaadinServletService(configuration));
+        session.lock();
+        try {
+            session.setConfiguration(configuration);
+        } finally {
+            session.unlock();
+        }
+        return session;
+    }
+
     @Test
     public void csrfToken_differentUIs_shouldBeUnique() {
         String token1 = new UI().getCsrfToken();
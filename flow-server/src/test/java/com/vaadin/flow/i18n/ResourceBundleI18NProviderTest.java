@@ -0,0 +1,234 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.i18n;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ResourceBundleI18NProviderTest {
+
+    private static final String BASE_NAME = "com.vaadin.flow.i18n.translations";
+    private static final Locale FINNISH = new Locale("fi");
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final ResourceBundleI18NProvider provider = new ResourceBundleI18NProvider(
+            BASE_NAME, Arrays.asList(Locale.ENGLISH, FINNISH));
+
+    @Test
+    public void getProvidedLocales_localesFromConstructor() {
+        Assert.assertEquals(Arrays.asList(Locale.ENGLISH, FINNISH),
+                provider.getProvidedLocales());
+    }
+
+    @Test
+    public void getTranslation_noParameters_textFromBundle() {
+        Assert.assertEquals("Welcome",
+                provider.getTranslation("title", Locale.ENGLISH));
+        Assert.assertEquals("Tervetuloa",
+                provider.getTranslation("title", FINNISH));
+    }
+
+    @Test
+    public void getTranslation_parameters_textIsFormatted() {
+        Assert.assertEquals("Hello John, you have 3 messages", provider
+                .getTranslation("greeting", Locale.ENGLISH, "John", 3));
+        Assert.assertEquals("Hei Matti, sinulla on 5 viestia",
+                provider.getTranslation("greeting", FINNISH, "Matti", 5));
+        // The compiled format is reused for other parameters
+        Assert.assertEquals("Hello Jane, you have 1 messages", provider
+                .getTranslation("greeting", Locale.ENGLISH, "Jane", 1));
+    }
+
+    @Test
+    public void getTranslation_missingKey_missingTranslation() {
+        Assert.assertEquals("!en: missing",
+                provider.getTranslation("missing", Locale.ENGLISH));
+        Assert.assertEquals("!fi: missing",
+                provider.getTranslation("missing", FINNISH, "param"));
+    }
+
+    @Test
+    public void getTranslation_missingLocale_noFallbackToDefaultLocale() {
+        Assert.assertEquals("!de: title",
+                provider.getTranslation("title", Locale.GERMAN));
+    }
+
+    @Test
+    public void getTranslations_severalKeys_allTranslated() {
+        Map<String, String> translations = provider.getTranslations(
+                Arrays.asList("title", "greeting", "missing"), FINNISH);
+
+        Assert.assertEquals(Arrays.asList("title", "greeting", "missing"),
+                Arrays.asList(translations.keySet().toArray()));
+        Assert.assertEquals("Tervetuloa", translations.get("title"));
+        Assert.assertEquals("Hei {0}, sinulla on {1,number,integer} viestia",
+                translations.get("greeting"));
+        Assert.assertEquals("!fi: missing", translations.get("missing"));
+    }
+
+    @Test
+    public void getTranslation_moreKeysThanMaxCached_translationsStillCorrect() {
+        ResourceBundleI18NProvider bounded = new ResourceBundleI18NProvider(
+                BASE_NAME, Collections.singletonList(Locale.ENGLISH), 1);
+
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals("Welcome",
+                    bounded.getTranslation("title", Locale.ENGLISH));
+            Assert.assertEquals("Hello A, you have 2 messages", bounded
+                    .getTranslation("greeting", Locale.ENGLISH, "A", 2));
+            Assert.assertEquals("!en: key" + i,
+                    bounded.getTranslation("key" + i, Locale.ENGLISH));
+        }
+    }
+
+    @Test
+    public void getTranslation_moreKeysThanMaxCached_leastRecentlyUsedDropped() {
+        CountingBundle_en.LOOKUPS.clear();
+        ResourceBundleI18NProvider bounded = new ResourceBundleI18NProvider(
+                CountingBundle_en.class.getName().replace("_en", ""),
+                Collections.singletonList(Locale.ENGLISH), 2);
+
+        bounded.getTranslation("a", Locale.ENGLISH);
+        bounded.getTranslation("b", Locale.ENGLISH);
+        bounded.getTranslation("a", Locale.ENGLISH);
+        // Used after "a", so "b" is dropped
+        Assert.assertEquals("C", bounded.getTranslation("c", Locale.ENGLISH));
+        Assert.assertEquals("A", bounded.getTranslation("a", Locale.ENGLISH));
+        Assert.assertEquals("B", bounded.getTranslation("b", Locale.ENGLISH));
+
+        Assert.assertEquals(1, CountingBundle_en.LOOKUPS.get("a").get());
+        Assert.assertEquals(2, CountingBundle_en.LOOKUPS.get("b").get());
+        Assert.assertEquals(1, CountingBundle_en.LOOKUPS.get("c").get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_negativeMaxCached_throws() {
+        new ResourceBundleI18NProvider(BASE_NAME,
+                Collections.singletonList(Locale.ENGLISH), -1);
+    }
+
+    @Test
+    public void getTranslation_reloadEnabled_modifiedBundleIsReloaded()
+            throws Exception {
+        File folder = temporaryFolder.getRoot();
+        File properties = new File(folder, "reload_en.properties");
+        write(properties, "title=Original");
+
+        try (URLClassLoader loader = new URLClassLoader(
+                new URL[] { folder.toURI().toURL() }, null)) {
+            ResourceBundleI18NProvider reloading = new ReloadingProvider(
+                    loader);
+            Assert.assertEquals("Original",
+                    reloading.getTranslation("title", Locale.ENGLISH));
+
+            write(properties, "title=Modified");
+            properties.setLastModified(System.currentTimeMillis() + 10000);
+            // Wait for the time to live of the loaded bundle to pass
+            Thread.sleep(1100);
+
+            Assert.assertEquals("Modified",
+                    reloading.getTranslation("title", Locale.ENGLISH));
+        }
+    }
+
+    @Test
+    public void serializeAndDeserialize_translationsAvailable() {
+        Assert.assertEquals("Welcome",
+                provider.getTranslation("title", Locale.ENGLISH));
+
+        ResourceBundleI18NProvider deserialized = SerializationUtils
+                .roundtrip(provider);
+
+        Assert.assertEquals("Welcome",
+                deserialized.getTranslation("title", Locale.ENGLISH));
+        Assert.assertEquals(provider.getProvidedLocales(),
+                deserialized.getProvidedLocales());
+    }
+
+    private static void write(File file, String content) throws IOException {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * English bundle counting how many times each translation is read.
+     */
+    public static class CountingBundle_en extends ResourceBundle {
+        private static final Set<String> KEYS = new HashSet<>(
+                Arrays.asList("a", "b", "c"));
+        private static final Map<String, AtomicInteger> LOOKUPS = new ConcurrentHashMap<>();
+
+        @Override
+        protected Object handleGetObject(String key) {
+            if (!KEYS.contains(key)) {
+                return null;
+            }
+            LOOKUPS.computeIfAbsent(key, newKey -> new AtomicInteger())
+                    .incrementAndGet();
+            return key.toUpperCase(Locale.ENGLISH);
+        }
+
+        @Override
+        protected Set<String> handleKeySet() {
+            return KEYS;
+        }
+
+        @Override
+        public Enumeration<String> getKeys() {
+            return Collections.enumeration(KEYS);
+        }
+    }
+
+    private static class ReloadingProvider extends ResourceBundleI18NProvider {
+        private final transient ClassLoader loader;
+
+        private ReloadingProvider(ClassLoader loader) {
+            super("reload", Collections.singletonList(Locale.ENGLISH));
+            this.loader = loader;
+        }
+
+        @Override
+        protected boolean isReloadEnabled() {
+            return true;
+        }
+
+        @Override
+        protected ClassLoader getBundleClassLoader() {
+            return loader;
+        }
+    }
+}
@@ -95,6 +95,8 @@ public class NodeFeatureTest {
                 NodeFeatures.VIRTUAL_CHILDREN);
         expectedIds.put(ReturnChannelMap.class,
                 NodeFeatures.RETURN_CHANNEL_MAP);
+        expectedIds.put(DeferredChildren.class,
+                NodeFeatures.DEFERRED_CHILDREN);
 
         return expectedIds;
     }
@@ -146,7 +148,7 @@ public class NodeFeatureTest {
                 ElementListenerMap.class, VirtualChildrenList.class,
 
                 /* Supplementary generic stuff */
-                ReturnChannelMap.class,
+                ReturnChannelMap.class, DeferredChildren.class,
 
                 /* PolymerTemplate stuff */
                 PolymerEventListenerMap.class, PolymerServerEventHandlers.class,
@@ -275,6 +275,44 @@ public class RouteModelTest {
         }
     }
 
+    @Test
+    public void copy_mutateCopy_originalUnchanged() {
+        RouteModel original = getRouteModel();
+        Map<String, RouteTarget> originalRoutes = new HashMap<>(
+                original.getRoutes());
+
+        RouteModel copy = RouteModel.copy(original, true);
+        copy.addRoute("trunk/branch/:id/leaf", routeTarget(Root.class));
+        copy.removeRoute("trunk/twig/:leafs*");
+
+        Assert.assertEquals(originalRoutes, original.getRoutes());
+        assertNavigation(original, "trunk/twig/a", Twig.class,
+                parameters("leafs", varargs("a")));
+        assertNavigation(original, "trunk/branch/1/leaf", null, null);
+
+        assertNavigation(copy, "trunk/twig/a", null, null);
+        assertNavigation(copy, "trunk/branch/1/leaf", Root.class,
+                parameters("id", "1"));
+        Assert.assertEquals(originalRoutes.size(), copy.getRoutes().size());
+    }
+
+    @Test
+    public void copy_mutateOriginal_copyUnchanged() {
+        RouteModel original = getRouteModel();
+        RouteModel copy = RouteModel.copy(original, false);
+        Map<String, RouteTarget> copyRoutes = new HashMap<>(copy.getRoutes());
+
+        original.removeRoute("trunk/branch");
+        original.addRoute("trunk/leaf", routeTarget(Root.class));
+
+        Assert.assertEquals(copyRoutes, copy.getRoutes());
+        assertNavigation(copy, "trunk/branch", Branch.class,
+                parameters());
+        assertNavigation(copy, "trunk/leaf", null, null);
+        assertNavigation(original, "trunk/leaf", Root.class,
+                parameters());
+    }
+
     private void assertUrl(RouteModel root, String expectedUrl,
             String template, RouteParameters parameters) {
         final String modelUrl = root.getUrl(template, parameters);
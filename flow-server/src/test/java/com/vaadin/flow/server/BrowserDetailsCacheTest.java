@@ -0,0 +1,132 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.vaadin.flow.shared.BrowserDetails;
+
+public class BrowserDetailsCacheTest {
+
+    private static final String FIREFOX = "Mozilla/5.0 (X11; Linux x86_64; rv:80.0) Gecko/20100101 Firefox/80.0";
+    private static final String CHROME = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/85.0.4183.102 Safari/537.36";
+
+    @Test
+    public void get_sameUserAgent_sameDetailsAndHitCounted() {
+        BrowserDetailsCache cache = new BrowserDetailsCache(10);
+
+        BrowserDetails first = cache.get(FIREFOX);
+        BrowserDetails second = cache.get(FIREFOX);
+
+        Assert.assertSame(first, second);
+        Assert.assertTrue(first.isFirefox());
+        Assert.assertEquals(80, first.getBrowserMajorVersion());
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void get_differentUserAgents_parsedSeparately() {
+        BrowserDetailsCache cache = new BrowserDetailsCache(10);
+
+        Assert.assertTrue(cache.get(FIREFOX).isFirefox());
+        Assert.assertTrue(cache.get(CHROME).isChrome());
+        Assert.assertEquals(0, cache.getHitCount());
+        Assert.assertEquals(2, cache.getMissCount());
+        Assert.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void get_moreUserAgentsThanMaxSize_sizeIsBounded() {
+        BrowserDetailsCache cache = new BrowserDetailsCache(5);
+
+        for (int i = 0; i < 100; i++) {
+            Assert.assertTrue(cache.get(FIREFOX + " " + i).isFirefox());
+        }
+
+        Assert.assertEquals(5, cache.size());
+        Assert.assertEquals(100, cache.getMissCount());
+    }
+
+    @Test
+    public void get_maxSizeZero_nothingIsCached() {
+        BrowserDetailsCache cache = new BrowserDetailsCache(0);
+
+        Assert.assertNotSame(cache.get(FIREFOX), cache.get(FIREFOX));
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void get_concurrentRequests_allCounted() throws Exception {
+        BrowserDetailsCache cache = new BrowserDetailsCache(10);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<BrowserDetails>> futures = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                String userAgent = i % 2 == 0 ? FIREFOX : CHROME;
+                futures.add(executor.submit(() -> cache.get(userAgent)));
+            }
+            for (Future<BrowserDetails> future : futures) {
+                Assert.assertNotNull(future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assert.assertEquals(1000, cache.getHitCount() + cache.getMissCount());
+        Assert.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void clear_countsAreReset() {
+        BrowserDetailsCache cache = new BrowserDetailsCache(10);
+        cache.get(FIREFOX);
+        cache.get(FIREFOX);
+
+        cache.clear();
+
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(0, cache.getHitCount());
+        Assert.assertEquals(0, cache.getMissCount());
+    }
+
+    @Test
+    public void webBrowser_sameUserAgent_detailsAreParsedOnce() {
+        VaadinRequest request = Mockito.mock(VaadinRequest.class);
+        // Unique user agent so that other tests don't affect the counts
+        String userAgent = CHROME + " " + getClass().getName();
+        Mockito.when(request.getHeader("User-Agent")).thenReturn(userAgent);
+        BrowserDetailsCache cache = WebBrowser.getBrowserDetailsCache();
+        long misses = cache.getMissCount();
+
+        WebBrowser first = new WebBrowser(request);
+        WebBrowser second = new WebBrowser(request);
+
+        Assert.assertEquals(misses + 1, cache.getMissCount());
+        Assert.assertTrue(first.isChrome());
+        Assert.assertTrue(second.isChrome());
+        Assert.assertEquals(85, second.getBrowserMajorVersion());
+    }
+}
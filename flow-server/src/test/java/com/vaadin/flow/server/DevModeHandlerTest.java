@@ -33,9 +33,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 
 import com.sun.net.httpserver.HttpServer;
@@ -739,6 +741,88 @@ public class DevModeHandlerTest {
         return servlet;
     }
 
+    @Test
+    public void serveDevModeRequest_severalRequests_connectionToWebpackIsReused()
+            throws Exception {
+        Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+        int port = DevModeHandler.getFreePort();
+        httpServer = HttpServer.create(new InetSocketAddress(port), 0);
+        httpServer.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            if (!"/manifest.json".equals(path)) {
+                clientPorts.add(exchange.getRemoteAddress().getPort());
+            }
+            byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(
+                    path.endsWith("missing.js") ? HTTP_NOT_FOUND : HTTP_OK,
+                    body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        httpServer.start();
+
+        DevModeHandler handler = DevModeHandler.start(port,
+                createDevModeLookup(), npmFolder,
+                CompletableFuture.completedFuture(null));
+        handler.join();
+        for (int i = 0; i < 5; i++) {
+            assertTrue(handler.serveDevModeRequest(
+                    prepareRequest("/VAADIN/foo.js"), prepareResponse()));
+            assertFalse(handler.serveDevModeRequest(
+                    prepareRequest("/VAADIN/missing.js"), prepareResponse()));
+        }
+
+        assertEquals(1, clientPorts.size());
+    }
+
+    @Test
+    public void serveDevModeRequest_eTagMatches_notModifiedIsPassedThrough()
+            throws Exception {
+        List<String> connectionHeaders = Collections
+                .synchronizedList(new ArrayList<>());
+        int port = DevModeHandler.getFreePort();
+        httpServer = HttpServer.create(new InetSocketAddress(port), 0);
+        httpServer.createContext("/", exchange -> {
+            connectionHeaders.add(
+                    exchange.getRequestHeaders().getFirst("Connection"));
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            if ("\"v1\"".equals(
+                    exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(HTTP_NOT_MODIFIED, -1);
+            } else {
+                byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(HTTP_OK, body.length);
+                exchange.getResponseBody().write(body);
+            }
+            exchange.close();
+        });
+        httpServer.start();
+
+        DevModeHandler handler = DevModeHandler.start(port,
+                createDevModeLookup(), npmFolder,
+                CompletableFuture.completedFuture(null));
+        handler.join();
+        HttpServletRequest request = prepareRequest("/VAADIN/foo.js");
+        Mockito.doAnswer(invocation -> Collections
+                .enumeration(Arrays.asList("If-None-Match", "Connection")))
+                .when(request).getHeaderNames();
+        Mockito.doAnswer(invocation -> "\"v1\"").when(request)
+                .getHeader("If-None-Match");
+        Mockito.doAnswer(invocation -> "close").when(request)
+                .getHeader("Connection");
+        HttpServletResponse response = prepareResponse();
+
+        assertTrue(handler.serveDevModeRequest(request, response));
+
+        assertEquals(HTTP_NOT_MODIFIED, responseStatus);
+        Mockito.verify(response).addHeader(
+                Mockito.argThat(Matchers.equalToIgnoringCase("ETag")),
+                Mockito.eq("\"v1\""));
+        Mockito.verify(response.getOutputStream(), Mockito.never()).write(
+                Mockito.any(byte[].class), Mockito.anyInt(), Mockito.anyInt());
+        assertFalse(connectionHeaders.contains("close"));
+    }
+
     private HttpServletRequest prepareRequest(String uri) {
         HttpServletRequest request = mock(HttpServletRequest.class);
         Mockito.doAnswer(invocation -> uri).when(request).getPathInfo();
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.vaadin.flow.server;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PrioritizedSessionLockTest {
+
+    private static final String PRIORITY_THREAD = "priority";
+
+    private static class TestLock extends PrioritizedSessionLock {
+        @Override
+        protected boolean isPriorityThread() {
+            return Thread.currentThread().getName()
+                    .startsWith(PRIORITY_THREAD);
+        }
+    }
+
+    private final TestLock lock = new TestLock();
+
+    @Test
+    public void lock_reentrant_holdCountTracked() {
+        lock.lock();
+        lock.lock();
+
+        Assert.assertTrue(lock.isHeldByCurrentThread());
+        Assert.assertEquals(2, lock.getHoldCount());
+
+        lock.unlock();
+        Assert.assertTrue(lock.isLocked());
+        lock.unlock();
+
+        Assert.assertFalse(lock.isLocked());
+        Assert.assertEquals(0, lock.getHoldCount());
+    }
+
+    @Test(expected = IllegalMonitorStateException.class)
+    public void unlock_notHeld_throws() {
+        lock.unlock();
+    }
+
+    @Test
+    public void tryLock_heldByOtherThread_returnsFalse() throws Exception {
+        Thread other = new Thread(lock::lock);
+        other.start();
+        other.join();
+
+        Assert.assertTrue(lock.isLocked());
+        Assert.assertFalse(lock.isHeldByCurrentThread());
+        Assert.assertFalse(lock.tryLock());
+        Assert.assertFalse(lock.tryLock(10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void unlock_priorityAndBackgroundWaiting_priorityThreadGetsLockFirst()
+            throws Exception {
+        List<String> order = new CopyOnWriteArrayList<>();
+        lock.lock();
+
+        Thread background = startLocker("background", order);
+        awaitQueueLength(1);
+        Thread priority = startLocker(PRIORITY_THREAD, order);
+        awaitQueueLength(2);
+        Assert.assertEquals(1, lock.getPriorityQueueLength());
+
+        lock.unlock();
+        background.join(5000);
+        priority.join(5000);
+
+        Assert.assertEquals(2, order.size());
+        Assert.assertEquals(PRIORITY_THREAD, order.get(0));
+        Assert.assertEquals("background", order.get(1));
+        Assert.assertFalse(lock.hasQueuedThreads());
+    }
+
+    @Test
+    public void lockInterruptibly_interrupted_throws() throws Exception {
+        lock.lock();
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            try {
+                lock.lockInterruptibly();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        });
+        waiter.start();
+        awaitQueueLength(1);
+
+        waiter.interrupt();
+
+        Assert.assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        waiter.join(5000);
+        Assert.assertFalse(lock.hasQueuedThreads());
+        lock.unlock();
+    }
+
+    @Test
+    public void await_signalledByOtherThread_lockReacquiredWithHoldCount()
+            throws Exception {
+        Condition condition = lock.newCondition();
+        List<String> order = new CopyOnWriteArrayList<>();
+        lock.lock();
+        lock.lock();
+
+        Thread signaller = new Thread(() -> {
+            lock.lock();
+            try {
+                order.add("signal");
+                condition.signal();
+            } finally {
+                lock.unlock();
+            }
+        });
+        signaller.start();
+        condition.await();
+        order.add("await");
+
+        Assert.assertEquals(Arrays.asList("signal", "await"), order);
+        Assert.assertTrue(lock.isHeldByCurrentThread());
+        Assert.assertEquals(2, lock.getHoldCount());
+        lock.unlock();
+        lock.unlock();
+        signaller.join(5000);
+        Assert.assertFalse(lock.isLocked());
+    }
+
+    @Test
+    public void awaitNanos_notSignalled_timesOutHoldingLock()
+            throws Exception {
+        Condition condition = lock.newCondition();
+        lock.lock();
+
+        Assert.assertFalse(condition.await(10, TimeUnit.MILLISECONDS));
+
+        Assert.assertTrue(lock.isHeldByCurrentThread());
+        Assert.assertEquals(1, lock.getHoldCount());
+        lock.unlock();
+    }
+
+    @Test(expected = IllegalMonitorStateException.class)
+    public void await_notHeld_throws() throws Exception {
+        lock.newCondition().await();
+    }
+
+    private Thread startLocker(String name, List<String> order) {
+        Thread thread = new Thread(() -> {
+            lock.lock();
+            try {
+                order.add(name);
+            } finally {
+                lock.unlock();
+            }
+        }, name);
+        thread.start();
+        return thread;
+    }
+
+    private void awaitQueueLength(int length) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (lock.getQueueLength() < length) {
+            Assert.assertTrue("Timed out waiting for queued threads",
+                    System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,374 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.internal.CurrentInstance;
+import com.vaadin.tests.util.MockDeploymentConfiguration;
+
+public class UIExpirySchedulerTest {
+
+    private static final long TICK = 100;
+
+    private MockDeploymentConfiguration configuration = new MockDeploymentConfiguration();
+    private MockVaadinServletService service;
+    private MockVaadinSession session;
+    private UIExpiryScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        // Heartbeat timeout is 3 seconds
+        configuration.setHeartbeatInterval(1);
+        service = new MockVaadinServletService(configuration);
+        session = createSession(service);
+        scheduler = new UIExpiryScheduler(service, TICK);
+    }
+
+    @After
+    public void tearDown() {
+        service.destroy();
+        CurrentInstance.clearAll();
+    }
+
+    @Test
+    public void expire_heartbeatDeadlinePassed_uiClosedAndRemoved() {
+        long now = System.currentTimeMillis();
+        UI ui = createUI(now - 10000);
+        scheduler.register(ui);
+        Assert.assertEquals(1, scheduler.getActiveUICount());
+
+        scheduler.expire(now + TICK);
+
+        Assert.assertTrue(ui.isClosing());
+        Assert.assertNull(ui.getSession());
+        Assert.assertFalse(getUIs().contains(ui));
+        Assert.assertEquals(1, scheduler.getExpiredUICount());
+        Assert.assertEquals(0, scheduler.getActiveUICount());
+    }
+
+    @Test
+    public void expire_deadlineNotReached_uiKeptOpen() {
+        long now = System.currentTimeMillis();
+        UI ui = createUI(now);
+        scheduler.register(ui);
+
+        scheduler.expire(now + 2000);
+
+        Assert.assertFalse(ui.isClosing());
+        Assert.assertTrue(getUIs().contains(ui));
+        Assert.assertEquals(0, scheduler.getExpiredUICount());
+        Assert.assertEquals(1, scheduler.getActiveUICount());
+    }
+
+    @Test
+    public void expire_heartbeatAfterScheduling_deadlineIsMoved() {
+        long now = System.currentTimeMillis();
+        UI ui = createUI(now);
+        scheduler.register(ui);
+
+        // A heartbeat arrives two seconds later
+        ui.getInternals().setLastHeartbeatTimestamp(now + 2000);
+        scheduler.expire(now + 3000 + TICK);
+
+        Assert.assertFalse(ui.isClosing());
+        Assert.assertEquals(1, scheduler.getActiveUICount());
+        Assert.assertEquals(0, scheduler.getExpiredUICount());
+    }
+
+    @Test
+    public void expire_uiUnregistered_uiNotClosed() {
+        long now = System.currentTimeMillis();
+        UI ui = createUI(now - 10000);
+        scheduler.register(ui);
+        scheduler.unregister(ui);
+
+        scheduler.expire(now + TICK);
+
+        Assert.assertFalse(ui.isClosing());
+        Assert.assertEquals(0, scheduler.getActiveUICount());
+    }
+
+    @Test
+    public void expire_manyTicksSkipped_allExpiredUIsClosed() {
+        long now = System.currentTimeMillis();
+        UI first = createUI(now - 10000);
+        UI second = createUI(now - 4000);
+        scheduler.register(first);
+        scheduler.register(second);
+
+        // Much more than one revolution of the wheel
+        scheduler.expire(now + 1000 * TICK);
+
+        Assert.assertTrue(first.isClosing());
+        Assert.assertTrue(second.isClosing());
+        Assert.assertEquals(2, scheduler.getExpiredUICount());
+    }
+
+    @Test
+    public void registerUIs_sessionWithUIs_uisRegistered() {
+        long now = System.currentTimeMillis();
+        createUI(now);
+        createUI(now);
+
+        session.lock();
+        try {
+            scheduler.registerUIs(session);
+        } finally {
+            session.unlock();
+        }
+
+        Assert.assertEquals(0, scheduler.getActiveSessionCount());
+        Assert.assertEquals(2, scheduler.getActiveUICount());
+    }
+
+    @Test
+    public void register_idleSessionsNotClosed_sessionNotTracked() {
+        registerSession();
+
+        Assert.assertEquals(0, scheduler.getActiveSessionCount());
+    }
+
+    @Test
+    public void register_idleSessionsClosed_sessionTrackedUntilUnregistered() {
+        configuration.setCloseIdleSessions(true);
+
+        registerSession();
+        Assert.assertEquals(1, scheduler.getActiveSessionCount());
+
+        scheduler.unregister(session);
+        Assert.assertEquals(0, scheduler.getActiveSessionCount());
+    }
+
+    @Test
+    public void register_manyUIsConcurrently_allTracked() throws Exception {
+        long now = System.currentTimeMillis();
+        List<UI> uis = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            uis.add(createUI(now - 10000));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (UI ui : uis) {
+                futures.add(executor.submit(() -> scheduler.register(ui)));
+            }
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(100, scheduler.getActiveUICount());
+
+        scheduler.expire(now + TICK);
+
+        Assert.assertEquals(100, scheduler.getExpiredUICount());
+        Assert.assertEquals(0, scheduler.getActiveUICount());
+    }
+
+    @Test
+    public void expire_idleSessionsClosed_inactiveSessionClosed() {
+        configuration.setCloseIdleSessions(true);
+        long now = System.currentTimeMillis();
+        session.lock();
+        try {
+            session.setLastRequestTimestamp(now - 120000);
+        } finally {
+            session.unlock();
+        }
+        registerSession();
+
+        scheduler.expire(now + TICK);
+
+        Assert.assertNotEquals(VaadinSessionState.OPEN, getState());
+        Assert.assertEquals(1, scheduler.getExpiredSessionCount());
+    }
+
+    @Test
+    public void register_sessionAlreadyTracked_deadlineNotMoved() {
+        configuration.setCloseIdleSessions(true);
+        long now = System.currentTimeMillis();
+        registerSession();
+        session.lock();
+        try {
+            session.setLastRequestTimestamp(now - 120000);
+        } finally {
+            session.unlock();
+        }
+        registerSession();
+
+        scheduler.expire(now + TICK);
+
+        Assert.assertEquals(VaadinSessionState.OPEN, getState());
+        Assert.assertEquals(1, scheduler.getActiveSessionCount());
+    }
+
+    @Test
+    public void expire_idleSessionsNotClosed_sessionKeptOpen() {
+        long now = System.currentTimeMillis();
+        session.lock();
+        try {
+            session.setLastRequestTimestamp(now - 120000);
+        } finally {
+            session.unlock();
+        }
+        registerSession();
+
+        scheduler.expire(now + 1000 * TICK);
+
+        Assert.assertEquals(VaadinSessionState.OPEN, getState());
+        Assert.assertEquals(0, scheduler.getExpiredSessionCount());
+    }
+
+    @Test
+    public void getUIExpiryScheduler_enabled_uisTrackedWhenAddedAndRemoved() {
+        configuration.setApplicationOrSystemProperty(
+                InitParameters.SERVLET_PARAMETER_UI_EXPIRY_SCHEDULER, "true");
+        MockVaadinServletService enabledService = new MockVaadinServletService(
+                configuration);
+        try {
+            UIExpiryScheduler serviceScheduler = enabledService
+                    .getUIExpiryScheduler();
+            Assert.assertNotNull(serviceScheduler);
+            session = createSession(enabledService);
+
+            UI ui = createUI(System.currentTimeMillis());
+            Assert.assertEquals(1, serviceScheduler.getActiveUICount());
+
+            session.lock();
+            try {
+                ui.accessSynchronously(() -> session.removeUI(ui));
+            } finally {
+                session.unlock();
+            }
+            Assert.assertEquals(0, serviceScheduler.getActiveUICount());
+        } finally {
+            enabledService.destroy();
+        }
+    }
+
+    @Test
+    public void refreshTransients_deserializedSession_uisRegistered()
+            throws Exception {
+        configuration.setApplicationOrSystemProperty(
+                InitParameters.SERVLET_PARAMETER_UI_EXPIRY_SCHEDULER, "true");
+        MockVaadinServletService enabledService = new MockVaadinServletService(
+                configuration);
+        try {
+            createUI(System.currentTimeMillis());
+            createUI(System.currentTimeMillis());
+            UIExpiryScheduler serviceScheduler = enabledService
+                    .getUIExpiryScheduler();
+            Assert.assertEquals(0, serviceScheduler.getActiveUICount());
+
+            // A deserialized session has no service until it is refreshed
+            Field serviceField = VaadinSession.class
+                    .getDeclaredField("service");
+            serviceField.setAccessible(true);
+            serviceField.set(session, null);
+
+            session.lock();
+            try {
+                session.refreshTransients(session.getSession(),
+                        enabledService);
+            } finally {
+                session.unlock();
+            }
+
+            Assert.assertEquals(2, serviceScheduler.getActiveUICount());
+        } finally {
+            enabledService.destroy();
+        }
+    }
+
+    @Test
+    public void getUIExpiryScheduler_notEnabled_null() {
+        Assert.assertNull(service.getUIExpiryScheduler());
+    }
+
+    private void registerSession() {
+        session.lock();
+        try {
+            scheduler.register(session);
+        } finally {
+            session.unlock();
+        }
+    }
+
+    private Collection<UI> getUIs() {
+        session.lock();
+        try {
+            return session.getUIs();
+        } finally {
+            session.unlock();
+        }
+    }
+
+    private VaadinSessionState getState() {
+        session.lock();
+        try {
+            return session.getState();
+        } finally {
+            session.unlock();
+        }
+    }
+
+    private static MockVaadinSession createSession(VaadinService service) {
+        WrappedSession wrappedSession = Mockito.mock(WrappedSession.class);
+        Mockito.when(wrappedSession.getMaxInactiveInterval()).thenReturn(60);
+        MockVaadinSession session = new MockVaadinSession(service) {
+            @Override
+            public WrappedSession getSession() {
+                return wrappedSession;
+            }
+        };
+        Mockito.when(wrappedSession
+                .getAttribute(service.getServiceName() + ".lock"))
+                .thenReturn(session.getLockInstance());
+        return session;
+    }
+
+    private UI createUI(long lastHeartbeat) {
+        UI ui = new UI();
+        ui.getInternals().setSession(session);
+        session.lock();
+        try {
+            ui.doInit(Mockito.mock(VaadinServletRequest.class),
+                    session.getNextUIid());
+            session.addUI(ui);
+        } finally {
+            session.unlock();
+        }
+        ui.getInternals().setLastHeartbeatTimestamp(lastHeartbeat);
+        return ui;
+    }
+}
@@ -22,9 +22,18 @@ import javax.servlet.http.HttpSessionBindingEvent;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -379,6 +388,141 @@ public class VaadinServiceTest {
         service.loadInstantiators();
     }
 
+    @Test
+    public void getExecutor_sameInstanceReturned_shutDownOnDestroy() {
+        MockVaadinServletService service = new MockVaadinServletService();
+
+        Executor executor = service.getExecutor();
+        Assert.assertSame(executor, service.getExecutor());
+
+        service.destroy();
+
+        Assert.assertTrue("Executor should be shut down with the service",
+                ((ExecutorService) executor).isShutdown());
+    }
+
+    @Test
+    public void getExecutor_virtualThreadsDisabled_daemonPlatformThreadsUsed()
+            throws Exception {
+        MockDeploymentConfiguration configuration = new MockDeploymentConfiguration();
+        configuration.setApplicationOrSystemProperty(
+                InitParameters.SERVLET_PARAMETER_EXECUTOR_VIRTUAL_THREADS,
+                "false");
+        MockVaadinServletService service = new MockVaadinServletService(
+                configuration);
+
+        CompletableFuture<Thread> thread = CompletableFuture
+                .supplyAsync(Thread::currentThread, service.getExecutor());
+
+        Assert.assertTrue(thread.get(5, TimeUnit.SECONDS).isDaemon());
+        Assert.assertTrue(thread.get().getName().startsWith("vaadin-executor-"));
+        service.destroy();
+    }
+
+    @Test
+    public void getExecutor_virtualThreadsDisabled_poolBoundedByProcessors() {
+        MockDeploymentConfiguration configuration = new MockDeploymentConfiguration();
+        configuration.setApplicationOrSystemProperty(
+                InitParameters.SERVLET_PARAMETER_EXECUTOR_VIRTUAL_THREADS,
+                "false");
+        MockVaadinServletService service = new MockVaadinServletService(
+                configuration);
+
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) service
+                .getExecutor();
+
+        Assert.assertEquals(
+                Math.max(2, Runtime.getRuntime().availableProcessors()),
+                executor.getMaximumPoolSize());
+        Assert.assertTrue("Idle threads should be stopped",
+                executor.allowsCoreThreadTimeOut());
+        service.destroy();
+    }
+
+    @Test
+    public void accessSession_asyncAccessQueuePurge_queuePurgedOnExecutor()
+            throws Exception {
+        MockDeploymentConfiguration configuration = new MockDeploymentConfiguration();
+        configuration.setApplicationOrSystemProperty(
+                InitParameters.SERVLET_PARAMETER_ASYNC_ACCESS_QUEUE_PURGE,
+                "true");
+        MockVaadinServletService service = new MockVaadinServletService(
+                configuration);
+        VaadinSession session = new MockVaadinSession(service);
+        Thread callerThread = Thread.currentThread();
+        AtomicReference<Thread> accessThread = new AtomicReference<>();
+
+        session.access(() -> accessThread.set(Thread.currentThread()))
+                .get(5, TimeUnit.SECONDS);
+
+        Assert.assertNotNull("Access task should have run",
+                accessThread.get());
+        Assert.assertNotSame(
+                "Access task should not run in the thread which enqueued it",
+                callerThread, accessThread.get());
+        service.destroy();
+    }
+
+    @Test
+    public void accessSession_synchronousAccessQueuePurge_queuePurgedInCallerThread()
+            throws Exception {
+        MockVaadinServletService service = new MockVaadinServletService();
+        VaadinSession session = new MockVaadinSession(service);
+        Thread callerThread = Thread.currentThread();
+        AtomicReference<Thread> accessThread = new AtomicReference<>();
+
+        Future<Void> future = session
+                .access(() -> accessThread.set(Thread.currentThread()));
+
+        Assert.assertTrue(future.isDone());
+        Assert.assertSame(callerThread, accessThread.get());
+    }
+
+    @Test
+    public void lockSession_customSessionLockFactory_lockCreatedByFactory() {
+        MockVaadinServletService service = new MockVaadinServletService();
+        PrioritizedSessionLock lock = new PrioritizedSessionLock();
+        service.setSessionLockFactory(wrappedSession -> lock);
+        WrappedSession wrappedSession = createWrappedSession();
+
+        service.lockSession(wrappedSession);
+        try {
+            Assert.assertSame(lock, service.getSessionLock(wrappedSession));
+            Assert.assertTrue(lock.isHeldByCurrentThread());
+            Assert.assertTrue(VaadinSession.hasLock(service, wrappedSession));
+        } finally {
+            service.unlockSession(wrappedSession);
+        }
+        Assert.assertFalse(lock.isLocked());
+        Assert.assertFalse(VaadinSession.hasLock(service, wrappedSession));
+    }
+
+    @Test
+    public void lockSession_defaultSessionLockFactory_reentrantSessionLockUsed() {
+        MockVaadinServletService service = new MockVaadinServletService();
+        WrappedSession wrappedSession = createWrappedSession();
+
+        service.lockSession(wrappedSession);
+        service.unlockSession(wrappedSession);
+
+        Assert.assertTrue(service
+                .getSessionLock(wrappedSession) instanceof ReentrantSessionLock);
+    }
+
+    private WrappedSession createWrappedSession() {
+        Map<String, Object> attributes = new HashMap<>();
+        WrappedSession wrappedSession = Mockito.mock(WrappedSession.class);
+        Mockito.when(wrappedSession.getAttribute(Mockito.anyString()))
+                .then(invocation -> attributes
+                        .get(invocation.getArgumentAt(0, String.class)));
+        Mockito.doAnswer(invocation -> attributes.put(
+                invocation.getArgumentAt(0, String.class),
+                invocation.getArgumentAt(1, Object.class)))
+                .when(wrappedSession)
+                .setAttribute(Mockito.anyString(), Mockito.any());
+        return wrappedSession;
+    }
+
     private InstantiatorFactory createInstantiatorFactory(Lookup lookup) {
         InstantiatorFactory factory = Mockito.mock(InstantiatorFactory.class);
 
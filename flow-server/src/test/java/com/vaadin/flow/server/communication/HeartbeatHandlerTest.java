@@ -0,0 +1,166 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.communication;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.internal.CurrentInstance;
+import com.vaadin.flow.server.HandlerHelper.RequestType;
+import com.vaadin.flow.server.InitParameters;
+import com.vaadin.flow.server.MockVaadinServletService;
+import com.vaadin.flow.server.MockVaadinSession;
+import com.vaadin.flow.server.VaadinRequest;
+import com.vaadin.flow.server.VaadinResponse;
+import com.vaadin.flow.server.WrappedSession;
+import com.vaadin.flow.shared.ApplicationConstants;
+import com.vaadin.tests.util.MockDeploymentConfiguration;
+import com.vaadin.tests.util.MockUI;
+
+public class HeartbeatHandlerTest {
+
+    private MockVaadinSession session;
+    private UI ui1;
+    private UI ui2;
+    private HeartbeatHandler handler = new HeartbeatHandler();
+
+    @Before
+    public void setup() {
+        MockDeploymentConfiguration configuration = new MockDeploymentConfiguration();
+        configuration.setApplicationOrSystemProperty(
+                InitParameters.SERVLET_PARAMETER_UI_LOCKING, "true");
+        session = new MockVaadinSession(
+                new MockVaadinServletService(configuration));
+        session.lock();
+        try {
+            session.setConfiguration(configuration);
+            ui1 = createUI(1);
+            ui2 = createUI(2);
+        } finally {
+            session.unlock();
+        }
+        CurrentInstance.clearAll();
+    }
+
+    @After
+    public void tearDown() {
+        CurrentInstance.clearAll();
+    }
+
+    @Test
+    public void heartbeat_uiLocking_otherUILocked_handledWithoutWaiting()
+            throws Exception {
+        CountDownLatch ui1Locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread thread = new Thread(() -> ui1.accessSynchronously(() -> {
+            ui1Locked.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        thread.start();
+        try {
+            Assert.assertTrue(ui1Locked.await(5, TimeUnit.SECONDS));
+
+            ui2.getInternals().setLastHeartbeatTimestamp(0);
+            Assert.assertTrue(handleHeartbeat(ui2));
+
+            Assert.assertNotEquals(0,
+                    ui2.getInternals().getLastHeartbeatTimestamp());
+            Assert.assertFalse(ui2.getInternals().getLock()
+                    .isHeldByCurrentThread());
+        } finally {
+            release.countDown();
+            thread.join(5000);
+        }
+    }
+
+    @Test
+    public void heartbeat_uiLocking_sessionLocked_waitsForSessionLock()
+            throws Exception {
+        ui1.getInternals().setLastHeartbeatTimestamp(0);
+        Future<Boolean> handled;
+        session.lock();
+        try {
+            handled = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return handleHeartbeat(ui1);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            Thread.sleep(100);
+            Assert.assertFalse(
+                    "The UI should not be locked while the session is locked",
+                    handled.isDone());
+            Assert.assertEquals(0,
+                    ui1.getInternals().getLastHeartbeatTimestamp());
+        } finally {
+            session.unlock();
+        }
+
+        Assert.assertTrue(handled.get(5, TimeUnit.SECONDS));
+        Assert.assertNotEquals(0,
+                ui1.getInternals().getLastHeartbeatTimestamp());
+    }
+
+    private UI createUI(int uiId) {
+        UI ui = new MockUI(session) {
+            @Override
+            public int getUIId() {
+                return uiId;
+            }
+        };
+        session.addUI(ui);
+        return ui;
+    }
+
+    private boolean handleHeartbeat(UI ui) throws IOException {
+        WrappedSession wrappedSession = Mockito.mock(WrappedSession.class);
+        Mockito.when(wrappedSession.getAttribute(Mockito.anyString()))
+                .thenAnswer(invocation -> invocation.getArguments()[0]
+                        .toString().endsWith(".lock")
+                                ? session.getLockInstance()
+                                : session);
+        VaadinRequest request = Mockito.mock(VaadinRequest.class);
+        Mockito.when(request.getWrappedSession()).thenReturn(wrappedSession);
+        Mockito.when(request.getParameter(
+                ApplicationConstants.REQUEST_TYPE_PARAMETER))
+                .thenReturn(RequestType.HEARTBEAT.getIdentifier());
+        Mockito.when(
+                request.getParameter(ApplicationConstants.UI_ID_PARAMETER))
+                .thenReturn(String.valueOf(ui.getUIId()));
+        try {
+            return handler.handleRequest(session, request,
+                    Mockito.mock(VaadinResponse.class));
+        } finally {
+            CurrentInstance.clearAll();
+        }
+    }
+}
@@ -30,6 +30,7 @@ import org.junit.After;
 import org.junit.Test;
 
 import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.HasComponents;
 import com.vaadin.flow.component.Tag;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.dependency.JavaScript;
@@ -132,6 +133,11 @@ public class UidlWriterTest {
     public static class ComponentWithAllDependencyTypes extends Component {
     }
 
+    @Tag("div")
+    public static class DeferredContainer extends Component
+            implements HasComponents {
+    }
+
     @Tag("base")
     @Route(value = "", layout = ParentClass.class)
     public static class BaseClass extends Component {
@@ -283,6 +289,30 @@ public class UidlWriterTest {
                 response.getBoolean(ApplicationConstants.RESYNCHRONIZE_ID));
     }
 
+    @Test
+    public void deferredContent_visibleContainer_childrenIncludedInResponse()
+            throws Exception {
+        UI ui = initializeUIForDependenciesTest(new TestUI());
+        UidlWriter uidlWriter = new UidlWriter();
+        uidlWriter.createUidl(ui, false);
+
+        DeferredContainer container = new DeferredContainer();
+        ActualComponent child = new ActualComponent();
+        container.addDeferred(() -> Collections.singletonList(child));
+        ui.add(container);
+
+        JsonObject response = uidlWriter.createUidl(ui, false);
+
+        assertEquals(container, child.getParent().get());
+        JsonArray changes = response.getArray("changes");
+        int childId = child.getElement().getNode().getId();
+        assertTrue("Deferred child should be attached in the same response",
+                JsonUtils.<JsonObject> stream(changes)
+                        .anyMatch(change -> "attach"
+                                .equals(change.getString("type"))
+                                && childId == (int) change.getNumber("node")));
+    }
+
     private void assertInlineDependencies(List<JsonObject> inlineDependencies) {
         assertThat("Should have an inline dependency", inlineDependencies,
                 hasSize(1));
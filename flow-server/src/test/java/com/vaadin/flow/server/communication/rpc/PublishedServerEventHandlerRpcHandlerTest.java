@@ -112,6 +112,28 @@ public class PublishedServerEventHandlerRpcHandlerTest {
         }
     }
 
+    public static class ShadowingClientCallable extends ComponentWithCompute {
+
+        private boolean isShadowInvoked;
+
+        @ClientCallable
+        private void method() {
+            isShadowInvoked = true;
+        }
+    }
+
+    @Tag(Tag.DIV)
+    public static class OverloadedClientCallable extends Component {
+
+        @ClientCallable
+        private void method() {
+        }
+
+        @ClientCallable
+        private void method(String value) {
+        }
+    }
+
     public static class CompositeOfComponentWithCompute
             extends Composite<ComponentWithCompute> {
     }
@@ -471,6 +493,39 @@ public class PublishedServerEventHandlerRpcHandlerTest {
         Assert.assertTrue(component.isInvoked);
     }
 
+    @Test
+    public void subclassDeclaresMethodWithSameName_subclassMethodIsInvoked() {
+        ShadowingClientCallable component = new ShadowingClientCallable();
+        PublishedServerEventHandlerRpcHandler.invokeMethod(component,
+                component.getClass(), "method", Json.createArray(), -1);
+
+        Assert.assertTrue(component.isShadowInvoked);
+        Assert.assertFalse(((ComponentWithCompute) component).isInvoked);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void overloadedMethods_invokeMethod_throws() {
+        OverloadedClientCallable component = new OverloadedClientCallable();
+        PublishedServerEventHandlerRpcHandler.invokeMethod(component,
+                component.getClass(), "method", Json.createArray(), -1);
+    }
+
+    @Test
+    public void invokeMethod_repeatedCalls_methodInvokedEachTime() {
+        UI ui = new UI();
+        ui.getInternals().setSession(session);
+        MethodWithParameters component = new MethodWithParameters();
+        ui.add(component);
+
+        for (int i = 0; i < 1000; i++) {
+            JsonArray args = Json.createArray();
+            args.set(0, i);
+            PublishedServerEventHandlerRpcHandler.invokeMethod(component,
+                    component.getClass(), "intMethod", args, -1);
+            Assert.assertEquals(i, component.intArg);
+        }
+    }
+
     private void requestInvokeMethod(Component component) {
         requestInvokeMethod(component, "method");
     }
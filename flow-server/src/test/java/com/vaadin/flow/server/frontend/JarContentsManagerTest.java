@@ -20,8 +20,11 @@ import java.io.File;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.jar.JarFile;
@@ -496,6 +499,56 @@ public class JarContentsManagerTest {
                         .collect(Collectors.joining("")));
     }
 
+    @Test
+    public void copyIncludedFilesFromJar_severalDirectories_sameFilesAsCopyingEachDirectory()
+            throws IOException {
+        File testJar = TestUtils.getTestJar("paper-button-2.0.0.jar");
+        String buttonDirectory = "META-INF/resources/webjars/paper-button/2.0.0";
+        String githubDirectory = buttonDirectory + "/.github";
+        Map<String, String[]> inclusions = new LinkedHashMap<>();
+        inclusions.put(buttonDirectory, new String[] { "**/*.json" });
+        inclusions.put(githubDirectory, new String[] { "**/*" });
+
+        File separateDirectory = testDirectory.newFolder("separate");
+        inclusions.forEach((directory, wildcards) -> jarContentsManager
+                .copyIncludedFilesFromJarTrimmingBasePath(testJar, directory,
+                        separateDirectory, wildcards));
+        File combinedDirectory = testDirectory.newFolder("combined");
+        Set<String> copiedFiles = jarContentsManager
+                .copyIncludedFilesFromJar(testJar, combinedDirectory,
+                        inclusions);
+
+        List<String> expectedFiles = TestUtils
+                .listFilesRecursively(separateDirectory);
+        assertFalse(expectedFiles.isEmpty());
+        assertEquals(new HashSet<>(expectedFiles), new HashSet<>(
+                TestUtils.listFilesRecursively(combinedDirectory)));
+        assertEquals(new HashSet<>(expectedFiles),
+                copiedFiles.stream()
+                        .map(path -> path.replace('/', File.separatorChar))
+                        .collect(Collectors.toSet()));
+    }
+
+    @Test
+    public void copyIncludedFilesFromJar_temporaryDirectory_filesMovedToOutputDirectory()
+            throws IOException {
+        File testJar = TestUtils.getTestJar("paper-button-2.0.0.jar");
+        Map<String, String[]> inclusions = Collections.singletonMap(
+                "META-INF/resources/webjars/paper-button/2.0.0",
+                new String[] { "**/*.json" });
+        File outputDirectory = testDirectory.newFolder("output");
+        File temporaryDirectory = testDirectory.newFolder("temporary");
+
+        Set<String> copiedFiles = jarContentsManager.copyIncludedFilesFromJar(
+                testJar, outputDirectory, inclusions, temporaryDirectory);
+
+        assertFalse(copiedFiles.isEmpty());
+        assertEquals(copiedFiles.size(),
+                TestUtils.listFilesRecursively(outputDirectory).size());
+        assertTrue(TestUtils.listFilesRecursively(temporaryDirectory)
+                .isEmpty());
+    }
+
     private File copyFilesFromJar(File outputDirectory, String jarDirectory,
             File testJar) {
         List<String> originalFiles = listFilesInJar(testJar, jarDirectory);
@@ -19,10 +19,17 @@ import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import org.junit.AfterClass;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Rule;
@@ -188,6 +195,94 @@ public class NodeTasksTest {
                         "const useClientSideIndexFileForBootstrapping = true;"));
     }
 
+    @Test
+    public void execute_independentCommands_commandsRunConcurrently()
+            throws ExecutionFailedException {
+        Assume.assumeTrue(Runtime.getRuntime().availableProcessors() > 1);
+        NodeTasks tasks = createEmptyTasks();
+        CountDownLatch latch = new CountDownLatch(2);
+        FallibleCommand command = () -> {
+            latch.countDown();
+            try {
+                if (!latch.await(5, TimeUnit.SECONDS)) {
+                    throw new ExecutionFailedException(
+                            "The other command didn't run concurrently");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ExecutionFailedException(e);
+            }
+        };
+        tasks.addCommand(command);
+        tasks.addCommand(command::execute);
+
+        tasks.execute();
+    }
+
+    @Test
+    public void execute_dependentCommand_commandRunsAfterDependencies()
+            throws ExecutionFailedException {
+        NodeTasks tasks = createEmptyTasks();
+        List<String> executed = Collections.synchronizedList(new ArrayList<>());
+        FallibleCommand first = () -> {
+            sleep();
+            executed.add("first");
+        };
+        FallibleCommand second = () -> executed.add("second");
+        FallibleCommand third = () -> executed.add("third");
+        tasks.addCommand(first);
+        tasks.addCommand(second);
+        tasks.addCommand(third, first, null, second);
+
+        tasks.execute();
+
+        Assert.assertEquals(3, executed.size());
+        Assert.assertEquals("third", executed.get(2));
+    }
+
+    @Test
+    public void execute_commandFails_dependentCommandIsNotRun() {
+        NodeTasks tasks = createEmptyTasks();
+        ExecutionFailedException failure = new ExecutionFailedException(
+                "failed");
+        AtomicBoolean dependentExecuted = new AtomicBoolean();
+        AtomicBoolean independentExecuted = new AtomicBoolean();
+        FallibleCommand failing = () -> {
+            throw failure;
+        };
+        tasks.addCommand(failing);
+        tasks.addCommand(() -> dependentExecuted.set(true), failing);
+        tasks.addCommand(() -> independentExecuted.set(true));
+
+        try {
+            tasks.execute();
+            Assert.fail("The failure should be thrown");
+        } catch (ExecutionFailedException exception) {
+            Assert.assertSame(failure, exception);
+        }
+        Assert.assertFalse(dependentExecuted.get());
+        Assert.assertTrue(independentExecuted.get());
+    }
+
+    private NodeTasks createEmptyTasks() {
+        Lookup mockedLookup = Mockito.mock(Lookup.class);
+        Mockito.doReturn(new DefaultClassFinder(this.getClass().getClassLoader()))
+                .when(mockedLookup).lookup(ClassFinder.class);
+        return new Builder(mockedLookup, new File(userDir))
+                .enablePackagesUpdate(false).enableImportsUpdate(false)
+                .runNpmInstall(false).withEmbeddableWebComponents(false)
+                .useV14Bootstrap(true).build();
+    }
+
+    private static void sleep() throws ExecutionFailedException {
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExecutionFailedException(e);
+        }
+    }
+
     private static void setPropertyIfPresent(String key, String value) {
         if (value != null) {
             System.setProperty(key, value);
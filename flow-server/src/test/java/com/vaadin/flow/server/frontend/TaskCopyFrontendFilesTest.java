@@ -19,6 +19,9 @@ package com.vaadin.flow.server.frontend;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -34,6 +37,7 @@ import elemental.json.JsonObject;
 import elemental.json.impl.JsonUtil;
 
 import static com.vaadin.flow.server.Constants.PACKAGE_JSON;
+import static com.vaadin.flow.server.frontend.FrontendUtils.COPY_MANIFEST_FILE;
 
 public class TaskCopyFrontendFilesTest extends NodeUpdateTestUtil {
     @Rule
@@ -77,6 +81,80 @@ public class TaskCopyFrontendFilesTest extends NodeUpdateTestUtil {
         Assert.assertFalse(deps.hasKey("@vaadin/flow-deps"));
     }
 
+    @Test
+    public void execute_jarUnchanged_jarIsSkipped() throws IOException {
+        File jar = TestUtils.getTestJar("jar-with-modern-frontend.jar");
+        File buildFolder = new File(npmFolder, "build");
+        new TaskCopyFrontendFiles(frontendDepsFolder, jars(jar), buildFolder)
+                .execute();
+        Assert.assertTrue(new File(buildFolder, COPY_MANIFEST_FILE).exists());
+
+        // Same size and modification time, so the file looks unchanged
+        File copied = new File(frontendDepsFolder, "ExampleConnector.js");
+        byte[] contents = Files.readAllBytes(copied.toPath());
+        long lastModified = copied.lastModified();
+        Arrays.fill(contents, (byte) ' ');
+        Files.write(copied.toPath(), contents);
+        Assert.assertTrue(copied.setLastModified(lastModified));
+
+        new TaskCopyFrontendFiles(frontendDepsFolder, jars(jar), buildFolder)
+                .execute();
+
+        Assert.assertArrayEquals(contents, Files.readAllBytes(copied.toPath()));
+    }
+
+    @Test
+    public void execute_copiedFileChanged_jarIsCopiedAgain()
+            throws IOException {
+        File jar = TestUtils.getTestJar("jar-with-modern-frontend.jar");
+        File buildFolder = new File(npmFolder, "build");
+        new TaskCopyFrontendFiles(frontendDepsFolder, jars(jar), buildFolder)
+                .execute();
+
+        File copied = new File(frontendDepsFolder, "ExampleConnector.js");
+        byte[] original = Files.readAllBytes(copied.toPath());
+        Files.write(copied.toPath(),
+                "changed".getBytes(StandardCharsets.UTF_8));
+        Assert.assertTrue(new File(frontendDepsFolder, "inline.css").delete());
+
+        new TaskCopyFrontendFiles(frontendDepsFolder, jars(jar), buildFolder)
+                .execute();
+
+        Assert.assertArrayEquals(original, Files.readAllBytes(copied.toPath()));
+        Assert.assertTrue(new File(frontendDepsFolder, "inline.css").exists());
+    }
+
+    @Test
+    public void execute_corruptedManifest_filesAreCopied() throws IOException {
+        File jar = TestUtils.getTestJar("jar-with-modern-frontend.jar");
+        File buildFolder = new File(npmFolder, "build");
+        File manifest = new File(buildFolder, COPY_MANIFEST_FILE);
+        Files.createDirectories(buildFolder.toPath());
+        Files.write(manifest.toPath(),
+                "not a manifest".getBytes(StandardCharsets.UTF_8));
+
+        new TaskCopyFrontendFiles(frontendDepsFolder, jars(jar), buildFolder)
+                .execute();
+
+        Assert.assertEquals(2,
+                TestUtils.listFilesRecursively(frontendDepsFolder).size());
+    }
+
+    @Test
+    public void execute_buildFolderGiven_noTemporaryFilesLeft()
+            throws IOException {
+        File jar = TestUtils.getTestJar("jar-with-modern-frontend.jar");
+        File buildFolder = new File(npmFolder, "build");
+
+        new TaskCopyFrontendFiles(frontendDepsFolder, jars(jar), buildFolder)
+                .execute();
+
+        Assert.assertEquals(2,
+                TestUtils.listFilesRecursively(frontendDepsFolder).size());
+        Assert.assertEquals(Arrays.asList(COPY_MANIFEST_FILE),
+                TestUtils.listFilesRecursively(buildFolder));
+    }
+
     private void should_collectJsAndCssFilesFromJars(String jarFile,
             String fsDir) throws IOException {
 
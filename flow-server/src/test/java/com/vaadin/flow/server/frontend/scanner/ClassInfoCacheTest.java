@@ -0,0 +1,139 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.frontend.scanner;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import com.vaadin.flow.server.frontend.scanner.ClassFinder.DefaultClassFinder;
+import com.vaadin.flow.server.frontend.scanner.ScannerTestComponents.FirstView;
+import com.vaadin.flow.server.frontend.scanner.ScannerTestComponents.SecondView;
+
+public class ClassInfoCacheTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final DefaultClassFinder finder = new DefaultClassFinder(
+            new HashSet<>(Arrays.asList(FirstView.class, SecondView.class)));
+
+    @Test
+    public void scanWithCacheFile_sameDependenciesAsWithoutCache()
+            throws IOException {
+        File cacheFile = new File(temporaryFolder.getRoot(), "cache.ser");
+
+        FrontendDependencies expected = new FrontendDependencies(finder);
+        FrontendDependencies first = new FrontendDependencies(finder, true,
+                cacheFile);
+        Assert.assertTrue(cacheFile.exists());
+        FrontendDependencies second = new FrontendDependencies(finder, true,
+                cacheFile);
+
+        for (FrontendDependencies dependencies : Arrays.asList(first,
+                second)) {
+            Assert.assertEquals(expected.getModules(),
+                    dependencies.getModules());
+            Assert.assertEquals(expected.getScripts(),
+                    dependencies.getScripts());
+            Assert.assertEquals(expected.getCss(), dependencies.getCss());
+            Assert.assertEquals(expected.getClasses(),
+                    dependencies.getClasses());
+            Assert.assertEquals(expected.getThemeDefinition().getTheme(),
+                    dependencies.getThemeDefinition().getTheme());
+            Assert.assertEquals(expected.getThemeDefinition().getVariant(),
+                    dependencies.getThemeDefinition().getVariant());
+        }
+    }
+
+    @Test
+    public void get_classFileUnchanged_classInfoIsReused() throws IOException {
+        File cacheFile = new File(temporaryFolder.getRoot(), "cache.ser");
+
+        ClassInfoCache cache = new ClassInfoCache(finder, cacheFile);
+        cache.get(FirstView.class.getName());
+        // A class from a jar file uses the checksum stored in the jar
+        cache.get(Assert.class.getName());
+        cache.save();
+
+        cache = new ClassInfoCache(finder, cacheFile);
+        Assert.assertNotNull(cache.get(FirstView.class.getName()));
+        Assert.assertNotNull(cache.get(Assert.class.getName()));
+        Assert.assertEquals(2, cache.getReusedCount());
+    }
+
+    @Test
+    public void get_classFileChanged_classIsReadAgain() throws IOException {
+        File cacheFile = new File(temporaryFolder.getRoot(), "cache.ser");
+        String resource = FirstView.class.getName().replace('.', '/')
+                + ".class";
+
+        ClassInfoCache cache = new ClassInfoCache(finder, cacheFile);
+        cache.get(FirstView.class.getName());
+        cache.save();
+
+        // Simulate a recompiled class by serving other byte code for it
+        ClassFinder changedFinder = Mockito.mock(ClassFinder.class);
+        URL otherClass = finder.getResource(
+                SecondView.class.getName().replace('.', '/') + ".class");
+        Mockito.when(changedFinder.getResource(resource))
+                .thenReturn(otherClass);
+
+        cache = new ClassInfoCache(changedFinder, cacheFile);
+        ClassInfo info = cache.get(FirstView.class.getName());
+        Assert.assertEquals(0, cache.getReusedCount());
+
+        FrontendClassVisitor visitor = new FrontendClassVisitor(
+                FirstView.class.getName(), new EndPointData(FirstView.class),
+                false);
+        info.accept(visitor);
+        Assert.assertFalse(visitor.getChildren()
+                .contains(FirstView.class.getSuperclass().getName()));
+    }
+
+    @Test
+    public void get_classNotFound_noClassInfo() throws IOException {
+        ClassInfoCache cache = new ClassInfoCache(finder, null);
+        Assert.assertNull(cache.get("com.example.Missing"));
+    }
+
+    @Test
+    public void scanWithCacheFile_corruptedCacheFile_cacheFileIsReplaced()
+            throws IOException {
+        File cacheFile = temporaryFolder.newFile("cache.ser");
+        Files.write(cacheFile.toPath(),
+                "not a cache".getBytes(StandardCharsets.UTF_8));
+
+        FrontendDependencies dependencies = new FrontendDependencies(finder,
+                true, cacheFile);
+        Assert.assertEquals(new FrontendDependencies(finder).getModules(),
+                dependencies.getModules());
+
+        ClassInfoCache cache = new ClassInfoCache(finder, cacheFile);
+        cache.get(FirstView.class.getName());
+        Assert.assertEquals(1, cache.getReusedCount());
+    }
+}
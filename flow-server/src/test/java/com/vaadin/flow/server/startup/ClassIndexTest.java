@@ -0,0 +1,185 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.startup;
+
+import javax.servlet.ServletContext;
+import javax.servlet.annotation.HandlesTypes;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.Tag;
+import com.vaadin.flow.di.Lookup;
+import com.vaadin.flow.di.ResourceProvider;
+import com.vaadin.flow.router.Route;
+import com.vaadin.flow.server.VaadinContext;
+import com.vaadin.flow.server.frontend.scanner.ClassFinder.DefaultClassFinder;
+
+import elemental.json.impl.JsonUtil;
+
+import static com.vaadin.flow.server.Constants.VAADIN_SERVLET_RESOURCES;
+import static com.vaadin.flow.server.frontend.FrontendUtils.CLASS_INDEX_FILE;
+
+public class ClassIndexTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    public interface Handled {
+    }
+
+    public static class HandledImpl implements Handled {
+    }
+
+    @Route("indexed")
+    @Tag(Tag.DIV)
+    public static class IndexedRoute extends Component {
+    }
+
+    @HandlesTypes({ Route.class, Handled.class })
+    public static class TestInitializer
+            implements ClassLoaderAwareServletContainerInitializer {
+
+        @Override
+        public void process(Set<Class<?>> classSet, ServletContext context) {
+        }
+    }
+
+    private VaadinContext context;
+    private ResourceProvider resourceProvider;
+    private ApplicationConfiguration configuration;
+
+    @Before
+    public void setUp() {
+        context = Mockito.mock(VaadinContext.class);
+        Lookup lookup = Mockito.mock(Lookup.class);
+        resourceProvider = Mockito.mock(ResourceProvider.class);
+        configuration = Mockito.mock(ApplicationConfiguration.class);
+
+        Mockito.when(context.getAttribute(Lookup.class)).thenReturn(lookup);
+        Mockito.when(lookup.lookup(ResourceProvider.class))
+                .thenReturn(resourceProvider);
+        Mockito.when(context.getAttribute(Mockito.eq(ClassIndex.class),
+                Mockito.any())).thenAnswer(invocation -> invocation
+                        .getArgumentAt(1, Supplier.class).get());
+        Mockito.when(context.getAttribute(
+                Mockito.eq(ApplicationConfiguration.class), Mockito.any()))
+                .thenReturn(configuration);
+    }
+
+    @Test
+    public void create_initializersFound_handledTypesAreIndexed()
+            throws ClassNotFoundException {
+        ClassIndex index = ClassIndex.create(createClassFinder());
+
+        Assert.assertEquals(
+                Collections.singleton(IndexedRoute.class.getName()),
+                index.getClassNames(Route.class.getName()).get());
+        Assert.assertEquals(Collections.singleton(HandledImpl.class.getName()),
+                index.getClassNames(Handled.class.getName()).get());
+        Assert.assertFalse(
+                index.getClassNames(Component.class.getName()).isPresent());
+    }
+
+    @Test
+    public void toJson_fromJson_sameIndex() throws ClassNotFoundException {
+        ClassIndex index = ClassIndex.create(createClassFinder());
+
+        ClassIndex copy = ClassIndex
+                .fromJson(JsonUtil.parse(index.toJson().toJson()));
+
+        Assert.assertEquals(index.getClassNames(Route.class.getName()),
+                copy.getClassNames(Route.class.getName()));
+        Assert.assertEquals(index.getClassNames(Handled.class.getName()),
+                copy.getClassNames(Handled.class.getName()));
+    }
+
+    @Test
+    public void loadClasses_typeIsNotIndexed_noClasses() {
+        ClassIndex index = new ClassIndex(Collections.singletonMap(
+                Route.class.getName(),
+                Collections.singleton(IndexedRoute.class.getName())));
+
+        Assert.assertFalse(index.loadClasses(
+                new Class<?>[] { Route.class, Handled.class },
+                getClass().getClassLoader()).isPresent());
+    }
+
+    @Test
+    public void getHandledClasses_productionMode_indexedClassesAreUsed()
+            throws Exception {
+        writeIndex();
+        Mockito.when(configuration.isProductionMode()).thenReturn(true);
+
+        Optional<Set<Class<?>>> classes = ClassIndex.getHandledClasses(
+                TestInitializer.class, context, getClass().getClassLoader());
+
+        Assert.assertEquals(
+                new HashSet<>(
+                        Arrays.asList(IndexedRoute.class, HandledImpl.class)),
+                classes.get());
+    }
+
+    @Test
+    public void getHandledClasses_developmentMode_indexIsNotUsed()
+            throws Exception {
+        writeIndex();
+        Mockito.when(configuration.isProductionMode()).thenReturn(false);
+
+        Assert.assertFalse(ClassIndex.getHandledClasses(TestInitializer.class,
+                context, getClass().getClassLoader()).isPresent());
+    }
+
+    @Test
+    public void getHandledClasses_noIndex_indexIsNotUsed() {
+        Mockito.when(configuration.isProductionMode()).thenReturn(true);
+
+        Assert.assertFalse(ClassIndex.getHandledClasses(TestInitializer.class,
+                context, getClass().getClassLoader()).isPresent());
+    }
+
+    private DefaultClassFinder createClassFinder() {
+        return new DefaultClassFinder(new HashSet<>(
+                Arrays.asList(TestInitializer.class, IndexedRoute.class,
+                        HandledImpl.class, Handled.class)));
+    }
+
+    private void writeIndex() throws IOException, ClassNotFoundException {
+        File indexFile = temporaryFolder.newFile();
+        Files.write(indexFile.toPath(),
+                ClassIndex.create(createClassFinder()).toJson().toJson()
+                        .getBytes(StandardCharsets.UTF_8));
+        Mockito.when(resourceProvider.getApplicationResource(
+                VAADIN_SERVLET_RESOURCES + CLASS_INDEX_FILE))
+                .thenReturn(indexFile.toURI().toURL());
+    }
+}
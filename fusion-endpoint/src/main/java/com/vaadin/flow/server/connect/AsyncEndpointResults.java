@@ -0,0 +1,222 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.connect;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import com.googlecode.gentyref.GenericTypeReflector;
+import com.googlecode.gentyref.TypeFactory;
+
+/**
+ * Adapts the asynchronous values returned by endpoint methods to
+ * {@link CompletableFuture}s.
+ * <p>
+ * A {@link CompletionStage} completes with its own result. A Reactive Streams
+ * {@code Publisher} is subscribed to, and completes with its only element if it
+ * is a Reactor {@code Mono}, or with the list of all its elements otherwise.
+ * The Reactive Streams and Reactor types are only used through reflection, so
+ * that they don't need to be on the class path. The package of the Reactive
+ * Streams interfaces can be given, so that publishers can be tested without
+ * the Reactive Streams API.
+ */
+final class AsyncEndpointResults {
+
+    /**
+     * The package of the Reactive Streams interfaces.
+     */
+    static final String REACTIVE_STREAMS_PACKAGE = "org.reactivestreams";
+
+    private static final String MONO_CLASS = "reactor.core.publisher.Mono";
+
+    private final String publisherClass;
+    private final String subscriberClass;
+    private final String subscriptionClass;
+
+    // Checked for every returned value, so the hierarchy is only walked once
+    // per class
+    private final ClassValue<Class<?>> publishers = new ClassValue<Class<?>>() {
+        @Override
+        protected Class<?> computeValue(Class<?> type) {
+            return findPublisher(type);
+        }
+    };
+
+    /**
+     * Creates an instance detecting the publishers of the Reactive Streams
+     * API.
+     */
+    AsyncEndpointResults() {
+        this(REACTIVE_STREAMS_PACKAGE);
+    }
+
+    /**
+     * Creates an instance detecting the publishers of the Reactive Streams
+     * interfaces in the given package.
+     *
+     * @param reactiveStreamsPackage
+     *            the package of the {@code Publisher}, {@code Subscriber} and
+     *            {@code Subscription} interfaces, not {@code null}
+     */
+    AsyncEndpointResults(String reactiveStreamsPackage) {
+        publisherClass = reactiveStreamsPackage + ".Publisher";
+        subscriberClass = reactiveStreamsPackage + ".Subscriber";
+        subscriptionClass = reactiveStreamsPackage + ".Subscription";
+    }
+
+    /**
+     * Checks whether the given value returned by an endpoint method completes
+     * asynchronously.
+     *
+     * @param value
+     *            the returned value, may be {@code null}
+     * @return {@code true} if the value is a completion stage or a publisher
+     */
+    boolean isAsync(Object value) {
+        return value instanceof CompletionStage
+                || (value != null && publishers.get(value.getClass()) != null);
+    }
+
+    /**
+     * Gets the type of the values that an endpoint method with the given
+     * return type completes with.
+     *
+     * @param returnType
+     *            the generic return type of an asynchronous endpoint method
+     * @return the type of the eventual result, {@link Object} if it can't be
+     *         resolved
+     */
+    Type getResultType(Type returnType) {
+        Class<?> rawType = GenericTypeReflector.erase(returnType);
+        if (CompletionStage.class.isAssignableFrom(rawType)) {
+            return getTypeArgument(returnType,
+                    CompletionStage.class.getTypeParameters()[0]);
+        }
+        Class<?> publisher = publishers.get(rawType);
+        if (publisher == null) {
+            return returnType;
+        }
+        Type elementType = getTypeArgument(returnType,
+                publisher.getTypeParameters()[0]);
+        return isMono(rawType) ? elementType
+                : TypeFactory.parameterizedClass(List.class, elementType);
+    }
+
+    /**
+     * Adapts an asynchronous value returned by an endpoint method to a
+     * future.
+     *
+     * @param value
+     *            the returned value, for which {@link #isAsync(Object)} is
+     *            {@code true}
+     * @return a future completed with the eventual result of the value
+     */
+    CompletableFuture<Object> toCompletableFuture(Object value) {
+        if (value instanceof CompletionStage) {
+            return ((CompletionStage<?>) value).toCompletableFuture()
+                    .thenApply(result -> result);
+        }
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        try {
+            subscribe(value, future);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            future.completeExceptionally(
+                    e instanceof InvocationTargetException ? e.getCause() : e);
+        }
+        return future;
+    }
+
+    private void subscribe(Object publisher, CompletableFuture<Object> future)
+            throws ReflectiveOperationException {
+        Class<?> publisherType = publishers.get(publisher.getClass());
+        ClassLoader loader = publisherType.getClassLoader();
+        Class<?> subscriberType = Class.forName(subscriberClass, false, loader);
+        Class<?> subscriptionType = Class.forName(subscriptionClass, false,
+                loader);
+        Method request = subscriptionType.getMethod("request", long.class);
+        boolean single = isMono(publisher.getClass());
+
+        List<Object> elements = new ArrayList<>();
+        InvocationHandler handler = (proxy, method, args) -> {
+            switch (method.getName()) {
+            case "onSubscribe":
+                request.invoke(args[0], Long.MAX_VALUE);
+                return null;
+            case "onNext":
+                elements.add(args[0]);
+                return null;
+            case "onError":
+                future.completeExceptionally((Throwable) args[0]);
+                return null;
+            case "onComplete":
+                future.complete(single
+                        ? elements.isEmpty() ? null : elements.get(0)
+                        : elements);
+                return null;
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                return "Subscriber for " + publisher;
+            }
+        };
+        Object subscriber = Proxy.newProxyInstance(loader,
+                new Class<?>[] { subscriberType }, handler);
+        publisherType.getMethod("subscribe", subscriberType)
+                .invoke(publisher, subscriber);
+    }
+
+    private static Type getTypeArgument(Type type,
+            TypeVariable<? extends Class<?>> variable) {
+        Type argument = GenericTypeReflector.getTypeParameter(type, variable);
+        return argument == null ? Object.class : argument;
+    }
+
+    private static boolean isMono(Class<?> type) {
+        for (Class<?> current = type; current != null; current = current
+                .getSuperclass()) {
+            if (MONO_CLASS.equals(current.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Class<?> findPublisher(Class<?> type) {
+        if (type == null) {
+            return null;
+        }
+        if (publisherClass.equals(type.getName())) {
+            return type;
+        }
+        for (Class<?> implemented : type.getInterfaces()) {
+            Class<?> publisher = findPublisher(implemented);
+            if (publisher != null) {
+                return publisher;
+            }
+        }
+        return findPublisher(type.getSuperclass());
+    }
+}
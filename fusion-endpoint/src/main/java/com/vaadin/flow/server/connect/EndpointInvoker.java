@@ -0,0 +1,164 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.connect;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.googlecode.gentyref.GenericTypeReflector;
+
+/**
+ * Invokes an endpoint method with everything that doesn't depend on the
+ * request resolved once: the parameter types with the type variables of the
+ * endpoint class substituted, the readers deserializing the parameters and a
+ * method handle calling the method.
+ */
+final class EndpointInvoker {
+
+    private static final MethodType INVOKER_TYPE = MethodType
+            .methodType(Object.class, Object.class, Object[].class);
+
+    private final Method method;
+    private final Class<?>[] rawParameterTypes;
+    private final Type[] parameterTypes;
+    private final MethodHandle handle;
+    private final ObjectMapper mapper;
+    private volatile ObjectReader[] parameterReaders;
+
+    /**
+     * Creates an invoker for the given method.
+     *
+     * @param method
+     *            the endpoint method, accessible
+     * @param endpointType
+     *            the type of the endpoint, used to resolve the generic
+     *            parameter types of the method
+     * @param mapper
+     *            the mapper to read the parameters with
+     */
+    EndpointInvoker(Method method, Type endpointType, ObjectMapper mapper) {
+        this.method = method;
+        this.mapper = mapper;
+        rawParameterTypes = method.getParameterTypes();
+        parameterTypes = GenericTypeReflector.getExactParameterTypes(method,
+                endpointType);
+        try {
+            MethodHandle methodHandle = MethodHandles.lookup()
+                    .unreflect(method);
+            if (Modifier.isStatic(method.getModifiers())) {
+                // Ignore the endpoint object
+                methodHandle = MethodHandles.dropArguments(methodHandle, 0,
+                        Object.class);
+            }
+            handle = methodHandle
+                    .asSpreader(Object[].class, method.getParameterCount())
+                    .asType(INVOKER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(
+                    String.format("Unable to access endpoint method '%s'",
+                            method),
+                    e);
+        }
+    }
+
+    /**
+     * Gets the invoked method.
+     *
+     * @return the method
+     */
+    Method getMethod() {
+        return method;
+    }
+
+    /**
+     * Gets the parameter types of the method, resolved for the endpoint type.
+     *
+     * @return the parameter types
+     */
+    Type[] getParameterTypes() {
+        return parameterTypes;
+    }
+
+    /**
+     * Gets the reader deserializing the parameter at the given index. The
+     * readers are created on first use, since creating a reader looks up the
+     * deserializer of the type.
+     *
+     * @param index
+     *            the index of the parameter
+     * @return the reader for the parameter type
+     */
+    ObjectReader getParameterReader(int index) {
+        ObjectReader[] readers = parameterReaders;
+        if (readers == null) {
+            // Concurrent calls may create equivalent readers, only one set of
+            // them is kept
+            readers = new ObjectReader[parameterTypes.length];
+            for (int i = 0; i < readers.length; i++) {
+                readers[i] = mapper.readerFor(mapper.getTypeFactory()
+                        .constructType(parameterTypes[i]));
+            }
+            parameterReaders = readers;
+        }
+        return readers[index];
+    }
+
+    /**
+     * Invokes the method.
+     *
+     * @param endpoint
+     *            the endpoint to invoke the method on
+     * @param arguments
+     *            the arguments of the call
+     * @return the value returned by the method, {@code null} for a void method
+     * @throws IllegalArgumentException
+     *             if the arguments don't match the parameters of the method
+     * @throws InvocationTargetException
+     *             if the method throws an exception
+     */
+    Object invoke(Object endpoint, Object[] arguments)
+            throws InvocationTargetException {
+        Class<?>[] types = rawParameterTypes;
+        if (arguments.length != types.length) {
+            throw new IllegalArgumentException(String.format(
+                    "Expected %d arguments, got %d", types.length,
+                    arguments.length));
+        }
+        for (int i = 0; i < types.length; i++) {
+            Object argument = arguments[i];
+            if (argument == null ? types[i].isPrimitive()
+                    : !types[i].isPrimitive()
+                            && !types[i].isInstance(argument)) {
+                throw new IllegalArgumentException(String.format(
+                        "Argument %d is not assignable to type '%s'", i,
+                        types[i]));
+            }
+        }
+        try {
+            return handle.invokeExact(endpoint, arguments);
+        } catch (Throwable e) { // NOSONAR
+            // Wrapped like Method.invoke does, to be handled the same way
+            throw new InvocationTargetException(e);
+        }
+    }
+}
@@ -19,6 +19,8 @@ package com.vaadin.flow.server.connect;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.annotation.Nullable;
 
@@ -27,9 +29,17 @@ import com.vaadin.flow.internal.ReflectTools;
 /**
  * A checker for TypeScript null compatibility in Vaadin endpoint methods
  * parameter and return types.
+ * <p>
+ * The properties to check of each type and whether a method allows null
+ * values are resolved once per checker, so that checking a large result
+ * doesn't repeat the reflection for each value.
  */
 public class ExplicitNullableTypeChecker {
 
+    private final Map<Type, ExplicitNullableTypeCheckerHelper.TypePlan> plans = new ConcurrentHashMap<>();
+    private final Map<AnnotatedElement, Boolean> nullableElements = new ConcurrentHashMap<>();
+    private AsyncEndpointResults asyncEndpointResults = new AsyncEndpointResults();
+
     /**
      * Validates the given value for the given expected method return value
      * type.
@@ -43,8 +53,7 @@ public class ExplicitNullableTypeChecker {
      */
     public String checkValueForAnnotatedElement(Object value,
             AnnotatedElement annotatedElement) {
-        if (annotatedElement.isAnnotationPresent(Nullable.class)
-                || ReflectTools.hasAnnotationWithSimpleName(annotatedElement, "Id")) {
+        if (isNullable(annotatedElement)) {
             return null;
         }
         if (annotatedElement instanceof Method) {
@@ -53,7 +62,46 @@ public class ExplicitNullableTypeChecker {
         return null;
     }
 
+    /**
+     * Validates the given result of an asynchronous method, such as one
+     * returning a {@link java.util.concurrent.CompletableFuture}, for the type
+     * of the values that the method completes with.
+     *
+     * @param value
+     *            the result to validate
+     * @param method
+     *            the asynchronous method that the result is of
+     * @return error message when the value is null while the expected type does
+     *         not explicitly allow null, or null meaning the value is OK.
+     */
+    public String checkAsyncResultForMethod(Object value, Method method) {
+        if (isNullable(method)) {
+            return null;
+        }
+        return checkValueForType(value, asyncEndpointResults
+                .getResultType(method.getGenericReturnType()));
+    }
+
+    /**
+     * Sets the asynchronous results support resolving the result types of
+     * asynchronous methods.
+     *
+     * @param asyncEndpointResults
+     *            the asynchronous results support, not {@code null}
+     */
+    void setAsyncEndpointResults(AsyncEndpointResults asyncEndpointResults) {
+        this.asyncEndpointResults = asyncEndpointResults;
+    }
+
     String checkValueForType(Object value, Type expectedType) {
-        return new ExplicitNullableTypeCheckerHelper().checkValueForType(value, expectedType);
+        return new ExplicitNullableTypeCheckerHelper(plans)
+                .checkValueForType(value, expectedType);
+    }
+
+    private boolean isNullable(AnnotatedElement annotatedElement) {
+        return nullableElements.computeIfAbsent(annotatedElement,
+                element -> element.isAnnotationPresent(Nullable.class)
+                        || ReflectTools.hasAnnotationWithSimpleName(element,
+                                "Id"));
     }
 }
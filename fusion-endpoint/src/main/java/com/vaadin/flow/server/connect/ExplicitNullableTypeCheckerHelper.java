@@ -26,13 +26,16 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
-import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -42,13 +45,38 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * A helper class for ExplicitNullableTypeChecker. 
+ * A helper class for ExplicitNullableTypeChecker.
+ * <p>
+ * What to check for a type is resolved once into a {@link TypePlan}: the error
+ * for a null value, the type of the items of a collection or map, and the
+ * properties of a bean that can't be null. The plans are kept in a map that
+ * can be shared by the helpers of several checks.
  */
 class ExplicitNullableTypeCheckerHelper {
 
     // A map for tracking already visited Beans. 
     private Map<Type, Set<Object>> visitedBeans;
 
+    private final Map<Type, TypePlan> plans;
+
+    /**
+     * Creates a helper with its own type plans.
+     */
+    ExplicitNullableTypeCheckerHelper() {
+        this(new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Creates a helper using the given type plans, which are added to when a
+     * type is checked for the first time.
+     *
+     * @param plans
+     *            the shared type plans, a thread safe map
+     */
+    ExplicitNullableTypeCheckerHelper(Map<Type, TypePlan> plans) {
+        this.plans = plans;
+    }
+
     private static Logger getLogger() {
         return LoggerFactory.getLogger(VaadinConnectController.class);
     }
@@ -86,131 +114,85 @@ class ExplicitNullableTypeCheckerHelper {
      *            the value to validate
      * @param expectedType
      *            the declared type expected for the value
-     * @param beanValueTypeCheckHelper
-     *            a helper to keep track of visited beans to avoid circular checking
      * @return error message when the value is null while the expected type does
      *         not explicitly allow null, or null meaning the value is OK.
      */
     String checkValueForType(Object value, Type expectedType) {
-        Class<?> clazz;
-        if (expectedType instanceof TypeVariable){
-            return null;
-        } else if (expectedType instanceof ParameterizedType) {
-            clazz = (Class<?>) ((ParameterizedType) expectedType).getRawType();
-        } else {
-            clazz = (Class<?>) expectedType;
-        }
-
-        if (value != null) {
-            if (Iterable.class.isAssignableFrom(clazz)) {
-                return checkIterable((Iterable<?>) value, expectedType);
-            } else if (clazz.isArray() && value instanceof Object[]) {
-                return checkIterable(Arrays.asList((Object[]) value),
-                        expectedType);
-            } else if (Map.class.isAssignableFrom(clazz)) {
-                return checkMapValues((Map<?, ?>) value, expectedType);
-            } else if (expectedType instanceof Class<?>
-                    && !clazz.getName().startsWith("java.")) {
-                return checkBeanFields(value, expectedType);
-            } else {
-                return null;
-            }
+        TypePlan plan = plans.computeIfAbsent(expectedType, TypePlan::new);
+        if (value == null) {
+            return plan.nullError;
         }
-
-        if (expectedType.equals(Void.TYPE)) {
-            // Corner case: void methods return null value by design
+        switch (plan.kind) {
+        case ITERABLE:
+            return checkIterable((Iterable<?>) value, plan);
+        case ARRAY:
+            return value instanceof Object[]
+                    ? checkIterable(Arrays.asList((Object[]) value), plan)
+                    : null;
+        case MAP:
+            return checkMapValues((Map<?, ?>) value, plan);
+        case BEAN:
+            return checkBeanFields(value, plan);
+        default:
             return null;
         }
-
-        if (Void.class.isAssignableFrom(clazz)) {
-            // Corner case: explicit Void parameter
-            return null;
-        }
-
-        if (Optional.class.isAssignableFrom(clazz)) {
-            return String.format(
-                    "Got null value for type '%s', consider Optional.empty",
-                    expectedType.getTypeName());
-        }
-
-        return String.format(
-                "Got null value for type '%s', which is neither Optional"
-                        + " nor void",
-                expectedType.getTypeName());
     }
 
-    private String checkIterable(Iterable<?> value, Type expectedType) {
-        Type itemType = Object.class;
-        String iterableDescription = "iterable";
-        if (expectedType instanceof ParameterizedType) {
-            itemType = ((ParameterizedType) expectedType)
-                    .getActualTypeArguments()[0];
-            iterableDescription = "collection";
-        } else if (expectedType instanceof Class<?>) {
-            itemType = ((Class<?>) expectedType).getComponentType();
-            iterableDescription = "array";
-        }
-
+    private String checkIterable(Iterable<?> value, TypePlan plan) {
         for (Object item : value) {
-            String error = checkValueForType(item, itemType);
+            String error = checkValueForType(item, plan.itemType);
             if (error != null) {
                 return String.format("Unexpected null item in %s type '%s'. %s",
-                        iterableDescription, expectedType, error);
+                        plan.iterableDescription, plan.type, error);
             }
         }
 
         return null;
     }
 
-    private String checkMapValues(Map<?, ?> value, Type expectedType) {
-        Type valueType = Object.class;
-
-        if (expectedType instanceof ParameterizedType) {
-            valueType = ((ParameterizedType) expectedType)
-                    .getActualTypeArguments()[1];
-        }
-
+    private String checkMapValues(Map<?, ?> value, TypePlan plan) {
         for (Map.Entry<?, ?> e : value.entrySet()) {
-            String error = checkValueForType(e.getValue(), valueType);
+            String error = checkValueForType(e.getValue(), plan.itemType);
             if (error != null) {
                 return String.format(
                         "Unexpected null value for key '%s' of "
                                 + "map type '%s'. %s",
-                        e.getKey(), expectedType, error);
+                        e.getKey(), plan.type, error);
             }
         }
 
         return null;
     }
 
-    private String checkBeanFields(Object value, Type expectedType) {
-        if (hasVisited(value, expectedType)) {
-            return null;
+    private String checkBeanFields(Object value, TypePlan plan) {
+        if (plan.introspectionError != null) {
+            getLogger().error(
+                    "Cannot check for null property values in Java Bean",
+                    plan.introspectionError);
+            return plan.introspectionError.toString();
+        }
+        // A bean without bean or container properties can't be a part of a
+        // cycle, so it doesn't need to be tracked
+        if (plan.mayHaveCycles) {
+            if (hasVisited(value, plan.type)) {
+                return null;
+            }
+            markAsVisited(value, plan.type);
         }
-        markAsVisited(value, expectedType);
-        Class<?> clazz = (Class<?>) expectedType;
         try {
-            for (PropertyDescriptor propertyDescriptor : Introspector
-                    .getBeanInfo(clazz).getPropertyDescriptors()) {
-                if (!isPropertySubjectForChecking(propertyDescriptor)) {
-                    continue;
-                }
+            for (BeanProperty property : plan.properties) {
+                Object propertyValue = property.readMethod.invoke(value);
 
-                Method readMethod = propertyDescriptor.getReadMethod();
-                Type propertyType = readMethod.getGenericReturnType();
-                Object propertyValue = readMethod.invoke(value);
-
-                String error = checkValueForType(propertyValue, propertyType);
+                String error = checkValueForType(propertyValue,
+                        property.type);
                 if (error != null) {
                     return String.format(
                             "Unexpected null value in Java "
                                     + "Bean type '%s' property '%s'. %s",
-                            expectedType.getTypeName(),
-                            propertyDescriptor.getName(), error);
+                            plan.type.getTypeName(), property.name, error);
                 }
             }
-        } catch (IntrospectionException | InvocationTargetException
-                | IllegalAccessException e) {
+        } catch (InvocationTargetException | IllegalAccessException e) {
             getLogger().error(
                     "Cannot check for null property values in Java Bean", e);
             return e.toString();
@@ -219,7 +201,7 @@ class ExplicitNullableTypeCheckerHelper {
         return null;
     }
 
-    private boolean isPropertySubjectForChecking(
+    private static boolean isPropertySubjectForChecking(
             PropertyDescriptor propertyDescriptor) {
         try {
             String name = propertyDescriptor.getName();
@@ -248,9 +230,142 @@ class ExplicitNullableTypeCheckerHelper {
         }
     }
 
-    private boolean isNullable(Field field){
+    private static boolean isNullable(Field field){
         return field.isAnnotationPresent(Nullable.class)
                     || ReflectTools.hasAnnotationWithSimpleName(field, "Id");
     }
 
+    /**
+     * Checks whether the non-null values of the given type need no further
+     * checking, without resolving the plan of the type.
+     */
+    private static boolean isLeafType(Type type) {
+        if (!(type instanceof Class<?>)) {
+            return false;
+        }
+        Class<?> clazz = (Class<?>) type;
+        return clazz.isPrimitive() || (clazz.getName().startsWith("java.")
+                && !Iterable.class.isAssignableFrom(clazz)
+                && !Map.class.isAssignableFrom(clazz));
+    }
+
+    private enum Kind {
+        LEAF, ITERABLE, ARRAY, MAP, BEAN
+    }
+
+    /**
+     * What to check for the values of a type.
+     */
+    static final class TypePlan {
+        private final Type type;
+        private final String nullError;
+        private final Kind kind;
+        private final Type itemType;
+        private final String iterableDescription;
+        private final List<BeanProperty> properties;
+        private final boolean mayHaveCycles;
+        private final Exception introspectionError;
+
+        private TypePlan(Type type) {
+            this.type = type;
+            Class<?> clazz;
+            if (type instanceof ParameterizedType) {
+                clazz = (Class<?>) ((ParameterizedType) type).getRawType();
+            } else if (type instanceof Class<?>) {
+                clazz = (Class<?>) type;
+            } else {
+                // Type variables are not checked
+                clazz = null;
+            }
+
+            nullError = clazz == null ? null : getNullError(type, clazz);
+
+            Type items = Object.class;
+            String description = "iterable";
+            List<BeanProperty> beanProperties = Collections.emptyList();
+            boolean cycles = false;
+            Exception error = null;
+            if (clazz == null) {
+                kind = Kind.LEAF;
+            } else if (Iterable.class.isAssignableFrom(clazz)
+                    || clazz.isArray()) {
+                kind = clazz.isArray() ? Kind.ARRAY : Kind.ITERABLE;
+                if (type instanceof ParameterizedType) {
+                    items = ((ParameterizedType) type)
+                            .getActualTypeArguments()[0];
+                    description = "collection";
+                } else {
+                    if (clazz.getComponentType() != null) {
+                        items = clazz.getComponentType();
+                    }
+                    description = "array";
+                }
+            } else if (Map.class.isAssignableFrom(clazz)) {
+                kind = Kind.MAP;
+                if (type instanceof ParameterizedType) {
+                    items = ((ParameterizedType) type)
+                            .getActualTypeArguments()[1];
+                }
+            } else if (type instanceof Class<?>
+                    && !clazz.getName().startsWith("java.")) {
+                kind = Kind.BEAN;
+                try {
+                    beanProperties = new ArrayList<>();
+                    for (PropertyDescriptor propertyDescriptor : Introspector
+                            .getBeanInfo(clazz).getPropertyDescriptors()) {
+                        if (isPropertySubjectForChecking(propertyDescriptor)) {
+                            BeanProperty property = new BeanProperty(
+                                    propertyDescriptor);
+                            beanProperties.add(property);
+                            cycles |= !isLeafType(property.type);
+                        }
+                    }
+                } catch (IntrospectionException e) {
+                    error = e;
+                }
+            } else {
+                kind = Kind.LEAF;
+            }
+            itemType = items;
+            iterableDescription = description;
+            properties = beanProperties;
+            mayHaveCycles = cycles;
+            introspectionError = error;
+        }
+
+        private static String getNullError(Type type, Class<?> clazz) {
+            if (type.equals(Void.TYPE)) {
+                // Corner case: void methods return null value by design
+                return null;
+            }
+
+            if (Void.class.isAssignableFrom(clazz)) {
+                // Corner case: explicit Void parameter
+                return null;
+            }
+
+            if (Optional.class.isAssignableFrom(clazz)) {
+                return String.format(
+                        "Got null value for type '%s', consider Optional.empty",
+                        type.getTypeName());
+            }
+
+            return String.format(
+                    "Got null value for type '%s', which is neither Optional"
+                            + " nor void",
+                    type.getTypeName());
+        }
+    }
+
+    private static final class BeanProperty {
+        private final String name;
+        private final Method readMethod;
+        private final Type type;
+
+        private BeanProperty(PropertyDescriptor propertyDescriptor) {
+            name = propertyDescriptor.getName();
+            readMethod = propertyDescriptor.getReadMethod();
+            type = readMethod.getGenericReturnType();
+        }
+    }
 }
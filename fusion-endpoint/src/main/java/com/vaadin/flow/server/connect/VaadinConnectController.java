@@ -15,21 +15,31 @@
  */
 package com.vaadin.flow.server.connect;
 
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 import javax.servlet.ServletContext;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.ConstraintViolation;
 import javax.validation.Validation;
 import javax.validation.Validator;
+import javax.validation.metadata.MethodDescriptor;
+import javax.validation.metadata.ReturnValueDescriptor;
 
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -37,16 +47,32 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.googlecode.gentyref.GenericTypeReflector;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -62,7 +88,6 @@ import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.util.ClassUtils;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.vaadin.flow.internal.CurrentInstance;
@@ -113,6 +138,10 @@ public class VaadinConnectController {
             .buildDefaultValidatorFactory().getValidator();
     private final ExplicitNullableTypeChecker explicitNullableTypeChecker;
     private final ApplicationContext applicationContext;
+    private final Map<Method, Boolean> constrainedReturnValues = new ConcurrentHashMap<>();
+    private double returnValueValidationRate = 1;
+    private int batchParallelism = 1;
+    private AsyncEndpointResults asyncEndpointResults = new AsyncEndpointResults();
 
     /**
      * A constructor used to initialize the controller.
@@ -199,7 +228,34 @@ public class VaadinConnectController {
         AccessibleObject.setAccessible(endpointPublicMethods, true);
 
         vaadinEndpoints.put(endpointName.toLowerCase(Locale.ENGLISH),
-                new VaadinEndpointData(endpointBean, endpointPublicMethods));
+                new VaadinEndpointData(endpointBean, beanType,
+                        vaadinEndpointMapper, endpointPublicMethods));
+    }
+
+    /**
+     * Applies the endpoint properties which affect the processing of the
+     * requests.
+     *
+     * @param vaadinEndpointProperties
+     *            the Vaadin endpoint properties
+     */
+    @Autowired(required = false)
+    public void setVaadinEndpointProperties(
+            VaadinEndpointProperties vaadinEndpointProperties) {
+        returnValueValidationRate = vaadinEndpointProperties
+                .getReturnValueValidationRate();
+        batchParallelism = vaadinEndpointProperties.getBatchParallelism();
+    }
+
+    /**
+     * Sets the asynchronous results support detecting and subscribing to the
+     * asynchronous values returned by endpoint methods.
+     *
+     * @param asyncEndpointResults
+     *            the asynchronous results support, not {@code null}
+     */
+    void setAsyncEndpointResults(AsyncEndpointResults asyncEndpointResults) {
+        this.asyncEndpointResults = asyncEndpointResults;
     }
 
     /**
@@ -211,6 +267,20 @@ public class VaadinConnectController {
      * order. After the method call, serializes the Java method execution result
      * and sends it back.
      * <p>
+     * The request body is read with a streaming parser, each parameter being
+     * bound directly to its Java type, and the result is serialized directly
+     * to the response output stream. A {@link Stream} or {@link Iterator}
+     * returned by the method is written as a JSON array one element at a
+     * time, so the whole result is never held in memory as a string.
+     * <p>
+     * A {@link CompletionStage}, or a Reactive Streams {@code Publisher} such
+     * as a Reactor {@code Mono} or {@code Flux}, returned by the method is
+     * completed asynchronously: the request is put into asynchronous mode and
+     * the container thread is released until the result is available. The
+     * null value check and the validation of the result happen on completion.
+     * All the elements of a publisher other than a {@code Mono} are sent as a
+     * JSON array.
+     * <p>
      * If an issue occurs during the request processing, an error response is
      * returned instead of the serialized Java method return value.
      *
@@ -219,27 +289,219 @@ public class VaadinConnectController {
      *            sensitive
      * @param methodName
      *            the method name to execute on an endpoint, not case sensitive
+     * @param request
+     *            the current request which triggers the endpoint call
+     * @param response
+     *            the response to write the execution result or an error
+     *            message to
+     * @throws IOException
+     *             if the request can't be read or the response can't be
+     *             written
+     */
+    @PostMapping(path = "/{endpoint}/{method}", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public void serveEndpoint(@PathVariable("endpoint") String endpointName,
+            @PathVariable("method") String methodName,
+            HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        getLogger().debug("Endpoint: {}, method: {}", endpointName,
+                methodName);
+        try {
+            EndpointResponse endpointResponse = serveEndpoint(endpointName,
+                    methodName, () -> readRequestParameters(request), request);
+            CompletableFuture<EndpointResponse> asyncResponse = endpointResponse.asyncResponse;
+            if (asyncResponse == null) {
+                writeResponse(endpointName, methodName, endpointResponse,
+                        response);
+            } else if (asyncResponse.isDone()
+                    || !request.isAsyncSupported()) {
+                writeResponse(endpointName, methodName, asyncResponse.join(),
+                        response);
+            } else {
+                writeResponseAsync(endpointName, methodName, asyncResponse,
+                        () -> writeResponse(endpointName, methodName,
+                                asyncResponse.join(), response),
+                        String.format(
+                                "Endpoint '%s' method '%s' did not complete in time",
+                                endpointName, methodName),
+                        request, response);
+            }
+        } finally {
+            CurrentInstance.set(VaadinRequest.class, null);
+        }
+    }
+
+    /**
+     * Captures and processes a batch of Vaadin endpoint calls sent in a single
+     * request.
+     * <p>
+     * The request body is a JSON array of calls, each of them an object with
+     * the {@code endpoint} and {@code method} names and optionally the
+     * {@code params} object of the call. Each call is processed like a
+     * separate endpoint request, including the access checks, and the
+     * response is a JSON array with an object per call, in the same order,
+     * having the HTTP {@code status} of the call and its response
+     * {@code body}, if any.
+     * <p>
+     * By default the calls are executed one after the other. They are
+     * executed concurrently on the executor of the Vaadin service if a batch
+     * parallelism greater than one is configured in the
+     * {@link VaadinEndpointProperties}. The access checks of all the calls are
+     * done in the request thread before any call is executed. The response is only written once all
+     * the calls have completed, asynchronously if the request supports it.
+     *
+     * @param request
+     *            the current request which contains the calls
+     * @param response
+     *            the response to write the results of the calls to
+     * @throws IOException
+     *             if the response can't be written
+     * @see #serveEndpoint(String, String, HttpServletRequest,
+     *      HttpServletResponse)
+     */
+    @PostMapping(path = "/batch", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public void serveBatch(HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        try {
+            List<BatchCall> calls;
+            try {
+                calls = readBatchCalls(request);
+            } catch (IOException e) {
+                String errorMessage = "Unable to read the batch request body. "
+                        + "It must be a JSON array of calls";
+                getLogger().debug(errorMessage, e);
+                writeResponse("", "batch",
+                        EndpointResponse.of(HttpStatus.BAD_REQUEST,
+                                createResponseErrorObject(errorMessage)),
+                        response);
+                return;
+            }
+            List<CompletableFuture<EndpointResponse>> results = invokeBatchCalls(
+                    calls, request);
+            CompletableFuture<Void> completed = CompletableFuture
+                    .allOf(results.toArray(new CompletableFuture<?>[0]));
+            if (completed.isDone() || !request.isAsyncSupported()) {
+                writeBatchResponse(calls, results, response);
+            } else {
+                writeResponseAsync("", "batch", completed,
+                        () -> writeBatchResponse(calls, results, response),
+                        "Batch request did not complete in time", request,
+                        response);
+            }
+        } finally {
+            CurrentInstance.set(VaadinRequest.class, null);
+        }
+    }
+
+    private void writeBatchResponse(List<BatchCall> calls,
+            List<CompletableFuture<EndpointResponse>> results,
+            HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+        JsonGenerator generator = vaadinEndpointMapper.getFactory()
+                .createGenerator(response.getOutputStream(), JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.writeStartArray();
+        for (int i = 0; i < calls.size(); i++) {
+            BatchCall call = calls.get(i);
+            EndpointResponse endpointResponse = results.get(i)
+                    .handle((result, error) -> error == null ? result
+                            : handleMethodExecutionError(call.endpointName,
+                                    call.methodName,
+                                    unwrapCompletionError(error)))
+                    .join();
+            writeBatchResult(generator, call, endpointResponse);
+        }
+        generator.writeEndArray();
+        generator.close();
+    }
+
+    /**
+     * Processes a Vaadin endpoint request whose body has already been parsed,
+     * returning the response as a string instead of writing it to the
+     * response output stream.
+     *
+     * @param endpointName
+     *            the name of an endpoint to address the calls to, not case
+     *            sensitive
+     * @param methodName
+     *            the method name to execute on an endpoint, not case sensitive
      * @param body
      *            optional request body, that should be specified if the method
      *            called has parameters
      * @param request
      *            the current request which triggers the endpoint call
      * @return execution result as a JSON string or an error message string
+     * @see #serveEndpoint(String, String, HttpServletRequest,
+     *      HttpServletResponse)
      */
-    @PostMapping(path = "/{endpoint}/{method}", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-    public ResponseEntity<String> serveEndpoint(
-            @PathVariable("endpoint") String endpointName,
-            @PathVariable("method") String methodName,
-            @RequestBody(required = false) ObjectNode body,
-            HttpServletRequest request) {
+    public ResponseEntity<String> serveEndpoint(String endpointName,
+            String methodName, ObjectNode body, HttpServletRequest request) {
         getLogger().debug("Endpoint: {}, method: {}, request body: {}",
                 endpointName, methodName, body);
+        try {
+            EndpointResponse endpointResponse = serveEndpoint(endpointName,
+                    methodName, () -> getRequestParameters(body), request);
+            if (endpointResponse.asyncResponse != null) {
+                endpointResponse = endpointResponse.asyncResponse.join();
+            }
+            if (!endpointResponse.hasBody) {
+                return ResponseEntity.status(endpointResponse.status).build();
+            }
+            Object value = endpointResponse.body;
+            if (!(value instanceof Stream) && !(value instanceof Iterator)) {
+                return ResponseEntity.status(endpointResponse.status)
+                        .body(vaadinEndpointMapper.writeValueAsString(value));
+            }
+            StringWriter writer = new StringWriter();
+            try (JsonGenerator generator = vaadinEndpointMapper.getFactory()
+                    .createGenerator(writer)) {
+                writeValue(generator, value);
+            } catch (RuntimeException e) {
+                // The elements are evaluated while they are written
+                EndpointResponse errorResponse = handleMethodExecutionError(
+                        endpointName, methodName, e);
+                return ResponseEntity.status(errorResponse.status).body(
+                        vaadinEndpointMapper
+                                .writeValueAsString(errorResponse.body));
+            }
+            return ResponseEntity.status(endpointResponse.status)
+                    .body(writer.toString());
+        } catch (JsonProcessingException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(createSerializationErrorObject(endpointName,
+                            methodName, e));
+        } catch (IOException e) {
+            // Writing to a string doesn't fail for other reasons
+            throw new UncheckedIOException(e);
+        } finally {
+            CurrentInstance.set(VaadinRequest.class, null);
+        }
+    }
 
+    private EndpointResponse serveEndpoint(String endpointName,
+            String methodName, RequestParametersReader parametersReader,
+            HttpServletRequest request) {
+        EndpointResponse rejection = checkAccess(endpointName, methodName,
+                request);
+        if (rejection != null) {
+            return rejection;
+        }
+        return invokeEndpoint(endpointName, methodName, parametersReader,
+                request);
+    }
+
+    /**
+     * Finds the endpoint method and checks that the request may access it.
+     * The security context used by the access checker may be bound to the
+     * request thread, so this must be called on it.
+     */
+    private EndpointResponse checkAccess(String endpointName,
+            String methodName, HttpServletRequest request) {
         VaadinEndpointData vaadinEndpointData = vaadinEndpoints
                 .get(endpointName.toLowerCase(Locale.ENGLISH));
         if (vaadinEndpointData == null) {
             getLogger().debug("Endpoint '{}' not found", endpointName);
-            return ResponseEntity.notFound().build();
+            return EndpointResponse.empty(HttpStatus.NOT_FOUND);
         }
 
         Method methodToInvoke = vaadinEndpointData
@@ -247,59 +509,341 @@ public class VaadinConnectController {
         if (methodToInvoke == null) {
             getLogger().debug("Method '{}' not found in endpoint '{}'",
                     methodName, endpointName);
-            return ResponseEntity.notFound().build();
+            return EndpointResponse.empty(HttpStatus.NOT_FOUND);
+        }
+
+        VaadinConnectAccessChecker accessChecker = getAccessChecker(
+                request.getServletContext());
+        String checkError = accessChecker.check(methodToInvoke, request);
+        if (checkError != null) {
+            return EndpointResponse.of(HttpStatus.UNAUTHORIZED,
+                    createResponseErrorObject(String.format(
+                            "Endpoint '%s' method '%s' request cannot be accessed, reason: '%s'",
+                            endpointName, methodName, checkError)));
+        }
+        return null;
+    }
+
+    /**
+     * Invokes an endpoint method which has passed
+     * {@link #checkAccess(String, String, HttpServletRequest)}.
+     */
+    private EndpointResponse invokeEndpoint(String endpointName,
+            String methodName, RequestParametersReader parametersReader,
+            HttpServletRequest request) {
+        VaadinEndpointData vaadinEndpointData = vaadinEndpoints
+                .get(endpointName.toLowerCase(Locale.ENGLISH));
+        Method methodToInvoke = vaadinEndpointData
+                .getMethod(methodName.toLowerCase(Locale.ENGLISH))
+                .orElseThrow(IllegalStateException::new);
+
+        // Put a VaadinRequest in the instances object so as the request is
+        // available in the end-point method. It is kept until the response
+        // is written, since a returned stream may be evaluated lazily.
+        VaadinServletService service = (VaadinServletService) VaadinService
+                .getCurrent();
+        CurrentInstance.set(VaadinRequest.class,
+                new VaadinServletRequest(request, service));
+        return invokeVaadinEndpointMethod(endpointName, methodName,
+                methodToInvoke, parametersReader, vaadinEndpointData);
+    }
+
+    private List<BatchCall> readBatchCalls(HttpServletRequest request)
+            throws IOException {
+        JsonNode body = vaadinEndpointMapper
+                .readTree(request.getInputStream());
+        if (body == null || !body.isArray()) {
+            throw new JsonParseException(null,
+                    "The batch request body must be a JSON array");
+        }
+        List<BatchCall> calls = new ArrayList<>(body.size());
+        for (JsonNode call : body) {
+            calls.add(new BatchCall(call));
+        }
+        return calls;
+    }
+
+    private List<CompletableFuture<EndpointResponse>> invokeBatchCalls(
+            List<BatchCall> calls, HttpServletRequest request) {
+        List<CompletableFuture<EndpointResponse>> results = new ArrayList<>(
+                calls.size());
+        calls.forEach(call -> results.add(new CompletableFuture<>()));
+        // The security context of the user may be bound to the request
+        // thread, and the request is not thread safe, so all the calls are
+        // checked before any of them is executed
+        calls.forEach(call -> call.checkAccess(request));
+        VaadinService service = VaadinService.getCurrent();
+        int parallelism = Math.min(batchParallelism, calls.size());
+        if (parallelism <= 1 || service == null) {
+            for (int i = 0; i < calls.size(); i++) {
+                invokeBatchCall(calls.get(i), request, results.get(i));
+            }
+            return results;
         }
 
+        // Each worker takes the next call until all of them have been
+        // started, so that at most the configured number of calls run at
+        // the same time
+        Map<Class<?>, CurrentInstance> instances = CurrentInstance
+                .getInstances();
+        AtomicInteger nextCall = new AtomicInteger();
+        Runnable worker = () -> {
+            Map<Class<?>, CurrentInstance> old = CurrentInstance
+                    .getInstances();
+            CurrentInstance.restoreInstances(instances);
+            try {
+                int index;
+                while ((index = nextCall.getAndIncrement()) < calls
+                        .size()) {
+                    invokeBatchCall(calls.get(index), request,
+                            results.get(index));
+                }
+            } finally {
+                CurrentInstance.restoreInstances(old);
+            }
+        };
+        for (int i = 0; i < parallelism; i++) {
+            try {
+                service.getExecutor().execute(worker);
+            } catch (RejectedExecutionException e) {
+                if (i > 0) {
+                    // The started workers take the remaining calls
+                    break;
+                }
+                getLogger().error("Unable to execute the batch calls", e);
+                results.forEach(result -> result.completeExceptionally(e));
+            }
+        }
+        return results;
+    }
+
+    private void invokeBatchCall(BatchCall call, HttpServletRequest request,
+            CompletableFuture<EndpointResponse> result) {
+        if (call.error != null) {
+            result.complete(call.error);
+            return;
+        }
+        EndpointResponse endpointResponse;
         try {
+            endpointResponse = invokeEndpoint(call.endpointName,
+                    call.methodName, () -> getRequestParameters(call.params),
+                    request);
+        } catch (RuntimeException e) {
+            // A failing call doesn't prevent the others from being answered
+            endpointResponse = handleMethodExecutionError(call.endpointName,
+                    call.methodName, e);
+        }
+        if (endpointResponse.asyncResponse == null) {
+            result.complete(endpointResponse);
+        } else {
+            endpointResponse.asyncResponse.whenComplete(
+                    (asyncResult, error) -> result.complete(error == null
+                            ? asyncResult
+                            : handleMethodExecutionError(call.endpointName,
+                                    call.methodName,
+                                    unwrapCompletionError(error))));
+        }
+    }
 
-            // Put a VaadinRequest in the instances object so as the request is
-            // available in the end-point method
-            VaadinServletService service = (VaadinServletService) VaadinService
-                    .getCurrent();
-            CurrentInstance.set(VaadinRequest.class,
-                    new VaadinServletRequest(request, service));
-            return invokeVaadinEndpointMethod(endpointName, methodName,
-                    methodToInvoke, body, vaadinEndpointData, request);
-        } catch (JsonProcessingException e) {
-            String errorMessage = String.format(
-                    "Failed to serialize endpoint '%s' method '%s' response. "
-                            + "Double check method's return type or specify a custom mapper bean with qualifier '%s'",
-                    endpointName, methodName,
-                    VAADIN_ENDPOINT_MAPPER_BEAN_QUALIFIER);
-            getLogger().error(errorMessage, e);
+    private void writeBatchResult(JsonGenerator generator, BatchCall call,
+            EndpointResponse endpointResponse) throws IOException {
+        HttpStatus status = endpointResponse.status;
+        TokenBuffer body = null;
+        if (endpointResponse.hasBody) {
+            // Buffered, so that a serialization failure only affects the
+            // result of its own call
+            body = new TokenBuffer(vaadinEndpointMapper, false);
             try {
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .body(createResponseErrorObject(errorMessage));
-            } catch (JsonProcessingException unexpected) {
-                throw new IllegalStateException(String.format(
-                        "Unexpected: Failed to serialize a plain Java string '%s' into a JSON. "
-                                + "Double check the provided mapper's configuration.",
-                        errorMessage), unexpected);
+                writeValue(body, endpointResponse.body);
+            } catch (JsonProcessingException e) {
+                status = HttpStatus.INTERNAL_SERVER_ERROR;
+                body = new TokenBuffer(vaadinEndpointMapper, false);
+                body.writeRawValue(createSerializationErrorObject(
+                        call.endpointName, call.methodName, e));
+            } catch (RuntimeException e) {
+                // The elements are evaluated while they are written
+                EndpointResponse errorResponse = handleMethodExecutionError(
+                        call.endpointName, call.methodName, e);
+                status = errorResponse.status;
+                body = new TokenBuffer(vaadinEndpointMapper, false);
+                vaadinEndpointMapper.writeValue(body, errorResponse.body);
             }
-        } finally {
-            CurrentInstance.set(VaadinRequest.class, null);
         }
+        generator.writeStartObject();
+        generator.writeNumberField("status", status.value());
+        if (body != null) {
+            generator.writeFieldName("body");
+            body.serialize(generator);
+        }
+        generator.writeEndObject();
     }
 
-    private ResponseEntity<String> invokeVaadinEndpointMethod(
-            String endpointName, String methodName, Method methodToInvoke,
-            ObjectNode body, VaadinEndpointData vaadinEndpointData,
-            HttpServletRequest request) throws JsonProcessingException {
-        VaadinConnectAccessChecker accessChecker = getAccessChecker(request.getServletContext());
-        String checkError = accessChecker.check(methodToInvoke, request);
-        if (checkError != null) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(createResponseErrorObject(String.format(
-                            "Endpoint '%s' method '%s' request cannot be accessed, reason: '%s'",
-                            endpointName, methodName, checkError)));
+    private void writeResponseAsync(String endpointName, String methodName,
+            CompletableFuture<?> completion, ResponseWriter responseWriter,
+            String timeoutMessage, HttpServletRequest request,
+            HttpServletResponse response) {
+        AsyncContext asyncContext = request.startAsync(request, response);
+        VaadinRequest vaadinRequest = VaadinRequest.getCurrent();
+        // Either the result or the timeout of the container is handled
+        AtomicBoolean handled = new AtomicBoolean();
+        asyncContext.addListener(new AsyncListener() {
+            @Override
+            public void onTimeout(AsyncEvent event) throws IOException {
+                if (handled.compareAndSet(false, true)) {
+                    getLogger().error(timeoutMessage);
+                    writeResponse(endpointName, methodName,
+                            EndpointResponse.of(
+                                    HttpStatus.SERVICE_UNAVAILABLE,
+                                    createResponseErrorObject(timeoutMessage)),
+                            response);
+                    asyncContext.complete();
+                }
+            }
+
+            @Override
+            public void onComplete(AsyncEvent event) {
+                // NOOP
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                // NOOP
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+                // NOOP
+            }
+        });
+        completion.whenComplete((result, error) -> {
+            if (!handled.compareAndSet(false, true)) {
+                return;
+            }
+            // A returned stream may use the request when it is evaluated
+            CurrentInstance.set(VaadinRequest.class, vaadinRequest);
+            try {
+                responseWriter.write();
+            } catch (IOException | RuntimeException e) {
+                getLogger().error(
+                        "Failed to write endpoint '{}' method '{}' response",
+                        endpointName, methodName, e);
+            } finally {
+                CurrentInstance.set(VaadinRequest.class, null);
+                asyncContext.complete();
+            }
+        });
+    }
+
+    private void writeResponse(String endpointName, String methodName,
+            EndpointResponse endpointResponse, HttpServletResponse response)
+            throws IOException {
+        response.setStatus(endpointResponse.status.value());
+        if (!endpointResponse.hasBody) {
+            return;
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+        JsonGenerator generator = vaadinEndpointMapper.getFactory()
+                .createGenerator(response.getOutputStream(),
+                        JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        try {
+            writeValue(generator, endpointResponse.body);
+        } catch (JsonProcessingException e) {
+            if (response.isCommitted()) {
+                getLogger().error(
+                        "Failed to serialize endpoint '{}' method '{}' response after a part of it was sent",
+                        endpointName, methodName, e);
+                throw e;
+            }
+            // The generator is not closed, so that the incomplete response
+            // buffered in it is discarded
+            response.resetBuffer();
+            response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            response.getOutputStream()
+                    .write(createSerializationErrorObject(endpointName,
+                            methodName, e).getBytes(StandardCharsets.UTF_8));
+            return;
+        } catch (RuntimeException e) {
+            // The elements of a returned stream or iterator are evaluated
+            // while they are written
+            EndpointResponse errorResponse = handleMethodExecutionError(
+                    endpointName, methodName, e);
+            if (response.isCommitted()) {
+                throw e;
+            }
+            response.resetBuffer();
+            response.setStatus(errorResponse.status.value());
+            response.getOutputStream().write(vaadinEndpointMapper
+                    .writeValueAsBytes(errorResponse.body));
+            return;
+        }
+        generator.close();
+    }
+
+    private void writeValue(JsonGenerator generator, Object value)
+            throws IOException {
+        ObjectWriter writer = vaadinEndpointMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        if (value instanceof Stream) {
+            try (Stream<?> stream = (Stream<?>) value) {
+                writeElements(generator, writer, stream.iterator());
+            }
+        } else if (value instanceof Iterator) {
+            writeElements(generator, writer, (Iterator<?>) value);
+        } else {
+            writer.writeValue(generator, value);
+        }
+    }
+
+    private void writeElements(JsonGenerator generator, ObjectWriter writer,
+            Iterator<?> elements) throws IOException {
+        generator.writeStartArray();
+        while (elements.hasNext()) {
+            writer.writeValue(generator, elements.next());
+        }
+        generator.writeEndArray();
+    }
+
+    private String createSerializationErrorObject(String endpointName,
+            String methodName, JsonProcessingException e) {
+        String errorMessage = String.format(
+                "Failed to serialize endpoint '%s' method '%s' response. "
+                        + "Double check method's return type or specify a custom mapper bean with qualifier '%s'",
+                endpointName, methodName,
+                VAADIN_ENDPOINT_MAPPER_BEAN_QUALIFIER);
+        getLogger().error(errorMessage, e);
+        try {
+            return vaadinEndpointMapper.writeValueAsString(
+                    createResponseErrorObject(errorMessage));
+        } catch (JsonProcessingException unexpected) {
+            throw new IllegalStateException(String.format(
+                    "Unexpected: Failed to serialize a plain Java string '%s' into a JSON. "
+                            + "Double check the provided mapper's configuration.",
+                    errorMessage), unexpected);
         }
+    }
 
-        Map<String, JsonNode> requestParameters = getRequestParameters(body);
-        Type[] javaParameters = getJavaParameters(methodToInvoke, ClassUtils
-                .getUserClass(vaadinEndpointData.vaadinEndpointObject));
+    private EndpointResponse invokeVaadinEndpointMethod(String endpointName,
+            String methodName, Method methodToInvoke,
+            RequestParametersReader parametersReader,
+            VaadinEndpointData vaadinEndpointData) {
+        Map<String, JsonParser> requestParameters;
+        try {
+            requestParameters = parametersReader.read();
+        } catch (IOException e) {
+            String errorMessage = String.format(
+                    "Unable to read the request body of endpoint '%s' method '%s'",
+                    endpointName, methodName);
+            getLogger().debug(errorMessage, e);
+            return EndpointResponse.of(HttpStatus.BAD_REQUEST,
+                    createResponseErrorObject(errorMessage));
+        }
+        EndpointInvoker invoker = vaadinEndpointData
+                .getInvoker(methodToInvoke);
+        Type[] javaParameters = invoker.getParameterTypes();
         if (javaParameters.length != requestParameters.size()) {
-            return ResponseEntity.badRequest()
-                    .body(createResponseErrorObject(String.format(
+            return EndpointResponse.of(HttpStatus.BAD_REQUEST,
+                    createResponseErrorObject(String.format(
                             "Incorrect number of parameters for endpoint '%s' method '%s', "
                                     + "expected: %s, got: %s",
                             endpointName, methodName, javaParameters.length,
@@ -309,14 +853,13 @@ public class VaadinConnectController {
         Object[] vaadinEndpointParameters;
         try {
             vaadinEndpointParameters = getVaadinEndpointParameters(
-                    requestParameters, javaParameters, methodName,
-                    endpointName);
+                    requestParameters, invoker, methodName, endpointName);
         } catch (EndpointValidationException e) {
             getLogger().debug(
                     "Endpoint '{}' method '{}' received invalid response",
                     endpointName, methodName, e);
-            return ResponseEntity.badRequest().body(vaadinEndpointMapper
-                    .writeValueAsString(e.getSerializationData()));
+            return EndpointResponse.of(HttpStatus.BAD_REQUEST,
+                    e.getSerializationData());
         }
 
         Set<ConstraintViolation<Object>> methodParameterConstraintViolations = validator
@@ -324,19 +867,18 @@ public class VaadinConnectController {
                 .validateParameters(vaadinEndpointData.getEndpointObject(),
                         methodToInvoke, vaadinEndpointParameters);
         if (!methodParameterConstraintViolations.isEmpty()) {
-            return ResponseEntity.badRequest().body(vaadinEndpointMapper
-                    .writeValueAsString(new EndpointValidationException(
-                            String.format(
-                                    "Validation error in endpoint '%s' method '%s'",
-                                    endpointName, methodName),
+            return EndpointResponse.of(HttpStatus.BAD_REQUEST,
+                    new EndpointValidationException(String.format(
+                            "Validation error in endpoint '%s' method '%s'",
+                            endpointName, methodName),
                             createMethodValidationErrors(
                                     methodParameterConstraintViolations))
-                                            .getSerializationData()));
+                                            .getSerializationData());
         }
 
         Object returnValue;
         try {
-            returnValue = methodToInvoke.invoke(
+            returnValue = invoker.invoke(
                     vaadinEndpointData.getEndpointObject(),
                     vaadinEndpointParameters);
         } catch (IllegalArgumentException e) {
@@ -346,17 +888,22 @@ public class VaadinConnectController {
                     endpointName, methodName,
                     listMethodParameterTypes(javaParameters));
             getLogger().debug(errorMessage, e);
-            return ResponseEntity.badRequest()
-                    .body(createResponseErrorObject(errorMessage));
-        } catch (IllegalAccessException e) {
-            String errorMessage = String.format(
-                    "Endpoint '%s' method '%s' access failure", endpointName,
-                    methodName);
-            getLogger().error(errorMessage, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(createResponseErrorObject(errorMessage));
+            return EndpointResponse.of(HttpStatus.BAD_REQUEST,
+                    createResponseErrorObject(errorMessage));
         } catch (InvocationTargetException e) {
-            return handleMethodExecutionError(endpointName, methodName, e);
+            return handleMethodExecutionError(endpointName, methodName,
+                    e.getCause());
+        }
+
+        if (asyncEndpointResults.isAsync(returnValue)) {
+            // The checks are done once the result is available
+            return EndpointResponse.async(asyncEndpointResults
+                    .toCompletableFuture(returnValue)
+                    .handle((result, error) -> error == null
+                            ? checkAsyncResult(endpointName, methodName,
+                                    methodToInvoke, result)
+                            : handleMethodExecutionError(endpointName,
+                                    methodName, unwrapCompletionError(error))));
         }
 
         String implicitNullError = this.explicitNullableTypeChecker
@@ -368,55 +915,130 @@ public class VaadinConnectController {
                             endpointName, methodName, implicitNullError));
 
             getLogger().error(returnValueException.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(vaadinEndpointMapper.writeValueAsString(
-                            returnValueException.getSerializationData()));
+            return EndpointResponse.of(HttpStatus.INTERNAL_SERVER_ERROR,
+                    returnValueException.getSerializationData());
         }
 
-        Set<ConstraintViolation<Object>> returnValueConstraintViolations = validator
-                .forExecutables()
-                .validateReturnValue(vaadinEndpointData.getEndpointObject(),
-                        methodToInvoke, returnValue);
-        if (!returnValueConstraintViolations.isEmpty()) {
-            getLogger().error(
-                    "Endpoint '{}' method '{}' had returned a value that has validation errors: '{}', this might cause bugs on the client side. Fix the method implementation.",
-                    endpointName, methodName, returnValueConstraintViolations);
+        if (isReturnValueValidated(vaadinEndpointData, methodToInvoke)) {
+            Set<ConstraintViolation<Object>> returnValueConstraintViolations = validator
+                    .forExecutables().validateReturnValue(
+                            vaadinEndpointData.getEndpointObject(),
+                            methodToInvoke, returnValue);
+            if (!returnValueConstraintViolations.isEmpty()) {
+                getLogger().error(
+                        "Endpoint '{}' method '{}' had returned a value that has validation errors: '{}', this might cause bugs on the client side. Fix the method implementation.",
+                        endpointName, methodName,
+                        returnValueConstraintViolations);
+            }
+        }
+        return EndpointResponse.of(HttpStatus.OK, returnValue);
+    }
+
+    private EndpointResponse checkAsyncResult(String endpointName,
+            String methodName, Method methodToInvoke, Object result) {
+        String implicitNullError = this.explicitNullableTypeChecker
+                .checkAsyncResultForMethod(result, methodToInvoke);
+        if (implicitNullError != null) {
+            EndpointException returnValueException = new EndpointException(
+                    String.format(
+                            "Unexpected result in endpoint '%s' method '%s'. %s",
+                            endpointName, methodName, implicitNullError));
+
+            getLogger().error(returnValueException.getMessage());
+            return EndpointResponse.of(HttpStatus.INTERNAL_SERVER_ERROR,
+                    returnValueException.getSerializationData());
+        }
+
+        // The constraints of the method apply to the returned future, so the
+        // result is validated as a bean like the parameters are
+        if (result != null && isSampledForValidation()) {
+            Set<ConstraintViolation<Object>> resultConstraintViolations = validator
+                    .validate(result);
+            if (!resultConstraintViolations.isEmpty()) {
+                getLogger().error(
+                        "Endpoint '{}' method '{}' had completed with a value that has validation errors: '{}', this might cause bugs on the client side. Fix the method implementation.",
+                        endpointName, methodName, resultConstraintViolations);
+            }
         }
-        return ResponseEntity
-                .ok(vaadinEndpointMapper.writeValueAsString(returnValue));
+        return EndpointResponse.of(HttpStatus.OK, result);
     }
 
-    private Type[] getJavaParameters(Method methodToInvoke, Type classType) {
-        return Stream.of(GenericTypeReflector
-                .getExactParameterTypes(methodToInvoke, classType))
-                .toArray(Type[]::new);
+    /**
+     * Checks whether the return value of a call should be validated. The
+     * violations are only logged, so the validation is skipped for methods
+     * without return value constraints, and sampled according to the endpoint
+     * properties.
+     */
+    private boolean isReturnValueValidated(
+            VaadinEndpointData vaadinEndpointData, Method methodToInvoke) {
+        return isSampledForValidation() && constrainedReturnValues
+                .computeIfAbsent(methodToInvoke,
+                        method -> hasReturnValueConstraints(
+                                vaadinEndpointData, method));
     }
 
-    private ResponseEntity<String> handleMethodExecutionError(
-            String endpointName, String methodName, InvocationTargetException e)
-            throws JsonProcessingException {
-        if (EndpointException.class.isAssignableFrom(e.getCause().getClass())) {
-            EndpointException endpointException = ((EndpointException) e
-                    .getCause());
+    private boolean isSampledForValidation() {
+        double rate = returnValueValidationRate;
+        return rate >= 1
+                || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private boolean hasReturnValueConstraints(
+            VaadinEndpointData vaadinEndpointData, Method method) {
+        try {
+            MethodDescriptor methodDescriptor = validator
+                    .getConstraintsForClass(ClassUtils.getUserClass(
+                            vaadinEndpointData.getEndpointObject()))
+                    .getConstraintsForMethod(method.getName(),
+                            method.getParameterTypes());
+            if (methodDescriptor == null) {
+                return false;
+            }
+            ReturnValueDescriptor returnValue = methodDescriptor
+                    .getReturnValueDescriptor();
+            return returnValue.hasConstraints() || returnValue.isCascaded()
+                    || !returnValue.getConstrainedContainerElementTypes()
+                            .isEmpty();
+        } catch (RuntimeException e) {
+            getLogger().debug(
+                    "Unable to read the constraints of method '{}', its return values are validated",
+                    method, e);
+            return true;
+        }
+    }
+
+    private static Throwable unwrapCompletionError(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException
+                || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private EndpointResponse handleMethodExecutionError(String endpointName,
+            String methodName, Throwable cause) {
+        if (cause instanceof EndpointException) {
+            EndpointException endpointException = (EndpointException) cause;
             getLogger().debug("Endpoint '{}' method '{}' aborted the execution",
                     endpointName, methodName, endpointException);
-            return ResponseEntity.badRequest()
-                    .body(vaadinEndpointMapper.writeValueAsString(
-                            endpointException.getSerializationData()));
+            return EndpointResponse.of(HttpStatus.BAD_REQUEST,
+                    endpointException.getSerializationData());
         } else {
             String errorMessage = String.format(
                     "Endpoint '%s' method '%s' execution failure", endpointName,
                     methodName);
-            getLogger().error(errorMessage, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(createResponseErrorObject(errorMessage));
+            getLogger().error(errorMessage, cause);
+            return EndpointResponse.of(HttpStatus.INTERNAL_SERVER_ERROR,
+                    createResponseErrorObject(errorMessage));
         }
     }
 
-    private String createResponseErrorObject(String errorMessage)
-            throws JsonProcessingException {
-        return vaadinEndpointMapper.writeValueAsString(Collections.singletonMap(
-                EndpointException.ERROR_MESSAGE_FIELD, errorMessage));
+    private Map<String, String> createResponseErrorObject(
+            String errorMessage) {
+        return Collections.singletonMap(EndpointException.ERROR_MESSAGE_FIELD,
+                errorMessage);
     }
 
     private String listMethodParameterTypes(Type[] javaParameters) {
@@ -425,8 +1047,9 @@ public class VaadinConnectController {
     }
 
     private Object[] getVaadinEndpointParameters(
-            Map<String, JsonNode> requestParameters, Type[] javaParameters,
-            String methodName, String endpointName) {
+            Map<String, JsonParser> requestParameters,
+            EndpointInvoker invoker, String methodName, String endpointName) {
+        Type[] javaParameters = invoker.getParameterTypes();
         Object[] endpointParameters = new Object[javaParameters.length];
         String[] parameterNames = new String[requestParameters.size()];
         requestParameters.keySet().toArray(parameterNames);
@@ -436,9 +1059,7 @@ public class VaadinConnectController {
         for (int i = 0; i < javaParameters.length; i++) {
             Type expectedType = javaParameters[i];
             try {
-                Object parameter = vaadinEndpointMapper
-                        .readerFor(vaadinEndpointMapper.getTypeFactory()
-                                .constructType(expectedType))
+                Object parameter = invoker.getParameterReader(i)
                         .readValue(requestParameters.get(parameterNames[i]));
 
                 endpointParameters[i] = parameter;
@@ -516,34 +1137,161 @@ public class VaadinConnectController {
         }).collect(Collectors.toList());
     }
 
-    private Map<String, JsonNode> getRequestParameters(ObjectNode body) {
-        Map<String, JsonNode> parametersData = new LinkedHashMap<>();
+    private Map<String, JsonParser> getRequestParameters(ObjectNode body) {
+        Map<String, JsonParser> parametersData = new LinkedHashMap<>();
         if (body != null) {
-            body.fields().forEachRemaining(entry -> parametersData
-                    .put(entry.getKey(), entry.getValue()));
+            body.fields().forEachRemaining(entry -> parametersData.put(
+                    entry.getKey(),
+                    entry.getValue().traverse(vaadinEndpointMapper)));
+        }
+        return parametersData;
+    }
+
+    /**
+     * Reads the parameters from the request body without building a JSON
+     * tree: the tokens of each parameter are only buffered until they are
+     * bound to the Java type of the parameter.
+     */
+    private Map<String, JsonParser> readRequestParameters(
+            HttpServletRequest request) throws IOException {
+        Map<String, JsonParser> parametersData = new LinkedHashMap<>();
+        try (JsonParser parser = vaadinEndpointMapper.getFactory()
+                .createParser(request.getInputStream())) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                // No request body
+                return parametersData;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser,
+                        "The request body must be a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                parser.nextToken();
+                TokenBuffer buffer = new TokenBuffer(parser);
+                buffer.copyCurrentStructure(parser);
+                parametersData.put(name, buffer.asParser());
+            }
         }
         return parametersData;
     }
 
+    @FunctionalInterface
+    private interface RequestParametersReader {
+        Map<String, JsonParser> read() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ResponseWriter {
+        void write() throws IOException;
+    }
+
+    /**
+     * A call of a batch request, or the error response of a call which is
+     * not well formed.
+     */
+    private final class BatchCall {
+        private final String endpointName;
+        private final String methodName;
+        private final ObjectNode params;
+        private EndpointResponse error;
+
+        private BatchCall(JsonNode call) {
+            JsonNode endpoint = call.path("endpoint");
+            JsonNode method = call.path("method");
+            JsonNode callParams = call.path("params");
+            endpointName = endpoint.asText("");
+            methodName = method.asText("");
+            params = callParams instanceof ObjectNode ? (ObjectNode) callParams
+                    : null;
+            if (!endpoint.isTextual() || !method.isTextual()
+                    || !(callParams.isMissingNode() || callParams.isNull()
+                            || params != null)) {
+                error = EndpointResponse.of(HttpStatus.BAD_REQUEST,
+                        createResponseErrorObject(String.format(
+                                "Batch call '%s' must have 'endpoint' and 'method' names and an optional 'params' object",
+                                call)));
+            } else {
+                error = null;
+            }
+        }
+
+        private void checkAccess(HttpServletRequest request) {
+            if (error != null) {
+                return;
+            }
+            try {
+                error = VaadinConnectController.this.checkAccess(endpointName,
+                        methodName, request);
+            } catch (RuntimeException e) {
+                error = handleMethodExecutionError(endpointName, methodName,
+                        e);
+            }
+        }
+    }
+
+    private static final class EndpointResponse {
+        private final HttpStatus status;
+        private final Object body;
+        private final boolean hasBody;
+        private final CompletableFuture<EndpointResponse> asyncResponse;
+
+        private EndpointResponse(HttpStatus status, Object body,
+                boolean hasBody,
+                CompletableFuture<EndpointResponse> asyncResponse) {
+            this.status = status;
+            this.body = body;
+            this.hasBody = hasBody;
+            this.asyncResponse = asyncResponse;
+        }
+
+        private static EndpointResponse of(HttpStatus status, Object body) {
+            return new EndpointResponse(status, body, true, null);
+        }
+
+        private static EndpointResponse empty(HttpStatus status) {
+            return new EndpointResponse(status, null, false, null);
+        }
+
+        private static EndpointResponse async(
+                CompletableFuture<EndpointResponse> asyncResponse) {
+            return new EndpointResponse(null, null, false, asyncResponse);
+        }
+    }
+
     static class VaadinEndpointData {
         final Map<String, Method> methods = new HashMap<>();
+        private final Map<Method, EndpointInvoker> invokers = new ConcurrentHashMap<>();
         private final Object vaadinEndpointObject;
+        private final Class<?> endpointType;
+        private final ObjectMapper mapper;
 
         private VaadinEndpointData(Object vaadinEndpointObject,
+                Class<?> endpointType, ObjectMapper mapper,
                 Method... endpointMethods) {
             this.vaadinEndpointObject = vaadinEndpointObject;
+            this.endpointType = endpointType;
+            this.mapper = mapper;
             Stream.of(endpointMethods)
                     .filter(method -> method.getDeclaringClass() != Object.class
                             && !method.isBridge())
                     .forEach(method -> methods.put(
                             method.getName().toLowerCase(Locale.ENGLISH),
                             method));
+            // Resolved once so that calls only deserialize and invoke
+            methods.values().forEach(this::getInvoker);
         }
 
         private Optional<Method> getMethod(String methodName) {
             return Optional.ofNullable(methods.get(methodName));
         }
 
+        private EndpointInvoker getInvoker(Method method) {
+            return invokers.computeIfAbsent(method,
+                    key -> new EndpointInvoker(key, endpointType, mapper));
+        }
+
         private Object getEndpointObject() {
             return vaadinEndpointObject;
         }
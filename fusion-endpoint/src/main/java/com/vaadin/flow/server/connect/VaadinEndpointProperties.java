@@ -40,4 +40,65 @@ public class VaadinEndpointProperties {
         return vaadinEndpointPrefix;
     }
 
+    @Value("${vaadin.endpoint.return-value-validation-rate:1}")
+    private double returnValueValidationRate = 1;
+
+    /**
+     * Gets the share of endpoint calls whose return value is validated with
+     * Bean Validation. The constraint violations of a return value are only
+     * logged, so the validation can be sampled or disabled in production to
+     * save the cost of walking large results. The explicit null checks of the
+     * return values are always done.
+     *
+     * @return the share of validated return values, from 0 for none to 1 for
+     *         all
+     */
+    public double getReturnValueValidationRate() {
+        return returnValueValidationRate;
+    }
+
+    /**
+     * Sets the share of endpoint calls whose return value is validated with
+     * Bean Validation.
+     *
+     * @param returnValueValidationRate
+     *            the share of validated return values, from 0 for none to 1
+     *            for all
+     * @see #getReturnValueValidationRate()
+     */
+    public void setReturnValueValidationRate(
+            double returnValueValidationRate) {
+        this.returnValueValidationRate = returnValueValidationRate;
+    }
+
+    @Value("${vaadin.endpoint.batch-parallelism:1}")
+    private int batchParallelism = 1;
+
+    /**
+     * Gets the maximum number of calls of a batch request which are executed
+     * concurrently. With the default of 1 the calls are executed one after
+     * the other in the request thread. Otherwise they are executed on the
+     * executor of the Vaadin service, so endpoint methods of batched calls
+     * can't rely on other thread local state than the current Vaadin
+     * instances. The access checks are done in the request thread in both
+     * cases.
+     *
+     * @return the maximum number of concurrently executed calls of a batch
+     */
+    public int getBatchParallelism() {
+        return batchParallelism;
+    }
+
+    /**
+     * Sets the maximum number of calls of a batch request which are executed
+     * concurrently.
+     *
+     * @param batchParallelism
+     *            the maximum number of concurrently executed calls of a batch
+     * @see #getBatchParallelism()
+     */
+    public void setBatchParallelism(int batchParallelism) {
+        this.batchParallelism = batchParallelism;
+    }
+
 }
@@ -24,6 +24,8 @@ import javax.servlet.http.HttpSession;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,6 +44,9 @@ import com.vaadin.flow.server.VaadinService;
  * <p>
  * Method-level annotation override Class-level ones.
  * <p>
+ * The annotations of a method are only looked up on the first check of the
+ * method, later checks only verify the request and the roles of the user.
+ * <p>
  * In the next example, since the class is denied to all, method1 is not
  * accessible to anyone, method2 can be executed by any authorized used, method3
  * is only allowed to the accounts having the ROLE_USER authority and method4 is
@@ -74,6 +79,7 @@ import com.vaadin.flow.server.VaadinService;
 public class VaadinConnectAccessChecker {
 
     private boolean xsrfProtectionEnabled = true;
+    private final Map<Method, AccessRule> accessRules = new ConcurrentHashMap<>();
 
     /**
      * Check that the endpoint is accessible for the current user.
@@ -86,10 +92,12 @@ public class VaadinConnectAccessChecker {
      *            the request that triggers the <code>method</code> invocation
      */
     public String check(Method method, HttpServletRequest request) {
+        AccessRule rule = accessRules.computeIfAbsent(method,
+                key -> new AccessRule(getSecurityTarget(key)));
         if (request.getUserPrincipal() != null) {
-            return verifyAuthenticatedUser(method, request);
+            return verifyAuthenticatedUser(rule, request);
         } else {
-            return verifyAnonymousUser(method, request);
+            return verifyAnonymousUser(rule, request);
         }
     }
 
@@ -113,28 +121,25 @@ public class VaadinConnectAccessChecker {
                 : method.getDeclaringClass();
     }
 
-    private String verifyAnonymousUser(Method method,
+    private String verifyAnonymousUser(AccessRule rule,
             HttpServletRequest request) {
-        if (!getSecurityTarget(method)
-                .isAnnotationPresent(AnonymousAllowed.class)
-                || cannotAccessMethod(method, request)) {
+        if (!rule.anonymousAllowed || cannotAccessMethod(rule, request)) {
             return "Anonymous access is not allowed";
         }
         return null;
     }
 
-    private String verifyAuthenticatedUser(Method method,
+    private String verifyAuthenticatedUser(AccessRule rule,
             HttpServletRequest request) {
-        if (cannotAccessMethod(method, request)) {
+        if (cannotAccessMethod(rule, request)) {
             return "Unauthorized access to Vaadin endpoint";
         }
         return null;
     }
 
-    private boolean cannotAccessMethod(Method method,
+    private boolean cannotAccessMethod(AccessRule rule,
             HttpServletRequest request) {
-        return requestForbidden(request)
-                || entityForbidden(getSecurityTarget(method), request);
+        return requestForbidden(request) || entityForbidden(rule, request);
     }
 
     private boolean requestForbidden(HttpServletRequest request) {
@@ -169,21 +174,19 @@ public class VaadinConnectAccessChecker {
         return false;
     }
 
-    private boolean entityForbidden(AnnotatedElement entity,
+    private boolean entityForbidden(AccessRule rule,
             HttpServletRequest request) {
-        return entity.isAnnotationPresent(DenyAll.class) || (!entity
-                .isAnnotationPresent(AnonymousAllowed.class)
-                && !roleAllowed(entity.getAnnotation(RolesAllowed.class),
-                        request));
+        return rule.denyAll || (!rule.anonymousAllowed
+                && !roleAllowed(rule.rolesAllowed, request));
     }
 
-    private boolean roleAllowed(RolesAllowed rolesAllowed,
+    private boolean roleAllowed(String[] rolesAllowed,
             HttpServletRequest request) {
         if (rolesAllowed == null) {
             return true;
         }
 
-        for (String role : rolesAllowed.value()) {
+        for (String role : rolesAllowed) {
             if (request.isUserInRole(role)) {
                 return true;
             }
@@ -211,4 +214,23 @@ public class VaadinConnectAccessChecker {
     private static Logger getLogger() {
         return LoggerFactory.getLogger(VaadinConnectAccessChecker.class);
     }
+
+    /**
+     * The part of the access decision for a method which only depends on the
+     * annotations of its security target.
+     */
+    private static final class AccessRule {
+        private final boolean denyAll;
+        private final boolean anonymousAllowed;
+        private final String[] rolesAllowed;
+
+        private AccessRule(AnnotatedElement securityTarget) {
+            denyAll = securityTarget.isAnnotationPresent(DenyAll.class);
+            anonymousAllowed = securityTarget
+                    .isAnnotationPresent(AnonymousAllowed.class);
+            RolesAllowed roles = securityTarget
+                    .getAnnotation(RolesAllowed.class);
+            rolesAllowed = roles == null ? null : roles.value();
+        }
+    }
 }
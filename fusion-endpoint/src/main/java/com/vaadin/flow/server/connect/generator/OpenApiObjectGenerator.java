@@ -647,7 +647,8 @@ public class OpenApiObjectGenerator {
         MediaType mediaItem = new MediaType();
         ResolvedType resolvedType = resolvedTypeParametersMap
                 .replaceAll(methodDeclaration.resolve().getReturnType());
-        Schema schema = parseResolvedTypeToSchema(resolvedType);
+        Schema schema = schemaResolver
+                .parseResolvedReturnTypeToSchema(resolvedType);
         schema.setDescription("");
         if (isNullable(methodDeclaration)) {
             schema = schemaResolver.createNullableWrapper(schema);
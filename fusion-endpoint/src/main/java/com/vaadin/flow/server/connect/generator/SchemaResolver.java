@@ -24,10 +24,13 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletionStage;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.github.javaparser.resolution.declarations.ResolvedEnumConstantDeclaration;
 import com.github.javaparser.resolution.declarations.ResolvedTypeParameterDeclaration;
@@ -49,6 +52,8 @@ import io.swagger.v3.oas.models.media.StringSchema;
 class SchemaResolver {
 
     private static final String SCHEMA_REF_PREFIX = "#/components/schemas/";
+    private static final String PUBLISHER_CLASS = "org.reactivestreams.Publisher";
+    private static final String MONO_CLASS = "reactor.core.publisher.Mono";
     private final Map<String, ResolvedReferenceType> foundTypes = new HashMap<>();
 
     Schema parseResolvedTypeToSchema(ResolvedType resolvedType) {
@@ -79,6 +84,63 @@ class SchemaResolver {
         return createUserBeanSchema(resolvedType);
     }
 
+    /**
+     * Creates the schema of the values returned by an endpoint method. The
+     * asynchronous types are unwrapped, so that the client gets the value the
+     * method completes with: a {@code CompletionStage} or a Reactor
+     * {@code Mono} is described by the type of its result, and any other
+     * Reactive Streams {@code Publisher} by an array of its elements. A
+     * {@code Stream} or an {@code Iterator}, which is written as a JSON array,
+     * is described by an array of its elements as well.
+     */
+    Schema parseResolvedReturnTypeToSchema(ResolvedType resolvedType) {
+        Optional<ResolvedReferenceType> completionStage = findAncestor(
+                resolvedType, CompletionStage.class.getName());
+        if (completionStage.isPresent()) {
+            return parseTypeArgumentToSchema(completionStage.get());
+        }
+        Optional<ResolvedReferenceType> elements = findAncestor(resolvedType,
+                Stream.class.getName());
+        if (!elements.isPresent()) {
+            elements = findAncestor(resolvedType, Iterator.class.getName());
+        }
+        if (elements.isPresent()) {
+            return new ArraySchema()
+                    .items(parseTypeArgumentToSchema(elements.get()));
+        }
+        Optional<ResolvedReferenceType> publisher = findAncestor(resolvedType,
+                PUBLISHER_CLASS);
+        if (!publisher.isPresent()) {
+            return parseResolvedTypeToSchema(resolvedType);
+        }
+        Schema elementSchema = parseTypeArgumentToSchema(publisher.get());
+        if (findAncestor(resolvedType, MONO_CLASS).isPresent()) {
+            return elementSchema;
+        }
+        return new ArraySchema().items(elementSchema);
+    }
+
+    private Schema parseTypeArgumentToSchema(ResolvedReferenceType type) {
+        List<ResolvedType> typeArguments = type.typeParametersValues();
+        return typeArguments.isEmpty() ? new ObjectSchema()
+                : parseResolvedTypeToSchema(typeArguments.get(0));
+    }
+
+    private Optional<ResolvedReferenceType> findAncestor(ResolvedType type,
+            String qualifiedName) {
+        if (!type.isReferenceType()) {
+            return Optional.empty();
+        }
+        ResolvedReferenceType referenceType = type.asReferenceType();
+        if (qualifiedName.equals(referenceType.getQualifiedName())) {
+            return Optional.of(referenceType);
+        }
+        return referenceType.getAllAncestors().stream()
+                .filter(ancestor -> qualifiedName
+                        .equals(ancestor.getQualifiedName()))
+                .findFirst();
+    }
+
     private Schema createArraySchema(ResolvedType type) {
         ArraySchema array = new ArraySchema();
         array.items(parseResolvedTypeToSchema(
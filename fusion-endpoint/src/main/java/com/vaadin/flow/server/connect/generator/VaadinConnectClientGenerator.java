@@ -43,6 +43,8 @@ public class VaadinConnectClientGenerator {
     static final String URL_MAPPING = "vaadin.urlMapping";
     static final String DEFAULT_URL_MAPPING = "/*";
 
+    static final String CLIENT_BATCHING = "vaadin.endpoint.client-batching";
+
     private static final String CLIENT_FILE_NAME = "connect-client.default";
     public static final String CONNECT_CLIENT_NAME = CLIENT_FILE_NAME + TS;
     private static final String CUSTOM_CLIENT_FILE_NAME = "connect-client";
@@ -50,6 +52,7 @@ public class VaadinConnectClientGenerator {
     public static final String CONNECT_CLIENT_IMPORT_PATH = "./" + CLIENT_FILE_NAME;
 
     private final String endpointPrefix;
+    private final boolean clientBatching;
 
     private static final Logger log = LoggerFactory
             .getLogger(VaadinConnectClientGenerator.class);
@@ -70,6 +73,8 @@ public class VaadinConnectClientGenerator {
                 .getOrDefault(URL_MAPPING, DEFAULT_URL_MAPPING);
 
         this.endpointPrefix = relativizeEndpointPrefixWithUrlMapping(prefix, urlMapping);
+        this.clientBatching = Boolean.parseBoolean(applicationProperties
+                .getProperty(CLIENT_BATCHING, Boolean.FALSE.toString()));
     }
 
     final String relativizeEndpointPrefixWithUrlMapping(String endpointPrefix, String urlMapping){
@@ -90,14 +95,17 @@ public class VaadinConnectClientGenerator {
     }
 
     /**
-     * Generates the client file in the file specified.
+     * Generates the client file in the file specified. The generated client
+     * sends the calls made in the same microtask in a single batch request if
+     * the {@value #CLIENT_BATCHING} application property is {@code true}.
      *
      * @param outputFilePath
      *            the file to generate the default client into
      */
     public void generateVaadinConnectClientFile(Path outputFilePath) {
         String generatedDefaultClientTs = getDefaultClientTsTemplate()
-                .replace("{{PREFIX}}", endpointPrefix);
+                .replace("{{PREFIX}}", endpointPrefix)
+                .replace("{{BATCH}}", clientBatching ? ", batch: true" : "");
         try {
             log.info("writing file {}", outputFilePath);
             FileUtils.writeStringToFile(outputFilePath.toFile(),
@@ -27,6 +27,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.vaadin.flow.server.connect.generator.tsmodel.TsFormEndpoint.Id;
@@ -388,6 +391,36 @@ public class ExplicitNullableTypeCheckerTest {
             String.class);
     }
 
+    @Test
+    public void should_CheckResultType_When_MethodIsAsynchronous()
+            throws NoSuchMethodException {
+        String error = explicitNullableTypeChecker.checkAsyncResultForMethod(
+                null, getClass().getMethod("stringFuture"));
+
+        Assert.assertNotNull("Null result should not be allowed", error);
+        Assert.assertTrue(error.contains("java.lang.String"));
+
+        Assert.assertNull(explicitNullableTypeChecker.checkAsyncResultForMethod(
+                "Not null value", getClass().getMethod("stringFuture")));
+    }
+
+    @Test
+    public void should_CheckResultItems_When_MethodCompletesWithList()
+            throws NoSuchMethodException {
+        String error = explicitNullableTypeChecker.checkAsyncResultForMethod(
+                Arrays.asList("a", null), getClass().getMethod("listStage"));
+
+        Assert.assertNotNull("Null list item should not be allowed", error);
+        Assert.assertTrue(error.contains("null item"));
+    }
+
+    @Test
+    public void should_ReturnNull_When_AsynchronousMethodAnnotatedNullable()
+            throws NoSuchMethodException {
+        Assert.assertNull(explicitNullableTypeChecker.checkAsyncResultForMethod(
+                null, getClass().getMethod("stringFutureNullable")));
+    }
+
     @Test
     public void should_ReturnNull_When_GivenNonNull_Generic_BeanProperties() {
         final Person person = new Person();
@@ -414,6 +447,59 @@ public class ExplicitNullableTypeCheckerTest {
         Assert.assertNull(explicitNullableTypeChecker.checkValueForType(company, Company.class));
     }
 
+    @Test
+    public void should_ResolveTypePlansOnce_When_HelpersShareThem()
+            throws NoSuchMethodException {
+        Map<Type, ExplicitNullableTypeCheckerHelper.TypePlan> plans = new ConcurrentHashMap<>();
+        Bean bean = new Bean();
+
+        String error = new ExplicitNullableTypeCheckerHelper(plans)
+                .checkValueForType(bean, Bean.class);
+
+        Assert.assertNotNull(error);
+        Assert.assertTrue(plans.containsKey(Bean.class));
+        ExplicitNullableTypeCheckerHelper.TypePlan plan = plans
+                .get(Bean.class);
+
+        Assert.assertEquals(error, new ExplicitNullableTypeCheckerHelper(plans)
+                .checkValueForType(bean, Bean.class));
+        Assert.assertSame(plan, plans.get(Bean.class));
+
+        Type personListType = getClass().getMethod("personListMethod")
+                .getGenericReturnType();
+        List<Person> persons = personListMethod();
+        Assert.assertNull(new ExplicitNullableTypeCheckerHelper(plans)
+                .checkValueForType(persons, personListType));
+        Assert.assertTrue(plans.containsKey(Person.class));
+        Map<Type, ExplicitNullableTypeCheckerHelper.TypePlan> resolvedPlans = new HashMap<>(
+                plans);
+
+        persons.get(persons.size() - 1).setName(null);
+        Assert.assertNotNull(new ExplicitNullableTypeCheckerHelper(plans)
+                .checkValueForType(persons, personListType));
+        Assert.assertEquals(resolvedPlans.keySet(), plans.keySet());
+        resolvedPlans.forEach((type, resolved) -> Assert.assertSame(
+                "The plan of " + type + " should be resolved once", resolved,
+                plans.get(type)));
+    }
+
+    @Test
+    public void should_NotTrackVisitedBeans_When_BeanHasOnlyLeafProperties() {
+        Bean bean = new Bean();
+        bean.setTitle("foo");
+        Employee employee = new Employee();
+        employee.setId(1);
+        employee.setCompany(new Company());
+        employee.getCompany().setId(2);
+        employee.getCompany().setEmployees(Arrays.asList(employee));
+
+        Assert.assertNull(helper.checkValueForType(bean, Bean.class));
+        Assert.assertNull(helper.checkValueForType(employee, Employee.class));
+
+        Assert.assertFalse(helper.hasVisited(bean, Bean.class));
+        Assert.assertTrue(helper.hasVisited(employee, Employee.class));
+    }
+
     public List<String> parametrizedListMethod(String... args) {
         final List<String> list = new ArrayList<String>();
         for (String arg : args) {
@@ -422,6 +508,17 @@ public class ExplicitNullableTypeCheckerTest {
         return list;
     }
 
+    public List<Person> personListMethod() {
+        List<Person> persons = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Person person = new Person();
+            person.setId(i);
+            person.setName("Person " + i);
+            persons.add(person);
+        }
+        return persons;
+    }
+
     public Map<String, Date> parametrizedMapMethod(Date... args) {
         final Map<String, Date> map = new HashMap<String, Date>();
         for (Date arg : args) {
@@ -457,6 +554,28 @@ public class ExplicitNullableTypeCheckerTest {
         return "";
     }
 
+    /**
+     * Method for testing
+     */
+    public CompletableFuture<String> stringFuture() {
+        return CompletableFuture.completedFuture("");
+    }
+
+    /**
+     * Method for testing
+     */
+    @Nullable
+    public CompletableFuture<String> stringFutureNullable() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Method for testing
+     */
+    public CompletionStage<List<String>> listStage() {
+        return CompletableFuture.completedFuture(new ArrayList<>());
+    }
+
     static private class Bean {
         static String staticProperty;
         @JsonIgnore
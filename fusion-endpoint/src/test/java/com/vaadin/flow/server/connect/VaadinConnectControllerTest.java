@@ -1,11 +1,15 @@
 package com.vaadin.flow.server.connect;
 
+import javax.annotation.Nullable;
 import javax.annotation.security.DenyAll;
 import javax.annotation.security.PermitAll;
 import javax.annotation.security.RolesAllowed;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 import javax.servlet.ServletContext;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpSession;
+import javax.validation.Valid;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 
@@ -13,15 +17,30 @@ import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
 import java.security.Principal;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -41,19 +60,26 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 
 import com.vaadin.flow.internal.CurrentInstance;
 import com.vaadin.flow.server.VaadinRequest;
 import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.VaadinServletService;
 import com.vaadin.flow.server.connect.auth.AnonymousAllowed;
 import com.vaadin.flow.server.connect.auth.VaadinConnectAccessChecker;
 import com.vaadin.flow.server.connect.exception.EndpointException;
 import com.vaadin.flow.server.connect.exception.EndpointValidationException;
 import com.vaadin.flow.server.connect.generator.endpoints.superclassmethods.PersonEndpoint;
+import com.vaadin.flow.server.connect.reactive.Publisher;
+import com.vaadin.flow.server.connect.reactive.Subscription;
 import com.vaadin.flow.server.connect.testendpoint.BridgeMethodTestEndpoint;
 import com.vaadin.flow.server.startup.ApplicationConfiguration;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
@@ -171,6 +197,127 @@ public class VaadinConnectControllerTest {
         }
     }
 
+    @Endpoint
+    public static class StreamingTestClass {
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        public Stream<Integer> numbers(int count) {
+            return IntStream.range(0, count).boxed()
+                    .onClose(() -> closed.set(true));
+        }
+
+        public Iterator<String> letters() {
+            return Arrays.asList("a", "b").iterator();
+        }
+
+        public Stream<Integer> failing() {
+            return Stream.of(1, 2).map(number -> {
+                if (number == 2) {
+                    throw new IllegalStateException("Lazy failure");
+                }
+                return number;
+            });
+        }
+
+        public List<String> echo(List<String> values) {
+            return values;
+        }
+    }
+
+    @Endpoint
+    public static class BatchTestClass {
+        private final CountDownLatch started = new CountDownLatch(2);
+
+        public boolean awaitOtherCall() throws InterruptedException {
+            started.countDown();
+            return started.await(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Endpoint
+    public static class StaticMethodTestClass {
+        public static String staticMethod(int parameter) {
+            return parameter + "-static";
+        }
+    }
+
+    public static class ValidatedBean {
+        private final AtomicInteger reads = new AtomicInteger();
+
+        @Min(1)
+        @JsonIgnore
+        public int getValue() {
+            reads.incrementAndGet();
+            return 1;
+        }
+
+        public String getName() {
+            return "bean";
+        }
+    }
+
+    @Endpoint
+    public static class ValidationTestClass {
+        private final ValidatedBean bean = new ValidatedBean();
+
+        @Valid
+        public ValidatedBean validated() {
+            return bean;
+        }
+
+        public ValidatedBean unconstrained() {
+            return bean;
+        }
+    }
+
+    @Endpoint
+    public static class AsyncTestClass {
+        private final CompletableFuture<String> pending = new CompletableFuture<>();
+
+        public CompletableFuture<String> pending() {
+            return pending;
+        }
+
+        public CompletionStage<List<Integer>> completed() {
+            return CompletableFuture.completedFuture(Arrays.asList(1, 2));
+        }
+
+        public CompletableFuture<String> nullResult() {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Nullable
+        public CompletableFuture<String> nullableResult() {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        public CompletableFuture<String> failing() {
+            CompletableFuture<String> future = new CompletableFuture<>();
+            future.completeExceptionally(
+                    new EndpointException("Asynchronous failure"));
+            return future;
+        }
+
+        public Publisher<String> letters() {
+            return subscriber -> {
+                subscriber.onSubscribe(new Subscription() {
+                    @Override
+                    public void request(long n) {
+                        // All the items are sent below
+                    }
+
+                    @Override
+                    public void cancel() {
+                        // NOOP
+                    }
+                });
+                subscriber.onNext("a");
+                subscriber.onNext("b");
+                subscriber.onComplete();
+            };
+        }
+    }
+
     @Rule
     public final ExpectedException exception = ExpectedException.none();
 
@@ -1132,6 +1279,568 @@ public class VaadinConnectControllerTest {
         assertEquals("\"Hello\"", response.getBody());
     }
 
+    @Test
+    public void should_WriteResponseToOutputStream_When_EverythingIsCorrect()
+            throws Exception {
+        MockHttpServletResponse response = serveStreamingEndpoint(
+                TEST_ENDPOINT, TEST_ENDPOINT_NAME, TEST_METHOD.getName(),
+                "{\"value\": 222}");
+
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals("\"222-test\"", response.getContentAsString());
+        assertTrue(response.getContentType().startsWith("application/json"));
+    }
+
+    @Test
+    public void should_WriteStreamElementsAsArray_When_StreamIsReturned()
+            throws Exception {
+        StreamingTestClass endpoint = new StreamingTestClass();
+
+        MockHttpServletResponse response = serveStreamingEndpoint(endpoint,
+                "StreamingTestClass", "numbers", "{\"count\": 3}");
+
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals("[0,1,2]", response.getContentAsString());
+        assertTrue("Returned stream should be closed", endpoint.closed.get());
+    }
+
+    @Test
+    public void should_WriteIteratorElementsAsArray_When_IteratorIsReturned()
+            throws Exception {
+        MockHttpServletResponse response = serveStreamingEndpoint(
+                new StreamingTestClass(), "StreamingTestClass", "letters",
+                "");
+
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals("[\"a\",\"b\"]", response.getContentAsString());
+    }
+
+    @Test
+    public void should_Return500_When_StreamFailsWhileWritten()
+            throws Exception {
+        MockHttpServletResponse response = serveStreamingEndpoint(
+                new StreamingTestClass(), "StreamingTestClass", "failing",
+                "");
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                response.getStatus());
+        assertEquals(
+                "{\"message\":\"Endpoint 'StreamingTestClass' method 'failing' execution failure\"}",
+                response.getContentAsString());
+    }
+
+    @Test
+    public void should_Return500_When_StreamFailsAndBodyIsAlreadyParsed() {
+        ResponseEntity<String> response = createVaadinController(
+                new StreamingTestClass()).serveEndpoint("StreamingTestClass",
+                        "failing", createRequestParameters("{}"),
+                        requestMock);
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR,
+                response.getStatusCode());
+        assertTrue(response.getBody().contains("execution failure"));
+    }
+
+    @Test
+    public void should_ReturnStreamElementsAsArray_When_BodyIsAlreadyParsed() {
+        ResponseEntity<String> response = createVaadinController(
+                new StreamingTestClass()).serveEndpoint("StreamingTestClass",
+                        "numbers", createRequestParameters("{\"count\": 2}"),
+                        requestMock);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("[0,1]", response.getBody());
+    }
+
+    @Test
+    public void should_BindParametersFromStream_When_ParametersAreStructured()
+            throws Exception {
+        MockHttpServletResponse response = serveStreamingEndpoint(
+                new StreamingTestClass(), "StreamingTestClass", "echo",
+                "{\"values\": [\"x\", \"y\"]}");
+
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals("[\"x\",\"y\"]", response.getContentAsString());
+    }
+
+    @Test
+    public void should_Return400_When_RequestBodyIsNotAnObject()
+            throws Exception {
+        MockHttpServletResponse response = serveStreamingEndpoint(
+                TEST_ENDPOINT, TEST_ENDPOINT_NAME, TEST_METHOD.getName(),
+                "[222]");
+
+        assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatus());
+        assertEndpointInfoPresent(response.getContentAsString());
+    }
+
+    @Test
+    public void should_Return404WithoutBody_When_StreamingEndpointIsMissing()
+            throws Exception {
+        MockHttpServletResponse response = serveStreamingEndpoint(
+                TEST_ENDPOINT, "missing", TEST_METHOD.getName(), "");
+
+        assertEquals(HttpStatus.NOT_FOUND.value(), response.getStatus());
+        assertEquals("", response.getContentAsString());
+    }
+
+    @Test
+    public void should_CompleteResponseAsynchronously_When_FutureIsPending()
+            throws Exception {
+        AsyncTestClass endpoint = new AsyncTestClass();
+        MockHttpServletRequest request = createStreamingRequest(
+                "AsyncTestClass", "pending", "");
+        request.setAsyncSupported(true);
+
+        MockHttpServletResponse response = serveStreamingEndpoint(endpoint,
+                request);
+
+        assertTrue("Request should be asynchronous", request.isAsyncStarted());
+        assertEquals("", response.getContentAsString());
+
+        endpoint.pending.complete("Done");
+
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals("\"Done\"", response.getContentAsString());
+        Assert.assertNull(CurrentInstance.get(VaadinRequest.class));
+    }
+
+    @Test
+    public void should_WriteResultDirectly_When_FutureIsCompleted()
+            throws Exception {
+        MockHttpServletRequest request = createStreamingRequest(
+                "AsyncTestClass", "completed", "");
+        request.setAsyncSupported(true);
+
+        MockHttpServletResponse response = serveStreamingEndpoint(
+                new AsyncTestClass(), request);
+
+        Assert.assertFalse(request.isAsyncStarted());
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals("[1,2]", response.getContentAsString());
+    }
+
+    @Test
+    public void should_WaitForResult_When_BodyIsAlreadyParsed() {
+        AsyncTestClass endpoint = new AsyncTestClass();
+        new Thread(() -> endpoint.pending.complete("Later")).start();
+
+        ResponseEntity<String> response = createVaadinController(endpoint)
+                .serveEndpoint("AsyncTestClass", "pending",
+                        createRequestParameters("{}"), requestMock);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"Later\"", response.getBody());
+    }
+
+    @Test
+    public void should_ReturnException_When_FutureCompletesWithImplicitNull() {
+        ResponseEntity<String> response = createVaadinController(
+                new AsyncTestClass(), null, null, null,
+                new ExplicitNullableTypeChecker()).serveEndpoint(
+                        "AsyncTestClass", "nullResult",
+                        createRequestParameters("{}"), requestMock);
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR,
+                response.getStatusCode());
+        assertTrue(response.getBody().contains("nullResult"));
+        assertTrue(response.getBody().contains("java.lang.String"));
+    }
+
+    @Test
+    public void should_ReturnNull_When_NullableFutureCompletesWithNull() {
+        ResponseEntity<String> response = createVaadinController(
+                new AsyncTestClass(), null, null, null,
+                new ExplicitNullableTypeChecker()).serveEndpoint(
+                        "AsyncTestClass", "nullableResult",
+                        createRequestParameters("{}"), requestMock);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("null", response.getBody());
+    }
+
+    @Test
+    public void should_Return400_When_FutureCompletesWithEndpointException()
+            throws Exception {
+        MockHttpServletResponse response = serveStreamingEndpoint(
+                new AsyncTestClass(), "AsyncTestClass", "failing", "");
+
+        assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatus());
+        assertTrue(response.getContentAsString()
+                .contains("Asynchronous failure"));
+    }
+
+    @Test
+    public void should_WriteAllElements_When_PublisherIsReturned()
+            throws Exception {
+        MockHttpServletResponse response = serveStreamingEndpoint(
+                new AsyncTestClass(), "AsyncTestClass", "letters", "");
+
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals("[\"a\",\"b\"]", response.getContentAsString());
+    }
+
+    @Test
+    public void should_ValidateReturnValue_When_MethodHasConstraints() {
+        ValidationTestClass endpoint = new ValidationTestClass();
+
+        ResponseEntity<String> response = createVaadinController(endpoint)
+                .serveEndpoint("ValidationTestClass", "validated",
+                        createRequestParameters("{}"), requestMock);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, endpoint.bean.reads.get());
+    }
+
+    @Test
+    public void should_NotValidateReturnValue_When_MethodHasNoConstraints() {
+        ValidationTestClass endpoint = new ValidationTestClass();
+
+        ResponseEntity<String> response = createVaadinController(endpoint)
+                .serveEndpoint("ValidationTestClass", "unconstrained",
+                        createRequestParameters("{}"), requestMock);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(0, endpoint.bean.reads.get());
+    }
+
+    @Test
+    public void should_NotValidateReturnValue_When_ValidationIsDisabled() {
+        ValidationTestClass endpoint = new ValidationTestClass();
+        VaadinEndpointProperties properties = new VaadinEndpointProperties();
+        properties.setReturnValueValidationRate(0);
+        VaadinConnectController controller = createVaadinController(endpoint);
+        controller.setVaadinEndpointProperties(properties);
+
+        for (int i = 0; i < 10; i++) {
+            controller.serveEndpoint("ValidationTestClass", "validated",
+                    createRequestParameters("{}"), requestMock);
+        }
+
+        assertEquals(0, endpoint.bean.reads.get());
+    }
+
+    @Test
+    public void should_ValidateSomeReturnValues_When_ValidationIsSampled() {
+        ValidationTestClass endpoint = new ValidationTestClass();
+        VaadinEndpointProperties properties = new VaadinEndpointProperties();
+        properties.setReturnValueValidationRate(0.5);
+        VaadinConnectController controller = createVaadinController(endpoint);
+        controller.setVaadinEndpointProperties(properties);
+
+        for (int i = 0; i < 200; i++) {
+            controller.serveEndpoint("ValidationTestClass", "validated",
+                    createRequestParameters("{}"), requestMock);
+        }
+
+        int reads = endpoint.bean.reads.get();
+        assertTrue("Some return values should be validated, got " + reads,
+                reads > 0);
+        assertTrue("Some return values should not be validated, got " + reads,
+                reads < 200);
+    }
+
+    @Test
+    public void should_InvokeStaticMethod_When_EndpointHasStaticMethod() {
+        ResponseEntity<String> response = createVaadinController(
+                new StaticMethodTestClass()).serveEndpoint(
+                        "StaticMethodTestClass", "staticMethod",
+                        createRequestParameters("{\"value\": 222}"),
+                        requestMock);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"222-static\"", response.getBody());
+    }
+
+    @Test
+    public void should_ReuseParameterReaders_When_MethodIsCalledAgain() {
+        ObjectMapper mapper = Mockito.spy(new ObjectMapper());
+        VaadinConnectController controller = createVaadinController(
+                TEST_ENDPOINT, mapper);
+
+        for (int i = 0; i < 3; i++) {
+            ResponseEntity<String> response = controller.serveEndpoint(
+                    TEST_ENDPOINT_NAME, TEST_METHOD.getName(),
+                    createRequestParameters("{\"value\": " + i + "}"),
+                    requestMock);
+            assertEquals(String.format("\"%d-test\"", i),
+                    response.getBody());
+        }
+
+        verify(mapper, times(1)).readerFor(any(JavaType.class));
+    }
+
+    @Test
+    public void should_ReturnResultsInOrder_When_BatchHasSeveralCalls()
+            throws IOException {
+        MockHttpServletResponse response = serveBatch(TEST_ENDPOINT,
+                "[{\"endpoint\": \"TestClass\", \"method\": \"testMethod\", \"params\": {\"value\": 1}},"
+                        + "{\"endpoint\": \"testclass\", \"method\": \"testanonymousmethod\"},"
+                        + "{\"endpoint\": \"TestClass\", \"method\": \"testMethod\", \"params\": {\"value\": 2}}]");
+
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals("[{\"status\":200,\"body\":\"1-test\"},"
+                + "{\"status\":200,\"body\":\"Hello, anonymous user!\"},"
+                + "{\"status\":200,\"body\":\"2-test\"}]",
+                response.getContentAsString());
+    }
+
+    @Test
+    public void should_ReturnErrorOnlyForFailingCall_When_BatchCallFails()
+            throws IOException {
+        MockHttpServletResponse response = serveBatch(TEST_ENDPOINT,
+                "[{\"endpoint\": \"Missing\", \"method\": \"testMethod\"},"
+                        + "{\"endpoint\": \"TestClass\", \"method\": \"testMethod\", \"params\": {\"value\": \"a\"}},"
+                        + "{\"endpoint\": \"TestClass\"},"
+                        + "{\"endpoint\": \"TestClass\", \"method\": \"testMethod\", \"params\": {\"value\": 3}}]");
+
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        JsonNode results = new ObjectMapper()
+                .readTree(response.getContentAsString());
+        assertEquals(4, results.size());
+        assertEquals(404, results.get(0).get("status").asInt());
+        assertFalse(results.get(0).has("body"));
+        assertEquals(400, results.get(1).get("status").asInt());
+        assertEquals(EndpointValidationException.class.getName(),
+                results.get(1).get("body").get("type").asText());
+        assertEquals(400, results.get(2).get("status").asInt());
+        assertTrue(results.get(2).get("body").get("message").asText()
+                .contains("'endpoint' and 'method'"));
+        assertEquals(200, results.get(3).get("status").asInt());
+        assertEquals("3-test", results.get(3).get("body").asText());
+    }
+
+    @Test
+    public void should_ReturnErrorOnlyForFailingCall_When_BatchStreamFails()
+            throws IOException {
+        MockHttpServletResponse response = serveBatch(
+                new StreamingTestClass(),
+                "[{\"endpoint\": \"StreamingTestClass\", \"method\": \"failing\"},"
+                        + "{\"endpoint\": \"StreamingTestClass\", \"method\": \"letters\"}]");
+
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals("[{\"status\":500,\"body\":{\"message\":"
+                + "\"Endpoint 'StreamingTestClass' method 'failing' execution failure\"}},"
+                + "{\"status\":200,\"body\":[\"a\",\"b\"]}]",
+                response.getContentAsString());
+    }
+
+    @Test
+    public void should_Return400_When_BatchIsNotArray() throws IOException {
+        MockHttpServletResponse response = serveBatch(TEST_ENDPOINT,
+                "{\"endpoint\": \"TestClass\", \"method\": \"testMethod\"}");
+
+        assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatus());
+        assertTrue(response.getContentAsString().contains("JSON array"));
+    }
+
+    @Test
+    public void should_WaitForAsyncResults_When_BatchHasAsyncCalls()
+            throws IOException {
+        AsyncTestClass endpoint = new AsyncTestClass();
+        endpoint.pending.complete("done");
+
+        MockHttpServletResponse response = serveBatch(endpoint,
+                "[{\"endpoint\": \"AsyncTestClass\", \"method\": \"pending\"},"
+                        + "{\"endpoint\": \"AsyncTestClass\", \"method\": \"failing\"},"
+                        + "{\"endpoint\": \"AsyncTestClass\", \"method\": \"completed\"}]");
+
+        JsonNode results = new ObjectMapper()
+                .readTree(response.getContentAsString());
+        assertEquals("done", results.get(0).get("body").asText());
+        assertEquals(400, results.get(1).get("status").asInt());
+        assertEquals("Asynchronous failure",
+                results.get(1).get("body").get("message").asText());
+        assertEquals("[1,2]", results.get(2).get("body").toString());
+    }
+
+    @Test
+    public void should_ExecuteCallsConcurrently_When_BatchParallelismIsSet()
+            throws IOException {
+        VaadinServletService service = mock(VaadinServletService.class);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        when(service.getExecutor()).thenReturn(executor);
+        VaadinEndpointProperties properties = new VaadinEndpointProperties();
+        properties.setBatchParallelism(2);
+        VaadinConnectController controller = createVaadinController(
+                new BatchTestClass());
+        controller.setVaadinEndpointProperties(properties);
+        MockHttpServletRequest request = createStreamingRequest("", "batch",
+                "[{\"endpoint\": \"BatchTestClass\", \"method\": \"awaitOtherCall\"},"
+                        + "{\"endpoint\": \"BatchTestClass\", \"method\": \"awaitOtherCall\"}]");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        CurrentInstance.set(VaadinService.class, service);
+        try {
+            controller.serveBatch(request, response);
+        } finally {
+            CurrentInstance.clearAll();
+            executor.shutdownNow();
+        }
+
+        assertEquals("[{\"status\":200,\"body\":true},"
+                + "{\"status\":200,\"body\":true}]",
+                response.getContentAsString());
+    }
+
+    @Test
+    public void should_CallRoleAllowedMethods_When_AuthenticatedUserCallsThemInParallelBatch()
+            throws IOException {
+        VaadinServletService service = mock(VaadinServletService.class);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        when(service.getExecutor()).thenReturn(executor);
+        VaadinEndpointProperties properties = new VaadinEndpointProperties();
+        properties.setBatchParallelism(2);
+        VaadinConnectController controller = createVaadinController(
+                TEST_ENDPOINT, new VaadinConnectAccessChecker());
+        controller.setVaadinEndpointProperties(properties);
+        Thread requestThread = Thread.currentThread();
+        MockHttpServletRequest request = new MockHttpServletRequest("POST",
+                "/batch") {
+            // Like with Spring Security, the user is bound to the thread
+            // handling the request
+            @Override
+            public Principal getUserPrincipal() {
+                return Thread.currentThread() == requestThread ? principal
+                        : null;
+            }
+
+            @Override
+            public boolean isUserInRole(String role) {
+                return Thread.currentThread() == requestThread
+                        && "FOO_ROLE".equals(role);
+            }
+        };
+        request.setContent(
+                ("[{\"endpoint\": \"TestClass\", \"method\": \"testRoleAllowed\"},"
+                        + "{\"endpoint\": \"TestClass\", \"method\": \"testRoleAllowed\"}]")
+                                .getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        CurrentInstance.set(VaadinService.class, service);
+        try {
+            controller.serveBatch(request, response);
+        } finally {
+            CurrentInstance.clearAll();
+            executor.shutdownNow();
+        }
+
+        assertEquals("[{\"status\":200,\"body\":\"Hello, user in role!\"},"
+                + "{\"status\":200,\"body\":\"Hello, user in role!\"}]",
+                response.getContentAsString());
+    }
+
+    @Test
+    public void should_CompleteBatchResponseAsynchronously_When_CallIsPending()
+            throws IOException {
+        AsyncTestClass endpoint = new AsyncTestClass();
+        MockHttpServletRequest request = createStreamingRequest("", "batch",
+                "[{\"endpoint\": \"AsyncTestClass\", \"method\": \"pending\"},"
+                        + "{\"endpoint\": \"AsyncTestClass\", \"method\": \"completed\"}]");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        createVaadinController(endpoint).serveBatch(request, response);
+
+        assertTrue("Request should be asynchronous", request.isAsyncStarted());
+        assertEquals("", response.getContentAsString());
+
+        endpoint.pending.complete("done");
+
+        assertEquals("[{\"status\":200,\"body\":\"done\"},"
+                + "{\"status\":200,\"body\":[1,2]}]",
+                response.getContentAsString());
+        Assert.assertNull(CurrentInstance.get(VaadinRequest.class));
+    }
+
+    @Test
+    public void should_Return503_When_BatchTimesOut() throws IOException {
+        AsyncTestClass endpoint = new AsyncTestClass();
+        MockHttpServletRequest request = createStreamingRequest("", "batch",
+                "[{\"endpoint\": \"AsyncTestClass\", \"method\": \"pending\"}]");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        createVaadinController(endpoint).serveBatch(request, response);
+
+        for (AsyncListener listener : ((MockAsyncContext) request
+                .getAsyncContext()).getListeners()) {
+            listener.onTimeout(new AsyncEvent(request.getAsyncContext()));
+        }
+        endpoint.pending.complete("late");
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(),
+                response.getStatus());
+        assertTrue(response.getContentAsString()
+                .contains("did not complete in time"));
+    }
+
+    @Test
+    public void should_Return500ForEachCall_When_BatchExecutionIsRejected()
+            throws IOException {
+        VaadinServletService service = mock(VaadinServletService.class);
+        when(service.getExecutor()).thenReturn(command -> {
+            throw new RejectedExecutionException("Executor is shut down");
+        });
+        VaadinEndpointProperties properties = new VaadinEndpointProperties();
+        properties.setBatchParallelism(2);
+        VaadinConnectController controller = createVaadinController(
+                TEST_ENDPOINT);
+        controller.setVaadinEndpointProperties(properties);
+        MockHttpServletRequest request = createStreamingRequest("", "batch",
+                "[{\"endpoint\": \"TestClass\", \"method\": \"testMethod\", \"params\": {\"value\": 1}},"
+                        + "{\"endpoint\": \"TestClass\", \"method\": \"testMethod\", \"params\": {\"value\": 2}}]");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        CurrentInstance.set(VaadinService.class, service);
+        try {
+            controller.serveBatch(request, response);
+        } finally {
+            CurrentInstance.clearAll();
+        }
+
+        Assert.assertFalse(request.isAsyncStarted());
+        JsonNode results = new ObjectMapper()
+                .readTree(response.getContentAsString());
+        assertEquals(2, results.size());
+        assertEquals(500, results.get(0).get("status").asInt());
+        assertEquals(500, results.get(1).get("status").asInt());
+    }
+
+    private MockHttpServletResponse serveBatch(Object endpoint, String body)
+            throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        createVaadinController(endpoint).serveBatch(
+                createStreamingRequest("", "batch", body), response);
+        Assert.assertNull(CurrentInstance.get(VaadinRequest.class));
+        return response;
+    }
+
+    private MockHttpServletResponse serveStreamingEndpoint(Object endpoint,
+            String endpointName, String methodName, String body)
+            throws IOException {
+        return serveStreamingEndpoint(endpoint,
+                createStreamingRequest(endpointName, methodName, body));
+    }
+
+    private MockHttpServletResponse serveStreamingEndpoint(Object endpoint,
+            MockHttpServletRequest request) throws IOException {
+        String[] path = request.getRequestURI().split("/");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        createVaadinController(endpoint).serveEndpoint(path[1], path[2],
+                request, response);
+        Assert.assertNull(CurrentInstance.get(VaadinRequest.class));
+        return response;
+    }
+
+    private MockHttpServletRequest createStreamingRequest(String endpointName,
+            String methodName, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST",
+                "/" + endpointName + "/" + methodName);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
     private void assertEndpointInfoPresent(String responseBody) {
         assertTrue(String.format(
                 "Response body '%s' should have endpoint information in it",
@@ -1195,10 +1904,12 @@ public class VaadinConnectControllerTest {
         }
 
         ApplicationContext mockApplicationContext = mockApplicationContext(endpoint);
-        VaadinConnectController connectController = Mockito.spy(
-            new VaadinConnectController(vaadinEndpointMapper, endpointNameChecker, 
-                explicitNullableTypeChecker, mockApplicationContext)
-        );
+        VaadinConnectController controller = new VaadinConnectController(
+                vaadinEndpointMapper, endpointNameChecker,
+                explicitNullableTypeChecker, mockApplicationContext);
+        controller.setAsyncEndpointResults(new AsyncEndpointResults(
+                Publisher.class.getPackage().getName()));
+        VaadinConnectController connectController = Mockito.spy(controller);
         Mockito.doReturn(accessChecker).when(connectController).getAccessChecker(any());
         return connectController;
     }
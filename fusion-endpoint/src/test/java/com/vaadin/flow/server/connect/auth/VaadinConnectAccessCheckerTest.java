@@ -500,4 +500,39 @@ public class VaadinConnectAccessCheckerTest {
         Method securityMethod = Test.class.getMethod("test");
         assertEquals(securityMethod, checker.getSecurityTarget(securityMethod));
     }
+
+    @Test
+    public void should_CheckUserRolesOnEveryCall_When_MethodAlreadyChecked()
+            throws Exception {
+        class Test {
+            @RolesAllowed(ROLE_USER)
+            public void test() {
+            }
+        }
+        shouldPass(Test.class);
+
+        when(requestMock.isUserInRole(ROLE_USER)).thenReturn(false);
+        shouldFail(Test.class);
+
+        when(requestMock.isUserInRole(ROLE_USER)).thenReturn(true);
+        shouldPass(Test.class);
+
+        createAnonymousContext();
+        shouldFail(Test.class);
+    }
+
+    @Test
+    public void should_CheckRequestOnEveryCall_When_MethodAlreadyChecked()
+            throws Exception {
+        @AnonymousAllowed
+        class Test {
+            public void test() {
+            }
+        }
+        createAnonymousContext();
+        shouldPass(Test.class);
+
+        createDifferentSessionToken();
+        shouldFail(Test.class);
+    }
 }
@@ -74,6 +74,24 @@ public class VaadinConnectClientGeneratorTest {
         Assert.assertEquals(expectedJson, actualJson);
     }
 
+    @Test
+    public void should_GenerateBatchingConnectClient_When_ClientBatchingEnabled()
+            throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty(VaadinConnectClientGenerator.CLIENT_BATCHING,
+                "true");
+        VaadinConnectClientGenerator generator = new VaadinConnectClientGenerator(
+                properties);
+
+        generator.generateVaadinConnectClientFile(outputPath);
+
+        String actualJson = StringUtils.toEncodedString(
+                Files.readAllBytes(outputPath), StandardCharsets.UTF_8).trim();
+        String expectedJson = TestUtils.readResource(
+                getClass().getResource("expected-connect-client-batch.ts"));
+        Assert.assertEquals(expectedJson, actualJson);
+    }
+
     @Test
     public void relativizeEndpointPrefixWithUrlMapping_should_work_with_both_default_values(){
         VaadinConnectClientGenerator generator = new VaadinConnectClientGenerator(
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.connect.generator.endpoints.asyncendpoint;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import com.vaadin.flow.server.connect.Endpoint;
+
+@Endpoint
+public class AsyncEndpoint {
+    public CompletableFuture<String> getMessage(String name) {
+        return CompletableFuture.completedFuture("Hello " + name);
+    }
+
+    public CompletionStage<List<Integer>> getNumbers() {
+        return CompletableFuture.completedFuture(Arrays.asList(1, 2, 3));
+    }
+
+    public CompletableFuture<Result> getResult() {
+        return CompletableFuture.completedFuture(new Result());
+    }
+
+    public static class Result {
+        public String text;
+        public int count;
+    }
+}
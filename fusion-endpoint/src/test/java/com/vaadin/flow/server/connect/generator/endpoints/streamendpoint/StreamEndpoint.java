@@ -0,0 +1,38 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.connect.generator.endpoints.streamendpoint;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import com.vaadin.flow.server.connect.Endpoint;
+
+@Endpoint
+public class StreamEndpoint {
+    public Stream<Result> getResults() {
+        return Stream.of(new Result());
+    }
+
+    public Iterator<String> getNames() {
+        return Arrays.asList("foo", "bar").iterator();
+    }
+
+    public static class Result {
+        public String text;
+        public int count;
+    }
+}
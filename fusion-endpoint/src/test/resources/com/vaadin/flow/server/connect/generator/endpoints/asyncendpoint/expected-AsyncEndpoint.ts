@@ -0,0 +1,26 @@
+/**
+ * This module is generated from AsyncEndpoint.java
+ * All changes to this file are overridden. Please consider to make changes in the corresponding Java file if necessary.
+ * @module AsyncEndpoint
+ */
+
+// @ts-ignore
+import client from './connect-client.default';
+import Result from './com/vaadin/flow/server/connect/generator/endpoints/asyncendpoint/AsyncEndpoint/Result';
+
+function _getMessage(
+  name: string
+): Promise<string> {
+  return client.call('AsyncEndpoint', 'getMessage', {name});
+}
+export {_getMessage as getMessage};
+
+function _getNumbers(): Promise<Array<number>> {
+  return client.call('AsyncEndpoint', 'getNumbers');
+}
+export {_getNumbers as getNumbers};
+
+function _getResult(): Promise<Result> {
+  return client.call('AsyncEndpoint', 'getResult');
+}
+export {_getResult as getResult};
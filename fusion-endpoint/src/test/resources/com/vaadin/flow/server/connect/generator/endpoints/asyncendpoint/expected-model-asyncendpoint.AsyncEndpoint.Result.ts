@@ -0,0 +1,8 @@
+/**
+ * This module is generated from com.vaadin.flow.server.connect.generator.endpoints.asyncendpoint.AsyncEndpoint.Result.
+ * All changes to this file are overridden. Please consider to make changes in the corresponding Java file if necessary.
+ */
+export default interface Result {
+  count: number;
+  text: string;
+}
@@ -0,0 +1,19 @@
+/**
+ * This module is generated from StreamEndpoint.java
+ * All changes to this file are overridden. Please consider to make changes in the corresponding Java file if necessary.
+ * @module StreamEndpoint
+ */
+
+// @ts-ignore
+import client from './connect-client.default';
+import Result from './com/vaadin/flow/server/connect/generator/endpoints/streamendpoint/StreamEndpoint/Result';
+
+function _getNames(): Promise<Array<string>> {
+  return client.call('StreamEndpoint', 'getNames');
+}
+export {_getNames as getNames};
+
+function _getResults(): Promise<Array<Result>> {
+  return client.call('StreamEndpoint', 'getResults');
+}
+export {_getResults as getResults};
@@ -0,0 +1,3 @@
+import {ConnectClient} from '@vaadin/flow-frontend/Connect';
+const client = new ConnectClient({prefix: 'connect', batch: true});
+export default client;